@@ -9,12 +9,208 @@ repositories {
     mavenCentral()
 }
 
+// JMH benchmarks in src/jmh/java; compiled against the main classes only.
+val jmh: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+
+val jmhVersion = "1.37"
+
 dependencies {
     testImplementation(platform("org.junit:junit-bom:5.10.0"))
     testImplementation("org.junit.jupiter:junit-jupiter")
     testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:$jmhVersion")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:$jmhVersion")
 }
 
 tasks.test {
     useJUnitPlatform()
-}
\ No newline at end of file
+}
+
+// Runs the benchmarks reporting throughput, latency percentiles and, by the
+// GC profiler, the allocation rate. Select benchmarks by a regular expression
+// and pass further JMH options, e.g.:
+//   ./gradlew jmh -Pjmh.includes=Transform1D -Pjmh.args="-p exponent=10,20"
+tasks.register<JavaExec>("jmh") {
+    group = "benchmark"
+    description = "Runs the JMH benchmarks of src/jmh/java."
+    classpath = jmh.runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+    val results = layout.buildDirectory.file("reports/jmh/results.json")
+    outputs.file(results)
+    outputs.upToDateWhen { false }
+    val includes = providers.gradleProperty("jmh.includes").getOrElse(".*")
+    val extra = providers.gradleProperty("jmh.args").getOrElse("")
+    doFirst {
+        results.get().asFile.parentFile.mkdirs()
+        args(listOf("-prof", "gc", "-rf", "json", "-rff", results.get().asFile.path)
+                + extra.split(" ").filter { it.isNotBlank() }
+                + includes)
+    }
+}
+
+// Performance regression gate: jmhGate runs a fast subset of the transform
+// benchmarks and compares throughput and allocation per benchmark and its
+// parameters (transform, wavelet, size) against src/jmh/baseline.json. It fails
+// if throughput drops or allocation rises beyond the tolerance of the baseline
+// (or -Pjmh.tolerance.throughput / -Pjmh.tolerance.allocation), and writes a
+// machine-readable diff to build/reports/jmh/gate-diff.json. Benchmarks
+// missing in the baseline, or in the run, fail it too, unless
+// -Pjmh.allowUnmatched=true. jmhBaseline stores the results of the same
+// subset as new baseline.
+val jmhGateResults = layout.buildDirectory.file("reports/jmh/gate.json")
+val jmhGateDiff = layout.buildDirectory.file("reports/jmh/gate-diff.json")
+val jmhBaselineFile = layout.projectDirectory.file("src/jmh/baseline.json")
+
+val jmhGateRun = tasks.register<JavaExec>("jmhGateRun") {
+    group = "benchmark"
+    description = "Runs the fast subset of the benchmarks for jmhGate and jmhBaseline."
+    classpath = jmh.runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+    outputs.file(jmhGateResults)
+    outputs.upToDateWhen { false }
+    doFirst {
+        jmhGateResults.get().asFile.parentFile.mkdirs()
+        args(listOf(
+                "-bm", "thrpt", "-tu", "ms",
+                "-f", "1", "-wi", "2", "-w", "1s", "-i", "3", "-r", "1s",
+                "-prof", "gc", "-rf", "json", "-rff", jmhGateResults.get().asFile.path,
+                "-p", "transform=Fast Wavelet Transform",
+                "-p", "wavelet=Haar,Daubechies 20,CDF 9/7",
+                "-p", "exponent=10,16",
+                "-p", "size=64",
+                "Transform[123]DBenchmark\\.(forward|reverse)$"))
+    }
+}
+
+/** Throughput in ops/ms and allocation in bytes/op of one benchmark. */
+data class JmhScore(val throughput: Double, val allocation: Double?)
+
+/** Reads a JMH JSON result file, keyed by benchmark and sorted parameters. */
+fun readJmhScores(file: File): Map<String, JmhScore> {
+    @Suppress("UNCHECKED_CAST")
+    val runs = groovy.json.JsonSlurper().parse(file) as List<Map<String, Any?>>
+    return runs.associate { run ->
+        val name = (run["benchmark"] as String).split(".").takeLast(2).joinToString(".")
+        @Suppress("UNCHECKED_CAST")
+        val params = (run["params"] as Map<String, Any?>?).orEmpty().toSortedMap()
+        val key = if (params.isEmpty()) name
+                  else name + ":" + params.entries.joinToString(",") { "${it.key}=${it.value}" }
+        @Suppress("UNCHECKED_CAST")
+        val primary = run["primaryMetric"] as Map<String, Any?>
+        @Suppress("UNCHECKED_CAST")
+        val secondary = (run["secondaryMetrics"] as Map<String, Map<String, Any?>>?).orEmpty()
+        val alloc = (secondary["gc.alloc.rate.norm"] ?: secondary["·gc.alloc.rate.norm"])
+                ?.get("score") as Number?
+        key to JmhScore((primary["score"] as Number).toDouble(), alloc?.toDouble())
+    }
+}
+
+tasks.register("jmhGate") {
+    group = "verification"
+    description = "Fails if the benchmarks of jmhGateRun regress against src/jmh/baseline.json."
+    dependsOn(jmhGateRun)
+    val tolThroughput = providers.gradleProperty("jmh.tolerance.throughput")
+    val tolAllocation = providers.gradleProperty("jmh.tolerance.allocation")
+    val allowUnmatched = providers.gradleProperty("jmh.allowUnmatched")
+    inputs.file(jmhBaselineFile)
+    outputs.file(jmhGateDiff)
+    outputs.upToDateWhen { false }
+    doLast {
+        @Suppress("UNCHECKED_CAST")
+        val baseline = groovy.json.JsonSlurper().parse(jmhBaselineFile.asFile) as Map<String, Any?>
+        @Suppress("UNCHECKED_CAST")
+        val tolerance = (baseline["tolerance"] as Map<String, Any?>?).orEmpty()
+        val maxSlower = tolThroughput.orNull?.toDouble()
+                ?: (tolerance["throughput"] as Number?)?.toDouble() ?: 0.10
+        val maxMoreAlloc = tolAllocation.orNull?.toDouble()
+                ?: (tolerance["allocation"] as Number?)?.toDouble() ?: 0.05
+        @Suppress("UNCHECKED_CAST")
+        val expected = (baseline["benchmarks"] as Map<String, Map<String, Any?>>?).orEmpty()
+        val current = readJmhScores(jmhGateResults.get().asFile)
+
+        val rows = mutableListOf<Map<String, Any?>>()
+        for (key in (expected.keys + current.keys).toSortedSet()) {
+            val base = expected[key]
+            val now = current[key]
+            val baseThroughput = (base?.get("throughput") as Number?)?.toDouble()
+            val baseAllocation = (base?.get("allocation") as Number?)?.toDouble()
+            val issues = mutableListOf<String>()
+            var throughputChange: Double? = null
+            var allocationChange: Double? = null
+            if (now == null) {
+                issues += "missing"
+            } else if (base == null) {
+                issues += "new"
+            } else {
+                if (baseThroughput != null && baseThroughput > 0.0) {
+                    throughputChange = now.throughput / baseThroughput - 1.0
+                    if (throughputChange < -maxSlower) issues += "slower"
+                }
+                if (baseAllocation != null && now.allocation != null) {
+                    allocationChange = if (baseAllocation > 0.0) now.allocation / baseAllocation - 1.0 else null
+                    // a few bytes per operation are noise of the profiler
+                    if (now.allocation > baseAllocation * (1.0 + maxMoreAlloc) + 16.0) issues += "more-allocation"
+                }
+            }
+            rows += linkedMapOf(
+                    "benchmark" to key,
+                    "status" to (if (issues.isEmpty()) "ok" else issues.joinToString(",")),
+                    "baselineThroughput" to baseThroughput,
+                    "throughput" to now?.throughput,
+                    "throughputChange" to throughputChange,
+                    "baselineAllocation" to baseAllocation,
+                    "allocation" to now?.allocation,
+                    "allocationChange" to allocationChange)
+        }
+
+        val regressions = rows.filter { (it["status"] as String).let { s -> "slower" in s || "more-allocation" in s } }
+        // benchmarks without baseline, or baselines not run, would pass
+        // unchecked; they fail unless -Pjmh.allowUnmatched=true
+        val unmatched = rows.filter { it["status"] == "new" || it["status"] == "missing" }
+        val isUnmatchedAllowed = allowUnmatched.orNull?.toBoolean() == true
+        val report = linkedMapOf(
+                "passed" to (regressions.isEmpty() && (unmatched.isEmpty() || isUnmatchedAllowed)),
+                "tolerance" to linkedMapOf("throughput" to maxSlower, "allocation" to maxMoreAlloc),
+                "results" to rows)
+        val reportFile = jmhGateDiff.get().asFile
+        reportFile.parentFile.mkdirs()
+        reportFile.writeText(groovy.json.JsonOutput.prettyPrint(groovy.json.JsonOutput.toJson(report)) + "\n")
+
+        if (unmatched.isNotEmpty()) {
+            val message = "jmhGate: ${unmatched.size} benchmarks not matched by the baseline; " +
+                    "run jmhBaseline to store them:\n" +
+                    unmatched.joinToString("\n") { "  ${it["benchmark"]}: ${it["status"]}" }
+            if (isUnmatchedAllowed)
+                logger.warn(message)
+            else
+                throw GradleException(message)
+        }
+        if (regressions.isNotEmpty())
+            throw GradleException("jmhGate: ${regressions.size} benchmarks regressed, see $reportFile:\n"
+                    + regressions.joinToString("\n") { "  ${it["benchmark"]}: ${it["status"]}" })
+        logger.lifecycle("jmhGate: no regression, report in $reportFile")
+    }
+}
+
+tasks.register("jmhBaseline") {
+    group = "benchmark"
+    description = "Stores the results of jmhGateRun as src/jmh/baseline.json."
+    dependsOn(jmhGateRun)
+    doLast {
+        val file = jmhBaselineFile.asFile
+        @Suppress("UNCHECKED_CAST")
+        val old = if (file.exists()) groovy.json.JsonSlurper().parse(file) as Map<String, Any?> else emptyMap()
+        val scores = readJmhScores(jmhGateResults.get().asFile).toSortedMap()
+        val baseline = linkedMapOf(
+                "tolerance" to (old["tolerance"] ?: linkedMapOf("throughput" to 0.10, "allocation" to 0.05)),
+                "benchmarks" to scores.mapValues { (_, score) ->
+                    linkedMapOf("throughput" to score.throughput, "allocation" to score.allocation)
+                })
+        file.writeText(groovy.json.JsonOutput.prettyPrint(groovy.json.JsonOutput.toJson(baseline)) + "\n")
+        logger.lifecycle("jmhBaseline: stored ${scores.size} benchmarks in $file")
+    }
+}
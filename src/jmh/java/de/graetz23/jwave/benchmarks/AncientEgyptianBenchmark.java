@@ -0,0 +1,90 @@
+/**
+ * JWave is distributed under the MIT License (MIT); this file is part of.
+ *
+ * Copyright (c) 2008-2025 JWave Christian (graetz23@gmail.com)
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.graetz23.jwave.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.graetz23.jwave.exceptions.JWaveException;
+import de.graetz23.jwave.transforms.AncientEgyptianDecomposition;
+import de.graetz23.jwave.transforms.BasicTransform;
+
+/**
+ * 1-D forward and reverse of the Ancient Egyptian Decomposition over FWT at
+ * lengths that are not a power of two; odd lengths split into most parts.
+ *
+ * @author Christian (graetz23@gmail.com)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AncientEgyptianBenchmark {
+
+    @Param({ "Haar", "Daubechies 20" })
+    public String wavelet;
+
+    @Param({ "127", "1001", "4095", "65535", "1048575" })
+    public int length;
+
+    private BasicTransform _basicTransform;
+
+    private double[] _arrTime;
+
+    private double[] _arrHilb;
+
+    @Setup
+    public void setup() throws JWaveException {
+
+        _basicTransform = new AncientEgyptianDecomposition(Benchmarks
+                .transform("Fast Wavelet Transform", wavelet));
+        _arrTime = Benchmarks.array(length);
+        _arrHilb = _basicTransform.forward(_arrTime);
+
+    } // setup
+
+    @Benchmark
+    public double[] forward() throws JWaveException {
+        return _basicTransform.forward(_arrTime);
+    } // forward
+
+    @Benchmark
+    public double[] reverse() throws JWaveException {
+        return _basicTransform.reverse(_arrHilb);
+    } // reverse
+
+} // class
@@ -0,0 +1,161 @@
+/**
+ * JWave is distributed under the MIT License (MIT); this file is part of.
+ *
+ * Copyright (c) 2008-2025 JWave Christian (graetz23@gmail.com)
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.graetz23.jwave.benchmarks;
+
+import java.util.Random;
+
+import de.graetz23.jwave.exceptions.JWaveException;
+import de.graetz23.jwave.exceptions.JWaveFailure;
+import de.graetz23.jwave.transforms.BasicTransform;
+import de.graetz23.jwave.transforms.DiscreteFourierTransform;
+import de.graetz23.jwave.transforms.FastWaveletTransform;
+import de.graetz23.jwave.transforms.WaveletPacketTransform;
+import de.graetz23.jwave.transforms.wavelets.Wavelet;
+import de.graetz23.jwave.transforms.wavelets.WaveletBuilder;
+import de.graetz23.jwave.transforms.wavelets.other.CDF97;
+
+/**
+ * Shared set up of the benchmarks; creates transforms by the same string
+ * identifiers as TransformBuilder and fills arrays by a fixed seed, so that
+ * each run measures the same input.
+ *
+ * @author Christian (graetz23@gmail.com)
+ */
+final class Benchmarks {
+
+    /**
+     * Seed of all random inputs.
+     */
+    static final long SEED = 4711L;
+
+    private Benchmarks() {
+    } // Benchmarks
+
+    /**
+     * Creates a wavelet by its name. CDF 9/7 is refused by WaveletBuilder due to
+     * its odd number of coefficients, but it is measured anyway for its costs
+     * of filtering, so it is created directly.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param waveletName
+     *          identifier as stored in Wavelet object
+     * @return the wavelet
+     * @throws JWaveException
+     *           if the name is not known
+     */
+    static Wavelet wavelet(String waveletName) throws JWaveException {
+
+        if ("CDF 9/7".equals(waveletName))
+            return new CDF97();
+
+        Wavelet wavelet = WaveletBuilder.create(waveletName);
+        if (wavelet == null)
+            throw new JWaveFailure("Benchmarks - unknown wavelet: "
+                    + waveletName);
+        return wavelet;
+
+    } // wavelet
+
+    /**
+     * Creates a transform by its name and the name of a wavelet.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param transformName
+     *          identifier as stored in Transform object
+     * @param waveletName
+     *          identifier as stored in Wavelet object; ignored by DFT
+     * @return the transform
+     * @throws JWaveException
+     *           if a name is not known
+     */
+    static BasicTransform transform(String transformName, String waveletName)
+            throws JWaveException {
+
+        switch (transformName) {
+
+            case "Discrete Fourier Transform":
+                return new DiscreteFourierTransform();
+
+            case "Fast Wavelet Transform":
+                return new FastWaveletTransform(wavelet(waveletName));
+
+            case "Wavelet Packet Transform":
+                return new WaveletPacketTransform(wavelet(waveletName));
+
+            default:
+                throw new JWaveFailure("Benchmarks - unknown transform: "
+                        + transformName);
+
+        } // switch
+
+    } // transform
+
+    /**
+     * @author Christian (graetz23@gmail.com)
+     * @param length
+     *          length of the array
+     * @return array of random values in [0,1[
+     */
+    static double[] array(int length) {
+
+        Random random = new Random(SEED);
+        double[] arr = new double[length];
+        for (int i = 0; i < length; i++)
+            arr[i] = random.nextDouble();
+        return arr;
+
+    } // array
+
+    /**
+     * @author Christian (graetz23@gmail.com)
+     * @return matrix of random values in [0,1[
+     */
+    static double[][] matrix(int noOfRows, int noOfCols) {
+
+        Random random = new Random(SEED);
+        double[][] mat = new double[noOfRows][noOfCols];
+        for (int i = 0; i < noOfRows; i++)
+            for (int j = 0; j < noOfCols; j++)
+                mat[i][j] = random.nextDouble();
+        return mat;
+
+    } // matrix
+
+    /**
+     * @author Christian (graetz23@gmail.com)
+     * @return space of random values in [0,1[
+     */
+    static double[][][] space(int noOfRows, int noOfCols, int noOfLvls) {
+
+        Random random = new Random(SEED);
+        double[][][] spc = new double[noOfRows][noOfCols][noOfLvls];
+        for (int i = 0; i < noOfRows; i++)
+            for (int j = 0; j < noOfCols; j++)
+                for (int k = 0; k < noOfLvls; k++)
+                    spc[i][j][k] = random.nextDouble();
+        return spc;
+
+    } // space
+
+} // class
@@ -0,0 +1,137 @@
+/**
+ * JWave is distributed under the MIT License (MIT); this file is part of.
+ *
+ * Copyright (c) 2008-2025 JWave Christian (graetz23@gmail.com)
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.graetz23.jwave.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.graetz23.jwave.compressions.Compressor;
+import de.graetz23.jwave.compressions.CompressorMagnitude;
+import de.graetz23.jwave.compressions.CompressorPeaksAverage;
+import de.graetz23.jwave.compressions.CompressorTopK;
+import de.graetz23.jwave.exceptions.JWaveException;
+import de.graetz23.jwave.transforms.BasicTransform;
+
+/**
+ * The compressors over 1-D, 2-D, and 3-D Hilbert spaces of a FWT; allocating
+ * the compressed data or thresholding into buffers in a single pass.
+ *
+ * @author Christian (graetz23@gmail.com)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompressorBenchmark {
+
+    @Param({ "Magnitude", "Peaks Average", "Top K" })
+    public String compressor;
+
+    @Param({ "64", "256" })
+    public int size;
+
+    private double[] _arrHilb;
+
+    private double[][] _matHilb;
+
+    private double[][][] _spcHilb;
+
+    private double[] _arrComp;
+
+    private double[][] _matComp;
+
+    private double[][][] _spcComp;
+
+    private Compressor _compressor;
+
+    @Setup
+    public void setup() throws JWaveException {
+
+        BasicTransform fwt = Benchmarks.transform("Fast Wavelet Transform",
+                "Daubechies 20");
+        _arrHilb = fwt.forward(Benchmarks.array(size * size * size));
+        _matHilb = fwt.forward(Benchmarks.matrix(size * 4, size * 4));
+        _spcHilb = fwt.forward(Benchmarks.space(size / 2, size / 2, size / 2));
+
+        _arrComp = new double[_arrHilb.length];
+        _matComp = new double[_matHilb.length][_matHilb[0].length];
+        _spcComp = new double[_spcHilb.length][_spcHilb[0].length][_spcHilb[0][0].length];
+        _compressor = create();
+
+    } // setup
+
+    private Compressor create() {
+
+        if ("Magnitude".equals(compressor))
+            return new CompressorMagnitude(1.);
+        if ("Top K".equals(compressor))
+            return new CompressorTopK(.05);
+        return new CompressorPeaksAverage(1.);
+
+    } // create
+
+    @Benchmark
+    public double[] compress1D() {
+        return create().compress(_arrHilb);
+    } // compress1D
+
+    @Benchmark
+    public double[][] compress2D() {
+        return create().compress(_matHilb);
+    } // compress2D
+
+    @Benchmark
+    public double[][][] compress3D() {
+        return create().compress(_spcHilb);
+    } // compress3D
+
+    @Benchmark
+    public long compressInto1D() {
+        return _compressor.compress(_arrHilb, _arrComp);
+    } // compressInto1D
+
+    @Benchmark
+    public long compressInto2D() {
+        return _compressor.compress(_matHilb, _matComp);
+    } // compressInto2D
+
+    @Benchmark
+    public long compressInto3D() {
+        return _compressor.compress(_spcHilb, _spcComp);
+    } // compressInto3D
+
+} // class
@@ -0,0 +1,121 @@
+/**
+ * JWave is distributed under the MIT License (MIT); this file is part of.
+ *
+ * Copyright (c) 2008-2025 JWave Christian (graetz23@gmail.com)
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.graetz23.jwave.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.graetz23.jwave.TransformPlan;
+import de.graetz23.jwave.TransformPlan.Direction;
+import de.graetz23.jwave.exceptions.JWaveException;
+import de.graetz23.jwave.transforms.BasicTransform;
+
+/**
+ * 1-D forward and reverse of FWT and WPT over arrays of length 2^6 .. 2^24.
+ * Throughput and the percentiles of sampled latencies are reported; run with
+ * -prof gc for the allocation rate, as the jmh task of the build does. The
+ * plan methods execute the matching TransformPlan into a preallocated array.
+ *
+ * @author Christian (graetz23@gmail.com)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Transform1DBenchmark {
+
+    @Param({ "Fast Wavelet Transform", "Wavelet Packet Transform" })
+    public String transform;
+
+    @Param({ "Haar", "Daubechies 2", "Daubechies 20", "Symlet 20",
+            "Coiflet 5", "CDF 9/7" })
+    public String wavelet;
+
+    @Param({ "6", "8", "10", "12", "14", "16", "18", "20", "22", "24" })
+    public int exponent;
+
+    private BasicTransform _basicTransform;
+
+    private double[] _arrTime;
+
+    private double[] _arrHilb;
+
+    private double[] _arrOut;
+
+    private TransformPlan _planForward;
+
+    private TransformPlan _planReverse;
+
+    @Setup
+    public void setup() throws JWaveException {
+
+        _basicTransform = Benchmarks.transform(transform, wavelet);
+        _arrTime = Benchmarks.array(1 << exponent);
+        _arrHilb = _basicTransform.forward(_arrTime);
+        _arrOut = new double[1 << exponent];
+
+        int[] dims = { 1 << exponent };
+        _planForward = new TransformPlan(transform, Benchmarks.wavelet(wavelet),
+                Direction.FORWARD, dims, null);
+        _planReverse = new TransformPlan(transform, Benchmarks.wavelet(wavelet),
+                Direction.REVERSE, dims, null);
+
+    } // setup
+
+    @Benchmark
+    public double[] forward() throws JWaveException {
+        return _basicTransform.forward(_arrTime);
+    } // forward
+
+    @Benchmark
+    public double[] reverse() throws JWaveException {
+        return _basicTransform.reverse(_arrHilb);
+    } // reverse
+
+    @Benchmark
+    public double[] planForward() {
+        _planForward.execute(_arrTime, _arrOut);
+        return _arrOut;
+    } // planForward
+
+    @Benchmark
+    public double[] planReverse() {
+        _planReverse.execute(_arrHilb, _arrOut);
+        return _arrOut;
+    } // planReverse
+
+} // class
@@ -0,0 +1,559 @@
+/**
+ * JWave is distributed under the MIT License (MIT); this file is part of.
+ *
+ * Copyright (c) 2008-2025 JWave Christian (graetz23@gmail.com)
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.graetz23.jwave;
+
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+import de.graetz23.jwave.exceptions.JWaveRuntimeException;
+import de.graetz23.jwave.exceptions.JWaveRuntimeException.Code;
+import de.graetz23.jwave.transforms.BasicTransform;
+
+/**
+ * Asynchronous facade like Transform: each method hands the transform to an
+ * executor and returns a CompletableFuture of the result at once. Failures
+ * complete the future exceptionally by the coded JWaveRuntimeException of
+ * StrictTransform.
+ *
+ * By default the transforms run on a shared ForkJoinPool of as many threads
+ * as processors, as they are CPU bound; newIoExecutor( ) gives an executor
+ * for pipelines waiting on I/O, of virtual threads where the runtime has
+ * them. The number of bytes of inputs and results in flight is capped: calls
+ * beyond the cap wait in a queue, first come first served, and are handed to
+ * the executor as calls done give back their bytes. No thread is blocked, so
+ * stages chained on the futures, running on the executor's threads, may
+ * submit further calls; producers feeding calls in a loop are held back by
+ * awaitCapacity( ). A call larger than the cap runs alone.
+ *
+ * Cancelling a future before its transform started gives back its bytes at
+ * once and skips the transform; a transform running finishes, but its result
+ * is dropped, and keeps its bytes in flight until it has finished. The inputs must not be changed until their futures are done.
+ *
+ * @author Christian (graetz23@gmail.com)
+ */
+public final class AsyncTransform {
+
+    /**
+     * The default number of bytes in flight.
+     */
+    public static final long DEFAULT_MAX_IN_FLIGHT_BYTES = 256L << 20;
+
+    private final StrictTransform _strictTransform;
+
+    private final Executor _executor;
+
+    private final long _maxInFlightBytes;
+
+    /**
+     * Bytes of the calls admitted and not done yet; guarded by this.
+     */
+    private long _inFlightBytes;
+
+    /**
+     * Calls waiting for admission; guarded by this.
+     */
+    private final ArrayDeque<Call<?>> _pending = new ArrayDeque<Call<?>>();
+
+    /**
+     * Constructor running on the shared CPU pool with the default cap.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param transform
+     *          Transform object
+     */
+    public AsyncTransform(BasicTransform transform) {
+        this(transform, CpuPool.POOL, DEFAULT_MAX_IN_FLIGHT_BYTES);
+    } // AsyncTransform
+
+    /**
+     * Constructor.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param transform
+     *          Transform object
+     * @param executor
+     *          runs the transforms; e.g. newCpuExecutor( .. ) or
+     *          newIoExecutor( )
+     * @param maxInFlightBytes
+     *          bytes of inputs and results in flight at most
+     * @throws JWaveRuntimeException
+     *           if an argument is null or the cap is not positive
+     */
+    public AsyncTransform(BasicTransform transform, Executor executor,
+                          long maxInFlightBytes) {
+        if (executor == null)
+            throw new JWaveRuntimeException(Code.NULL_ARGUMENT,
+                    "AsyncTransform - given executor is null!");
+        if (maxInFlightBytes < 1)
+            throw new JWaveRuntimeException(Code.FAILURE,
+                    "AsyncTransform - bytes in flight have to be positive: "
+                            + maxInFlightBytes);
+        _strictTransform = new StrictTransform(transform);
+        _executor = executor;
+        _maxInFlightBytes = maxInFlightBytes;
+    } // AsyncTransform
+
+    /**
+     * Returns a ForkJoinPool for CPU bound transforms; to be shut down by the
+     * caller.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param parallelism
+     *          the number of threads
+     * @return the pool
+     */
+    public static ExecutorService newCpuExecutor(int parallelism) {
+        return new ForkJoinPool(parallelism);
+    } // newCpuExecutor
+
+    /**
+     * Returns an executor starting a virtual thread per transform if the
+     * runtime supports them, else a cached pool of daemon threads; to be shut
+     * down by the caller.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @return the executor
+     */
+    public static ExecutorService newIoExecutor() {
+        try { // Java 21 and later; looked up, as the library builds for 17
+            Method method =
+                    Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "jwave-io");
+                thread.setDaemon(true);
+                return thread;
+            });
+        } // try
+    } // newIoExecutor
+
+    public BasicTransform getBasicTransform() {
+        return _strictTransform.getBasicTransform();
+    } // getBasicTransform
+
+    public long getMaxInFlightBytes() {
+        return _maxInFlightBytes;
+    } // getMaxInFlightBytes
+
+    /**
+     * Returns the number of bytes of the calls admitted and not done yet.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @return bytes in flight
+     */
+    public synchronized long getInFlightBytes() {
+        return _inFlightBytes;
+    } // getInFlightBytes
+
+    /**
+     * Returns the number of calls waiting for admission.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @return calls queued
+     */
+    public synchronized int getNoOfPending() {
+        return _pending.size();
+    } // getNoOfPending
+
+    /**
+     * Performs the 1-D forward transform over all levels asynchronously.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param arrTime
+     *          coefficients of 1-D time domain
+     * @return future of the coefficients of 1-D frequency or Hilbert domain
+     */
+    public CompletableFuture<double[]> forward(double[] arrTime) {
+        return submit(bytesOf(arrTime), () -> _strictTransform.forward(arrTime));
+    } // forward
+
+    /**
+     * Performs the 1-D reverse transform over all levels asynchronously.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param arrHilb
+     *          coefficients of 1-D frequency or Hilbert domain
+     * @return future of the coefficients of 1-D time domain
+     */
+    public CompletableFuture<double[]> reverse(double[] arrHilb) {
+        return submit(bytesOf(arrHilb), () -> _strictTransform.reverse(arrHilb));
+    } // reverse
+
+    /**
+     * Performs the 1-D forward transform of a certain level asynchronously.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param arrTime
+     *          coefficients of 1-D time domain
+     * @param level
+     *          the level of Hilbert space
+     * @return future of the coefficients of 1-D frequency or Hilbert domain
+     */
+    public CompletableFuture<double[]> forward(double[] arrTime, int level) {
+        return submit(bytesOf(arrTime),
+                () -> _strictTransform.forward(arrTime, level));
+    } // forward
+
+    /**
+     * Performs the 1-D reverse transform of a certain level asynchronously.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param arrHilb
+     *          coefficients of 1-D frequency or Hilbert domain
+     * @param level
+     *          the level of Hilbert space
+     * @return future of the coefficients of 1-D time domain
+     */
+    public CompletableFuture<double[]> reverse(double[] arrHilb, int level) {
+        return submit(bytesOf(arrHilb),
+                () -> _strictTransform.reverse(arrHilb, level));
+    } // reverse
+
+    /**
+     * Performs the 2-D forward transform over all levels asynchronously.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param matrixTime
+     *          coefficients of 2-D time domain
+     * @return future of the coefficients of 2-D frequency or Hilbert domain
+     */
+    public CompletableFuture<double[][]> forward(double[][] matrixTime) {
+        return submit(bytesOf(matrixTime),
+                () -> _strictTransform.forward(matrixTime));
+    } // forward
+
+    /**
+     * Performs the 2-D reverse transform over all levels asynchronously.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param matrixHilb
+     *          coefficients of 2-D frequency or Hilbert domain
+     * @return future of the coefficients of 2-D time domain
+     */
+    public CompletableFuture<double[][]> reverse(double[][] matrixHilb) {
+        return submit(bytesOf(matrixHilb),
+                () -> _strictTransform.reverse(matrixHilb));
+    } // reverse
+
+    /**
+     * Performs the 2-D forward transform of certain levels asynchronously.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param matrixTime
+     *          coefficients of 2-D time domain
+     * @param levelM
+     *          level of the columns
+     * @param levelN
+     *          level of the rows
+     * @return future of the coefficients of 2-D frequency or Hilbert domain
+     */
+    public CompletableFuture<double[][]> forward(double[][] matrixTime,
+                                                 int levelM, int levelN) {
+        return submit(bytesOf(matrixTime),
+                () -> _strictTransform.forward(matrixTime, levelM, levelN));
+    } // forward
+
+    /**
+     * Performs the 2-D reverse transform of certain levels asynchronously.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param matrixHilb
+     *          coefficients of 2-D frequency or Hilbert domain
+     * @param levelM
+     *          level of the columns
+     * @param levelN
+     *          level of the rows
+     * @return future of the coefficients of 2-D time domain
+     */
+    public CompletableFuture<double[][]> reverse(double[][] matrixHilb,
+                                                 int levelM, int levelN) {
+        return submit(bytesOf(matrixHilb),
+                () -> _strictTransform.reverse(matrixHilb, levelM, levelN));
+    } // reverse
+
+    /**
+     * Performs the 3-D forward transform over all levels asynchronously.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param spaceTime
+     *          coefficients of 3-D time domain
+     * @return future of the coefficients of 3-D frequency or Hilbert domain
+     */
+    public CompletableFuture<double[][][]> forward(double[][][] spaceTime) {
+        return submit(bytesOf(spaceTime),
+                () -> _strictTransform.forward(spaceTime));
+    } // forward
+
+    /**
+     * Performs the 3-D reverse transform over all levels asynchronously.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param spaceHilb
+     *          coefficients of 3-D frequency or Hilbert domain
+     * @return future of the coefficients of 3-D time domain
+     */
+    public CompletableFuture<double[][][]> reverse(double[][][] spaceHilb) {
+        return submit(bytesOf(spaceHilb),
+                () -> _strictTransform.reverse(spaceHilb));
+    } // reverse
+
+    /**
+     * Performs the 3-D forward transform of certain levels asynchronously.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param spaceTime
+     *          coefficients of 3-D time domain
+     * @param levelP
+     *          level of the second dimension
+     * @param levelQ
+     *          level of the third dimension
+     * @param levelR
+     *          level of the first dimension
+     * @return future of the coefficients of 3-D frequency or Hilbert domain
+     */
+    public CompletableFuture<double[][][]> forward(double[][][] spaceTime,
+                                                   int levelP, int levelQ,
+                                                   int levelR) {
+        return submit(bytesOf(spaceTime), () -> _strictTransform
+                .forward(spaceTime, levelP, levelQ, levelR));
+    } // forward
+
+    /**
+     * Performs the 3-D reverse transform of certain levels asynchronously.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param spaceHilb
+     *          coefficients of 3-D frequency or Hilbert domain
+     * @param levelP
+     *          level of the second dimension
+     * @param levelQ
+     *          level of the third dimension
+     * @param levelR
+     *          level of the first dimension
+     * @return future of the coefficients of 3-D time domain
+     */
+    public CompletableFuture<double[][][]> reverse(double[][][] spaceHilb,
+                                                   int levelP, int levelQ,
+                                                   int levelR) {
+        return submit(bytesOf(spaceHilb), () -> _strictTransform
+                .reverse(spaceHilb, levelP, levelQ, levelR));
+    } // reverse
+
+    /**
+     * Admits a call of a number of bytes and hands it to the executor, or
+     * queues it while the cap is reached; never blocks.
+     */
+    private <T> CompletableFuture<T> submit(long noOfBytes, Supplier<T> work) {
+
+        Call<T> call = new Call<T>(noOfBytes, work);
+        // released once: by the task before completing, or on cancelling a
+        // call not started yet
+        call._future.whenComplete((result, failure) -> done(call, false));
+
+        boolean isAdmitted;
+        synchronized (this) {
+            isAdmitted = _pending.isEmpty() && isAdmissible(noOfBytes);
+            if (isAdmitted)
+                _inFlightBytes += noOfBytes;
+            else
+                _pending.add(call);
+        } // synchronized
+        if (isAdmitted)
+            dispatch(call);
+        return call._future;
+
+    } // submit
+
+    /**
+     * Blocks the calling producer until no call waits for admission; managed
+     * as blocking if called from a ForkJoinPool, so the pool may compensate.
+     * For producers feeding calls in a loop; not to be called by stages of
+     * the futures, which run on the executor's threads.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @throws InterruptedException
+     *           if interrupted while waiting
+     */
+    public void awaitCapacity() throws InterruptedException {
+        ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+
+            @Override
+            public boolean block() throws InterruptedException {
+                synchronized (AsyncTransform.this) {
+                    if (!_pending.isEmpty())
+                        AsyncTransform.this.wait();
+                    return _pending.isEmpty();
+                } // synchronized
+            } // block
+
+            @Override
+            public boolean isReleasable() {
+                synchronized (AsyncTransform.this) {
+                    return _pending.isEmpty();
+                } // synchronized
+            } // isReleasable
+
+        });
+    } // awaitCapacity
+
+    private boolean isAdmissible(long noOfBytes) {
+        return _inFlightBytes == 0
+                || _inFlightBytes + noOfBytes <= _maxInFlightBytes;
+    } // isAdmissible
+
+    private <T> void dispatch(Call<T> call) {
+        try {
+            _executor.execute(call);
+        } catch (RejectedExecutionException e) {
+            call._future.completeExceptionally(new JWaveRuntimeException(
+                    Code.FAILURE,
+                    "AsyncTransform - executor rejected the transform", e));
+        } // try
+    } // dispatch
+
+    /**
+     * A future or its task done: a call queued is dropped, one admitted gives
+     * back its bytes; then the calls queued are admitted as far as they fit.
+     * A call running gives back its bytes by its task only.
+     */
+    private void done(Call<?> call, boolean isByTask) {
+
+        List<Call<?>> admitted = new ArrayList<Call<?>>();
+        synchronized (this) {
+            if (!_pending.remove(call)) {
+                if (call._isStarted && !isByTask)
+                    return; // cancelled while running; released by the task
+                if (call._isReleased)
+                    return; // released already
+                call._isReleased = true;
+                _inFlightBytes -= call._noOfBytes;
+            } // if
+            while (!_pending.isEmpty()
+                    && isAdmissible(_pending.peek()._noOfBytes)) {
+                Call<?> next = _pending.poll();
+                _inFlightBytes += next._noOfBytes;
+                admitted.add(next);
+            } // while
+            notifyAll(); // producers in awaitCapacity( )
+        } // synchronized
+        for (Call<?> next : admitted)
+            dispatch(next);
+
+    } // done
+
+    /**
+     * A call admitted or waiting for admission.
+     */
+    private final class Call<T> implements Runnable {
+
+        private final CompletableFuture<T> _future =
+                new CompletableFuture<T>();
+
+        private final long _noOfBytes;
+
+        private final Supplier<T> _work;
+
+        /**
+         * Set by the task before running the transform; guarded by the
+         * enclosing AsyncTransform.
+         */
+        private boolean _isStarted;
+
+        /**
+         * Set once the bytes are given back; guarded by the enclosing
+         * AsyncTransform.
+         */
+        private boolean _isReleased;
+
+        private Call(long noOfBytes, Supplier<T> work) {
+            _noOfBytes = noOfBytes;
+            _work = work;
+        } // Call
+
+        @Override
+        public void run() {
+            T result = null;
+            Throwable failure = null;
+            synchronized (AsyncTransform.this) {
+                _isStarted = !_future.isDone(); // skipped if cancelled before
+            } // synchronized
+            try {
+                if (_isStarted)
+                    result = _work.get();
+            } catch (Throwable t) {
+                failure = t;
+            } // try
+            done(this, true); // bytes given back before callers see the result
+            if (failure != null)
+                _future.completeExceptionally(failure);
+            else
+                _future.complete(result);
+        } // run
+
+    } // class
+
+    /**
+     * Bytes of an input and its result of the same size.
+     */
+    private static long bytesOf(double[] arr) {
+        return arr == null ? 0L : 16L * arr.length;
+    } // bytesOf
+
+    private static long bytesOf(double[][] mat) {
+        long noOfBytes = 0L;
+        if (mat != null)
+            for (double[] arr : mat)
+                noOfBytes += bytesOf(arr);
+        return noOfBytes;
+    } // bytesOf
+
+    private static long bytesOf(double[][][] spc) {
+        long noOfBytes = 0L;
+        if (spc != null)
+            for (double[][] mat : spc)
+                noOfBytes += bytesOf(mat);
+        return noOfBytes;
+    } // bytesOf
+
+    /**
+     * The shared pool for CPU bound transforms; built on first use.
+     */
+    private static final class CpuPool {
+
+        private static final ForkJoinPool POOL = new ForkJoinPool(
+                Runtime.getRuntime().availableProcessors());
+
+    } // class
+
+} // class
@@ -0,0 +1,761 @@
+/**
+ * JWave is distributed under the MIT License (MIT); this file is part of.
+ *
+ * Copyright (c) 2008-2025 JWave Christian (graetz23@gmail.com)
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.graetz23.jwave;
+
+import de.graetz23.jwave.exceptions.JWaveException;
+import de.graetz23.jwave.exceptions.JWaveRuntimeException;
+import de.graetz23.jwave.exceptions.JWaveRuntimeException.Code;
+import de.graetz23.jwave.transforms.AncientEgyptianDecomposition;
+import de.graetz23.jwave.transforms.BasicTransform;
+
+/**
+ * Facade like Transform that lets failures surface to the caller: instead of
+ * printing a message and stack trace and returning null, each method throws
+ * an unchecked JWaveRuntimeException with an error code and without stack
+ * trace. Nothing is printed, so failing inputs under load do not contend for
+ * the lock of the standard error stream.
+ *
+ * The inputs are validated before transforming. For a batch of inputs of the
+ * same dimensions, validate them once by validateArray, validateMatrix, or
+ * validateSpace and pass the returned Shape; each call checks then only the
+ * lengths against it.
+ *
+ * @author Christian (graetz23@gmail.com)
+ */
+public final class StrictTransform {
+
+    /**
+     * Dimensions and levels validated for a transform; immutable.
+     */
+    public static final class Shape {
+
+        private final int[] _dims;
+
+        /**
+         * The levels by dimension or null for the transform of all levels.
+         */
+        private final int[] _levels;
+
+        private Shape(int[] dims, int[] levels) {
+            _dims = dims;
+            _levels = levels;
+        } // Shape
+
+        /**
+         * Returns the number of dimensions; 1, 2, or 3.
+         *
+         * @author Christian (graetz23@gmail.com)
+         * @return number of dimensions
+         */
+        public int getNoOfDimensions() {
+            return _dims.length;
+        } // getNoOfDimensions
+
+        /**
+         * Returns the length of a dimension.
+         *
+         * @author Christian (graetz23@gmail.com)
+         * @param d
+         *          0 .. noOfDimensions - 1
+         * @return length of the dimension
+         */
+        public int getLength(int d) {
+            return _dims[d];
+        } // getLength
+
+        /**
+         * Returns true if the shape keeps levels; else all levels are
+         * transformed.
+         *
+         * @author Christian (graetz23@gmail.com)
+         * @return true if levels are given
+         */
+        public boolean hasLevels() {
+            return _levels != null;
+        } // hasLevels
+
+    } // class
+
+    /**
+     * Transform object of type base class
+     */
+    private final BasicTransform _basicTransform;
+
+    /**
+     * True if lengths have to be of 2^p | p E N.
+     */
+    private final boolean _isBinaryOnly;
+
+    /**
+     * Constructor; needs some object like DiscreteFourierTransform,
+     * FastWaveletTransform, WaveletPacketTransform, ...
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param transform
+     *          Transform object
+     */
+    public StrictTransform(BasicTransform transform) {
+        if (transform == null)
+            throw new JWaveRuntimeException(Code.NULL_ARGUMENT,
+                    "StrictTransform - given object is null!");
+        _basicTransform = transform;
+        _isBinaryOnly = !(transform instanceof AncientEgyptianDecomposition);
+    } // StrictTransform
+
+    /**
+     * Constructor taking the BasicTransform of a Transform object.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param transform
+     *          Transform object
+     */
+    public StrictTransform(Transform transform) {
+        this(transform == null ? null : transform.getBasicTransform());
+    } // StrictTransform
+
+    /**
+     * Returns the used BasicTransform object.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @return identifier of object
+     */
+    public BasicTransform getBasicTransform() {
+        return _basicTransform;
+    } // getBasicTransform
+
+    /**
+     * Validates the length of arrays transformed over all levels.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param length
+     *          the length of the arrays
+     * @return the validated shape
+     * @throws JWaveRuntimeException
+     *           if the length is not supported
+     */
+    public Shape validateArray(int length) {
+        checkLength(length);
+        return new Shape(new int[]{length}, null);
+    } // validateArray
+
+    /**
+     * Validates the length of arrays transformed to a certain level.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param length
+     *          the length of the arrays; 2^p | p E N
+     * @param level
+     *          0 .. p
+     * @return the validated shape
+     * @throws JWaveRuntimeException
+     *           if length or level are not supported
+     */
+    public Shape validateArray(int length, int level) {
+        checkLevel(length, level);
+        return new Shape(new int[]{length}, new int[]{level});
+    } // validateArray
+
+    /**
+     * Validates the dimensions of matrices transformed over all levels.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param noOfRows
+     *          the number of rows
+     * @param noOfCols
+     *          the number of columns
+     * @return the validated shape
+     * @throws JWaveRuntimeException
+     *           if a dimension is not supported
+     */
+    public Shape validateMatrix(int noOfRows, int noOfCols) {
+        checkLength(noOfRows);
+        checkLength(noOfCols);
+        return new Shape(new int[]{noOfRows, noOfCols}, null);
+    } // validateMatrix
+
+    /**
+     * Validates the dimensions of matrices transformed to certain levels.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param noOfRows
+     *          the number of rows; 2^m
+     * @param noOfCols
+     *          the number of columns; 2^n
+     * @param levelM
+     *          level of the columns; 0 .. m
+     * @param levelN
+     *          level of the rows; 0 .. n
+     * @return the validated shape
+     * @throws JWaveRuntimeException
+     *           if a dimension or a level is not supported
+     */
+    public Shape validateMatrix(int noOfRows, int noOfCols, int levelM,
+                                int levelN) {
+        checkLevel(noOfRows, levelM);
+        checkLevel(noOfCols, levelN);
+        return new Shape(new int[]{noOfRows, noOfCols},
+                new int[]{levelM, levelN});
+    } // validateMatrix
+
+    /**
+     * Validates the dimensions of spaces transformed over all levels.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param noOfRows
+     *          the first dimension
+     * @param noOfCols
+     *          the second dimension
+     * @param noOfHigh
+     *          the third dimension
+     * @return the validated shape
+     * @throws JWaveRuntimeException
+     *           if a dimension is not supported
+     */
+    public Shape validateSpace(int noOfRows, int noOfCols, int noOfHigh) {
+        checkLength(noOfRows);
+        checkLength(noOfCols);
+        checkLength(noOfHigh);
+        return new Shape(new int[]{noOfRows, noOfCols, noOfHigh}, null);
+    } // validateSpace
+
+    /**
+     * Validates the dimensions of spaces transformed to certain levels.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param noOfRows
+     *          the first dimension; 2^r
+     * @param noOfCols
+     *          the second dimension; 2^p
+     * @param noOfHigh
+     *          the third dimension; 2^q
+     * @param levelP
+     *          level of the second dimension; 0 .. p
+     * @param levelQ
+     *          level of the third dimension; 0 .. q
+     * @param levelR
+     *          level of the first dimension; 0 .. r
+     * @return the validated shape
+     * @throws JWaveRuntimeException
+     *           if a dimension or a level is not supported
+     */
+    public Shape validateSpace(int noOfRows, int noOfCols, int noOfHigh,
+                               int levelP, int levelQ, int levelR) {
+        checkLevel(noOfCols, levelP);
+        checkLevel(noOfHigh, levelQ);
+        checkLevel(noOfRows, levelR);
+        return new Shape(new int[]{noOfRows, noOfCols, noOfHigh},
+                new int[]{levelP, levelQ, levelR});
+    } // validateSpace
+
+    /**
+     * Performs the forward transform over all levels.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param arrTime
+     *          coefficients of time domain
+     * @return coefficients of frequency or Hilbert domain
+     * @throws JWaveRuntimeException
+     *           if the input is not supported or the transform fails
+     */
+    public double[] forward(double[] arrTime) {
+        checkLength(checkNotNull(arrTime).length);
+        try {
+            return _basicTransform.forward(arrTime);
+        } catch (JWaveException e) {
+            throw JWaveRuntimeException.of(e);
+        } // try
+    } // forward
+
+    /**
+     * Performs the reverse transform over all levels.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param arrHilb
+     *          coefficients of frequency or Hilbert domain
+     * @return coefficients of time domain
+     * @throws JWaveRuntimeException
+     *           if the input is not supported or the transform fails
+     */
+    public double[] reverse(double[] arrHilb) {
+        checkLength(checkNotNull(arrHilb).length);
+        try {
+            return _basicTransform.reverse(arrHilb);
+        } catch (JWaveException e) {
+            throw JWaveRuntimeException.of(e);
+        } // try
+    } // reverse
+
+    /**
+     * Performs a forward transform to a certain level of Hilbert space.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param arrTime
+     *          array of length 2^p | p E N .. 2, 4, 8, 16, 32, 64, ...
+     * @param level
+     *          a certain level that matches the array
+     * @return Hilbert space of certain level
+     * @throws JWaveRuntimeException
+     *           if the input is not supported or the transform fails
+     */
+    public double[] forward(double[] arrTime, int level) {
+        checkLevel(checkNotNull(arrTime).length, level);
+        try {
+            return _basicTransform.forward(arrTime, level);
+        } catch (JWaveException e) {
+            throw JWaveRuntimeException.of(e);
+        } // try
+    } // forward
+
+    /**
+     * Performs a reverse transform for a Hilbert space of certain level.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param arrHilb
+     *          Hilbert space by an array of length 2^p | p E N
+     * @param level
+     *          a certain level that matches the array
+     * @return time domain for a certain level of Hilbert space
+     * @throws JWaveRuntimeException
+     *           if the input is not supported or the transform fails
+     */
+    public double[] reverse(double[] arrHilb, int level) {
+        checkLevel(checkNotNull(arrHilb).length, level);
+        try {
+            return _basicTransform.reverse(arrHilb, level);
+        } catch (JWaveException e) {
+            throw JWaveRuntimeException.of(e);
+        } // try
+    } // reverse
+
+    /**
+     * Performs the 2-D forward transform over all levels.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param matrixTime
+     *          coefficients of 2-D time domain
+     * @return coefficients of 2-D frequency or Hilbert domain
+     * @throws JWaveRuntimeException
+     *           if the input is not supported or the transform fails
+     */
+    public double[][] forward(double[][] matrixTime) {
+        checkLength(checkRectangular(matrixTime));
+        checkLength(matrixTime.length);
+        try {
+            return _basicTransform.forward(matrixTime);
+        } catch (JWaveException e) {
+            throw JWaveRuntimeException.of(e);
+        } // try
+    } // forward
+
+    /**
+     * Performs the 2-D reverse transform over all levels.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param matrixHilb
+     *          coefficients of 2-D frequency or Hilbert domain
+     * @return coefficients of 2-D time domain
+     * @throws JWaveRuntimeException
+     *           if the input is not supported or the transform fails
+     */
+    public double[][] reverse(double[][] matrixHilb) {
+        checkLength(checkRectangular(matrixHilb));
+        checkLength(matrixHilb.length);
+        try {
+            return _basicTransform.reverse(matrixHilb);
+        } catch (JWaveException e) {
+            throw JWaveRuntimeException.of(e);
+        } // try
+    } // reverse
+
+    /**
+     * Performs the 2-D forward transform to certain levels.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param matrixTime
+     *          coefficients of 2-D time domain of 2^m x 2^n
+     * @param levelM
+     *          level of the columns; 0 .. m
+     * @param levelN
+     *          level of the rows; 0 .. n
+     * @return coefficients of 2-D Hilbert domain
+     * @throws JWaveRuntimeException
+     *           if the input is not supported or the transform fails
+     */
+    public double[][] forward(double[][] matrixTime, int levelM, int levelN) {
+        checkLevel(checkRectangular(matrixTime), levelN);
+        checkLevel(matrixTime.length, levelM);
+        try {
+            return _basicTransform.forward(matrixTime, levelM, levelN);
+        } catch (JWaveException e) {
+            throw JWaveRuntimeException.of(e);
+        } // try
+    } // forward
+
+    /**
+     * Performs the 2-D reverse transform from certain levels.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param matrixHilb
+     *          coefficients of 2-D Hilbert domain of 2^m x 2^n
+     * @param levelM
+     *          level of the columns; 0 .. m
+     * @param levelN
+     *          level of the rows; 0 .. n
+     * @return coefficients of 2-D time domain
+     * @throws JWaveRuntimeException
+     *           if the input is not supported or the transform fails
+     */
+    public double[][] reverse(double[][] matrixHilb, int levelM, int levelN) {
+        checkLevel(checkRectangular(matrixHilb), levelN);
+        checkLevel(matrixHilb.length, levelM);
+        try {
+            return _basicTransform.reverse(matrixHilb, levelM, levelN);
+        } catch (JWaveException e) {
+            throw JWaveRuntimeException.of(e);
+        } // try
+    } // reverse
+
+    /**
+     * Performs the 3-D forward transform over all levels.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param spaceTime
+     *          coefficients of 3-D time domain
+     * @return coefficients of 3-D frequency or Hilbert domain
+     * @throws JWaveRuntimeException
+     *           if the input is not supported or the transform fails
+     */
+    public double[][][] forward(double[][][] spaceTime) {
+        checkSpace(spaceTime);
+        try {
+            return _basicTransform.forward(spaceTime);
+        } catch (JWaveException e) {
+            throw JWaveRuntimeException.of(e);
+        } // try
+    } // forward
+
+    /**
+     * Performs the 3-D reverse transform over all levels.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param spaceHilb
+     *          coefficients of 3-D frequency or Hilbert domain
+     * @return coefficients of 3-D time domain
+     * @throws JWaveRuntimeException
+     *           if the input is not supported or the transform fails
+     */
+    public double[][][] reverse(double[][][] spaceHilb) {
+        checkSpace(spaceHilb);
+        try {
+            return _basicTransform.reverse(spaceHilb);
+        } catch (JWaveException e) {
+            throw JWaveRuntimeException.of(e);
+        } // try
+    } // reverse
+
+    /**
+     * Performs the 3-D forward transform to certain levels.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param spaceTime
+     *          coefficients of 3-D time domain of 2^r x 2^p x 2^q
+     * @param levelP
+     *          level of the second dimension; 0 .. p
+     * @param levelQ
+     *          level of the third dimension; 0 .. q
+     * @param levelR
+     *          level of the first dimension; 0 .. r
+     * @return coefficients of 3-D Hilbert domain
+     * @throws JWaveRuntimeException
+     *           if the input is not supported or the transform fails
+     */
+    public double[][][] forward(double[][][] spaceTime, int levelP, int levelQ,
+                                int levelR) {
+        checkSpace(spaceTime, levelP, levelQ, levelR);
+        try {
+            return _basicTransform.forward(spaceTime, levelP, levelQ, levelR);
+        } catch (JWaveException e) {
+            throw JWaveRuntimeException.of(e);
+        } // try
+    } // forward
+
+    /**
+     * Performs the 3-D reverse transform from certain levels.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param spaceHilb
+     *          coefficients of 3-D Hilbert domain of 2^r x 2^p x 2^q
+     * @param levelP
+     *          level of the second dimension; 0 .. p
+     * @param levelQ
+     *          level of the third dimension; 0 .. q
+     * @param levelR
+     *          level of the first dimension; 0 .. r
+     * @return coefficients of 3-D time domain
+     * @throws JWaveRuntimeException
+     *           if the input is not supported or the transform fails
+     */
+    public double[][][] reverse(double[][][] spaceHilb, int levelP, int levelQ,
+                                int levelR) {
+        checkSpace(spaceHilb, levelP, levelQ, levelR);
+        try {
+            return _basicTransform.reverse(spaceHilb, levelP, levelQ, levelR);
+        } catch (JWaveException e) {
+            throw JWaveRuntimeException.of(e);
+        } // try
+    } // reverse
+
+    /**
+     * Performs the forward transform of an array of a validated shape; only
+     * the length is checked.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param shape
+     *          shape returned by validateArray
+     * @param arrTime
+     *          coefficients of time domain
+     * @return coefficients of frequency or Hilbert domain
+     * @throws JWaveRuntimeException
+     *           if the array does not match the shape or the transform fails
+     */
+    public double[] forward(Shape shape, double[] arrTime) {
+        checkShape(shape, 1, checkNotNull(arrTime).length, 0, 0);
+        try {
+            return shape._levels == null ? _basicTransform.forward(arrTime)
+                    : _basicTransform.forward(arrTime, shape._levels[0]);
+        } catch (JWaveException e) {
+            throw JWaveRuntimeException.of(e);
+        } // try
+    } // forward
+
+    /**
+     * Performs the reverse transform of an array of a validated shape; only
+     * the length is checked.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param shape
+     *          shape returned by validateArray
+     * @param arrHilb
+     *          coefficients of frequency or Hilbert domain
+     * @return coefficients of time domain
+     * @throws JWaveRuntimeException
+     *           if the array does not match the shape or the transform fails
+     */
+    public double[] reverse(Shape shape, double[] arrHilb) {
+        checkShape(shape, 1, checkNotNull(arrHilb).length, 0, 0);
+        try {
+            return shape._levels == null ? _basicTransform.reverse(arrHilb)
+                    : _basicTransform.reverse(arrHilb, shape._levels[0]);
+        } catch (JWaveException e) {
+            throw JWaveRuntimeException.of(e);
+        } // try
+    } // reverse
+
+    /**
+     * Performs the 2-D forward transform of a matrix of a validated shape; only
+     * the dimensions are checked.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param shape
+     *          shape returned by validateMatrix
+     * @param matrixTime
+     *          coefficients of 2-D time domain
+     * @return coefficients of 2-D frequency or Hilbert domain
+     * @throws JWaveRuntimeException
+     *           if the matrix does not match the shape or the transform fails
+     */
+    public double[][] forward(Shape shape, double[][] matrixTime) {
+        checkShape(shape, 2, checkNotNull(matrixTime).length,
+                checkRectangular(matrixTime), 0);
+        try {
+            return shape._levels == null ? _basicTransform.forward(matrixTime)
+                    : _basicTransform.forward(matrixTime, shape._levels[0],
+                    shape._levels[1]);
+        } catch (JWaveException e) {
+            throw JWaveRuntimeException.of(e);
+        } // try
+    } // forward
+
+    /**
+     * Performs the 2-D reverse transform of a matrix of a validated shape; only
+     * the dimensions are checked.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param shape
+     *          shape returned by validateMatrix
+     * @param matrixHilb
+     *          coefficients of 2-D frequency or Hilbert domain
+     * @return coefficients of 2-D time domain
+     * @throws JWaveRuntimeException
+     *           if the matrix does not match the shape or the transform fails
+     */
+    public double[][] reverse(Shape shape, double[][] matrixHilb) {
+        checkShape(shape, 2, checkNotNull(matrixHilb).length,
+                checkRectangular(matrixHilb), 0);
+        try {
+            return shape._levels == null ? _basicTransform.reverse(matrixHilb)
+                    : _basicTransform.reverse(matrixHilb, shape._levels[0],
+                    shape._levels[1]);
+        } catch (JWaveException e) {
+            throw JWaveRuntimeException.of(e);
+        } // try
+    } // reverse
+
+    /**
+     * Performs the 3-D forward transform of a space of a validated shape; only
+     * the dimensions are checked.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param shape
+     *          shape returned by validateSpace
+     * @param spaceTime
+     *          coefficients of 3-D time domain
+     * @return coefficients of 3-D frequency or Hilbert domain
+     * @throws JWaveRuntimeException
+     *           if the space does not match the shape or the transform fails
+     */
+    public double[][][] forward(Shape shape, double[][][] spaceTime) {
+        checkShape(shape, spaceTime);
+        try {
+            return shape._levels == null ? _basicTransform.forward(spaceTime)
+                    : _basicTransform.forward(spaceTime, shape._levels[0],
+                    shape._levels[1], shape._levels[2]);
+        } catch (JWaveException e) {
+            throw JWaveRuntimeException.of(e);
+        } // try
+    } // forward
+
+    /**
+     * Performs the 3-D reverse transform of a space of a validated shape; only
+     * the dimensions are checked.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param shape
+     *          shape returned by validateSpace
+     * @param spaceHilb
+     *          coefficients of 3-D frequency or Hilbert domain
+     * @return coefficients of 3-D time domain
+     * @throws JWaveRuntimeException
+     *           if the space does not match the shape or the transform fails
+     */
+    public double[][][] reverse(Shape shape, double[][][] spaceHilb) {
+        checkShape(shape, spaceHilb);
+        try {
+            return shape._levels == null ? _basicTransform.reverse(spaceHilb)
+                    : _basicTransform.reverse(spaceHilb, shape._levels[0],
+                    shape._levels[1], shape._levels[2]);
+        } catch (JWaveException e) {
+            throw JWaveRuntimeException.of(e);
+        } // try
+    } // reverse
+
+    private static <T> T checkNotNull(T obj) {
+        if (obj == null)
+            throw new JWaveRuntimeException(Code.NULL_ARGUMENT,
+                    "StrictTransform - given array is null!");
+        return obj;
+    } // checkNotNull
+
+    private void checkLength(int length) {
+        if (length < 1 || (_isBinaryOnly && (length & (length - 1)) != 0))
+            throw new JWaveRuntimeException(Code.NOT_BINARY,
+                    "StrictTransform - given length is not 2^p | p E N: "
+                            + length);
+    } // checkLength
+
+    private void checkLevel(int length, int level) {
+        if (length < 1 || (length & (length - 1)) != 0)
+            throw new JWaveRuntimeException(Code.NOT_BINARY,
+                    "StrictTransform - given length is not 2^p | p E N: "
+                            + length);
+        if (level < 0 || level > Integer.numberOfTrailingZeros(length))
+            throw new JWaveRuntimeException(Code.LEVEL_OUT_OF_RANGE,
+                    "StrictTransform - given level " + level
+                            + " is out of range for length: " + length);
+    } // checkLevel
+
+    /**
+     * Checks all rows are of equal length and returns it.
+     */
+    private static int checkRectangular(double[][] matrix) {
+        if (checkNotNull(matrix).length == 0)
+            throw new JWaveRuntimeException(Code.SHAPE_MISMATCH,
+                    "StrictTransform - given matrix is empty!");
+        int noOfCols = checkNotNull(matrix[0]).length;
+        for (double[] arr : matrix)
+            if (checkNotNull(arr).length != noOfCols)
+                throw new JWaveRuntimeException(Code.SHAPE_MISMATCH,
+                        "StrictTransform - given matrix is not rectangular!");
+        return noOfCols;
+    } // checkRectangular
+
+    /**
+     * Checks all matrices of a space are of equal dimensions and returns the
+     * number of columns and of high.
+     */
+    private static long checkCuboid(double[][][] space) {
+        if (checkNotNull(space).length == 0)
+            throw new JWaveRuntimeException(Code.SHAPE_MISMATCH,
+                    "StrictTransform - given space is empty!");
+        int noOfCols = checkNotNull(space[0]).length;
+        int noOfHigh = checkRectangular(space[0]);
+        for (double[][] matrix : space)
+            if (checkNotNull(matrix).length != noOfCols
+                    || checkRectangular(matrix) != noOfHigh)
+                throw new JWaveRuntimeException(Code.SHAPE_MISMATCH,
+                        "StrictTransform - given space is not a cuboid!");
+        return ((long) noOfCols << 32) | noOfHigh;
+    } // checkCuboid
+
+    private void checkSpace(double[][][] space) {
+        long dims = checkCuboid(space);
+        checkLength(space.length);
+        checkLength((int) (dims >>> 32));
+        checkLength((int) dims);
+    } // checkSpace
+
+    private void checkSpace(double[][][] space, int levelP, int levelQ,
+                            int levelR) {
+        long dims = checkCuboid(space);
+        checkLevel((int) (dims >>> 32), levelP);
+        checkLevel((int) dims, levelQ);
+        checkLevel(space.length, levelR);
+    } // checkSpace
+
+    private static void checkShape(Shape shape, int noOfDimensions, int d0,
+                                   int d1, int d2) {
+        int[] dims = checkNotNull(shape)._dims;
+        if (dims.length != noOfDimensions || dims[0] != d0
+                || (noOfDimensions > 1 && dims[1] != d1)
+                || (noOfDimensions > 2 && dims[2] != d2))
+            throw new JWaveRuntimeException(Code.SHAPE_MISMATCH,
+                    "StrictTransform - given input does not match the shape!");
+    } // checkShape
+
+    private static void checkShape(Shape shape, double[][][] space) {
+        long dims = checkCuboid(space);
+        checkShape(shape, 3, space.length, (int) (dims >>> 32), (int) dims);
+    } // checkShape
+
+} // class
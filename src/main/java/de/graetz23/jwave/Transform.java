@@ -26,7 +26,13 @@
  */
 package de.graetz23.jwave;
 
+import de.graetz23.jwave.compressions.SparseArray;
+import de.graetz23.jwave.compressions.SparseMatrix;
+import de.graetz23.jwave.compressions.SparseSpace;
+import de.graetz23.jwave.datatypes.blocks.Block;
+import de.graetz23.jwave.datatypes.lines.Line;
 import de.graetz23.jwave.datatypes.natives.Complex;
+import de.graetz23.jwave.datatypes.spaces.Space;
 import de.graetz23.jwave.exceptions.JWaveException;
 import de.graetz23.jwave.exceptions.JWaveFailure;
 import de.graetz23.jwave.transforms.BasicTransform;
@@ -370,6 +376,406 @@ public final class Transform {
         return spaceTime;
     } // reverse
 
+    /**
+     * Performs the 1-D forward transform of the specified BasicWave object for
+     * a Line object of any type.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param lineTime
+     *          coefficients of 1-D time domain
+     * @return coefficients of 1-D frequency or Hilbert domain
+     */
+    public final Line forward(Line lineTime) {
+        Line lineHilb = null;
+        try {
+            lineHilb = _basicTransform.forward(lineTime);
+        } catch (JWaveException e) {
+            e.showMessage();
+            e.printStackTrace();
+        } // try
+        return lineHilb;
+    } // forward
+
+    /**
+     * Performs the 1-D reverse transform of the specified BasicWave object for
+     * a Line object of any type.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param lineHilb
+     *          coefficients of 1-D frequency or Hilbert domain
+     * @return coefficients of 1-D time domain
+     */
+    public final Line reverse(Line lineHilb) {
+        Line lineTime = null;
+        try {
+            lineTime = _basicTransform.reverse(lineHilb);
+        } catch (JWaveException e) {
+            e.showMessage();
+            e.printStackTrace();
+        } // try
+        return lineTime;
+    } // reverse
+
+    /**
+     * Performs the 1-D forward transform of the specified BasicWave object for
+     * a Line object of any type.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param lineTime
+     *          coefficients of 1-D time domain
+     * @param level
+     *          a certain level that matches the line
+     * @return coefficients of 1-D frequency or Hilbert domain
+     */
+    public final Line forward(Line lineTime, int level) {
+        Line lineHilb = null;
+        try {
+            lineHilb = _basicTransform.forward(lineTime, level);
+        } catch (JWaveException e) {
+            e.showMessage();
+            e.printStackTrace();
+        } // try
+        return lineHilb;
+    } // forward
+
+    /**
+     * Performs the 1-D reverse transform of the specified BasicWave object for
+     * a Line object of any type.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param lineHilb
+     *          coefficients of 1-D frequency or Hilbert domain
+     * @param level
+     *          the certain level of the supported Hilbert space
+     * @return coefficients of 1-D time domain
+     */
+    public final Line reverse(Line lineHilb, int level) {
+        Line lineTime = null;
+        try {
+            lineTime = _basicTransform.reverse(lineHilb, level);
+        } catch (JWaveException e) {
+            e.showMessage();
+            e.printStackTrace();
+        } // try
+        return lineTime;
+    } // reverse
+
+    /**
+     * Performs the 2-D forward transform of the specified BasicWave object for
+     * a Block object of any type.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param blockTime
+     *          coefficients of 2-D time domain
+     * @return coefficients of 2-D frequency or Hilbert domain
+     */
+    public final Block forward(Block blockTime) {
+        Block blockHilb = null;
+        try {
+            blockHilb = _basicTransform.forward(blockTime);
+        } catch (JWaveException e) {
+            e.showMessage();
+            e.printStackTrace();
+        } // try
+        return blockHilb;
+    } // forward
+
+    /**
+     * Performs the 2-D reverse transform of the specified BasicWave object for
+     * a Block object of any type.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param blockHilb
+     *          coefficients of 2-D frequency or Hilbert domain
+     * @return coefficients of 2-D time domain
+     */
+    public final Block reverse(Block blockHilb) {
+        Block blockTime = null;
+        try {
+            blockTime = _basicTransform.reverse(blockHilb);
+        } catch (JWaveException e) {
+            e.showMessage();
+            e.printStackTrace();
+        } // try
+        return blockTime;
+    } // reverse
+
+    /**
+     * Performs the 2-D forward transform of the specified BasicWave object for
+     * a Block object of any type.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param blockTime
+     *          coefficients of 2-D time domain
+     * @param levelM
+     *          a certain level to stop transform for over rows
+     * @param levelN
+     *          a certain level to stop transform for over columns
+     * @return coefficients of 2-D frequency or Hilbert domain
+     */
+    public final Block forward(Block blockTime, int levelM, int levelN) {
+        Block blockHilb = null;
+        try {
+            blockHilb = _basicTransform.forward(blockTime, levelM, levelN);
+        } catch (JWaveException e) {
+            e.showMessage();
+            e.printStackTrace();
+        } // try
+        return blockHilb;
+    } // forward
+
+    /**
+     * Performs the 2-D reverse transform of the specified BasicWave object for
+     * a Block object of any type.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param blockHilb
+     *          coefficients of 2-D frequency or Hilbert domain
+     * @param levelM
+     *          a certain level to start transform from over rows
+     * @param levelN
+     *          a certain level to start transform from over columns
+     * @return coefficients of 2-D time domain
+     */
+    public final Block reverse(Block blockHilb, int levelM, int levelN) {
+        Block blockTime = null;
+        try {
+            blockTime = _basicTransform.reverse(blockHilb, levelM, levelN);
+        } catch (JWaveException e) {
+            e.showMessage();
+            e.printStackTrace();
+        } // try
+        return blockTime;
+    } // reverse
+
+    /**
+     * Performs the 3-D forward transform of the specified BasicWave object for
+     * a Space object of any type.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param spaceTime
+     *          coefficients of 3-D time domain
+     * @return coefficients of 3-D frequency or Hilbert domain
+     */
+    public final Space forward(Space spaceTime) {
+        Space spaceHilb = null;
+        try {
+            spaceHilb = _basicTransform.forward(spaceTime);
+        } catch (JWaveException e) {
+            e.showMessage();
+            e.printStackTrace();
+        } // try
+        return spaceHilb;
+    } // forward
+
+    /**
+     * Performs the 3-D reverse transform of the specified BasicWave object for
+     * a Space object of any type.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param spaceHilb
+     *          coefficients of 3-D frequency or Hilbert domain
+     * @return coefficients of 3-D time domain
+     */
+    public final Space reverse(Space spaceHilb) {
+        Space spaceTime = null;
+        try {
+            spaceTime = _basicTransform.reverse(spaceHilb);
+        } catch (JWaveException e) {
+            e.showMessage();
+            e.printStackTrace();
+        } // try
+        return spaceTime;
+    } // reverse
+
+    /**
+     * Performs the 3-D forward transform of the specified BasicWave object for
+     * a Space object of any type.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param spaceTime
+     *          coefficients of 3-D time domain
+     * @param levelP
+     *          a certain level to stop transform for over columns of each slab
+     * @param levelQ
+     *          a certain level to stop transform for over height of each slab
+     * @param levelR
+     *          a certain level to stop transform for over rows
+     * @return coefficients of 3-D frequency or Hilbert domain
+     */
+    public final Space forward(Space spaceTime, int levelP, int levelQ, int levelR) {
+        Space spaceHilb = null;
+        try {
+            spaceHilb = _basicTransform.forward(spaceTime, levelP, levelQ, levelR);
+        } catch (JWaveException e) {
+            e.showMessage();
+            e.printStackTrace();
+        } // try
+        return spaceHilb;
+    } // forward
+
+    /**
+     * Performs the 3-D reverse transform of the specified BasicWave object for
+     * a Space object of any type.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param spaceHilb
+     *          coefficients of 3-D frequency or Hilbert domain
+     * @param levelP
+     *          a certain level to start transform from over columns of each slab
+     * @param levelQ
+     *          a certain level to start transform from over height of each slab
+     * @param levelR
+     *          a certain level to start transform from over rows
+     * @return coefficients of 3-D time domain
+     */
+    public final Space reverse(Space spaceHilb, int levelP, int levelQ, int levelR) {
+        Space spaceTime = null;
+        try {
+            spaceTime = _basicTransform.reverse(spaceHilb, levelP, levelQ, levelR);
+        } catch (JWaveException e) {
+            e.showMessage();
+            e.printStackTrace();
+        } // try
+        return spaceTime;
+    } // reverse
+
+    /**
+     * Performs the 1-D reverse transform of the specified BasicWave object
+     * straight from sparse coefficients; e.g. as returned by
+     * Compressor#compressSparse.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param sparseHilb
+     *          non zero coefficients of 1-D frequency or Hilbert domain
+     * @return coefficients of 1-D time domain
+     */
+    public final double[] reverse(SparseArray sparseHilb) {
+        double[] arrTime = null;
+        try {
+            arrTime = _basicTransform.reverse(sparseHilb);
+        } catch (JWaveException e) {
+            e.showMessage();
+            e.printStackTrace();
+        } // try
+        return arrTime;
+    } // reverse
+
+    /**
+     * Performs the 1-D reverse transform of the specified BasicWave object of
+     * a certain level straight from sparse coefficients.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param sparseHilb
+     *          non zero coefficients of 1-D frequency or Hilbert domain
+     * @param level
+     *          a certain level to start transform from
+     * @return coefficients of 1-D time domain
+     */
+    public final double[] reverse(SparseArray sparseHilb, int level) {
+        double[] arrTime = null;
+        try {
+            arrTime = _basicTransform.reverse(sparseHilb, level);
+        } catch (JWaveException e) {
+            e.showMessage();
+            e.printStackTrace();
+        } // try
+        return arrTime;
+    } // reverse
+
+    /**
+     * Performs the 2-D reverse transform of the specified BasicWave object
+     * straight from sparse coefficients.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param sparseHilb
+     *          non zero coefficients of 2-D frequency or Hilbert domain
+     * @return coefficients of 2-D time domain
+     */
+    public final double[][] reverse(SparseMatrix sparseHilb) {
+        double[][] matTime = null;
+        try {
+            matTime = _basicTransform.reverse(sparseHilb);
+        } catch (JWaveException e) {
+            e.showMessage();
+            e.printStackTrace();
+        } // try
+        return matTime;
+    } // reverse
+
+    /**
+     * Performs the 2-D reverse transform of the specified BasicWave object of
+     * a certain level straight from sparse coefficients.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param sparseHilb
+     *          non zero coefficients of 2-D frequency or Hilbert domain
+     * @param levelM
+     *          a certain level to start transform from over rows
+     * @param levelN
+     *          a certain level to start transform from over columns
+     * @return coefficients of 2-D time domain
+     */
+    public final double[][] reverse(SparseMatrix sparseHilb, int levelM,
+            int levelN) {
+        double[][] matTime = null;
+        try {
+            matTime = _basicTransform.reverse(sparseHilb, levelM, levelN);
+        } catch (JWaveException e) {
+            e.showMessage();
+            e.printStackTrace();
+        } // try
+        return matTime;
+    } // reverse
+
+    /**
+     * Performs the 3-D reverse transform of the specified BasicWave object
+     * straight from sparse coefficients.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param sparseHilb
+     *          non zero coefficients of 3-D frequency or Hilbert domain
+     * @return coefficients of 3-D time domain
+     */
+    public final double[][][] reverse(SparseSpace sparseHilb) {
+        double[][][] spcTime = null;
+        try {
+            spcTime = _basicTransform.reverse(sparseHilb);
+        } catch (JWaveException e) {
+            e.showMessage();
+            e.printStackTrace();
+        } // try
+        return spcTime;
+    } // reverse
+
+    /**
+     * Performs the 3-D reverse transform of the specified BasicWave object of
+     * a certain level straight from sparse coefficients.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param sparseHilb
+     *          non zero coefficients of 3-D frequency or Hilbert domain
+     * @param levelP
+     *          a certain level to start transform from over columns of each slab
+     * @param levelQ
+     *          a certain level to start transform from over height of each slab
+     * @param levelR
+     *          a certain level to start transform from over rows
+     * @return coefficients of 3-D time domain
+     */
+    public final double[][][] reverse(SparseSpace sparseHilb, int levelP,
+            int levelQ, int levelR) {
+        double[][][] spcTime = null;
+        try {
+            spcTime = _basicTransform.reverse(sparseHilb, levelP, levelQ,
+                    levelR);
+        } catch (JWaveException e) {
+            e.showMessage();
+            e.printStackTrace();
+        } // try
+        return spcTime;
+    } // reverse
+
     /**
      * Generates from a 1D signal a 2D output, where the second dimension are the
      * levels of the wavelet transform.
@@ -30,7 +30,7 @@ import de.graetz23.jwave.transforms.DiscreteFourierTransform;
 import de.graetz23.jwave.transforms.FastWaveletTransform;
 import de.graetz23.jwave.transforms.WaveletPacketTransform;
 import de.graetz23.jwave.transforms.wavelets.Wavelet;
-import de.graetz23.jwave.transforms.wavelets.WaveletBuilder;
+import de.graetz23.jwave.transforms.wavelets.WaveletRegistry;
 
 /**
  * Class for creating and identifying Transform object.
@@ -91,7 +91,8 @@ public class TransformBuilder {
     /**
      * Create a Transform object by a given string and a given string for a
      * Wavelet object. Look into each Transform and Wavelet for matching string
-     * identifier.
+     * identifier. The Wavelet object is shared by the WaveletRegistry, so it is
+     * built once only.
      *
      * @author Christian (graetz23@gmail.com)
      * @param transformName
@@ -101,7 +102,7 @@ public class TransformBuilder {
      */
     static public Transform create(String transformName, String waveletName) {
 
-        return create(transformName, WaveletBuilder.create(waveletName));
+        return create(transformName, WaveletRegistry.get(waveletName));
 
     } // create
 
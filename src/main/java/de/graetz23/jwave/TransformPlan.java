@@ -0,0 +1,890 @@
+/**
+ * JWave is distributed under the MIT License (MIT); this file is part of.
+ *
+ * Copyright (c) 2008-2025 JWave Christian (graetz23@gmail.com)
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.graetz23.jwave;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import de.graetz23.jwave.exceptions.JWaveRuntimeException;
+import de.graetz23.jwave.exceptions.JWaveRuntimeException.Code;
+import de.graetz23.jwave.metrics.Probe;
+import de.graetz23.jwave.tools.WorkspacePool;
+import de.graetz23.jwave.transforms.wavelets.FilterBank;
+import de.graetz23.jwave.transforms.wavelets.Wavelet;
+import de.graetz23.jwave.transforms.wavelets.WaveletRegistry;
+
+/**
+ * Precompiled transform for a fixed transform type, wavelet, shape, levels,
+ * and direction. All validation and all loop bounds are done once on
+ * building the plan: the lengths of each step per dimension are kept in
+ * tables, and the kernels work in place in workspaces borrowed from the
+ * WorkspacePool, so execute does no more than the transform itself and
+ * allocates nothing. The results equal those of the FastWaveletTransform or
+ * the WaveletPacketTransform of the same levels.
+ *
+ * How a plan executes is given by its Strategy: the kernel of a step, and for
+ * matrices and spaces whether lines are run in parallel and whether columns
+ * are gathered in blocks. All strategies have the same results up to
+ * rounding; TransformPlanner picks the fastest on the machine at hand.
+ *
+ * Plans are immutable and may be executed by several threads at once; each
+ * call borrows its own workspaces. Plans built by get( .. ) are cached in a
+ * bounded LRU cache keyed by their tuple and strategy.
+ *
+ * @author Christian (graetz23@gmail.com)
+ */
+public final class TransformPlan {
+
+    /**
+     * The direction of a plan.
+     */
+    public enum Direction {
+
+        FORWARD, REVERSE
+
+    } // enum
+
+    /**
+     * The kernel of a single transform step.
+     */
+    public enum Kernel {
+
+        /**
+         * Contiguous dot products of the phases; see FilterBank#forward.
+         */
+        POLYPHASE,
+
+        /**
+         * Direct periodic convolution; see FilterBank#forwardConvolution.
+         */
+        CONVOLUTION
+
+    } // enum
+
+    /**
+     * How a plan executes; immutable.
+     */
+    public static final class Strategy {
+
+        /**
+         * Polyphase kernel, sequential, a column at a time; the strategy of
+         * plans not given one.
+         */
+        public static final Strategy DEFAULT =
+                new Strategy(Kernel.POLYPHASE, false, false);
+
+        private final Kernel _kernel;
+
+        private final boolean _isParallel;
+
+        private final boolean _isBlocked;
+
+        /**
+         * @author Christian (graetz23@gmail.com)
+         * @param kernel
+         *          the kernel of a step
+         * @param isParallel
+         *          run the rows, columns, or slabs of matrices and spaces by
+         *          the common fork join pool
+         * @param isBlocked
+         *          gather COLUMN_BLOCK columns at once by running along rows,
+         *          instead of a single column by striding over all rows
+         */
+        public Strategy(Kernel kernel, boolean isParallel, boolean isBlocked) {
+            if (kernel == null)
+                throw new JWaveRuntimeException(Code.NULL_ARGUMENT,
+                        "TransformPlan - given kernel is null!");
+            _kernel = kernel;
+            _isParallel = isParallel;
+            _isBlocked = isBlocked;
+        } // Strategy
+
+        /**
+         * Parses the text as returned by toString; e.g.
+         * POLYPHASE/parallel/blocked.
+         *
+         * @author Christian (graetz23@gmail.com)
+         * @param text
+         *          the strategy as text
+         * @return the strategy
+         * @throws JWaveRuntimeException
+         *           if the text is not a strategy
+         */
+        public static Strategy parse(String text) {
+            String[] parts = text == null ? new String[0] : text.trim().split("/");
+            if (parts.length != 3
+                    || !(parts[1].equals("parallel") || parts[1].equals("sequential"))
+                    || !(parts[2].equals("blocked") || parts[2].equals("strided")))
+                throw new JWaveRuntimeException(Code.FAILURE,
+                        "TransformPlan - not a strategy: " + text);
+            try {
+                return new Strategy(Kernel.valueOf(parts[0]),
+                        parts[1].equals("parallel"), parts[2].equals("blocked"));
+            } catch (IllegalArgumentException e) {
+                throw new JWaveRuntimeException(Code.FAILURE,
+                        "TransformPlan - not a kernel: " + parts[0], e);
+            } // try
+        } // parse
+
+        public Kernel getKernel() {
+            return _kernel;
+        } // getKernel
+
+        public boolean isParallel() {
+            return _isParallel;
+        } // isParallel
+
+        public boolean isBlocked() {
+            return _isBlocked;
+        } // isBlocked
+
+        @Override
+        public int hashCode() {
+            return _kernel.hashCode() * 4 + (_isParallel ? 2 : 0)
+                    + (_isBlocked ? 1 : 0);
+        } // hashCode
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (!(obj instanceof Strategy))
+                return false;
+            Strategy strategy = (Strategy) obj;
+            return _kernel == strategy._kernel
+                    && _isParallel == strategy._isParallel
+                    && _isBlocked == strategy._isBlocked;
+        } // equals
+
+        @Override
+        public String toString() {
+            return _kernel + "/" + (_isParallel ? "parallel" : "sequential")
+                    + "/" + (_isBlocked ? "blocked" : "strided");
+        } // toString
+
+    } // class
+
+    /**
+     * The identifier of the FastWaveletTransform as used by TransformBuilder.
+     */
+    public static final String FAST_WAVELET_TRANSFORM = "Fast Wavelet Transform";
+
+    /**
+     * The identifier of the WaveletPacketTransform as used by TransformBuilder.
+     */
+    public static final String WAVELET_PACKET_TRANSFORM = "Wavelet Packet Transform";
+
+    /**
+     * The default number of plans kept by the cache.
+     */
+    public static final int DEFAULT_CACHE_CAPACITY = 64;
+
+    /**
+     * The number of columns gathered at once by blocked strategies.
+     */
+    public static final int COLUMN_BLOCK = 8;
+
+    private static int _cacheCapacity = DEFAULT_CACHE_CAPACITY;
+
+    /**
+     * The cache of plans by their keys; least recently used first.
+     */
+    private static final LinkedHashMap<Key, TransformPlan> _cache =
+            new LinkedHashMap<Key, TransformPlan>(16, .75f, true) {
+
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(
+                        Map.Entry<Key, TransformPlan> eldest) {
+                    return size() > _cacheCapacity;
+                } // removeEldestEntry
+
+            };
+
+    private final Key _key;
+
+    private final Wavelet _wavelet;
+
+    private final FilterBank _filterBank;
+
+    private final Strategy _strategy;
+
+    /**
+     * True if the wavelet keeps the transform step of Wavelet, so the
+     * convolution kernel of the FilterBank may replace it; else its own step
+     * is called by any strategy.
+     */
+    private final boolean _isInherited;
+
+    private final boolean _isConvolution;
+
+    private final boolean _isPacket;
+
+    private final boolean _isForward;
+
+    /**
+     * The lengths transformed by each step per dimension in order of
+     * execution.
+     */
+    private final int[][] _steps;
+
+    private final int _workspaceLength;
+
+    private final int _lineLength;
+
+    /**
+     * Builds a plan of the default strategy without caching it.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param transformName
+     *          FAST_WAVELET_TRANSFORM or WAVELET_PACKET_TRANSFORM
+     * @param wavelet
+     *          the wavelet
+     * @param direction
+     *          FORWARD or REVERSE
+     * @param dims
+     *          the dimensions; see below
+     * @param levels
+     *          the levels; see below
+     * @throws JWaveRuntimeException
+     *           if the tuple is not supported
+     */
+    public TransformPlan(String transformName, Wavelet wavelet,
+                         Direction direction, int[] dims, int[] levels) {
+        this(transformName, wavelet, direction, dims, levels, Strategy.DEFAULT);
+    } // TransformPlan
+
+    /**
+     * Builds a plan without caching it.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param transformName
+     *          FAST_WAVELET_TRANSFORM or WAVELET_PACKET_TRANSFORM
+     * @param wavelet
+     *          the wavelet
+     * @param direction
+     *          FORWARD or REVERSE
+     * @param dims
+     *          the length of an array, { noOfRows, noOfCols } of a matrix, or {
+     *          noOfRows, noOfCols, noOfHigh } of a space; each 2^p
+     * @param levels
+     *          the level per dimension as for BasicTransform; { level }, {
+     *          levelM, levelN }, or { levelP, levelQ, levelR }, or null for all
+     *          levels
+     * @param strategy
+     *          how to execute
+     * @throws JWaveRuntimeException
+     *           if the tuple is not supported
+     */
+    public TransformPlan(String transformName, Wavelet wavelet,
+                         Direction direction, int[] dims, int[] levels,
+                         Strategy strategy) {
+
+        if (transformName == null || wavelet == null || direction == null
+                || dims == null || strategy == null)
+            throw new JWaveRuntimeException(Code.NULL_ARGUMENT,
+                    "TransformPlan - given argument is null!");
+        if (!transformName.equals(FAST_WAVELET_TRANSFORM)
+                && !transformName.equals(WAVELET_PACKET_TRANSFORM))
+            throw new JWaveRuntimeException(Code.NOT_IMPLEMENTED,
+                    "TransformPlan - no plans for: " + transformName);
+        if (dims.length < 1 || dims.length > 3
+                || (levels != null && levels.length != dims.length))
+            throw new JWaveRuntimeException(Code.SHAPE_MISMATCH,
+                    "TransformPlan - shape is of 1, 2, or 3 dimensions "
+                            + "with a level for each");
+
+        _key = new Key(transformName, wavelet.getName(), direction, dims, levels,
+                strategy);
+        _wavelet = wavelet;
+        _filterBank = wavelet.getFilterBank();
+        _strategy = strategy;
+        _isPacket = transformName.equals(WAVELET_PACKET_TRANSFORM);
+        _isForward = direction == Direction.FORWARD;
+        _isInherited = isInherited(wavelet, _isForward ? "forward" : "reverse");
+        _isConvolution = strategy._kernel == Kernel.CONVOLUTION;
+
+        // lengths the levels run along; levelM along the noOfRows values of a
+        // column, levelN along a row, and levelP, levelQ, levelR along the
+        // second, third, and first dimension; see BasicTransform
+        int[] lengths = dims.length == 3 ? new int[]{dims[1], dims[2], dims[0]}
+                : dims.clone();
+        _steps = new int[lengths.length][];
+        int maxLength = 0;
+        for (int d = 0; d < lengths.length; d++) {
+            int length = lengths[d];
+            if (length < 1 || (length & (length - 1)) != 0)
+                throw new JWaveRuntimeException(Code.NOT_BINARY,
+                        "TransformPlan - length is not 2^p | p E N: " + length);
+            int noOfLevels = Integer.numberOfTrailingZeros(length);
+            int level = levels == null ? noOfLevels : levels[d];
+            if (level < 0 || level > noOfLevels)
+                throw new JWaveRuntimeException(Code.LEVEL_OUT_OF_RANGE,
+                        "TransformPlan - level " + level
+                                + " is out of range for length: " + length);
+            _steps[d] = calcSteps(length, noOfLevels, level,
+                    wavelet.getTransformWavelength(), _isForward);
+            maxLength = Math.max(maxLength, length);
+        } // d
+
+        _lineLength = dims.length < 2 ? 0
+                : maxLength * (strategy._isBlocked ? COLUMN_BLOCK : 1);
+        _workspaceLength = wavelet.getWorkspaceLength(maxLength);
+
+    } // TransformPlan
+
+    /**
+     * Returns a cached plan of the default strategy or builds and caches it.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param transformName
+     *          FAST_WAVELET_TRANSFORM or WAVELET_PACKET_TRANSFORM
+     * @param waveletName
+     *          identifier as stored in Wavelet object
+     * @param direction
+     *          FORWARD or REVERSE
+     * @param dims
+     *          the dimensions; see the constructor
+     * @param levels
+     *          the levels; see the constructor
+     * @return the plan of the tuple
+     * @throws JWaveRuntimeException
+     *           if the tuple is not supported
+     */
+    public static TransformPlan get(String transformName, String waveletName,
+                                    Direction direction, int[] dims, int[] levels) {
+        return get(transformName, waveletName, direction, dims, levels,
+                Strategy.DEFAULT);
+    } // get
+
+    /**
+     * Returns a cached plan or builds and caches it.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param transformName
+     *          FAST_WAVELET_TRANSFORM or WAVELET_PACKET_TRANSFORM
+     * @param waveletName
+     *          identifier as stored in Wavelet object
+     * @param direction
+     *          FORWARD or REVERSE
+     * @param dims
+     *          the dimensions; see the constructor
+     * @param levels
+     *          the levels; see the constructor
+     * @param strategy
+     *          how to execute
+     * @return the plan of the tuple
+     * @throws JWaveRuntimeException
+     *           if the tuple is not supported
+     */
+    public static TransformPlan get(String transformName, String waveletName,
+                                    Direction direction, int[] dims, int[] levels,
+                                    Strategy strategy) {
+
+        Key key = new Key(transformName, waveletName, direction, dims, levels,
+                strategy);
+        synchronized (_cache) {
+            TransformPlan plan = _cache.get(key);
+            if (plan != null)
+                return plan;
+        } // synchronized
+
+        Wavelet wavelet = waveletName == null ? null
+                : WaveletRegistry.get(waveletName);
+        if (wavelet == null)
+            throw new JWaveRuntimeException(Code.FAILURE,
+                    "TransformPlan - unknown wavelet: " + waveletName);
+        TransformPlan plan = new TransformPlan(transformName, wavelet, direction,
+                dims, levels, strategy);
+
+        synchronized (_cache) {
+            TransformPlan cached = _cache.putIfAbsent(key, plan);
+            return cached == null ? plan : cached;
+        } // synchronized
+
+    } // get
+
+    /**
+     * Sets the number of plans the cache keeps; the least recently used plans
+     * are dropped beyond.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param capacity
+     *          number of plans; 0 disables caching
+     */
+    public static void setCacheCapacity(int capacity) {
+        synchronized (_cache) {
+            _cacheCapacity = Math.max(capacity, 0);
+            while (_cache.size() > _cacheCapacity)
+                _cache.remove(_cache.keySet().iterator().next());
+        } // synchronized
+    } // setCacheCapacity
+
+    /**
+     * Returns the number of plans kept by the cache.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @return number of cached plans
+     */
+    public static int getCacheSize() {
+        synchronized (_cache) {
+            return _cache.size();
+        } // synchronized
+    } // getCacheSize
+
+    /**
+     * Drops all cached plans.
+     *
+     * @author Christian (graetz23@gmail.com)
+     */
+    public static void clearCache() {
+        synchronized (_cache) {
+            _cache.clear();
+        } // synchronized
+    } // clearCache
+
+    public Wavelet getWavelet() {
+        return _wavelet;
+    } // getWavelet
+
+    public Strategy getStrategy() {
+        return _strategy;
+    } // getStrategy
+
+    public Direction getDirection() {
+        return _key._direction;
+    } // getDirection
+
+    public int getNoOfDimensions() {
+        return _key._dims.length;
+    } // getNoOfDimensions
+
+    public int getLength(int d) {
+        return _key._dims[d];
+    } // getLength
+
+    /**
+     * Transforms an array of the planned length; src and dst may be the same
+     * array.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param src
+     *          the input
+     * @param dst
+     *          the output
+     * @throws JWaveRuntimeException
+     *           if the arrays do not match the plan
+     */
+    public void execute(double[] src, double[] dst) {
+        checkRank(1);
+        int length = _key._dims[0];
+        checkLength(src, length);
+        checkLength(dst, length);
+        Probe probe = Probe.begin();
+        if (src != dst)
+            System.arraycopy(src, 0, dst, 0, length);
+        double[] work = WorkspacePool.acquire(_workspaceLength);
+        try {
+            run(dst, 0, _steps[0], work);
+        } finally {
+            WorkspacePool.release(work);
+        } // try
+        if (probe != null)
+            report(probe);
+    } // execute
+
+    /**
+     * Transforms a matrix of the planned dimensions; src and dst may be the
+     * same matrix.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param src
+     *          the input
+     * @param dst
+     *          the output
+     * @throws JWaveRuntimeException
+     *           if the matrices do not match the plan
+     */
+    public void execute(double[][] src, double[][] dst) {
+        checkRank(2);
+        int noOfRows = _key._dims[0];
+        int noOfCols = _key._dims[1];
+        checkMatrix(src, noOfRows, noOfCols);
+        checkMatrix(dst, noOfRows, noOfCols);
+        Probe probe = Probe.begin();
+        for (int i = 0; i < noOfRows; i++)
+            if (src[i] != dst[i])
+                System.arraycopy(src[i], 0, dst[i], 0, noOfCols);
+        run(dst, 0, 1, _strategy._isParallel);
+        if (probe != null)
+            report(probe);
+    } // execute
+
+    /**
+     * Transforms a space of the planned dimensions; src and dst may be the
+     * same space.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param src
+     *          the input
+     * @param dst
+     *          the output
+     * @throws JWaveRuntimeException
+     *           if the spaces do not match the plan
+     */
+    public void execute(double[][][] src, double[][][] dst) {
+        checkRank(3);
+        int noOfRows = _key._dims[0];
+        int noOfCols = _key._dims[1];
+        int noOfHigh = _key._dims[2];
+        if (src == null || dst == null || src.length != noOfRows
+                || dst.length != noOfRows)
+            throw mismatch();
+        for (int i = 0; i < noOfRows; i++) {
+            checkMatrix(src[i], noOfCols, noOfHigh);
+            checkMatrix(dst[i], noOfCols, noOfHigh);
+        } // i
+        Probe probe = Probe.begin();
+        for (int i = 0; i < noOfRows; i++)
+            for (int j = 0; j < noOfCols; j++)
+                if (src[i][j] != dst[i][j])
+                    System.arraycopy(src[i][j], 0, dst[i][j], 0, noOfHigh);
+
+        // 2-D by P and Q, then R; in both directions as BasicTransform does;
+        // in parallel by slabs, while each slab runs sequentially
+        if (isParallel(noOfRows))
+            IntStream.range(0, noOfRows).parallel()
+                    .forEach(i -> run(dst[i], 0, 1, false));
+        else
+            for (int i = 0; i < noOfRows; i++)
+                run(dst[i], 0, 1, false);
+        runAlongRows(dst);
+        if (probe != null)
+            report(probe);
+    } // execute
+
+    /**
+     * Ends the measure of an execution; the kernel is the plan's strategy.
+     */
+    private void report(Probe probe) {
+        probe.end(_key._transformName, _key._waveletName,
+                "TransformPlan " + _strategy, _isForward ? "forward" : "reverse",
+                _key._dims, _key._levels);
+    } // report
+
+    /**
+     * The plan as text; e.g. for logs.
+     */
+    @Override
+    public String toString() {
+        return _key.toString();
+    } // toString
+
+    /**
+     * 2-D step of BasicTransform: rows by levels[ n ], then columns by
+     * levels[ m ] forward; columns first in reverse.
+     */
+    private void run(double[][] mat, int m, int n, boolean isParallel) {
+        if (_isForward) {
+            runRows(mat, _steps[n], isParallel);
+            runCols(mat, _steps[m], isParallel);
+        } else {
+            runCols(mat, _steps[m], isParallel);
+            runRows(mat, _steps[n], isParallel);
+        } // if
+    } // run
+
+    private void runRows(double[][] mat, int[] steps, boolean isParallel) {
+        if (steps.length == 0)
+            return;
+        int noOfRows = mat.length;
+        if (isParallel && isParallel(noOfRows))
+            IntStream.range(0, noOfRows).parallel()
+                    .forEach(i -> runRows(mat, steps, i, i + 1));
+        else
+            runRows(mat, steps, 0, noOfRows);
+    } // runRows
+
+    private void runRows(double[][] mat, int[] steps, int from, int to) {
+        double[] work = WorkspacePool.acquire(_workspaceLength);
+        try {
+            for (int i = from; i < to; i++)
+                run(mat[i], 0, steps, work);
+        } finally {
+            WorkspacePool.release(work);
+        } // try
+    } // runRows
+
+    private void runCols(double[][] mat, int[] steps, boolean isParallel) {
+        if (steps.length == 0)
+            return;
+        int block = _strategy._isBlocked ? COLUMN_BLOCK : 1;
+        int noOfBlocks = (mat[0].length + block - 1) / block;
+        if (isParallel && isParallel(noOfBlocks))
+            IntStream.range(0, noOfBlocks).parallel()
+                    .forEach(b -> runCols(mat, steps, block, b, b + 1));
+        else
+            runCols(mat, steps, block, 0, noOfBlocks);
+    } // runCols
+
+    /**
+     * Gathers the columns of the blocks into lines by running along the rows,
+     * transforms the lines, and scatters them back.
+     */
+    private void runCols(double[][] mat, int[] steps, int block, int from,
+                         int to) {
+        double[] work = WorkspacePool.acquire(_workspaceLength);
+        double[] lines = WorkspacePool.acquire(_lineLength);
+        try {
+            int noOfRows = mat.length;
+            int noOfCols = mat[0].length;
+            for (int b = from; b < to; b++) {
+                int first = b * block;
+                int last = Math.min(first + block, noOfCols);
+                for (int i = 0; i < noOfRows; i++) {
+                    double[] row = mat[i];
+                    for (int j = first; j < last; j++)
+                        lines[(j - first) * noOfRows + i] = row[j];
+                } // i
+                for (int j = first; j < last; j++)
+                    run(lines, (j - first) * noOfRows, steps, work);
+                for (int i = 0; i < noOfRows; i++) {
+                    double[] row = mat[i];
+                    for (int j = first; j < last; j++)
+                        row[j] = lines[(j - first) * noOfRows + i];
+                } // i
+            } // b
+        } finally {
+            WorkspacePool.release(lines);
+            WorkspacePool.release(work);
+        } // try
+    } // runCols
+
+    /**
+     * Step R of a space along its first dimension; the lines of a column j are
+     * gathered in blocks along the third dimension.
+     */
+    private void runAlongRows(double[][][] spc) {
+        int[] steps = _steps[2];
+        if (steps.length == 0)
+            return;
+        int noOfCols = spc[0].length;
+        if (isParallel(noOfCols))
+            IntStream.range(0, noOfCols).parallel()
+                    .forEach(j -> runAlongRows(spc, steps, j, j + 1));
+        else
+            runAlongRows(spc, steps, 0, noOfCols);
+    } // runAlongRows
+
+    private void runAlongRows(double[][][] spc, int[] steps, int from, int to) {
+        double[] work = WorkspacePool.acquire(_workspaceLength);
+        double[] lines = WorkspacePool.acquire(_lineLength);
+        try {
+            int block = _strategy._isBlocked ? COLUMN_BLOCK : 1;
+            int noOfRows = spc.length;
+            int noOfHigh = spc[0][0].length;
+            for (int j = from; j < to; j++)
+                for (int first = 0; first < noOfHigh; first += block) {
+                    int last = Math.min(first + block, noOfHigh);
+                    for (int i = 0; i < noOfRows; i++) {
+                        double[] arr = spc[i][j];
+                        for (int k = first; k < last; k++)
+                            lines[(k - first) * noOfRows + i] = arr[k];
+                    } // i
+                    for (int k = first; k < last; k++)
+                        run(lines, (k - first) * noOfRows, steps, work);
+                    for (int i = 0; i < noOfRows; i++) {
+                        double[] arr = spc[i][j];
+                        for (int k = first; k < last; k++)
+                            arr[k] = lines[(k - first) * noOfRows + i];
+                    } // i
+                } // first
+        } finally {
+            WorkspacePool.release(lines);
+            WorkspacePool.release(work);
+        } // try
+    } // runAlongRows
+
+    private boolean isParallel(int noOfTasks) {
+        return _strategy._isParallel && noOfTasks > 1;
+    } // isParallel
+
+    /**
+     * 1-D transform in place of the length of the first step of the table;
+     * packets are transformed for the WaveletPacketTransform.
+     */
+    private void run(double[] arr, int off, int[] steps, double[] work) {
+        int length = steps.length == 0 ? 0
+                : (_isForward ? steps[0] : steps[steps.length - 1]);
+        for (int h : steps) {
+            int noOfPackets = _isPacket ? length / h : 1;
+            for (int p = 0; p < noOfPackets; p++)
+                step(arr, off + p * h, h, work);
+        } // h
+    } // run
+
+    private void step(double[] arr, int off, int h, double[] work) {
+        if (_isInherited && _isConvolution) {
+            if (_isForward)
+                _filterBank.forwardConvolution(arr, off, h, arr, off, work);
+            else
+                _filterBank.reverseConvolution(arr, off, h, arr, off, work);
+        } else if (_isForward)
+            _wavelet.forward(arr, off, h, work);
+        else
+            _wavelet.reverse(arr, off, h, work);
+    } // step
+
+    /**
+     * The lengths of the steps as looped by FastWaveletTransform and
+     * WaveletPacketTransform.
+     */
+    private static int[] calcSteps(int length, int noOfLevels, int level,
+                                   int transformWavelength, boolean isForward) {
+        int[] steps = new int[noOfLevels + 1];
+        int n = 0;
+        if (isForward) {
+            int h = length;
+            for (int l = 0; h >= transformWavelength && l < level; l++) {
+                steps[n++] = h;
+                h = h >> 1;
+            } // l
+        } else {
+            int h = transformWavelength;
+            for (int l = level; l < noOfLevels; l++)
+                h = h << 1;
+            for (; h <= length && h >= transformWavelength; h = h << 1)
+                steps[n++] = h;
+        } // if
+        return Arrays.copyOf(steps, n);
+    } // calcSteps
+
+    private static boolean isInherited(Wavelet wavelet, String name) {
+        try {
+            return wavelet.getClass().getMethod(name, double[].class, int.class)
+                    .getDeclaringClass() == Wavelet.class;
+        } catch (NoSuchMethodException e) {
+            return false;
+        } // try
+    } // isInherited
+
+    private void checkRank(int noOfDimensions) {
+        if (_key._dims.length != noOfDimensions)
+            throw new JWaveRuntimeException(Code.SHAPE_MISMATCH,
+                    "TransformPlan - plan is of " + _key._dims.length
+                            + " dimensions");
+    } // checkRank
+
+    private static void checkLength(double[] arr, int length) {
+        if (arr == null || arr.length != length)
+            throw mismatch();
+    } // checkLength
+
+    private static void checkMatrix(double[][] mat, int noOfRows, int noOfCols) {
+        if (mat == null || mat.length != noOfRows)
+            throw mismatch();
+        for (double[] arr : mat)
+            checkLength(arr, noOfCols);
+    } // checkMatrix
+
+    private static JWaveRuntimeException mismatch() {
+        return new JWaveRuntimeException(Code.SHAPE_MISMATCH,
+                "TransformPlan - given input does not match the plan!");
+    } // mismatch
+
+    /**
+     * The tuple a plan is built for.
+     */
+    private static final class Key {
+
+        private final String _transformName;
+
+        private final String _waveletName;
+
+        private final Direction _direction;
+
+        private final int[] _dims;
+
+        private final int[] _levels;
+
+        private final Strategy _strategy;
+
+        private final int _hash;
+
+        private Key(String transformName, String waveletName,
+                    Direction direction, int[] dims, int[] levels,
+                    Strategy strategy) {
+            _transformName = transformName;
+            _waveletName = waveletName;
+            _direction = direction;
+            _dims = dims == null ? null : dims.clone();
+            _levels = levels == null ? null : levels.clone();
+            _strategy = strategy;
+            int hash = String.valueOf(transformName).hashCode();
+            hash = 31 * hash + String.valueOf(waveletName).hashCode();
+            hash = 31 * hash + String.valueOf(direction).hashCode();
+            hash = 31 * hash + Arrays.hashCode(_dims);
+            hash = 31 * hash + Arrays.hashCode(_levels);
+            hash = 31 * hash + String.valueOf(strategy).hashCode();
+            _hash = hash;
+        } // Key
+
+        @Override
+        public int hashCode() {
+            return _hash;
+        } // hashCode
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (!(obj instanceof Key))
+                return false;
+            Key key = (Key) obj;
+            return _hash == key._hash
+                    && String.valueOf(_transformName).equals(
+                    String.valueOf(key._transformName))
+                    && String.valueOf(_waveletName).equals(
+                    String.valueOf(key._waveletName))
+                    && _direction == key._direction
+                    && Arrays.equals(_dims, key._dims)
+                    && Arrays.equals(_levels, key._levels)
+                    && String.valueOf(_strategy).equals(
+                    String.valueOf(key._strategy));
+        } // equals
+
+        @Override
+        public String toString() {
+            return _transformName + " / " + _waveletName + " / " + _direction
+                    + " / " + Arrays.toString(_dims) + " / "
+                    + (_levels == null ? "all levels" : Arrays.toString(_levels))
+                    + " / " + _strategy;
+        } // toString
+
+    } // class
+
+} // class
@@ -0,0 +1,471 @@
+/**
+ * JWave is distributed under the MIT License (MIT); this file is part of.
+ *
+ * Copyright (c) 2008-2025 JWave Christian (graetz23@gmail.com)
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.graetz23.jwave;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+import de.graetz23.jwave.TransformPlan.Direction;
+import de.graetz23.jwave.TransformPlan.Kernel;
+import de.graetz23.jwave.TransformPlan.Strategy;
+import de.graetz23.jwave.exceptions.JWaveRuntimeException;
+import de.graetz23.jwave.exceptions.JWaveRuntimeException.Code;
+import de.graetz23.jwave.transforms.wavelets.Wavelet;
+import de.graetz23.jwave.transforms.wavelets.WaveletRegistry;
+
+/**
+ * Planner choosing the fastest Strategy of a TransformPlan by measuring. On
+ * the first request of a tuple of transform, wavelet, direction, dimensions,
+ * and levels, all candidate strategies are executed on random data and the
+ * fastest is kept as wisdom; later requests build or take the cached plan of
+ * that strategy without measuring again. The number of available processors
+ * is part of the tuple, since whether running in parallel pays off depends
+ * on it, so no fixed threshold is needed.
+ *
+ * The wisdom is written to a properties file after each tuning and read at
+ * class loading; by default ~/.jwave/wisdom.properties, or the file given by
+ * the system property jwave.wisdom. The file is a cache only: an unreadable
+ * or broken file is ignored, and failing to write it does not fail a plan.
+ *
+ * @author Christian (graetz23@gmail.com)
+ */
+public final class TransformPlanner {
+
+    /**
+     * The system property naming the wisdom file.
+     */
+    public static final String WISDOM_PROPERTY = "jwave.wisdom";
+
+    /**
+     * The time a candidate is run for per round, in nano seconds; its time of
+     * the round is the mean of the executions done, at least one.
+     */
+    public static final long ROUND_NANOS = 5_000_000L;
+
+    /**
+     * The number of rounds over all candidates before measuring; lets the JIT
+     * compile the kernels of all of them.
+     */
+    public static final int WARM_UP_ROUNDS = 2;
+
+    /**
+     * The number of measured rounds over all candidates; the median of its
+     * rounds counts for a candidate.
+     */
+    public static final int TIMED_ROUNDS = 5;
+
+    /**
+     * The fraction a candidate has to be faster than the default strategy by
+     * to replace it; smaller margins are taken as noise.
+     */
+    public static final double MIN_GAIN = 0.05;
+
+    /**
+     * The fastest strategies by the keys of their tuples.
+     */
+    private static final ConcurrentHashMap<String, Strategy> _wisdom =
+            new ConcurrentHashMap<String, Strategy>();
+
+    private static volatile Path _wisdomFile = defaultWisdomFile();
+
+    static {
+        Path wisdomFile = _wisdomFile;
+        if (wisdomFile != null && Files.isReadable(wisdomFile)) {
+            try {
+                load(wisdomFile);
+            } catch (JWaveRuntimeException e) {
+                // broken wisdom is measured again
+            } // try
+        } // if
+    } // static
+
+    private TransformPlanner() {
+    } // TransformPlanner
+
+    /**
+     * Returns the plan of the fastest strategy for a tuple; the strategies are
+     * measured on the first request of the tuple on this machine. The plan is
+     * taken from or put into the cache of TransformPlan.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param transformName
+     *          FAST_WAVELET_TRANSFORM or WAVELET_PACKET_TRANSFORM
+     * @param waveletName
+     *          identifier as stored in Wavelet object
+     * @param direction
+     *          FORWARD or REVERSE
+     * @param dims
+     *          the dimensions; see TransformPlan
+     * @param levels
+     *          the levels; see TransformPlan
+     * @return the plan of the fastest strategy
+     * @throws JWaveRuntimeException
+     *           if the tuple is not supported
+     */
+    public static TransformPlan plan(String transformName, String waveletName,
+                                     Direction direction, int[] dims, int[] levels) {
+
+        String key = key(transformName, waveletName, direction, dims, levels);
+        Strategy strategy = _wisdom.get(key);
+        if (strategy == null) { // racing threads measure equally; first one wins
+            strategy = tune(transformName, waveletName, direction, dims, levels);
+            Strategy known = _wisdom.putIfAbsent(key, strategy);
+            if (known == null)
+                persist();
+            else
+                strategy = known;
+        } // if
+        return TransformPlan.get(transformName, waveletName, direction, dims,
+                levels, strategy);
+
+    } // plan
+
+    /**
+     * Measures all candidate strategies of a tuple and returns the fastest;
+     * the wisdom is not changed. Random data of the dimensions is allocated
+     * twice for measuring.
+     *
+     * The candidates are run interleaved, ROUND_NANOS each per round and in
+     * an order rotating by round, so none is favoured by running first or by
+     * a machine getting busy meanwhile. After WARM_UP_ROUNDS, the median of
+     * TIMED_ROUNDS counts. The default strategy is kept unless the fastest is
+     * faster by more than MIN_GAIN.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param transformName
+     *          FAST_WAVELET_TRANSFORM or WAVELET_PACKET_TRANSFORM
+     * @param waveletName
+     *          identifier as stored in Wavelet object
+     * @param direction
+     *          FORWARD or REVERSE
+     * @param dims
+     *          the dimensions; see TransformPlan
+     * @param levels
+     *          the levels; see TransformPlan
+     * @return the fastest strategy
+     * @throws JWaveRuntimeException
+     *           if the tuple is not supported
+     */
+    public static Strategy tune(String transformName, String waveletName,
+                                Direction direction, int[] dims, int[] levels) {
+
+        Wavelet wavelet = waveletName == null ? null
+                : WaveletRegistry.get(waveletName);
+        if (wavelet == null)
+            throw new JWaveRuntimeException(Code.FAILURE,
+                    "TransformPlanner - unknown wavelet: " + waveletName);
+
+        // the default strategy first; the first plan validates the tuple
+        List<Strategy> candidates = getCandidates(dims == null ? 1 : dims.length);
+        int noOfCandidates = candidates.size();
+        TransformPlan[] plans = new TransformPlan[noOfCandidates];
+        for (int c = 0; c < noOfCandidates; c++)
+            plans[c] = new TransformPlan(transformName, wavelet, direction, dims,
+                    levels, candidates.get(c));
+
+        Random random = new Random(0);
+        Object src = random(dims, random);
+        Object dst = random(dims, random);
+
+        long[][] times = new long[noOfCandidates][TIMED_ROUNDS];
+        for (int r = -WARM_UP_ROUNDS; r < TIMED_ROUNDS; r++) {
+            for (int i = 0; i < noOfCandidates; i++) {
+                int c = Math.floorMod(i + r, noOfCandidates); // rotating
+                long time = measure(plans[c], src, dst);
+                if (r >= 0)
+                    times[c][r] = time;
+            } // i
+        } // r
+
+        int fastest = 0;
+        long[] medians = new long[noOfCandidates];
+        for (int c = 0; c < noOfCandidates; c++) {
+            medians[c] = median(times[c]);
+            if (medians[c] < medians[fastest])
+                fastest = c;
+        } // c
+        if (medians[fastest] >= (1. - MIN_GAIN) * medians[0])
+            fastest = 0; // within noise of the default
+        return candidates.get(fastest);
+
+    } // tune
+
+    /**
+     * Returns the strategies measured for data of a number of dimensions:
+     * both kernels, and for matrices and spaces each of them in parallel or
+     * not and by blocked or strided columns; parallel ones only if more than
+     * one processor is available. The default strategy comes first.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param noOfDimensions
+     *          1, 2, or 3
+     * @return the candidate strategies
+     */
+    public static List<Strategy> getCandidates(int noOfDimensions) {
+
+        boolean isMultiCore = Runtime.getRuntime().availableProcessors() > 1;
+        List<Strategy> candidates = new ArrayList<Strategy>();
+        for (Kernel kernel : Kernel.values())
+            if (noOfDimensions < 2)
+                candidates.add(new Strategy(kernel, false, false));
+            else
+                for (int p = 0; p < (isMultiCore ? 2 : 1); p++)
+                    for (int b = 0; b < 2; b++)
+                        candidates.add(new Strategy(kernel, p == 1, b == 1));
+        return candidates;
+
+    } // getCandidates
+
+    /**
+     * Returns the strategy known as fastest for a tuple on this machine; the
+     * tuple as for plan( .. ).
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @return the strategy or null if the tuple was not measured yet
+     */
+    public static Strategy getWisdom(String transformName, String waveletName,
+                                     Direction direction, int[] dims, int[] levels) {
+        return _wisdom.get(key(transformName, waveletName, direction, dims,
+                levels));
+    } // getWisdom
+
+    /**
+     * Returns the number of tuples known.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @return number of tuples
+     */
+    public static int getNoOfWisdoms() {
+        return _wisdom.size();
+    } // getNoOfWisdoms
+
+    /**
+     * Forgets all tuples measured or loaded; the wisdom file is kept.
+     *
+     * @author Christian (graetz23@gmail.com)
+     */
+    public static void clearWisdom() {
+        _wisdom.clear();
+    } // clearWisdom
+
+    public static Path getWisdomFile() {
+        return _wisdomFile;
+    } // getWisdomFile
+
+    /**
+     * Sets the file the wisdom is written to after each tuning; it is not read.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param wisdomFile
+     *          the file or null for keeping the wisdom in memory only
+     */
+    public static void setWisdomFile(Path wisdomFile) {
+        _wisdomFile = wisdomFile;
+    } // setWisdomFile
+
+    /**
+     * Adds the wisdom of a file; tuples known already are kept, and entries
+     * that are no strategy are skipped.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param path
+     *          the wisdom file
+     * @throws JWaveRuntimeException
+     *           if the file can not be read
+     */
+    public static void load(Path path) {
+
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(path)) {
+            properties.load(in);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new JWaveRuntimeException(Code.FAILURE,
+                    "TransformPlanner - " + e.getMessage(), e);
+        } // try
+
+        for (String key : properties.stringPropertyNames()) {
+            try {
+                _wisdom.putIfAbsent(key,
+                        Strategy.parse(properties.getProperty(key)));
+            } catch (JWaveRuntimeException e) {
+                // skipped; the tuple is measured again
+            } // try
+        } // key
+
+    } // load
+
+    /**
+     * Writes all wisdom to a file, after adding the wisdom of the file itself,
+     * so processes sharing the file do not drop each other's tuples. The file
+     * is replaced as a whole.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param path
+     *          the wisdom file
+     * @throws JWaveRuntimeException
+     *           if the file can not be written
+     */
+    public static synchronized void save(Path path) {
+
+        if (Files.isReadable(path)) {
+            try {
+                load(path);
+            } catch (JWaveRuntimeException e) {
+                // replaced by the wisdom in memory
+            } // try
+        } // if
+
+        Properties properties = new Properties();
+        for (Map.Entry<String, Strategy> entry : _wisdom.entrySet())
+            properties.setProperty(entry.getKey(), entry.getValue().toString());
+
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null)
+                Files.createDirectories(parent);
+            Path tmp = Files.createTempFile(parent, "wisdom", ".tmp");
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                properties.store(out, "JWave TransformPlanner wisdom");
+            } // try
+            try {
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+            } // try
+        } catch (IOException e) {
+            throw new JWaveRuntimeException(Code.FAILURE,
+                    "TransformPlanner - " + e.getMessage(), e);
+        } // try
+
+    } // save
+
+    /**
+     * Writes the wisdom to the wisdom file if one is set; failing is ignored,
+     * as the wisdom is kept in memory anyway.
+     */
+    private static void persist() {
+        Path wisdomFile = _wisdomFile;
+        if (wisdomFile == null)
+            return;
+        try {
+            save(wisdomFile);
+        } catch (JWaveRuntimeException e) {
+            // e.g. a read only home; measured again by the next process
+        } // try
+    } // persist
+
+    private static Path defaultWisdomFile() {
+        try {
+            String file = System.getProperty(WISDOM_PROPERTY);
+            if (file != null)
+                return file.isEmpty() ? null : Paths.get(file);
+            String home = System.getProperty("user.home");
+            return home == null ? null
+                    : Paths.get(home, ".jwave", "wisdom.properties");
+        } catch (RuntimeException e) { // security manager or invalid path
+            return null;
+        } // try
+    } // defaultWisdomFile
+
+    /**
+     * The key of a tuple in the wisdom; readable in the file.
+     */
+    private static String key(String transformName, String waveletName,
+                              Direction direction, int[] dims, int[] levels) {
+        return transformName + " | " + waveletName + " | " + direction + " | "
+                + Arrays.toString(dims) + " | "
+                + (levels == null ? "all levels" : Arrays.toString(levels))
+                + " | " + Runtime.getRuntime().availableProcessors() + " cores";
+    } // key
+
+    /**
+     * The mean time of the executions of a plan in nano seconds, run for
+     * ROUND_NANOS and at least once.
+     */
+    private static long measure(TransformPlan plan, Object src, Object dst) {
+        long start = System.nanoTime();
+        long time;
+        int noOfRuns = 0;
+        do {
+            if (src instanceof double[])
+                plan.execute((double[]) src, (double[]) dst);
+            else if (src instanceof double[][])
+                plan.execute((double[][]) src, (double[][]) dst);
+            else
+                plan.execute((double[][][]) src, (double[][][]) dst);
+            noOfRuns++;
+            time = System.nanoTime() - start;
+        } while (time < ROUND_NANOS);
+        return time / noOfRuns;
+    } // measure
+
+    private static long median(long[] times) {
+        long[] sorted = times.clone();
+        Arrays.sort(sorted);
+        int m = sorted.length >> 1;
+        return (sorted.length & 1) == 1 ? sorted[m]
+                : (sorted[m - 1] + sorted[m]) / 2;
+    } // median
+
+    /**
+     * Random data of 1, 2, or 3 dimensions.
+     */
+    private static Object random(int[] dims, Random random) {
+        if (dims.length == 1)
+            return random(dims[0], random);
+        if (dims.length == 2) {
+            double[][] mat = new double[dims[0]][];
+            for (int i = 0; i < dims[0]; i++)
+                mat[i] = random(dims[1], random);
+            return mat;
+        } // if
+        double[][][] spc = new double[dims[0]][dims[1]][];
+        for (int i = 0; i < dims[0]; i++)
+            for (int j = 0; j < dims[1]; j++)
+                spc[i][j] = random(dims[2], random);
+        return spc;
+    } // random
+
+    private static double[] random(int length, Random random) {
+        double[] arr = new double[length];
+        for (int i = 0; i < length; i++)
+            arr[i] = random.nextDouble();
+        return arr;
+    } // random
+
+} // class
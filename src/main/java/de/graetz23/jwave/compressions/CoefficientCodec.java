@@ -0,0 +1,476 @@
+/**
+ * JWave is distributed under the MIT License (MIT); this file is part of.
+ *
+ * Copyright (c) 2008-2025 JWave Christian (graetz23@gmail.com)
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.graetz23.jwave.compressions;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import de.graetz23.jwave.exceptions.JWaveException;
+import de.graetz23.jwave.exceptions.JWaveFailure;
+
+/**
+ * Binary codec for wavelet coefficients. Coefficients are quantized by a
+ * uniform or dead-zone quantizer with a step size scaled per subband; runs of
+ * zeros and the quantized values are coded by an adaptive binary range coder
+ * with separate models per subband. The CoefficientDecoder reads the result
+ * coefficient by coefficient.
+ *
+ * The error of each decoded coefficient is bound by the step size of its
+ * subband; coefficients not finite, or too large for a bin index of the step
+ * size, are rejected on encoding instead of being decoded wrong.
+ *
+ * A subband is given by the number of bits of an index: 0 for index 0, 1 for
+ * index 1, 2 for indices 2 and 3, 3 for indices 4 to 7, and so on, matching
+ * the dyadic layout of the fast wavelet transform. For matrices and spaces the
+ * largest subband over all dimensions is taken.
+ *
+ * The stream starts by a header keeping the dimensions and all parameters, so
+ * the decoder needs no configuration:
+ *
+ * <pre>
+ * int magic, byte version, byte noOfDims, int[ noOfDims ] dims,
+ * double step, double deadZone, int noOfScales, double[ noOfScales ] scales,
+ * int noOfBytes, byte[ noOfBytes ] payload
+ * </pre>
+ *
+ * @author Christian (graetz23@gmail.com)
+ */
+public class CoefficientCodec {
+
+  /**
+   * Marks a coefficient stream; the characters JWQC.
+   */
+  static final int MAGIC = 0x4A575143;
+
+  /**
+   * The version of the stream format.
+   */
+  static final byte VERSION = 1;
+
+  /**
+   * The number of subbands having own models; subbands above share the last.
+   */
+  static final int NO_OF_BANDS = 33;
+
+  /**
+   * The largest index of a bin.
+   */
+  static final long MAX_BIN = Long.MAX_VALUE >> 1;
+
+  /**
+   * The step size of the quantizer.
+   */
+  protected final double _step;
+
+  /**
+   * The dead zone in [0 .. 1]; 0 is uniform quantization by rounding, 1 makes
+   * the bin of zero twice as wide as all other bins.
+   */
+  protected final double _deadZone;
+
+  /**
+   * Factors of the step size per subband; the last factor is taken for all
+   * subbands above.
+   */
+  protected final double[ ] _scales;
+
+  /**
+   * Uniform quantization by the given step size.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param step
+   *          the step size of the quantizer; larger than zero
+   */
+  public CoefficientCodec( double step ) {
+
+    this( step, 0., new double[ ] { 1. } );
+
+  } // CoefficientCodec
+
+  /**
+   * Dead-zone quantization by the given step size.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param step
+   *          the step size of the quantizer; larger than zero
+   * @param deadZone
+   *          the dead zone in [0 .. 1]
+   */
+  public CoefficientCodec( double step, double deadZone ) {
+
+    this( step, deadZone, new double[ ] { 1. } );
+
+  } // CoefficientCodec
+
+  /**
+   * Dead-zone quantization by a step size scaled per subband; e.g. coarser for
+   * the subbands of fine details.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param step
+   *          the step size of the quantizer; larger than zero
+   * @param deadZone
+   *          the dead zone in [0 .. 1]
+   * @param scales
+   *          the factors of the step size for subband 0, 1, 2, ..; the last
+   *          factor is taken for all subbands above
+   */
+  public CoefficientCodec( double step, double deadZone, double[ ] scales ) {
+
+    try {
+
+      if( !( step > 0. ) )
+        throw new JWaveFailure(
+            "CoefficientCodec - given step size should be larger than zero!" );
+
+    } catch( JWaveException e ) {
+
+      e.showMessage( );
+      System.out.println( "CoefficientCodec - setting step size to: " + 1. );
+      step = 1.;
+
+    }
+
+    try {
+
+      if( !( deadZone >= 0. && deadZone <= 1. ) )
+        throw new JWaveFailure(
+            "CoefficientCodec - given dead zone should be in [0 .. 1]!" );
+
+    } catch( JWaveException e ) {
+
+      e.showMessage( );
+      deadZone = deadZone > 1. ? 1. : 0.;
+      System.out.println( "CoefficientCodec - setting dead zone to: "
+          + deadZone );
+
+    }
+
+    try {
+
+      if( scales == null || scales.length == 0 )
+        throw new JWaveFailure( "CoefficientCodec - no scales given!" );
+      for( double scale : scales )
+        if( !( scale > 0. ) )
+          throw new JWaveFailure(
+              "CoefficientCodec - given scales should be larger than zero!" );
+
+    } catch( JWaveException e ) {
+
+      e.showMessage( );
+      System.out.println( "CoefficientCodec - setting scales to: " + 1. );
+      scales = new double[ ] { 1. };
+
+    }
+
+    _step = step;
+    _deadZone = deadZone;
+    _scales = scales.clone( );
+
+  } // CoefficientCodec
+
+  /**
+   * Returns the subband of an index; its number of bits.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param index
+   *          an index of a dimension
+   * @return the subband
+   */
+  public static int calcBand( int index ) {
+
+    return 32 - Integer.numberOfLeadingZeros( index );
+
+  } // calcBand
+
+  /**
+   * Encodes an array into a new ByteBuffer.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param arrHilb
+   *          the coefficients
+   * @return the stream, ready for reading
+   * @throws JWaveFailure
+   *           if a coefficient is not finite or too large for its step size
+   */
+  public ByteBuffer encode( double[ ] arrHilb ) throws JWaveFailure {
+
+    RangeEncoder encoder = new RangeEncoder( );
+    Coder coder = new Coder( encoder );
+    for( int i = 0; i < arrHilb.length; i++ )
+      coder.code( arrHilb[ i ], calcBand( i ) );
+    coder.finish( );
+
+    return toBuffer( new int[ ] { arrHilb.length }, encoder );
+
+  } // encode
+
+  /**
+   * Encodes a matrix row by row into a new ByteBuffer.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param matHilb
+   *          the coefficients
+   * @return the stream, ready for reading
+   * @throws JWaveFailure
+   *           if a coefficient is not finite or too large for its step size
+   */
+  public ByteBuffer encode( double[ ][ ] matHilb ) throws JWaveFailure {
+
+    int noOfRows = matHilb.length;
+    int noOfCols = matHilb[ 0 ].length;
+
+    RangeEncoder encoder = new RangeEncoder( );
+    Coder coder = new Coder( encoder );
+    for( int i = 0; i < noOfRows; i++ ) {
+      int bandOfRow = calcBand( i );
+      double[ ] arrHilb = matHilb[ i ];
+      for( int j = 0; j < noOfCols; j++ )
+        coder.code( arrHilb[ j ], Math.max( bandOfRow, calcBand( j ) ) );
+    } // i
+    coder.finish( );
+
+    return toBuffer( new int[ ] { noOfRows, noOfCols }, encoder );
+
+  } // encode
+
+  /**
+   * Encodes a space row by row into a new ByteBuffer.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param spcHilb
+   *          the coefficients
+   * @return the stream, ready for reading
+   * @throws JWaveFailure
+   *           if a coefficient is not finite or too large for its step size
+   */
+  public ByteBuffer encode( double[ ][ ][ ] spcHilb ) throws JWaveFailure {
+
+    int noOfRows = spcHilb.length;
+    int noOfCols = spcHilb[ 0 ].length;
+    int noOfLvls = spcHilb[ 0 ][ 0 ].length;
+
+    RangeEncoder encoder = new RangeEncoder( );
+    Coder coder = new Coder( encoder );
+    for( int i = 0; i < noOfRows; i++ )
+      for( int j = 0; j < noOfCols; j++ ) {
+        int bandOfRow = Math.max( calcBand( i ), calcBand( j ) );
+        double[ ] arrHilb = spcHilb[ i ][ j ];
+        for( int k = 0; k < noOfLvls; k++ )
+          coder.code( arrHilb[ k ], Math.max( bandOfRow, calcBand( k ) ) );
+      } // j
+    coder.finish( );
+
+    return toBuffer( new int[ ] { noOfRows, noOfCols, noOfLvls }, encoder );
+
+  } // encode
+
+  /**
+   * Returns a decoder reading the coefficients of a stream starting at the
+   * position of the buffer; the position is moved while decoding.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param buffer
+   *          the stream as written by an encode method
+   * @return the decoder
+   * @throws JWaveException
+   *           if the buffer keeps no coefficient stream
+   */
+  public static CoefficientDecoder decoder( ByteBuffer buffer )
+      throws JWaveException {
+
+    return new CoefficientDecoder( buffer );
+
+  } // decoder
+
+  /**
+   * Returns the step size for a subband.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param band
+   *          the subband
+   * @return the scaled step size
+   */
+  public double getStep( int band ) {
+
+    return _step * _scales[ Math.min( band, _scales.length - 1 ) ];
+
+  } // getStep
+
+  /**
+   * Quantizes a value by a step size; values inside the dead zone become zero.
+   * Bins beyond MAX_BIN are clamped and NaN becomes zero; check values by
+   * isQuantizable( .. ) first.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param value
+   *          the coefficient
+   * @param step
+   *          the step size
+   * @param deadZone
+   *          the dead zone in [0 .. 1]
+   * @return the index of the bin; signed
+   */
+  public static long quantize( double value, double step, double deadZone ) {
+
+    double rounding = .5 * ( 1. - deadZone );
+    long q = (long)Math.min( Math.floor( Math.abs( value ) / step + rounding ),
+        (double)MAX_BIN );
+    return value < 0. ? -q : q;
+
+  } // quantize
+
+  /**
+   * Checks if a value is finite and its bin of a step size is not beyond
+   * MAX_BIN, so it is reconstructed within the step size.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param value
+   *          the coefficient
+   * @param step
+   *          the step size
+   * @return true if quantize( .. ) keeps the value
+   */
+  public static boolean isQuantizable( double value, double step ) {
+
+    return Math.abs( value ) / step + .5 < (double)MAX_BIN; // false for NaN
+
+  } // isQuantizable
+
+  /**
+   * Reconstructs a value of a bin; the middle of the bin.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param q
+   *          the index of the bin; signed
+   * @param step
+   *          the step size
+   * @param deadZone
+   *          the dead zone in [0 .. 1]
+   * @return the reconstructed coefficient
+   */
+  public static double dequantize( long q, double step, double deadZone ) {
+
+    if( q == 0 )
+      return 0.;
+    double offSet = .5 * deadZone; // middle of the bin
+    double value = ( Math.abs( q ) + offSet ) * step;
+    return q < 0 ? -value : value;
+
+  } // dequantize
+
+  /**
+   * Writes header and payload to a new buffer.
+   */
+  private ByteBuffer toBuffer( int[ ] dims, RangeEncoder encoder ) {
+
+    int noOfBytes = encoder.getNoOfBytes( );
+    int noOfHeader = 4 + 1 + 1 + 4 * dims.length + 8 + 8 + 4
+        + 8 * _scales.length + 4;
+
+    ByteBuffer buffer = ByteBuffer.allocate( noOfHeader + noOfBytes );
+    buffer.order( ByteOrder.BIG_ENDIAN );
+    buffer.putInt( MAGIC );
+    buffer.put( VERSION );
+    buffer.put( (byte)dims.length );
+    for( int dim : dims )
+      buffer.putInt( dim );
+    buffer.putDouble( _step );
+    buffer.putDouble( _deadZone );
+    buffer.putInt( _scales.length );
+    for( double scale : _scales )
+      buffer.putDouble( scale );
+    buffer.putInt( noOfBytes );
+    buffer.put( encoder.getBytes( ), 0, noOfBytes );
+    buffer.flip( );
+    return buffer;
+
+  } // toBuffer
+
+  /**
+   * Codes runs of zeros and quantized values in order; a run is coded by the
+   * model of the subband it starts in, a value by the model of its subband.
+   */
+  private final class Coder {
+
+    private final RangeEncoder _encoder;
+
+    private final short[ ][ ] _runModels = new short[ NO_OF_BANDS ][ ];
+
+    private final short[ ][ ] _valueModels = new short[ NO_OF_BANDS ][ ];
+
+    private long _run = 0;
+
+    private int _bandOfRun = 0;
+
+    Coder( RangeEncoder encoder ) {
+
+      _encoder = encoder;
+      for( int b = 0; b < NO_OF_BANDS; b++ ) {
+        _runModels[ b ] = RangeEncoder.createModel( );
+        _valueModels[ b ] = RangeEncoder.createModel( );
+      } // b
+
+    } // Coder
+
+    void code( double value, int band ) throws JWaveFailure {
+
+      double step = getStep( band );
+      if( !isQuantizable( value, step ) )
+        throw new JWaveFailure( "CoefficientCodec - coefficient " + value
+            + " is not finite or too large for step size " + step );
+
+      long q = quantize( value, step, _deadZone );
+
+      if( q == 0 ) {
+        if( _run == 0 )
+          _bandOfRun = band;
+        _run++;
+        return;
+      } // if
+
+      if( _run == 0 )
+        _bandOfRun = band;
+      _encoder.encodeNumber( _runModels[ Math.min( _bandOfRun, NO_OF_BANDS - 1 ) ],
+          _run );
+      _run = 0;
+
+      _encoder.encodeNumber( _valueModels[ Math.min( band, NO_OF_BANDS - 1 ) ],
+          Math.abs( q ) - 1 );
+      _encoder.encodeDirectBits( q < 0 ? 1 : 0, 1 );
+
+    } // code
+
+    void finish( ) {
+
+      if( _run > 0 )
+        _encoder.encodeNumber(
+            _runModels[ Math.min( _bandOfRun, NO_OF_BANDS - 1 ) ], _run );
+      _encoder.flush( );
+
+    } // finish
+
+  } // class
+
+} // CoefficientCodec
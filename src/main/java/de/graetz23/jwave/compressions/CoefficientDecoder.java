@@ -0,0 +1,373 @@
+/**
+ * JWave is distributed under the MIT License (MIT); this file is part of.
+ *
+ * Copyright (c) 2008-2025 JWave Christian (graetz23@gmail.com)
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.graetz23.jwave.compressions;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import de.graetz23.jwave.exceptions.JWaveException;
+import de.graetz23.jwave.exceptions.JWaveFailure;
+
+/**
+ * Streaming decoder of a stream written by the CoefficientCodec; returns the
+ * coefficients one by one or block by block in row-major order, so streams of
+ * any length can be processed without keeping all coefficients in memory. The
+ * bytes are read from the buffer as they are needed; e.g. from a buffer mapped
+ * to a file.
+ *
+ * @author Christian (graetz23@gmail.com)
+ */
+public class CoefficientDecoder {
+
+  private final int[ ] _dims;
+
+  private final double _step;
+
+  private final double _deadZone;
+
+  private final double[ ] _scales;
+
+  private final long _noOfValues;
+
+  private final RangeDecoder _decoder;
+
+  private final short[ ][ ] _runModels =
+      new short[ CoefficientCodec.NO_OF_BANDS ][ ];
+
+  private final short[ ][ ] _valueModels =
+      new short[ CoefficientCodec.NO_OF_BANDS ][ ];
+
+  /**
+   * The coordinates of the next coefficient.
+   */
+  private final int[ ] _coords;
+
+  private long _pos = 0;
+
+  /**
+   * The number of zeros left of the current run.
+   */
+  private long _zeros = 0;
+
+  /**
+   * True if a value follows the current run.
+   */
+  private boolean _isValueNext = false;
+
+  /**
+   * Reads the header at the position of the buffer; the payload is read while
+   * decoding.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param buffer
+   *          the stream as written by the CoefficientCodec
+   * @throws JWaveException
+   *           if the buffer keeps no coefficient stream
+   */
+  public CoefficientDecoder( ByteBuffer buffer ) throws JWaveException {
+
+    ByteBuffer stream = buffer.duplicate( ).order( ByteOrder.BIG_ENDIAN );
+
+    try {
+
+      if( stream.getInt( ) != CoefficientCodec.MAGIC )
+        throw new JWaveFailure(
+            "CoefficientDecoder - buffer keeps no coefficient stream!" );
+      byte version = stream.get( );
+      if( version != CoefficientCodec.VERSION )
+        throw new JWaveFailure(
+            "CoefficientDecoder - unknown version of stream: " + version );
+
+      int noOfDims = stream.get( );
+      if( noOfDims < 1 || noOfDims > 3 )
+        throw new JWaveFailure(
+            "CoefficientDecoder - unknown number of dimensions: " + noOfDims );
+      _dims = new int[ noOfDims ];
+      long noOfValues = 1;
+      for( int d = 0; d < noOfDims; d++ ) {
+        _dims[ d ] = stream.getInt( );
+        if( _dims[ d ] < 0 )
+          throw new JWaveFailure(
+              "CoefficientDecoder - negative dimension: " + _dims[ d ] );
+        noOfValues *= _dims[ d ];
+      } // d
+      _noOfValues = noOfValues;
+
+      _step = stream.getDouble( );
+      _deadZone = stream.getDouble( );
+      int noOfScales = stream.getInt( );
+      if( noOfScales < 1 || noOfScales > stream.remaining( ) / 8 )
+        throw new JWaveFailure(
+            "CoefficientDecoder - invalid number of scales: " + noOfScales );
+      _scales = new double[ noOfScales ];
+      for( int s = 0; s < noOfScales; s++ )
+        _scales[ s ] = stream.getDouble( );
+
+      int noOfBytes = stream.getInt( );
+      if( noOfBytes < 0 || noOfBytes > stream.remaining( ) )
+        throw new JWaveFailure(
+            "CoefficientDecoder - stream is truncated; missing bytes: "
+                + ( noOfBytes - stream.remaining( ) ) );
+
+      // the decoder reads the payload only; the buffer is moved behind it
+      ByteBuffer payload = stream.slice( );
+      payload.limit( noOfBytes );
+      buffer.position( stream.position( ) + noOfBytes );
+      _decoder = new RangeDecoder( payload );
+
+    } catch( BufferUnderflowException e ) {
+
+      throw new JWaveFailure( "CoefficientDecoder - stream is truncated!" );
+
+    } // try
+
+    _coords = new int[ _dims.length ];
+    for( int b = 0; b < CoefficientCodec.NO_OF_BANDS; b++ ) {
+      _runModels[ b ] = RangeEncoder.createModel( );
+      _valueModels[ b ] = RangeEncoder.createModel( );
+    } // b
+
+  } // CoefficientDecoder
+
+  /**
+   * Returns the dimensions; the length of an array, the rows and columns of a
+   * matrix, or the rows, columns, and levels of a space.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @return the dimensions
+   */
+  public int[ ] getDimensions( ) {
+
+    return _dims.clone( );
+
+  } // getDimensions
+
+  /**
+   * Returns the number of all coefficients of the stream.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @return the number of coefficients
+   */
+  public long getNoOfValues( ) {
+
+    return _noOfValues;
+
+  } // getNoOfValues
+
+  /**
+   * Returns the number of coefficients decoded so far.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @return the position in row-major order
+   */
+  public long getPosition( ) {
+
+    return _pos;
+
+  } // getPosition
+
+  /**
+   * Returns true if there are coefficients left.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @return true if next( ) can be called
+   */
+  public boolean hasNext( ) {
+
+    return _pos < _noOfValues;
+
+  } // hasNext
+
+  /**
+   * Decodes the next coefficient.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @return the reconstructed coefficient
+   * @throws JWaveException
+   *           if no coefficient is left or the stream is broken
+   */
+  public double next( ) throws JWaveException {
+
+    if( _pos >= _noOfValues )
+      throw new JWaveFailure( "CoefficientDecoder - no coefficient left!" );
+
+    int band = calcBand( );
+    double value = 0.;
+
+    try {
+
+      if( _zeros == 0 && !_isValueNext ) { // a new run starts here
+
+        long run = _decoder.decodeNumber(
+            _runModels[ Math.min( band, CoefficientCodec.NO_OF_BANDS - 1 ) ] );
+        if( run < 0 || run > _noOfValues - _pos )
+          throw new JWaveFailure( "CoefficientDecoder - stream is broken!" );
+        _zeros = run;
+        _isValueNext = _pos + run < _noOfValues;
+
+      } // if
+
+      if( _zeros > 0 )
+        _zeros--;
+      else {
+
+        long q = _decoder.decodeNumber( _valueModels[ Math.min( band,
+            CoefficientCodec.NO_OF_BANDS - 1 ) ] ) + 1;
+        if( _decoder.decodeDirectBits( 1 ) == 1 )
+          q = -q;
+        value = CoefficientCodec.dequantize( q,
+            _step * _scales[ Math.min( band, _scales.length - 1 ) ], _deadZone );
+        _isValueNext = false;
+
+      } // if
+
+    } catch( BufferUnderflowException e ) {
+
+      throw new JWaveFailure( "CoefficientDecoder - stream is truncated!" );
+
+    } // try
+
+    advance( );
+
+    return value;
+
+  } // next
+
+  /**
+   * Decodes the next coefficients into an array.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param arr
+   *          the array taking the coefficients
+   * @param offSet
+   *          the position in the array to start at
+   * @param length
+   *          the maximal number of coefficients
+   * @return the number of decoded coefficients; less than length at the end
+   * @throws JWaveException
+   *           if the stream is broken
+   */
+  public int read( double[ ] arr, int offSet, int length )
+      throws JWaveException {
+
+    int n = (int)Math.min( length, _noOfValues - _pos );
+    for( int i = 0; i < n; i++ )
+      arr[ offSet + i ] = next( );
+    return n;
+
+  } // read
+
+  /**
+   * Decodes all coefficients of a 1-D stream.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @return the coefficients
+   * @throws JWaveException
+   *           if the stream is not 1-D or broken
+   */
+  public double[ ] decodeArray( ) throws JWaveException {
+
+    checkDimensions( 1 );
+    double[ ] arr = new double[ _dims[ 0 ] ];
+    read( arr, 0, arr.length );
+    return arr;
+
+  } // decodeArray
+
+  /**
+   * Decodes all coefficients of a 2-D stream.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @return the coefficients
+   * @throws JWaveException
+   *           if the stream is not 2-D or broken
+   */
+  public double[ ][ ] decodeMatrix( ) throws JWaveException {
+
+    checkDimensions( 2 );
+    double[ ][ ] mat = new double[ _dims[ 0 ] ][ _dims[ 1 ] ];
+    for( double[ ] arr : mat )
+      read( arr, 0, arr.length );
+    return mat;
+
+  } // decodeMatrix
+
+  /**
+   * Decodes all coefficients of a 3-D stream.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @return the coefficients
+   * @throws JWaveException
+   *           if the stream is not 3-D or broken
+   */
+  public double[ ][ ][ ] decodeSpace( ) throws JWaveException {
+
+    checkDimensions( 3 );
+    double[ ][ ][ ] spc = new double[ _dims[ 0 ] ][ _dims[ 1 ] ][ _dims[ 2 ] ];
+    for( double[ ][ ] mat : spc )
+      for( double[ ] arr : mat )
+        read( arr, 0, arr.length );
+    return spc;
+
+  } // decodeSpace
+
+  private void checkDimensions( int noOfDims ) throws JWaveException {
+
+    if( _dims.length != noOfDims )
+      throw new JWaveFailure( "CoefficientDecoder - stream has "
+          + _dims.length + " dimensions instead of " + noOfDims );
+    if( _pos != 0 )
+      throw new JWaveFailure(
+          "CoefficientDecoder - stream is already partly decoded!" );
+
+  } // checkDimensions
+
+  /**
+   * The subband of the next coefficient.
+   */
+  private int calcBand( ) {
+
+    int band = 0;
+    for( int coord : _coords )
+      band = Math.max( band, CoefficientCodec.calcBand( coord ) );
+    return band;
+
+  } // calcBand
+
+  /**
+   * Moves the coordinates to the next coefficient in row-major order.
+   */
+  private void advance( ) {
+
+    _pos++;
+    for( int d = _dims.length - 1; d >= 0; d-- ) {
+      if( ++_coords[ d ] < _dims[ d ] )
+        return;
+      _coords[ d ] = 0;
+    } // d
+
+  } // advance
+
+} // CoefficientDecoder
@@ -0,0 +1,348 @@
+/**
+ * JWave is distributed under the MIT License (MIT); this file is part of.
+ *
+ * Copyright (c) 2008-2025 JWave Christian (graetz23@gmail.com)
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.graetz23.jwave.compressions;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import de.graetz23.jwave.exceptions.JWaveException;
+import de.graetz23.jwave.exceptions.JWaveFailure;
+
+/**
+ * Reads a file of FastWaveletTransform coefficients by memory mapping; single
+ * subbands or ranges of them are mapped on demand, so only the pages touched
+ * are loaded and nothing is copied. Files are written by the
+ * CoefficientStoreWriter.
+ *
+ * The file keeps a header with an index of all subbands, followed by the
+ * subbands as little endian doubles: the details of level 1, the finest, up to
+ * the details of the last level, and then the approximation of the last level.
+ * The details of level l keep length >> l values.
+ *
+ * @author Christian (graetz23@gmail.com)
+ */
+public class CoefficientStore implements Closeable {
+
+  /**
+   * Marks a coefficient store; the characters JWCS.
+   */
+  static final int MAGIC = 0x4A574353;
+
+  static final int VERSION = 1;
+
+  static final int APPROXIMATION = 0;
+
+  static final int DETAILS = 1;
+
+  /**
+   * The size of the fixed part of the header and of an index entry in bytes.
+   */
+  static final int HEADER_SIZE = 4 + 4 + 8 + 4 + 4;
+
+  static final int ENTRY_SIZE = 4 + 4 + 8 + 8;
+
+  static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+  private final FileChannel _channel;
+
+  private final long _length;
+
+  private final int _noOfLevels;
+
+  /**
+   * Offsets in bytes of the details of levels 1 .. noOfLevels at positions 1 ..
+   * noOfLevels and of the approximation at position 0.
+   */
+  private final long[ ] _offsets;
+
+  /**
+   * Opens a file of coefficients for reading; its header is read at once.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param path
+   *          the file written by a CoefficientStoreWriter
+   * @throws JWaveException
+   *           if the file can not be read or is no coefficient store
+   */
+  public CoefficientStore( Path path ) throws JWaveException {
+
+    try {
+      _channel = FileChannel.open( path, StandardOpenOption.READ );
+    } catch( IOException e ) {
+      throw new JWaveFailure( "CoefficientStore - " + e.getMessage( ) );
+    } // try
+
+    try {
+
+      ByteBuffer header = read( 0, HEADER_SIZE );
+      if( header.getInt( ) != MAGIC )
+        throw new JWaveFailure( "CoefficientStore - file is no coefficient store: "
+            + path );
+      int version = header.getInt( );
+      if( version != VERSION )
+        throw new JWaveFailure( "CoefficientStore - unknown version: " + version );
+      _length = header.getLong( );
+      _noOfLevels = header.getInt( );
+      int noOfSubbands = header.getInt( );
+      if( _length < 1 || _noOfLevels < 0 || _noOfLevels > 62
+          || noOfSubbands != _noOfLevels + 1 )
+        throw new JWaveFailure( "CoefficientStore - header is broken: " + path );
+
+      _offsets = new long[ noOfSubbands ];
+      ByteBuffer index = read( HEADER_SIZE, noOfSubbands * ENTRY_SIZE );
+      for( int s = 0; s < noOfSubbands; s++ ) {
+        int level = index.getInt( );
+        int kind = index.getInt( );
+        long offset = index.getLong( );
+        long length = index.getLong( );
+        int pos = kind == APPROXIMATION ? 0 : level;
+        boolean isValid = kind == APPROXIMATION ? level == _noOfLevels
+            : kind == DETAILS && level >= 1 && level <= _noOfLevels;
+        if( !isValid
+            || length != calcNoOfValues( _length, level ) || offset < 0
+            || offset + 8 * length > _channel.size( ) )
+          throw new JWaveFailure( "CoefficientStore - index is broken: " + path );
+        _offsets[ pos ] = offset;
+      } // s
+
+    } catch( JWaveException e ) {
+      close( );
+      throw e;
+    } catch( IOException e ) {
+      close( );
+      throw new JWaveFailure( "CoefficientStore - " + e.getMessage( ) );
+    } // try
+
+  } // CoefficientStore
+
+  /**
+   * The number of values of the complete decomposition.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @return the length of the transformed signal
+   */
+  public long getLength( ) {
+
+    return _length;
+
+  } // getLength
+
+  /**
+   * The number of levels of the decomposition.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @return the level of the stored approximation
+   */
+  public int getNoOfLevels( ) {
+
+    return _noOfLevels;
+
+  } // getNoOfLevels
+
+  /**
+   * The number of values of the details of a level, or of the approximation of
+   * the last level.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param level
+   *          1 .. noOfLevels
+   * @return length >> level
+   */
+  public long getNoOfValues( int level ) {
+
+    return calcNoOfValues( _length, level );
+
+  } // getNoOfValues
+
+  /**
+   * Maps the details of a level.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param level
+   *          1, the finest, .. noOfLevels
+   * @return a read only view of the file
+   * @throws JWaveException
+   *           if the level is out of range or the file can not be mapped
+   */
+  public DoubleBuffer getDetails( int level ) throws JWaveException {
+
+    return getDetails( level, 0, getNoOfValues( checkLevel( level ) ) );
+
+  } // getDetails
+
+  /**
+   * Maps a range of the details of a level; for a time range [ t0, t1 ) of the
+   * signal, the details of level l are those of [ t0 >> l, t1 >> l ).
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param level
+   *          1, the finest, .. noOfLevels
+   * @param from
+   *          the first value of the range
+   * @param noOfValues
+   *          the number of values of the range
+   * @return a read only view of the file
+   * @throws JWaveException
+   *           if level or range are out of range or the file can not be mapped
+   */
+  public DoubleBuffer getDetails( int level, long from, long noOfValues )
+      throws JWaveException {
+
+    return map( _offsets[ checkLevel( level ) ], getNoOfValues( level ), from,
+        noOfValues );
+
+  } // getDetails
+
+  /**
+   * Maps the approximation of the last level.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @return a read only view of the file
+   * @throws JWaveException
+   *           if the file can not be mapped
+   */
+  public DoubleBuffer getApproximation( ) throws JWaveException {
+
+    return getApproximation( 0, getNoOfValues( _noOfLevels ) );
+
+  } // getApproximation
+
+  /**
+   * Maps a range of the approximation of the last level.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param from
+   *          the first value of the range
+   * @param noOfValues
+   *          the number of values of the range
+   * @return a read only view of the file
+   * @throws JWaveException
+   *           if the range is out of range or the file can not be mapped
+   */
+  public DoubleBuffer getApproximation( long from, long noOfValues )
+      throws JWaveException {
+
+    return map( _offsets[ 0 ], getNoOfValues( _noOfLevels ), from, noOfValues );
+
+  } // getApproximation
+
+  /**
+   * Reads the complete decomposition into the layout of the
+   * FastWaveletTransform; approximation first, then the details from the last
+   * level down to level 1.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @return the coefficients for reverse( arrHilb, noOfLevels )
+   * @throws JWaveException
+   *           if the decomposition does not fit into an array
+   */
+  public double[ ] toArray( ) throws JWaveException {
+
+    if( _length > Integer.MAX_VALUE - 8 )
+      throw new JWaveFailure( "CoefficientStore - too many values for an array: "
+          + _length );
+    double[ ] arrHilb = new double[ (int)_length ];
+    int pos = (int)getNoOfValues( _noOfLevels );
+    getApproximation( ).get( arrHilb, 0, pos );
+    for( int level = _noOfLevels; level >= 1; level-- ) {
+      int n = (int)getNoOfValues( level );
+      getDetails( level ).get( arrHilb, pos, n );
+      pos += n;
+    } // level
+    return arrHilb;
+
+  } // toArray
+
+  /**
+   * Closes the file; views mapped before stay valid.
+   *
+   * @see java.io.Closeable#close()
+   */
+  @Override public void close( ) {
+
+    try {
+      _channel.close( );
+    } catch( IOException e ) {
+      // nothing to lose by a failing close of a file read only
+    } // try
+
+  } // close
+
+  /**
+   * The number of values of a subband; length >> level.
+   */
+  static long calcNoOfValues( long length, int level ) {
+
+    return length >> level;
+
+  } // calcNoOfValues
+
+  private int checkLevel( int level ) throws JWaveException {
+
+    if( level < 1 || level > _noOfLevels )
+      throw new JWaveFailure( "CoefficientStore - level is out of range: "
+          + level );
+    return level;
+
+  } // checkLevel
+
+  private DoubleBuffer map( long offset, long noOfSubbandValues, long from,
+      long noOfValues ) throws JWaveException {
+
+    if( from < 0 || noOfValues < 0 || from + noOfValues > noOfSubbandValues )
+      throw new JWaveFailure( "CoefficientStore - range is out of range: "
+          + from + " + " + noOfValues + " > " + noOfSubbandValues );
+    if( noOfValues > Integer.MAX_VALUE / 8 )
+      throw new JWaveFailure( "CoefficientStore - range is too large to map: "
+          + noOfValues );
+
+    try {
+      return _channel
+          .map( FileChannel.MapMode.READ_ONLY, offset + 8 * from, 8 * noOfValues )
+          .order( ORDER ).asDoubleBuffer( );
+    } catch( IOException e ) {
+      throw new JWaveFailure( "CoefficientStore - " + e.getMessage( ) );
+    } // try
+
+  } // map
+
+  private ByteBuffer read( long position, int noOfBytes ) throws IOException,
+      JWaveException {
+
+    ByteBuffer buffer = ByteBuffer.allocate( noOfBytes ).order( ORDER );
+    while( buffer.hasRemaining( ) )
+      if( _channel.read( buffer, position + buffer.position( ) ) < 0 )
+        throw new JWaveFailure( "CoefficientStore - file is shorter than header" );
+    buffer.flip( );
+    return buffer;
+
+  } // read
+
+} // CoefficientStore
@@ -0,0 +1,341 @@
+/**
+ * JWave is distributed under the MIT License (MIT); this file is part of.
+ *
+ * Copyright (c) 2008-2025 JWave Christian (graetz23@gmail.com)
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.graetz23.jwave.compressions;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import de.graetz23.jwave.exceptions.JWaveException;
+import de.graetz23.jwave.exceptions.JWaveFailure;
+import de.graetz23.jwave.transforms.wavelets.Wavelet;
+
+/**
+ * Writes a file of FastWaveletTransform coefficients for the CoefficientStore.
+ * The header with the index is written at once, so the subbands can be written
+ * in any order and in pieces, e.g. level by level while transforming. Values
+ * not written read as zero. Not thread safe.
+ *
+ * @author Christian (graetz23@gmail.com)
+ */
+public class CoefficientStoreWriter implements Closeable {
+
+  /**
+   * The number of doubles written by a single call of the file channel.
+   */
+  private static final int CHUNK = 1 << 13;
+
+  private final FileChannel _channel;
+
+  private final long _length;
+
+  private final int _noOfLevels;
+
+  /**
+   * Offsets in bytes of the details of levels 1 .. noOfLevels at positions 1 ..
+   * noOfLevels and of the approximation at position 0.
+   */
+  private final long[ ] _offsets;
+
+  private final ByteBuffer _buffer =
+      ByteBuffer.allocateDirect( 8 * CHUNK ).order( CoefficientStore.ORDER );
+
+  private final DoubleBuffer _doubles = _buffer.asDoubleBuffer( );
+
+  /**
+   * Creates or overwrites a file for a decomposition of a certain length and
+   * number of levels.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param path
+   *          the file
+   * @param length
+   *          the number of values of the complete decomposition
+   * @param noOfLevels
+   *          the number of levels; length has to be divisible by 2^noOfLevels
+   * @throws JWaveException
+   *           if length and levels do not fit or the file can not be written
+   */
+  public CoefficientStoreWriter( Path path, long length, int noOfLevels )
+      throws JWaveException {
+
+    if( length < 1 || noOfLevels < 0 || noOfLevels > 62
+        || length % ( 1L << noOfLevels ) != 0 )
+      throw new JWaveFailure( "CoefficientStoreWriter - length " + length
+          + " is not divisible by 2^" + noOfLevels );
+
+    _length = length;
+    _noOfLevels = noOfLevels;
+    _offsets = new long[ noOfLevels + 1 ];
+
+    int noOfSubbands = noOfLevels + 1;
+    ByteBuffer header = ByteBuffer.allocate( CoefficientStore.HEADER_SIZE
+        + noOfSubbands * CoefficientStore.ENTRY_SIZE ).order(
+            CoefficientStore.ORDER );
+    header.putInt( CoefficientStore.MAGIC );
+    header.putInt( CoefficientStore.VERSION );
+    header.putLong( length );
+    header.putInt( noOfLevels );
+    header.putInt( noOfSubbands );
+
+    long offset = header.capacity( ); // a multiple of 8
+    for( int level = 1; level <= noOfLevels + 1; level++ ) {
+      boolean isDetails = level <= noOfLevels;
+      int l = isDetails ? level : noOfLevels;
+      long noOfValues = CoefficientStore.calcNoOfValues( length, l );
+      header.putInt( l );
+      header.putInt( isDetails ? CoefficientStore.DETAILS
+          : CoefficientStore.APPROXIMATION );
+      header.putLong( offset );
+      header.putLong( noOfValues );
+      _offsets[ isDetails ? level : 0 ] = offset;
+      offset += 8 * noOfValues;
+    } // level
+    header.flip( );
+
+    try {
+      _channel = FileChannel.open( path, StandardOpenOption.CREATE,
+          StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING );
+    } catch( IOException e ) {
+      throw new JWaveFailure( "CoefficientStoreWriter - " + e.getMessage( ) );
+    } // try
+
+    try {
+      write( header, 0 );
+      write( ByteBuffer.allocate( 1 ), offset - 1 ); // file of full size
+    } catch( JWaveException e ) {
+      close( );
+      throw e;
+    } // try
+
+  } // CoefficientStoreWriter
+
+  /**
+   * Writes all details of a level.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param level
+   *          1, the finest, .. noOfLevels
+   * @param arr
+   *          the details of length length >> level
+   * @throws JWaveException
+   *           if level or length are out of range or writing fails
+   */
+  public void writeDetails( int level, double[ ] arr ) throws JWaveException {
+
+    if( arr.length != CoefficientStore.calcNoOfValues( _length, level ) )
+      throw new JWaveFailure( "CoefficientStoreWriter - details of level "
+          + level + " are of length: " + ( _length >> level ) );
+    writeDetails( level, 0, arr, 0, arr.length );
+
+  } // writeDetails
+
+  /**
+   * Writes a piece of the details of a level.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param level
+   *          1, the finest, .. noOfLevels
+   * @param from
+   *          the position of the piece in the details
+   * @param arr
+   *          the array keeping the piece
+   * @param off
+   *          the position of the piece in the array
+   * @param len
+   *          the length of the piece
+   * @throws JWaveException
+   *           if level or range are out of range or writing fails
+   */
+  public void writeDetails( int level, long from, double[ ] arr, int off, int len )
+      throws JWaveException {
+
+    if( level < 1 || level > _noOfLevels )
+      throw new JWaveFailure( "CoefficientStoreWriter - level is out of range: "
+          + level );
+    write( _offsets[ level ], CoefficientStore.calcNoOfValues( _length, level ),
+        from, arr, off, len );
+
+  } // writeDetails
+
+  /**
+   * Writes the approximation of the last level.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param arr
+   *          the approximation of length length >> noOfLevels
+   * @throws JWaveException
+   *           if the length does not fit or writing fails
+   */
+  public void writeApproximation( double[ ] arr ) throws JWaveException {
+
+    if( arr.length != CoefficientStore.calcNoOfValues( _length, _noOfLevels ) )
+      throw new JWaveFailure( "CoefficientStoreWriter - approximation is of "
+          + "length: " + ( _length >> _noOfLevels ) );
+    writeApproximation( 0, arr, 0, arr.length );
+
+  } // writeApproximation
+
+  /**
+   * Writes a piece of the approximation of the last level.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param from
+   *          the position of the piece in the approximation
+   * @param arr
+   *          the array keeping the piece
+   * @param off
+   *          the position of the piece in the array
+   * @param len
+   *          the length of the piece
+   * @throws JWaveException
+   *           if the range is out of range or writing fails
+   */
+  public void writeApproximation( long from, double[ ] arr, int off, int len )
+      throws JWaveException {
+
+    write( _offsets[ 0 ], CoefficientStore.calcNoOfValues( _length, _noOfLevels ),
+        from, arr, off, len );
+
+  } // writeApproximation
+
+  /**
+   * Writes a complete decomposition in the layout of the FastWaveletTransform;
+   * approximation first, then the details from the last level down to level 1.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param arrHilb
+   *          the result of forward( arrTime, noOfLevels )
+   * @throws JWaveException
+   *           if the length does not fit or writing fails
+   */
+  public void write( double[ ] arrHilb ) throws JWaveException {
+
+    if( arrHilb.length != _length )
+      throw new JWaveFailure( "CoefficientStoreWriter - decomposition is of "
+          + "length: " + _length );
+    int pos = (int)CoefficientStore.calcNoOfValues( _length, _noOfLevels );
+    writeApproximation( 0, arrHilb, 0, pos );
+    for( int level = _noOfLevels; level >= 1; level-- ) {
+      int n = (int)CoefficientStore.calcNoOfValues( _length, level );
+      writeDetails( level, 0, arrHilb, pos, n );
+      pos += n;
+    } // level
+
+  } // write
+
+  /**
+   * Performs the FastWaveletTransform level by level and writes the details of
+   * each level as soon as they are available; the result equals write( new
+   * FastWaveletTransform( wavelet ).forward( arrTime, noOfLevels ) ).
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param wavelet
+   *          the wavelet of the transform
+   * @param arrTime
+   *          the signal of length length
+   * @throws JWaveException
+   *           if the length does not fit or writing fails
+   */
+  public void forward( Wavelet wavelet, double[ ] arrTime )
+      throws JWaveException {
+
+    if( arrTime.length != _length )
+      throw new JWaveFailure( "CoefficientStoreWriter - signal is not of "
+          + "length: " + _length );
+    if( ( _length >> ( _noOfLevels - 1 ) ) < wavelet.getTransformWavelength( )
+        && _noOfLevels > 0 )
+      throw new JWaveFailure( "CoefficientStoreWriter - too many levels for "
+          + "the wavelet: " + _noOfLevels );
+
+    double[ ] arrHilb = arrTime.clone( );
+    int h = arrHilb.length;
+    for( int level = 1; level <= _noOfLevels; level++ ) {
+      double[ ] arrTempPart = wavelet.forward( arrHilb, h );
+      System.arraycopy( arrTempPart, 0, arrHilb, 0, h );
+      h = h >> 1;
+      writeDetails( level, 0, arrHilb, h, h );
+    } // level
+    writeApproximation( 0, arrHilb, 0, h );
+
+  } // forward
+
+  /**
+   * Forces all values to the device and closes the file.
+   *
+   * @see java.io.Closeable#close()
+   */
+  @Override public void close( ) {
+
+    try {
+      if( _channel.isOpen( ) )
+        _channel.force( true );
+    } catch( IOException e ) {
+      // closing below reports nothing either
+    } finally {
+      try {
+        _channel.close( );
+      } catch( IOException e ) {
+        // file is released anyway
+      } // try
+    } // try
+
+  } // close
+
+  private void write( long offset, long noOfSubbandValues, long from,
+      double[ ] arr, int off, int len ) throws JWaveException {
+
+    if( from < 0 || len < 0 || from + len > noOfSubbandValues || off < 0
+        || off + len > arr.length )
+      throw new JWaveFailure( "CoefficientStoreWriter - range is out of range: "
+          + from + " + " + len + " > " + noOfSubbandValues );
+
+    long position = offset + 8 * from;
+    for( int pos = 0; pos < len; pos += CHUNK ) {
+      int n = Math.min( CHUNK, len - pos );
+      _doubles.clear( );
+      _doubles.put( arr, off + pos, n );
+      _buffer.clear( ).limit( 8 * n );
+      write( _buffer, position );
+      position += 8L * n;
+    } // pos
+
+  } // write
+
+  private void write( ByteBuffer buffer, long position ) throws JWaveException {
+
+    try {
+      while( buffer.hasRemaining( ) )
+        position += _channel.write( buffer, position );
+    } catch( IOException e ) {
+      throw new JWaveFailure( "CoefficientStoreWriter - " + e.getMessage( ) );
+    } // try
+
+  } // write
+
+} // CoefficientStoreWriter
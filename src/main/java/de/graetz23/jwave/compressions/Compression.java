@@ -0,0 +1,231 @@
+/**
+ * JWave is distributed under the MIT License (MIT); this file is part of.
+ *
+ * Copyright (c) 2008-2025 JWave Christian (graetz23@gmail.com)
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.graetz23.jwave.compressions;
+
+/**
+ * Immutable result of a compression keeping the compressed data together with
+ * the statistics calculated on the way; e.g. the magnitude and the number of
+ * kept values. Returned by the stateless methods of a Compressor, so that a
+ * single compressor instance can be shared by several threads.
+ *
+ * @author Christian (graetz23@gmail.com)
+ * @param <T>
+ *          the type of compressed data; double[ ], double[ ][ ], or
+ *          double[ ][ ][ ]
+ */
+public final class Compression< T > {
+
+  /**
+   * The compressed data; values below the limit are set to zero.
+   */
+  private final T _data;
+
+  /**
+   * The magnitude calculated by the compressor for the uncompressed data.
+   */
+  private final double _magnitude;
+
+  /**
+   * The threshold of the compressor that was multiplied to the magnitude.
+   */
+  private final double _threshold;
+
+  /**
+   * The smallest absolute value of the uncompressed data.
+   */
+  private final double _peakMinimum;
+
+  /**
+   * The largest absolute value of the uncompressed data.
+   */
+  private final double _peakMaximum;
+
+  /**
+   * The number of all values of the data.
+   */
+  private final long _noOfValues;
+
+  /**
+   * The number of non zero values kept by the compression.
+   */
+  private final long _noOfNonZeros;
+
+  /**
+   * Constructor taking the compressed data and all statistics.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param data
+   *          the compressed data
+   * @param magnitude
+   *          the calculated magnitude of the uncompressed data
+   * @param threshold
+   *          the threshold of the compressor
+   * @param peakMinimum
+   *          the smallest absolute value of the uncompressed data
+   * @param peakMaximum
+   *          the largest absolute value of the uncompressed data
+   * @param noOfValues
+   *          the number of all values
+   * @param noOfNonZeros
+   *          the number of non zero values kept
+   */
+  public Compression( T data, double magnitude, double threshold,
+      double peakMinimum, double peakMaximum, long noOfValues,
+      long noOfNonZeros ) {
+
+    _data = data;
+    _magnitude = magnitude;
+    _threshold = threshold;
+    _peakMinimum = peakMinimum;
+    _peakMaximum = peakMaximum;
+    _noOfValues = noOfValues;
+    _noOfNonZeros = noOfNonZeros;
+
+  } // Compression
+
+  /**
+   * Returns the compressed data.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @return the compressed data
+   */
+  public T getData( ) {
+
+    return _data;
+
+  } // getData
+
+  /**
+   * Returns the magnitude that was calculated for the uncompressed data.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @return the magnitude
+   */
+  public double getMagnitude( ) {
+
+    return _magnitude;
+
+  } // getMagnitude
+
+  /**
+   * Returns the threshold of the compressor.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @return the threshold
+   */
+  public double getThreshold( ) {
+
+    return _threshold;
+
+  } // getThreshold
+
+  /**
+   * Returns the limit all absolute values were compared against; the magnitude
+   * multiplied by the threshold.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @return the limit of kept values
+   */
+  public double getLimit( ) {
+
+    return _magnitude * _threshold;
+
+  } // getLimit
+
+  /**
+   * Returns the smallest absolute value of the uncompressed data.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @return the smallest absolute value
+   */
+  public double getPeakMinimum( ) {
+
+    return _peakMinimum;
+
+  } // getPeakMinimum
+
+  /**
+   * Returns the largest absolute value of the uncompressed data.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @return the largest absolute value
+   */
+  public double getPeakMaximum( ) {
+
+    return _peakMaximum;
+
+  } // getPeakMaximum
+
+  /**
+   * Returns the number of all values of the data.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @return the number of values
+   */
+  public long getNoOfValues( ) {
+
+    return _noOfValues;
+
+  } // getNoOfValues
+
+  /**
+   * Returns the number of non zero values kept by the compression.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @return the number of non zero values
+   */
+  public long getNoOfNonZeros( ) {
+
+    return _noOfNonZeros;
+
+  } // getNoOfNonZeros
+
+  /**
+   * Returns the number of zeros of the compressed data.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @return the number of zeros
+   */
+  public long getNoOfZeros( ) {
+
+    return _noOfValues - _noOfNonZeros;
+
+  } // getNoOfZeros
+
+  /**
+   * Returns the compression rate; the percentage of zeros kept by the
+   * compressed data like Compressor#calcCompressionRate(double[]) does.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @return the compression rate as a percentage: [0 .. 100] %
+   */
+  public double getCompressionRate( ) {
+
+    if( _noOfValues == 0 )
+      return 0.;
+    return (double)getNoOfZeros( ) / (double)_noOfValues * 100.;
+
+  } // getCompressionRate
+
+} // Compression
@@ -23,17 +23,42 @@
  */
 package de.graetz23.jwave.compressions;
 
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
 import de.graetz23.jwave.exceptions.JWaveException;
 import de.graetz23.jwave.exceptions.JWaveFailure;
+import de.graetz23.jwave.exceptions.JWaveRuntimeException;
+import de.graetz23.jwave.exceptions.JWaveRuntimeException.Code;
 
 /**
  * Some how this class is doing the same as the technical counterpart is doing -
  * compressing data that is transformed to Hilbert space by different methods.
  *
+ * The compression methods returning a Compression object are stateless; the
+ * threshold is set once on construction, so one instance can be shared by
+ * several threads. The compress methods returning plain arrays additionally
+ * store the last calculated magnitude and are therefore not thread-safe. The
+ * compress methods taking a target array threshold in place or into a buffer
+ * of the caller in a single pass and return the number of kept values.
+ *
+ * Derived classes implement the calcMagnitude methods. Derived classes written
+ * against the former interface, implementing only the compress methods
+ * returning plain arrays and storing the _magnitude member, keep working; the
+ * calcMagnitude methods then fall back to those.
+ *
  * @author Christian (graetz23@gmail.com)
  */
 public abstract class Compressor {
 
+  /**
+   * The number of values from which on matrices and spaces are processed row
+   * by row in parallel; smaller data is processed by the calling thread.
+   *
+   * @author Christian (graetz23@gmail.com)
+   */
+  public static final long PARALLEL_THRESHOLD = 1L << 18;
+
   /**
    * A threshold that is used in several compression methods.
    *
@@ -48,6 +73,15 @@ public abstract class Compressor {
    */
   protected double _magnitude = 0.;
 
+  /**
+   * Marks the current thread running a compress method on behalf of the
+   * default calcMagnitude methods.
+   *
+   * @author Christian (graetz23@gmail.com)
+   */
+  private static final ThreadLocal< boolean[ ] > _isCompressing =
+      ThreadLocal.withInitial( ( ) -> new boolean[ 1 ] );
+
   /**
    * @author Christian (graetz23@gmail.com)
    */
@@ -201,7 +235,9 @@ public abstract class Compressor {
   } // getThreshold
 
   /**
-   * Getter for calculated _magnitude member.
+   * Getter for calculated _magnitude member; the magnitude of the last call of
+   * a compress method. Use the Compression object returned by the compression
+   * methods for sharing an instance by several threads.
    *
    * @author Christian (graetz23@gmail.com)
    * @return value of magnitude member
@@ -213,30 +249,570 @@ public abstract class Compressor {
   } // getMagnitude
 
   /**
-   * Interface for arrays for driving the different compression methods.
+   * Calculates the magnitude of an array by the algorithm of the derived class;
+   * the magnitude multiplied by the threshold is the limit of kept values. By
+   * default the magnitude stored by the compress method of a derived class
+   * that only implements the former interface.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param arrHilb
+   *          the array of coefficients
+   * @return the magnitude
+   */
+  public double calcMagnitude( double[ ] arrHilb ) {
+
+    return magnitudeOfCompress( ( ) -> compress( arrHilb ) );
+
+  } // calcMagnitude
+
+  /**
+   * Calculates the magnitude of a matrix by the algorithm of the derived class;
+   * the magnitude multiplied by the threshold is the limit of kept values. By
+   * default the magnitude stored by the compress method of a derived class
+   * that only implements the former interface.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param matHilb
+   *          the matrix of coefficients
+   * @return the magnitude
+   */
+  public double calcMagnitude( double[ ][ ] matHilb ) {
+
+    return magnitudeOfCompress( ( ) -> compress( matHilb ) );
+
+  } // calcMagnitude
+
+  /**
+   * Calculates the magnitude of a space by the algorithm of the derived class;
+   * the magnitude multiplied by the threshold is the limit of kept values. By
+   * default the magnitude stored by the compress method of a derived class
+   * that only implements the former interface.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param spcHilb
+   *          the space of coefficients
+   * @return the magnitude
+   */
+  public double calcMagnitude( double[ ][ ][ ] spcHilb ) {
+
+    return magnitudeOfCompress( ( ) -> compress( spcHilb ) );
+
+  } // calcMagnitude
+
+  /**
+   * Runs a compress method of a derived class written against the former
+   * interface and returns the magnitude it stored; fails if the derived class
+   * implements neither calcMagnitude nor compress instead of recursing.
+   *
+   * @author Christian (graetz23@gmail.com)
+   */
+  private double magnitudeOfCompress( Runnable compress ) {
+
+    boolean[ ] isCompressing = _isCompressing.get( );
+    if( isCompressing[ 0 ] )
+      throw new JWaveRuntimeException( Code.NOT_IMPLEMENTED,
+          "Compressor - derived class implements neither calcMagnitude "
+              + "nor compress" );
+
+    isCompressing[ 0 ] = true;
+    try {
+      compress.run( );
+    } finally {
+      isCompressing[ 0 ] = false;
+    } // try
+
+    return _magnitude;
+
+  } // magnitudeOfCompress
+
+  /**
+   * Compresses an array without changing the state of this object and returns
+   * the compressed array together with the calculated statistics.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param arrHilb
+   *          the array of coefficients; is not changed
+   * @return the compressed array and its statistics
+   */
+  public Compression< double[ ] > compression( double[ ] arrHilb ) {
+
+    double magnitude = calcMagnitude( arrHilb );
+
+    int arrLength = arrHilb.length;
+    double[ ] arrComp = new double[ arrLength ];
+    double[ ] peaks = new double[ 2 ];
+
+    long noOfNonZeros =
+        threshold( arrHilb, arrComp, magnitude * _threshold, peaks, 0 );
+
+    return new Compression< double[ ] >( arrComp, magnitude, _threshold,
+        peaks[ 0 ], peaks[ 1 ], arrLength, noOfNonZeros );
+
+  } // compression
+
+  /**
+   * Compresses a matrix without changing the state of this object and returns
+   * the compressed matrix together with the calculated statistics.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param matHilb
+   *          the matrix of coefficients; is not changed
+   * @return the compressed matrix and its statistics
+   */
+  public Compression< double[ ][ ] > compression( double[ ][ ] matHilb ) {
+
+    double magnitude = calcMagnitude( matHilb );
+    double limit = magnitude * _threshold;
+
+    int matHilbNoOfRows = matHilb.length;
+    int matHilbNoOfCols = matHilb[ 0 ].length;
+    double[ ][ ] matComp = new double[ matHilbNoOfRows ][ matHilbNoOfCols ];
+
+    long noOfValues = (long)matHilbNoOfRows * matHilbNoOfCols;
+    double[ ] peaks = new double[ 2 * matHilbNoOfRows ];
+    long[ ] noOfNonZeros = new long[ matHilbNoOfRows ];
+
+    forEachRow( matHilbNoOfRows, noOfValues, i -> noOfNonZeros[ i ] =
+        threshold( matHilb[ i ], matComp[ i ], limit, peaks, i ) );
+
+    return new Compression< double[ ][ ] >( matComp, magnitude, _threshold,
+        minOfPeaks( peaks ), maxOfPeaks( peaks ), noOfValues,
+        sum( noOfNonZeros ) );
+
+  } // compression
+
+  /**
+   * Compresses a space without changing the state of this object and returns
+   * the compressed space together with the calculated statistics.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param spcHilb
+   *          the space of coefficients; is not changed
+   * @return the compressed space and its statistics
+   */
+  public Compression< double[ ][ ][ ] > compression( double[ ][ ][ ] spcHilb ) {
+
+    double magnitude = calcMagnitude( spcHilb );
+    double limit = magnitude * _threshold;
+
+    int matHilbNoOfRows = spcHilb.length;
+    int matHilbNoOfCols = spcHilb[ 0 ].length;
+    int matHilbNoOfLvls = spcHilb[ 0 ][ 0 ].length;
+    double[ ][ ][ ] spcComp =
+        new double[ matHilbNoOfRows ][ matHilbNoOfCols ][ matHilbNoOfLvls ];
+
+    long noOfValues =
+        (long)matHilbNoOfRows * matHilbNoOfCols * matHilbNoOfLvls;
+    double[ ] peaks = new double[ 2 * matHilbNoOfRows ];
+    long[ ] noOfNonZeros = new long[ matHilbNoOfRows ];
+
+    forEachRow( matHilbNoOfRows, noOfValues, i -> {
+      double[ ] peaksOfRow = new double[ 2 ];
+      double peakMinimum = Double.MAX_VALUE;
+      double peakMaximum = 0.;
+      for( int j = 0; j < matHilbNoOfCols; j++ ) {
+        noOfNonZeros[ i ] += threshold( spcHilb[ i ][ j ], spcComp[ i ][ j ],
+            limit, peaksOfRow, 0 );
+        peakMinimum = Math.min( peakMinimum, peaksOfRow[ 0 ] );
+        peakMaximum = Math.max( peakMaximum, peaksOfRow[ 1 ] );
+      } // j
+      peaks[ 2 * i ] = peakMinimum;
+      peaks[ 2 * i + 1 ] = peakMaximum;
+    } );
+
+    return new Compression< double[ ][ ][ ] >( spcComp, magnitude,
+        _threshold, minOfPeaks( peaks ), maxOfPeaks( peaks ), noOfValues,
+        sum( noOfNonZeros ) );
+
+  } // compression
+
+  /**
+   * Compresses an array in a single pass after calculating the magnitude; all
+   * values below the limit are set to zero, all others are copied. Nothing is
+   * allocated and the state of this object is not changed.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param arrHilb
+   *          the array of coefficients
+   * @param arrComp
+   *          the array of same length taking the compressed coefficients; may
+   *          be arrHilb itself for compressing in place
+   * @return the number of non zero values kept
+   */
+  public long compress( double[ ] arrHilb, double[ ] arrComp ) {
+
+    return threshold( arrHilb, arrComp, calcMagnitude( arrHilb ) * _threshold );
+
+  } // compress
+
+  /**
+   * Compresses a matrix in a single pass after calculating the magnitude; all
+   * values below the limit are set to zero, all others are copied. Large
+   * matrices are processed by several threads.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param matHilb
+   *          the matrix of coefficients
+   * @param matComp
+   *          the matrix of same dimensions taking the compressed coefficients;
+   *          may be matHilb itself for compressing in place
+   * @return the number of non zero values kept
+   */
+  public long compress( double[ ][ ] matHilb, double[ ][ ] matComp ) {
+
+    return threshold( matHilb, matComp, calcMagnitude( matHilb ) * _threshold );
+
+  } // compress
+
+  /**
+   * Compresses a space in a single pass after calculating the magnitude; all
+   * values below the limit are set to zero, all others are copied. Large
+   * spaces are processed by several threads.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param spcHilb
+   *          the space of coefficients
+   * @param spcComp
+   *          the space of same dimensions taking the compressed coefficients;
+   *          may be spcHilb itself for compressing in place
+   * @return the number of non zero values kept
+   */
+  public long compress( double[ ][ ][ ] spcHilb, double[ ][ ][ ] spcComp ) {
+
+    return threshold( spcHilb, spcComp, calcMagnitude( spcHilb ) * _threshold );
+
+  } // compress
+
+  /**
+   * Compresses an array straight to a sparse form keeping only the non zero
+   * values and their positions; no dense array is allocated.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param arrHilb
+   *          the array of coefficients; is not changed
+   * @return the kept non zero coefficients
+   */
+  public SparseArray compressSparse( double[ ] arrHilb ) {
+
+    return new SparseArray( arrHilb, calcMagnitude( arrHilb ) * _threshold );
+
+  } // compressSparse
+
+  /**
+   * Compresses a matrix straight to a sparse form keeping only the non zero
+   * values and their positions; no dense matrix is allocated.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param matHilb
+   *          the matrix of coefficients; is not changed
+   * @return the kept non zero coefficients
+   */
+  public SparseMatrix compressSparse( double[ ][ ] matHilb ) {
+
+    return new SparseMatrix( matHilb, calcMagnitude( matHilb ) * _threshold );
+
+  } // compressSparse
+
+  /**
+   * Compresses a space straight to a sparse form keeping only the non zero
+   * values and their positions; no dense space is allocated.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param spcHilb
+   *          the space of coefficients; is not changed
+   * @return the kept non zero coefficients
+   */
+  public SparseSpace compressSparse( double[ ][ ][ ] spcHilb ) {
+
+    return new SparseSpace( spcHilb, calcMagnitude( spcHilb ) * _threshold );
+
+  } // compressSparse
+
+  /**
+   * Calculate the compression rate from the number of kept non zero values as
+   * returned by the compress methods taking a target.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param noOfNonZeros
+   *          the number of non zero values kept
+   * @param noOfValues
+   *          the number of all values
+   * @return the compression rate as a percentage: [0 .. 100] %
+   */
+  public static double calcCompressionRate( long noOfNonZeros, long noOfValues ) {
+
+    if( noOfValues == 0 )
+      return 0.;
+    return (double)( noOfValues - noOfNonZeros ) / (double)noOfValues * 100.;
+
+  } // calcCompressionRate
+
+  /**
+   * Copies all values of an array that are not below the limit and sets all
+   * others to zero.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param arrHilb
+   *          the array of coefficients
+   * @param arrComp
+   *          the array taking the compressed values; may be arrHilb
+   * @param limit
+   *          the smallest absolute value kept
+   * @return the number of non zero values kept
+   */
+  public static long threshold( double[ ] arrHilb, double[ ] arrComp,
+      double limit ) {
+
+    long noOfNonZeros = 0;
+
+    int arrLength = arrHilb.length;
+    for( int i = 0; i < arrLength; i++ ) {
+
+      double val = arrHilb[ i ];
+
+      if( Math.abs( val ) >= limit && val != 0. ) {
+        arrComp[ i ] = val;
+        noOfNonZeros++;
+      } else
+        arrComp[ i ] = 0.; // compression be setting to zero
+
+    } // i
+
+    return noOfNonZeros;
+
+  } // threshold
+
+  /**
+   * Copies all values of a matrix that are not below the limit and sets all
+   * others to zero; row by row in parallel for large matrices.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param matHilb
+   *          the matrix of coefficients
+   * @param matComp
+   *          the matrix taking the compressed values; may be matHilb
+   * @param limit
+   *          the smallest absolute value kept
+   * @return the number of non zero values kept
+   */
+  public static long threshold( double[ ][ ] matHilb, double[ ][ ] matComp,
+      double limit ) {
+
+    int matHilbNoOfRows = matHilb.length;
+    long[ ] noOfNonZeros = new long[ matHilbNoOfRows ];
+
+    forEachRow( matHilbNoOfRows,
+        (long)matHilbNoOfRows * matHilb[ 0 ].length,
+        i -> noOfNonZeros[ i ] = threshold( matHilb[ i ], matComp[ i ], limit ) );
+
+    return sum( noOfNonZeros );
+
+  } // threshold
+
+  /**
+   * Copies all values of a space that are not below the limit and sets all
+   * others to zero; row by row in parallel for large spaces.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param spcHilb
+   *          the space of coefficients
+   * @param spcComp
+   *          the space taking the compressed values; may be spcHilb
+   * @param limit
+   *          the smallest absolute value kept
+   * @return the number of non zero values kept
+   */
+  public static long threshold( double[ ][ ][ ] spcHilb,
+      double[ ][ ][ ] spcComp, double limit ) {
+
+    int matHilbNoOfRows = spcHilb.length;
+    int matHilbNoOfCols = spcHilb[ 0 ].length;
+    long[ ] noOfNonZeros = new long[ matHilbNoOfRows ];
+
+    forEachRow( matHilbNoOfRows,
+        (long)matHilbNoOfRows * matHilbNoOfCols * spcHilb[ 0 ][ 0 ].length,
+        i -> {
+          for( int j = 0; j < matHilbNoOfCols; j++ )
+            noOfNonZeros[ i ] +=
+                threshold( spcHilb[ i ][ j ], spcComp[ i ][ j ], limit );
+        } );
+
+    return sum( noOfNonZeros );
+
+  } // threshold
+
+  /**
+   * Like threshold( double[ ], double[ ], double ) and additionally storing the
+   * smallest and largest absolute value to peaks at 2 * pos and 2 * pos + 1.
+   *
+   * @author Christian (graetz23@gmail.com)
+   */
+  private static long threshold( double[ ] arrHilb, double[ ] arrComp,
+      double limit, double[ ] peaks, int pos ) {
+
+    long noOfNonZeros = 0;
+
+    int arrLength = arrHilb.length;
+    double peakMinimum = arrLength > 0 ? Double.MAX_VALUE : 0.;
+    double peakMaximum = 0.;
+
+    for( int i = 0; i < arrLength; i++ ) {
+
+      double val = arrHilb[ i ];
+      double absVal = Math.abs( val );
+
+      if( absVal < peakMinimum )
+        peakMinimum = absVal;
+      if( absVal > peakMaximum )
+        peakMaximum = absVal;
+
+      if( absVal >= limit && val != 0. ) {
+        arrComp[ i ] = val;
+        noOfNonZeros++;
+      } else
+        arrComp[ i ] = 0.;
+
+    } // i
+
+    peaks[ 2 * pos ] = peakMinimum;
+    peaks[ 2 * pos + 1 ] = peakMaximum;
+
+    return noOfNonZeros;
+
+  } // threshold
+
+  /**
+   * Runs the body for all rows; in parallel by the common fork join pool if
+   * the data keeps at least PARALLEL_THRESHOLD values, else by the calling
+   * thread. The body has to write its results to the positions of its row
+   * only, so the results do not depend on the number of threads.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param noOfRows
+   *          the number of rows
+   * @param noOfValues
+   *          the number of all values of the data
+   * @param body
+   *          the work for a single row
+   */
+  protected static void forEachRow( int noOfRows, long noOfValues,
+      IntConsumer body ) {
+
+    if( noOfRows > 1 && noOfValues >= PARALLEL_THRESHOLD )
+      IntStream.range( 0, noOfRows ).parallel( ).forEach( body );
+    else
+      for( int i = 0; i < noOfRows; i++ )
+        body.accept( i );
+
+  } // forEachRow
+
+  /**
+   * Sums up partial results in order.
+   *
+   * @author Christian (graetz23@gmail.com)
+   */
+  protected static double sum( double[ ] arr ) {
+
+    double sum = 0.;
+    for( double val : arr )
+      sum += val;
+    return sum;
+
+  } // sum
+
+  /**
+   * Sums up partial counts.
+   *
+   * @author Christian (graetz23@gmail.com)
+   */
+  protected static long sum( long[ ] arr ) {
+
+    long sum = 0;
+    for( long val : arr )
+      sum += val;
+    return sum;
+
+  } // sum
+
+  /**
+   * The smallest of the minima stored at even positions.
+   *
+   * @author Christian (graetz23@gmail.com)
+   */
+  private static double minOfPeaks( double[ ] peaks ) {
+
+    double peakMinimum = peaks.length > 0 ? Double.MAX_VALUE : 0.;
+    for( int p = 0; p < peaks.length; p += 2 )
+      if( peaks[ p ] < peakMinimum )
+        peakMinimum = peaks[ p ];
+    return peakMinimum;
+
+  } // minOfPeaks
+
+  /**
+   * The largest of the maxima stored at odd positions.
+   *
+   * @author Christian (graetz23@gmail.com)
+   */
+  private static double maxOfPeaks( double[ ] peaks ) {
+
+    double peakMaximum = 0.;
+    for( int p = 1; p < peaks.length; p += 2 )
+      if( peaks[ p ] > peakMaximum )
+        peakMaximum = peaks[ p ];
+    return peakMaximum;
+
+  } // maxOfPeaks
+
+  /**
+   * Interface for arrays for driving the different compression methods; stores
+   * the calculated magnitude, use compression(double[ ]) for sharing an
+   * instance by several threads.
    *
    * @author Christian (graetz23@gmail.com)
    * @param arrHilb
    * @return
    */
-  abstract public double[ ] compress( double[ ] arrHilb );
+  public double[ ] compress( double[ ] arrHilb ) {
+
+    Compression< double[ ] > compression = compression( arrHilb );
+    _magnitude = compression.getMagnitude( );
+    return compression.getData( );
+
+  } // compress
 
   /**
-   * Interface for matrices for driving the different compression methods.
+   * Interface for matrices for driving the different compression methods;
+   * stores the calculated magnitude, use compression(double[ ][ ]) for sharing
+   * an instance by several threads.
    *
    * @author Christian (graetz23@gmail.com)
    * @param matHilb
    * @return
    */
-  abstract public double[ ][ ] compress( double[ ][ ] matHilb );
+  public double[ ][ ] compress( double[ ][ ] matHilb ) {
+
+    Compression< double[ ][ ] > compression = compression( matHilb );
+    _magnitude = compression.getMagnitude( );
+    return compression.getData( );
+
+  } // compress
 
   /**
-   * Interface for spaces for driving the different compression methods.
+   * Interface for spaces for driving the different compression methods; stores
+   * the calculated magnitude, use compression(double[ ][ ][ ]) for sharing an
+   * instance by several threads.
    *
    * @author Christian (graetz23@gmail.com)
    * @param spcHilb
    * @return
    */
-  abstract public double[ ][ ][ ] compress( double[ ][ ][ ] spcHilb );
+  public double[ ][ ][ ] compress( double[ ][ ][ ] spcHilb ) {
+
+    Compression< double[ ][ ][ ] > compression = compression( spcHilb );
+    _magnitude = compression.getMagnitude( );
+    return compression.getData( );
+
+  } // compress
 
 } // Compressor
@@ -0,0 +1,131 @@
+/**
+ * JWave is distributed under the MIT License (MIT); this file is part of.
+ *
+ * Copyright (c) 2008-2025 JWave Christian (graetz23@gmail.com)
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.graetz23.jwave.compressions;
+
+import de.graetz23.jwave.exceptions.JWaveException;
+import de.graetz23.jwave.exceptions.JWaveFailure;
+
+/**
+ * Compresses as much as an error bound allows; the root of the sum of squares
+ * of all values set to zero stays below that bound. For orthonormal wavelets
+ * this is the Euclidean distance between the reconstructed and the original
+ * data. The magnitudes are sorted once by a MagnitudeDistribution, the limit is
+ * taken from it, and the data is thresholded in a single pass.
+ *
+ * @author Christian (graetz23@gmail.com)
+ */
+public class CompressorError extends Compressor {
+
+  /**
+   * The allowed error.
+   *
+   * @author Christian (graetz23@gmail.com)
+   */
+  protected double _error;
+
+  /**
+   * Compression by an error bound.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param error
+   *          the allowed error; zero or larger
+   */
+  public CompressorError( double error ) {
+
+    try {
+
+      if( !( error >= 0. ) )
+        throw new JWaveFailure(
+            "CompressorError - given error should be zero or larger!" );
+
+    } catch( JWaveException e ) {
+
+      e.showMessage( );
+      System.out.println( "CompressorError - setting error to: " + 0. );
+      error = 0.;
+
+    }
+
+    _error = error;
+
+  } // CompressorError
+
+  /**
+   * Getter for the allowed error.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @return the allowed error
+   */
+  public double getError( ) {
+
+    return _error;
+
+  } // getError
+
+  /**
+   * The limit keeping the error bound for an already sorted distribution; for
+   * trying several bounds on the same data without sorting again.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param distribution
+   *          the magnitudes of the data
+   * @return the limit; the smallest absolute value kept
+   */
+  public double calcMagnitude( MagnitudeDistribution distribution ) {
+
+    return distribution.calcLimitForError( _error );
+
+  } // calcMagnitude
+
+  /*
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.compressions.Compressor#calcMagnitude(double[])
+   */
+  @Override public double calcMagnitude( double[ ] arrHilb ) {
+
+    return calcMagnitude( new MagnitudeDistribution( arrHilb ) );
+
+  } // calcMagnitude
+
+  /*
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.compressions.Compressor#calcMagnitude(double[][])
+   */
+  @Override public double calcMagnitude( double[ ][ ] matHilb ) {
+
+    return calcMagnitude( new MagnitudeDistribution( matHilb ) );
+
+  } // calcMagnitude
+
+  /*
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.compressions.Compressor#calcMagnitude(double[][][])
+   */
+  @Override public double calcMagnitude( double[ ][ ][ ] spcHilb ) {
+
+    return calcMagnitude( new MagnitudeDistribution( spcHilb ) );
+
+  } // calcMagnitude
+
+} // CompressorError
@@ -64,67 +64,77 @@ public class CompressorMagnitude extends Compressor {
 
   /*
    * @author Christian (graetz23@gmail.com)
-   * @see jwave.compressions.Compressor#compress(double[])
+   * @see jwave.compressions.Compressor#calcMagnitude(double[])
    */
-  @Override public double[ ] compress( double[ ] arrHilb ) {
+  @Override public double calcMagnitude( double[ ] arrHilb ) {
 
-    _magnitude = 0.;
-
-    int arrHilbLength = arrHilb.length;
-
-    for( int i = 0; i < arrHilbLength; i++ )
-      _magnitude += Math.abs( arrHilb[ i ] );
-
-    _magnitude /= (double)arrHilbLength;
-
-    return compress( arrHilb, _magnitude ); // generates new array
+    return calcSum( arrHilb ) / (double)arrHilb.length;
 
-  } // compress
+  } // calcMagnitude
 
   /*
+   * Sums up all magnitudes row by row; in parallel for large matrices.
+   * 
    * @author Christian (graetz23@gmail.com)
-   * @see jwave.compressions.Compressor#compress(double[][])
+   * @see jwave.compressions.Compressor#calcMagnitude(double[][])
    */
-  @Override public double[ ][ ] compress( double[ ][ ] matHilb ) {
-
-    _magnitude = 0.;
+  @Override public double calcMagnitude( double[ ][ ] matHilb ) {
 
     int matHilbNoOfRows = matHilb.length;
     int matHilbNoOfCols = matHilb[ 0 ].length;
+    long noOfValues = (long)matHilbNoOfRows * matHilbNoOfCols;
 
-    for( int i = 0; i < matHilbNoOfRows; i++ )
-      for( int j = 0; j < matHilbNoOfCols; j++ )
-        _magnitude += Math.abs( matHilb[ i ][ j ] );
-
-    _magnitude /= (double)matHilbNoOfRows * (double)matHilbNoOfCols;
+    double[ ] sums = new double[ matHilbNoOfRows ];
+    forEachRow( matHilbNoOfRows, noOfValues,
+        i -> sums[ i ] = calcSum( matHilb[ i ] ) );
 
-    return compress( matHilb, _magnitude );
+    return sum( sums ) / (double)noOfValues;
 
-  } // compress
+  } // calcMagnitude
 
   /*
+   * Sums up all magnitudes row by row; in parallel for large spaces.
+   * 
    * @author Christian (graetz23@gmail.com)
-   * @see jwave.compressions.Compressor#compress(double[][][])
+   * @see jwave.compressions.Compressor#calcMagnitude(double[][][])
    */
-  @Override public double[ ][ ][ ] compress( double[ ][ ][ ] spcHilb ) {
-
-    _magnitude = 0.;
+  @Override public double calcMagnitude( double[ ][ ][ ] spcHilb ) {
 
     int matHilbNoOfRows = spcHilb.length;
     int matHilbNoOfCols = spcHilb[ 0 ].length;
     int matHilbNoOfLvls = spcHilb[ 0 ][ 0 ].length;
+    long noOfValues = (long)matHilbNoOfRows * matHilbNoOfCols * matHilbNoOfLvls;
 
-    for( int i = 0; i < matHilbNoOfRows; i++ )
+    double[ ] sums = new double[ matHilbNoOfRows ];
+    forEachRow( matHilbNoOfRows, noOfValues, i -> {
+      double sum = 0.;
       for( int j = 0; j < matHilbNoOfCols; j++ )
-        for( int k = 0; k < matHilbNoOfLvls; k++ )
-          _magnitude += Math.abs( spcHilb[ i ][ j ][ k ] );
+        sum += calcSum( spcHilb[ i ][ j ] );
+      sums[ i ] = sum;
+    } );
+
+    return sum( sums ) / (double)noOfValues;
+
+  } // calcMagnitude
+
+  /**
+   * Adds up all magnitudes of an array.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param arrHilb
+   *          the array of coefficients
+   * @return the sum of all absolute values
+   */
+  private static double calcSum( double[ ] arrHilb ) {
 
-    _magnitude /=
-        (double)matHilbNoOfRows * (double)matHilbNoOfCols
-            * (double)matHilbNoOfLvls;
+    double sum = 0.;
+
+    int arrHilbLength = arrHilb.length;
+    for( int i = 0; i < arrHilbLength; i++ )
+      sum += Math.abs( arrHilb[ i ] );
 
-    return compress( spcHilb, _magnitude );
+    return sum;
 
-  } // compress
+  } // calcSum
 
 } // CompressorMagnitude
@@ -72,93 +72,191 @@ public class CompressorPeaksAverage extends Compressor {
    * absolute value.
    * 
    * @author Christian (graetz23@gmail.com)
-   * @see jwave.compressions.Compressor#compress(double[])
+   * @see jwave.compressions.Compressor#calcMagnitude(double[])
    */
-  @Override public double[ ] compress( double[ ] arrHilb ) {
+  @Override public double calcMagnitude( double[ ] arrHilb ) {
 
-    for( double val : arrHilb ) {
+    double[ ] peaks = { Double.MAX_VALUE, 0. };
 
-      double absVal = Math.abs( val );
+    calcPeaks( arrHilb, peaks, 0 );
 
-      if( absVal <= _peakMinimum )
-        _peakMinimum = absVal;
+    return calcAverage( peaks[ 0 ], peaks[ 1 ] );
 
-      if( absVal >= _peakMaximum )
-        _peakMaximum = absVal;
+  } // calcMagnitude
 
-    } // loop over all entries
+  /**
+   * Calculating the average by maximal distance between minimal and maximal
+   * absolute value; row by row and in parallel for large matrices.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.compressions.Compressor#calcMagnitude(double[][])
+   */
+  @Override public double calcMagnitude( double[ ][ ] matHilb ) {
 
-    _magnitude = .5 * ( _peakMaximum - _peakMinimum );
+    int matHilbNoOfRows = matHilb.length;
+    int matHilbNoOfCols = matHilb[ 0 ].length;
 
-    return compress( arrHilb, _magnitude );
+    double[ ] peaks = new double[ 2 * matHilbNoOfRows ];
+    forEachRow( matHilbNoOfRows, (long)matHilbNoOfRows * matHilbNoOfCols,
+        i -> {
+          peaks[ 2 * i ] = Double.MAX_VALUE;
+          calcPeaks( matHilb[ i ], peaks, i );
+        } );
 
-  } // compress
+    return calcAverage( peaks );
+
+  } // calcMagnitude
 
   /**
    * Calculating the average by maximal distance between minimal and maximal
-   * absolute value.
+   * absolute value; row by row and in parallel for large spaces.
    * 
    * @author Christian (graetz23@gmail.com)
-   * @see jwave.compressions.Compressor#compress(double[][])
+   * @see jwave.compressions.Compressor#calcMagnitude(double[][][])
    */
-  @Override public double[ ][ ] compress( double[ ][ ] matHilb ) {
+  @Override public double calcMagnitude( double[ ][ ][ ] spcHilb ) {
 
-    int matHilbNoOfRows = matHilb.length;
-    int matHilbNoOfCols = matHilb[ 0 ].length;
+    int matHilbNoOfRows = spcHilb.length;
+    int matHilbNoOfCols = spcHilb[ 0 ].length;
+    int matHilbNoOfLvls = spcHilb[ 0 ][ 0 ].length;
+
+    double[ ] peaks = new double[ 2 * matHilbNoOfRows ];
+    forEachRow( matHilbNoOfRows,
+        (long)matHilbNoOfRows * matHilbNoOfCols * matHilbNoOfLvls, i -> {
+          peaks[ 2 * i ] = Double.MAX_VALUE;
+          for( int j = 0; j < matHilbNoOfCols; j++ )
+            calcPeaks( spcHilb[ i ][ j ], peaks, i );
+        } );
+
+    return calcAverage( peaks );
+
+  } // calcMagnitude
+
+  /**
+   * Updates the smallest and largest absolute value stored at 2 * pos and
+   * 2 * pos + 1 by all values of an array.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param arrHilb
+   *          the array of coefficients
+   * @param peaks
+   *          the minima and maxima
+   * @param pos
+   *          the position of the pair of peaks
+   */
+  private static void calcPeaks( double[ ] arrHilb, double[ ] peaks, int pos ) {
 
-    for( int i = 0; i < matHilbNoOfRows; i++ ) {
-      for( int j = 0; j < matHilbNoOfCols; j++ ) {
+    double peakMinimum = peaks[ 2 * pos ];
+    double peakMaximum = peaks[ 2 * pos + 1 ];
 
-        double absVal = Math.abs( matHilb[ i ][ j ] );
+    for( double val : arrHilb ) {
 
-        if( absVal <= _peakMinimum )
-          _peakMinimum = absVal;
+      double absVal = Math.abs( val );
 
-        if( absVal >= _peakMaximum )
-          _peakMaximum = absVal;
+      if( absVal <= peakMinimum )
+        peakMinimum = absVal;
 
-      } // j
-    } // i - loop over all entries
+      if( absVal >= peakMaximum )
+        peakMaximum = absVal;
 
-    _magnitude = .5 * ( _peakMaximum - _peakMinimum );
+    } // loop over all entries
 
-    return compress( matHilb, _magnitude );
+    peaks[ 2 * pos ] = peakMinimum;
+    peaks[ 2 * pos + 1 ] = peakMaximum;
 
-  } // compress
+  } // calcPeaks
 
   /**
-   * Calculating the average by maximal distance between minimal and maximal
-   * absolute value.
+   * Half of the distance between the peaks of all pairs of minima and maxima.
    * 
    * @author Christian (graetz23@gmail.com)
-   * @see jwave.compressions.Compressor#compress(double[][][])
+   * @param peaks
+   *          the minima at even and the maxima at odd positions
+   * @return the average
    */
-  @Override public double[ ][ ][ ] compress( double[ ][ ][ ] spcHilb ) {
+  private double calcAverage( double[ ] peaks ) {
 
-    int matHilbNoOfRows = spcHilb.length;
-    int matHilbNoOfCols = spcHilb[ 0 ].length;
-    int matHilbNoOfLvls = spcHilb[ 0 ][ 0 ].length;
+    double peakMinimum = Double.MAX_VALUE;
+    double peakMaximum = 0.;
 
-    for( int i = 0; i < matHilbNoOfRows; i++ ) {
-      for( int j = 0; j < matHilbNoOfCols; j++ ) {
-        for( int k = 0; k < matHilbNoOfLvls; k++ ) {
+    for( int p = 0; p < peaks.length; p += 2 ) {
+      peakMinimum = Math.min( peakMinimum, peaks[ p ] );
+      peakMaximum = Math.max( peakMaximum, peaks[ p + 1 ] );
+    } // p
 
-          double absVal = Math.abs( spcHilb[ i ][ j ][ k ] );
+    return calcAverage( peakMinimum, peakMaximum );
 
-          if( absVal <= _peakMinimum )
-            _peakMinimum = absVal;
+  } // calcAverage
 
-          if( absVal >= _peakMaximum )
-            _peakMaximum = absVal;
+  /**
+   * Half of the distance between the peaks; zero if no value was found.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param peakMinimum
+   *          the smallest absolute value
+   * @param peakMaximum
+   *          the largest absolute value
+   * @return the average
+   */
+  private double calcAverage( double peakMinimum, double peakMaximum ) {
 
-        } // k
-      } // j
-    } // i - loop over all entries
+    if( peakMinimum > peakMaximum )
+      return 0.; // no values at all
 
-    _magnitude = .5 * ( _peakMaximum - _peakMinimum );
+    return .5 * ( peakMaximum - peakMinimum );
 
-    return compress( spcHilb, _magnitude );
+  } // calcAverage
+
+  /*
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.compressions.Compressor#compress(double[])
+   */
+  @Override public double[ ] compress( double[ ] arrHilb ) {
+
+    Compression< double[ ] > compression = compression( arrHilb );
+    storePeaks( compression );
+    return compression.getData( );
 
   } // compress
 
+  /*
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.compressions.Compressor#compress(double[][])
+   */
+  @Override public double[ ][ ] compress( double[ ][ ] matHilb ) {
+
+    Compression< double[ ][ ] > compression = compression( matHilb );
+    storePeaks( compression );
+    return compression.getData( );
+
+  } // compress
+
+  /*
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.compressions.Compressor#compress(double[][][])
+   */
+  @Override public double[ ][ ][ ] compress( double[ ][ ][ ] spcHilb ) {
+
+    Compression< double[ ][ ][ ] > compression = compression( spcHilb );
+    storePeaks( compression );
+    return compression.getData( );
+
+  } // compress
+
+  /**
+   * Stores the statistics of the last call of a compress method; the peaks are
+   * those of the last call only.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param compression
+   *          the result of the last compression
+   */
+  private void storePeaks( Compression< ? > compression ) {
+
+    _peakMinimum = compression.getPeakMinimum( );
+    _peakMaximum = compression.getPeakMaximum( );
+    _magnitude = compression.getMagnitude( );
+
+  } // storePeaks
+
 } // class
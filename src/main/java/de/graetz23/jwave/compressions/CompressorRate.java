@@ -0,0 +1,131 @@
+/**
+ * JWave is distributed under the MIT License (MIT); this file is part of.
+ *
+ * Copyright (c) 2008-2025 JWave Christian (graetz23@gmail.com)
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.graetz23.jwave.compressions;
+
+import de.graetz23.jwave.exceptions.JWaveException;
+import de.graetz23.jwave.exceptions.JWaveFailure;
+
+/**
+ * Compresses to a target compression rate; e.g. 95 % zeros. The magnitudes are
+ * sorted once by a MagnitudeDistribution, the limit is taken from it, and the
+ * data is thresholded in a single pass. The limit is chosen, so that at least
+ * the target percentage of values becomes zero.
+ *
+ * @author Christian (graetz23@gmail.com)
+ */
+public class CompressorRate extends Compressor {
+
+  /**
+   * The target percentage of zeros.
+   *
+   * @author Christian (graetz23@gmail.com)
+   */
+  protected double _compressionRate;
+
+  /**
+   * Compression to a target rate.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param compressionRate
+   *          the percentage of zeros in [0 .. 100] %
+   */
+  public CompressorRate( double compressionRate ) {
+
+    try {
+
+      if( !( compressionRate >= 0. && compressionRate <= 100. ) )
+        throw new JWaveFailure(
+            "CompressorRate - given compression rate should be in [0 .. 100]!" );
+
+    } catch( JWaveException e ) {
+
+      e.showMessage( );
+      compressionRate = compressionRate > 100. ? 100. : 0.;
+      System.out.println( "CompressorRate - setting compression rate to: "
+          + compressionRate );
+
+    }
+
+    _compressionRate = compressionRate;
+
+  } // CompressorRate
+
+  /**
+   * Getter for the target compression rate.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @return the percentage of zeros
+   */
+  public double getCompressionRate( ) {
+
+    return _compressionRate;
+
+  } // getCompressionRate
+
+  /**
+   * The limit achieving the target rate for an already sorted distribution; for
+   * trying several rates on the same data without sorting again.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param distribution
+   *          the magnitudes of the data
+   * @return the limit; the smallest absolute value kept
+   */
+  public double calcMagnitude( MagnitudeDistribution distribution ) {
+
+    return distribution.calcLimitForRate( _compressionRate );
+
+  } // calcMagnitude
+
+  /*
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.compressions.Compressor#calcMagnitude(double[])
+   */
+  @Override public double calcMagnitude( double[ ] arrHilb ) {
+
+    return calcMagnitude( new MagnitudeDistribution( arrHilb ) );
+
+  } // calcMagnitude
+
+  /*
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.compressions.Compressor#calcMagnitude(double[][])
+   */
+  @Override public double calcMagnitude( double[ ][ ] matHilb ) {
+
+    return calcMagnitude( new MagnitudeDistribution( matHilb ) );
+
+  } // calcMagnitude
+
+  /*
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.compressions.Compressor#calcMagnitude(double[][][])
+   */
+  @Override public double calcMagnitude( double[ ][ ][ ] spcHilb ) {
+
+    return calcMagnitude( new MagnitudeDistribution( spcHilb ) );
+
+  } // calcMagnitude
+
+} // CompressorRate
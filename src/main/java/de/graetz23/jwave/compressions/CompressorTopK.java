@@ -0,0 +1,607 @@
+/**
+ * JWave is distributed under the MIT License (MIT); this file is part of.
+ *
+ * Copyright (c) 2008-2025 JWave Christian (graetz23@gmail.com)
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.graetz23.jwave.compressions;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import de.graetz23.jwave.datatypes.blocks.BlockHash;
+import de.graetz23.jwave.datatypes.lines.LineHash;
+import de.graetz23.jwave.datatypes.spaces.SpaceHash;
+import de.graetz23.jwave.exceptions.JWaveException;
+import de.graetz23.jwave.exceptions.JWaveFailure;
+
+/**
+ * Keeps the K largest coefficients by magnitude, or a given fraction of all
+ * coefficients. The magnitude is the K-th largest absolute value found by
+ * radix selection without sorting or copying the data: the bit patterns of
+ * absolute values are ordered like the values, so a few histogram passes
+ * over the next bits each narrow the range keeping the K-th largest one,
+ * until its bucket is small enough for a quickselect.
+ *
+ * The compress and compression methods keep all values not below that
+ * magnitude, so values tying with the K-th largest one are all kept. The select
+ * methods keep exactly K values; ties are taken in order of their indices.
+ * They return a sparse LineHash, BlockHash, or SpaceHash without creating a
+ * dense array of zeros. Large data is processed row by row in parallel,
+ * including the histogram passes; only the quickselect of the last bucket of
+ * at most SELECT_SIZE values runs sequentially. Memory besides the data is
+ * bound by the histograms, so spaces beyond 2^31 values are handled as well.
+ *
+ * @author Christian (graetz23@gmail.com)
+ */
+public class CompressorTopK extends Compressor {
+
+  /**
+   * The number of values a 1-D array is split into for parallel processing.
+   *
+   * @author Christian (graetz23@gmail.com)
+   */
+  private static final int CHUNK_SIZE = 1 << 16;
+
+  /**
+   * The number of bits of the absolute values counted by a histogram pass.
+   *
+   * @author Christian (graetz23@gmail.com)
+   */
+  private static final int DIGIT_BITS = 12;
+
+  /**
+   * The number of stripes of rows having an own histogram; the stripes are
+   * counted in parallel.
+   *
+   * @author Christian (graetz23@gmail.com)
+   */
+  private static final int NO_OF_STRIPES = 64;
+
+  /**
+   * The number of values of a bucket at most selected by quickselect; larger
+   * buckets are narrowed by another histogram pass.
+   *
+   * @author Christian (graetz23@gmail.com)
+   */
+  private static final int SELECT_SIZE = 1 << 16;
+
+  /**
+   * The number of coefficients to keep; negative if a fraction is given.
+   *
+   * @author Christian (graetz23@gmail.com)
+   */
+  protected long _noOfCoefficients;
+
+  /**
+   * The fraction of coefficients to keep in [0 .. 1]; negative if a number of
+   * coefficients is given.
+   *
+   * @author Christian (graetz23@gmail.com)
+   */
+  protected double _fraction;
+
+  /**
+   * Keeps the given number of largest coefficients.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param noOfCoefficients
+   *          the number K of coefficients to keep; zero or larger
+   */
+  public CompressorTopK( long noOfCoefficients ) {
+
+    try {
+
+      if( noOfCoefficients < 0 )
+        throw new JWaveFailure(
+            "CompressorTopK - given number of coefficients is negative!" );
+
+    } catch( JWaveException e ) {
+
+      e.showMessage( );
+      System.out.println( "CompressorTopK - setting number of coefficients to: "
+          + 0 );
+      noOfCoefficients = 0;
+
+    }
+
+    _noOfCoefficients = noOfCoefficients;
+    _fraction = -1.;
+
+  } // CompressorTopK
+
+  /**
+   * Keeps the given fraction of largest coefficients; e.g. .05 keeps 5 % of
+   * all coefficients rounded to the nearest number.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param fraction
+   *          the fraction of coefficients to keep in [0 .. 1]
+   */
+  public CompressorTopK( double fraction ) {
+
+    try {
+
+      if( !( fraction >= 0. && fraction <= 1. ) )
+        throw new JWaveFailure(
+            "CompressorTopK - given fraction should be in [0 .. 1]!" );
+
+    } catch( JWaveException e ) {
+
+      e.showMessage( );
+      fraction = fraction > 1. ? 1. : 0.;
+      System.out.println( "CompressorTopK - setting fraction to: " + fraction );
+
+    }
+
+    _noOfCoefficients = -1;
+    _fraction = fraction;
+
+  } // CompressorTopK
+
+  /**
+   * Returns the number of coefficients kept of the given number of values.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param noOfValues
+   *          the number of all values
+   * @return the number K of kept coefficients; not larger than noOfValues
+   */
+  public long calcNoOfCoefficients( long noOfValues ) {
+
+    if( _fraction >= 0. )
+      return Math.min( noOfValues, Math.round( _fraction * noOfValues ) );
+
+    return Math.min( noOfValues, _noOfCoefficients );
+
+  } // calcNoOfCoefficients
+
+  /*
+   * The K-th largest absolute value.
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.compressions.Compressor#calcMagnitude(double[])
+   */
+  @Override public double calcMagnitude( double[ ] arrHilb ) {
+
+    return calcMagnitude( new Rows( arrHilb ) );
+
+  } // calcMagnitude
+
+  /*
+   * The K-th largest absolute value.
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.compressions.Compressor#calcMagnitude(double[][])
+   */
+  @Override public double calcMagnitude( double[ ][ ] matHilb ) {
+
+    return calcMagnitude( new Rows( matHilb ) );
+
+  } // calcMagnitude
+
+  /*
+   * The K-th largest absolute value.
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.compressions.Compressor#calcMagnitude(double[][][])
+   */
+  @Override public double calcMagnitude( double[ ][ ][ ] spcHilb ) {
+
+    return calcMagnitude( new Rows( spcHilb ) );
+
+  } // calcMagnitude
+
+  /**
+   * Selects exactly the K largest coefficients of an array.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param arrHilb
+   *          the array of coefficients; is not changed
+   * @return a sparse line keeping the selected non zero coefficients
+   * @throws JWaveException
+   *           if the line can not be filled
+   */
+  public LineHash select( double[ ] arrHilb ) throws JWaveException {
+
+    Rows rows = new Rows( arrHilb );
+    int[ ][ ] selected = select( rows );
+
+    LineHash line = new LineHash( arrHilb.length );
+    line.alloc( );
+    for( int s = 0; s < rows._noOfRows; s++ )
+      for( int i : selected[ s ] )
+        line.set( i, arrHilb[ i ] );
+
+    return line;
+
+  } // select
+
+  /**
+   * Selects exactly the K largest coefficients of a matrix.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param matHilb
+   *          the matrix of coefficients; is not changed
+   * @return a sparse block keeping the selected non zero coefficients
+   * @throws JWaveException
+   *           if the block can not be filled
+   */
+  public BlockHash select( double[ ][ ] matHilb ) throws JWaveException {
+
+    int[ ][ ] selected = select( new Rows( matHilb ) );
+
+    BlockHash block = new BlockHash( matHilb.length, matHilb[ 0 ].length );
+    block.alloc( );
+    for( int i = 0; i < matHilb.length; i++ )
+      for( int j : selected[ i ] )
+        block.set( i, j, matHilb[ i ][ j ] );
+
+    return block;
+
+  } // select
+
+  /**
+   * Selects exactly the K largest coefficients of a space.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param spcHilb
+   *          the space of coefficients; is not changed
+   * @return a sparse space keeping the selected non zero coefficients
+   * @throws JWaveException
+   *           if the space can not be filled
+   */
+  public SpaceHash select( double[ ][ ][ ] spcHilb ) throws JWaveException {
+
+    int[ ][ ] selected = select( new Rows( spcHilb ) );
+
+    int noOfCols = spcHilb[ 0 ].length;
+    SpaceHash space =
+        new SpaceHash( spcHilb.length, noOfCols, spcHilb[ 0 ][ 0 ].length );
+    space.alloc( );
+    for( int s = 0; s < selected.length; s++ ) {
+      int i = s / noOfCols;
+      int j = s % noOfCols;
+      for( int k : selected[ s ] )
+        space.set( i, j, k, spcHilb[ i ][ j ][ k ] );
+    } // s
+
+    return space;
+
+  } // select
+
+  /**
+   * Finds the K-th largest absolute value of all rows; positive infinity if
+   * nothing is kept and zero if everything is kept.
+   *
+   * @author Christian (graetz23@gmail.com)
+   */
+  private double calcMagnitude( Rows rows ) {
+
+    long noOfCoefficients = calcNoOfCoefficients( rows._noOfValues );
+
+    if( noOfCoefficients == 0 )
+      return Double.POSITIVE_INFINITY;
+
+    if( noOfCoefficients == rows._noOfValues )
+      return 0.;
+
+    return select( rows, rows._noOfValues - noOfCoefficients );
+
+  } // calcMagnitude
+
+  /**
+   * Radix selection of the absolute value at a position in sorted order; each
+   * pass counts the next DIGIT_BITS bits of the values matching the bits found
+   * so far and fixes the bucket keeping the position. A small bucket is
+   * gathered and finished by quickselect.
+   *
+   * @author Christian (graetz23@gmail.com)
+   */
+  private static double select( Rows rows, long pos ) {
+
+    int noOfStripes = Math.min( rows._noOfRows, NO_OF_STRIPES );
+
+    long prefix = 0L; // the bits found so far
+    int hi = 63; // bits from hi on are found; the sign bit is cleared
+
+    while( hi > 0 ) {
+
+      int shift = Math.max( 0, hi - DIGIT_BITS );
+      long[ ][ ] histograms = count( rows, noOfStripes, prefix, hi, shift );
+
+      long[ ] histogram = new long[ 1 << ( hi - shift ) ];
+      for( long[ ] stripe : histograms )
+        for( int d = 0; d < histogram.length; d++ )
+          histogram[ d ] += stripe[ d ];
+
+      int bucket = 0;
+      while( pos >= histogram[ bucket ] )
+        pos -= histogram[ bucket++ ];
+
+      prefix |= (long)bucket << shift;
+      hi = shift;
+
+      if( hi > 0 && histogram[ bucket ] <= SELECT_SIZE )
+        return select(
+            gather( rows, histograms, bucket, prefix, hi ), (int)pos );
+
+    } // while
+
+    return Double.longBitsToDouble( prefix );
+
+  } // select
+
+  /**
+   * Counts per stripe of rows the bits [ shift .. hi [ of all absolute values
+   * matching the prefix from bit hi on.
+   *
+   * @author Christian (graetz23@gmail.com)
+   */
+  private static long[ ][ ] count( Rows rows, int noOfStripes, long prefix,
+      int hi, int shift ) {
+
+    long high = prefix >>> hi;
+    int mask = ( 1 << ( hi - shift ) ) - 1;
+
+    long[ ][ ] histograms = new long[ noOfStripes ][ mask + 1 ];
+    forEachRow( noOfStripes, rows._noOfValues, t -> {
+      long[ ] histogram = histograms[ t ];
+      int to = rows.toStripe( t, noOfStripes );
+      for( int s = rows.toStripe( t - 1, noOfStripes ); s < to; s++ ) {
+        double[ ] arr = rows._arr[ s ];
+        for( int i = rows._from[ s ]; i < rows._to[ s ]; i++ ) {
+          long bits = Double.doubleToRawLongBits( arr[ i ] ) & Long.MAX_VALUE;
+          if( bits >>> hi == high )
+            histogram[ (int)( bits >>> shift ) & mask ]++;
+        } // i
+      } // s
+    } );
+
+    return histograms;
+
+  } // count
+
+  /**
+   * Copies the absolute values of a bucket counted by the last pass; each
+   * stripe fills its own part in parallel.
+   *
+   * @author Christian (graetz23@gmail.com)
+   */
+  private static double[ ] gather( Rows rows, long[ ][ ] histograms,
+      int bucket, long prefix, int hi ) {
+
+    int noOfStripes = histograms.length;
+    long high = prefix >>> hi;
+
+    int[ ] offSets = new int[ noOfStripes + 1 ];
+    for( int t = 0; t < noOfStripes; t++ )
+      offSets[ t + 1 ] = offSets[ t ] + (int)histograms[ t ][ bucket ];
+
+    double[ ] abs = new double[ offSets[ noOfStripes ] ];
+    forEachRow( noOfStripes, rows._noOfValues, t -> {
+      int p = offSets[ t ];
+      int to = rows.toStripe( t, noOfStripes );
+      for( int s = rows.toStripe( t - 1, noOfStripes ); s < to; s++ ) {
+        double[ ] arr = rows._arr[ s ];
+        for( int i = rows._from[ s ]; i < rows._to[ s ]; i++ ) {
+          long bits = Double.doubleToRawLongBits( arr[ i ] ) & Long.MAX_VALUE;
+          if( bits >>> hi == high )
+            abs[ p++ ] = Double.longBitsToDouble( bits );
+        } // i
+      } // s
+    } );
+
+    return abs;
+
+  } // gather
+
+  /**
+   * Selects the positions of exactly K values within each row; values larger
+   * than the K-th largest absolute value and ties in order of their rows.
+   * Zeros are never selected.
+   *
+   * @author Christian (graetz23@gmail.com)
+   */
+  private int[ ][ ] select( Rows rows ) {
+
+    int noOfRows = rows._noOfRows;
+    int[ ][ ] selected = new int[ noOfRows ][ ];
+
+    double limit = calcMagnitude( rows );
+
+    // count per row the values above and at the limit
+    long[ ] noOfAbove = new long[ noOfRows ];
+    long[ ] noOfTies = new long[ noOfRows ];
+    forEachRow( noOfRows, rows._noOfValues, s -> {
+      double[ ] arr = rows._arr[ s ];
+      for( int i = rows._from[ s ]; i < rows._to[ s ]; i++ ) {
+        double absVal = Math.abs( arr[ i ] );
+        if( absVal > limit )
+          noOfAbove[ s ]++;
+        else if( absVal == limit )
+          noOfTies[ s ]++;
+      } // i
+    } );
+
+    // hand out the remaining ties in order of the rows
+    long noOfRemaining =
+        calcNoOfCoefficients( rows._noOfValues ) - sum( noOfAbove );
+    if( limit == 0. )
+      noOfRemaining = 0; // zeros are not stored
+    for( int s = 0; s < noOfRows; s++ ) {
+      long taken = Math.min( noOfTies[ s ], noOfRemaining );
+      noOfTies[ s ] = taken;
+      noOfRemaining -= taken;
+    } // s
+
+    forEachRow( noOfRows, rows._noOfValues, s -> {
+      double[ ] arr = rows._arr[ s ];
+      int[ ] positions = new int[ (int)( noOfAbove[ s ] + noOfTies[ s ] ) ];
+      long ties = noOfTies[ s ];
+      int p = 0;
+      for( int i = rows._from[ s ]; i < rows._to[ s ]
+          && p < positions.length; i++ ) {
+        double absVal = Math.abs( arr[ i ] );
+        if( absVal > limit )
+          positions[ p++ ] = i;
+        else if( absVal == limit && ties > 0 ) {
+          positions[ p++ ] = i;
+          ties--;
+        } // if
+      } // i
+      selected[ s ] = positions;
+    } );
+
+    return selected;
+
+  } // select
+
+  /**
+   * Quickselect by three way partitioning around random pivots; the array is
+   * reordered, so that the value at the given position is the one of a sorted
+   * array. Many equal values, like the zeros of compressed coefficients, are
+   * handled in linear time.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param arr
+   *          the values; are reordered
+   * @param pos
+   *          the position in sorted order
+   * @return the value at that position in sorted order
+   */
+  protected static double select( double[ ] arr, int pos ) {
+
+    ThreadLocalRandom random = ThreadLocalRandom.current( );
+
+    int lo = 0;
+    int hi = arr.length - 1;
+
+    while( lo < hi ) {
+
+      double pivot = arr[ random.nextInt( lo, hi + 1 ) ];
+
+      int lt = lo; // [ lo .. lt [ less than pivot
+      int gt = hi; // ] gt .. hi ] greater than pivot
+      int i = lo;
+      while( i <= gt ) {
+        double val = arr[ i ];
+        if( val < pivot ) {
+          arr[ i++ ] = arr[ lt ];
+          arr[ lt++ ] = val;
+        } else if( val > pivot ) {
+          arr[ i ] = arr[ gt ];
+          arr[ gt-- ] = val;
+        } else
+          i++;
+      } // i
+
+      if( pos < lt )
+        hi = lt - 1;
+      else if( pos > gt )
+        lo = gt + 1;
+      else
+        return pivot;
+
+    } // while
+
+    return arr[ pos ];
+
+  } // select
+
+  /**
+   * Arrays, matrices, and spaces as rows of values for processing them row by
+   * row; arrays are split into chunks, spaces into their rows along k.
+   *
+   * @author Christian (graetz23@gmail.com)
+   */
+  private static final class Rows {
+
+    final int _noOfRows;
+
+    final double[ ][ ] _arr;
+
+    final int[ ] _from;
+
+    final int[ ] _to;
+
+    final long _noOfValues;
+
+    Rows( double[ ] arr ) {
+
+      _noOfRows = ( arr.length + CHUNK_SIZE - 1 ) / CHUNK_SIZE;
+      _arr = new double[ _noOfRows ][ ];
+      _from = new int[ _noOfRows ];
+      _to = new int[ _noOfRows ];
+      for( int s = 0; s < _noOfRows; s++ ) {
+        _arr[ s ] = arr;
+        _from[ s ] = s * CHUNK_SIZE;
+        _to[ s ] = Math.min( arr.length, _from[ s ] + CHUNK_SIZE );
+      } // s
+      _noOfValues = arr.length;
+
+    } // Rows
+
+    Rows( double[ ][ ] mat ) {
+
+      this( mat, mat.length );
+
+    } // Rows
+
+    Rows( double[ ][ ][ ] spc ) {
+
+      this( flatten( spc ), spc.length * spc[ 0 ].length );
+
+    } // Rows
+
+    private Rows( double[ ][ ] arr, int noOfRows ) {
+
+      _noOfRows = noOfRows;
+      _arr = arr;
+      _from = new int[ noOfRows ];
+      _to = new int[ noOfRows ];
+      long noOfValues = 0;
+      for( int s = 0; s < noOfRows; s++ ) {
+        _to[ s ] = arr[ s ].length;
+        noOfValues += arr[ s ].length;
+      } // s
+      _noOfValues = noOfValues;
+
+    } // Rows
+
+    private static double[ ][ ] flatten( double[ ][ ][ ] spc ) {
+
+      int noOfCols = spc[ 0 ].length;
+      double[ ][ ] arr = new double[ spc.length * noOfCols ][ ];
+      for( int i = 0; i < spc.length; i++ )
+        for( int j = 0; j < noOfCols; j++ )
+          arr[ i * noOfCols + j ] = spc[ i ][ j ];
+      return arr;
+
+    } // flatten
+
+    /**
+     * The end of the rows of a stripe; the rows are split evenly.
+     */
+    int toStripe( int stripe, int noOfStripes ) {
+
+      return (int)( (long)( stripe + 1 ) * _noOfRows / noOfStripes );
+
+    } // toStripe
+
+  } // class
+
+} // CompressorTopK
@@ -0,0 +1,258 @@
+/**
+ * JWave is distributed under the MIT License (MIT); this file is part of.
+ *
+ * Copyright (c) 2008-2025 JWave Christian (graetz23@gmail.com)
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.graetz23.jwave.compressions;
+
+import java.util.Arrays;
+
+/**
+ * The distribution of all magnitudes of an array, a matrix, or a space; the
+ * absolute values are copied and sorted once, afterwards the limit for a
+ * target compression rate or error bound is found without scanning the data
+ * again. A limit found is applied by Compressor#threshold in a single pass.
+ *
+ * @author Christian (graetz23@gmail.com)
+ */
+public class MagnitudeDistribution {
+
+  /**
+   * All absolute values in ascending order.
+   *
+   * @author Christian (graetz23@gmail.com)
+   */
+  private final double[ ] _sorted;
+
+  /**
+   * Sorts the magnitudes of an array.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param arrHilb
+   *          the array of coefficients; is not changed
+   */
+  public MagnitudeDistribution( double[ ] arrHilb ) {
+
+    _sorted = new double[ arrHilb.length ];
+    for( int i = 0; i < arrHilb.length; i++ )
+      _sorted[ i ] = Math.abs( arrHilb[ i ] );
+    Arrays.parallelSort( _sorted );
+
+  } // MagnitudeDistribution
+
+  /**
+   * Sorts the magnitudes of a matrix; copied row by row in parallel for large
+   * matrices.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param matHilb
+   *          the matrix of coefficients; is not changed
+   */
+  public MagnitudeDistribution( double[ ][ ] matHilb ) {
+
+    int matHilbNoOfRows = matHilb.length;
+    int matHilbNoOfCols = matHilb[ 0 ].length;
+
+    _sorted = new double[ checkSize( (long)matHilbNoOfRows * matHilbNoOfCols ) ];
+    Compressor.forEachRow( matHilbNoOfRows, _sorted.length, i -> {
+      double[ ] arrHilb = matHilb[ i ];
+      int p = i * matHilbNoOfCols;
+      for( int j = 0; j < matHilbNoOfCols; j++ )
+        _sorted[ p++ ] = Math.abs( arrHilb[ j ] );
+    } );
+    Arrays.parallelSort( _sorted );
+
+  } // MagnitudeDistribution
+
+  /**
+   * Sorts the magnitudes of a space; copied row by row in parallel for large
+   * spaces.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param spcHilb
+   *          the space of coefficients; is not changed
+   */
+  public MagnitudeDistribution( double[ ][ ][ ] spcHilb ) {
+
+    int matHilbNoOfRows = spcHilb.length;
+    int matHilbNoOfCols = spcHilb[ 0 ].length;
+    int matHilbNoOfLvls = spcHilb[ 0 ][ 0 ].length;
+
+    _sorted = new double[ checkSize(
+        (long)matHilbNoOfRows * matHilbNoOfCols * matHilbNoOfLvls ) ];
+    Compressor.forEachRow( matHilbNoOfRows, _sorted.length, i -> {
+      int p = i * matHilbNoOfCols * matHilbNoOfLvls;
+      for( int j = 0; j < matHilbNoOfCols; j++ ) {
+        double[ ] arrHilb = spcHilb[ i ][ j ];
+        for( int k = 0; k < matHilbNoOfLvls; k++ )
+          _sorted[ p++ ] = Math.abs( arrHilb[ k ] );
+      } // j
+    } );
+    Arrays.parallelSort( _sorted );
+
+  } // MagnitudeDistribution
+
+  /**
+   * Returns the number of all values.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @return the number of values
+   */
+  public int getNoOfValues( ) {
+
+    return _sorted.length;
+
+  } // getNoOfValues
+
+  /**
+   * Returns the smallest limit that sets at least the given percentage of all
+   * values to zero; all values tying with the largest value set to zero are
+   * set to zero as well.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param compressionRate
+   *          the percentage of zeros in [0 .. 100] %
+   * @return the limit; the smallest absolute value kept
+   */
+  public double calcLimitForRate( double compressionRate ) {
+
+    int length = _sorted.length;
+
+    double rate = Math.min( 100., Math.max( 0., compressionRate ) );
+    int noOfZeros = (int)Math.min( length, Math.ceil( rate / 100. * length ) );
+
+    if( noOfZeros == 0 )
+      return 0.;
+
+    return Math.nextUp( _sorted[ noOfZeros - 1 ] );
+
+  } // calcLimitForRate
+
+  /**
+   * Returns the largest limit, where the root of the sum of squares of all
+   * values set to zero is not above the given error. For orthonormal wavelets
+   * this is the Euclidean distance between reconstructed and original data.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param error
+   *          the allowed error; zero or larger
+   * @return the limit; the smallest absolute value kept
+   */
+  public double calcLimitForError( double error ) {
+
+    double energy = error * error;
+
+    int length = _sorted.length;
+    double sum = 0.;
+    int noOfZeros = 0; // values below are dropped; always at a change of value
+
+    for( int i = 0; i < length; i++ ) {
+
+      double val = _sorted[ i ];
+      sum += val * val;
+
+      if( sum > energy )
+        break;
+
+      if( i == length - 1 || _sorted[ i + 1 ] > val )
+        noOfZeros = i + 1;
+
+    } // i
+
+    if( noOfZeros == length )
+      return Double.POSITIVE_INFINITY;
+    return _sorted[ noOfZeros ];
+
+  } // calcLimitForError
+
+  /**
+   * Returns the compression rate a limit achieves; counting zeros of the data
+   * as well.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param limit
+   *          the smallest absolute value kept
+   * @return the compression rate as a percentage: [0 .. 100] %
+   */
+  public double calcCompressionRate( double limit ) {
+
+    int noOfZeros = Math.max( countBelow( limit ), countBelow( Double.MIN_VALUE ) );
+
+    return Compressor.calcCompressionRate( _sorted.length - noOfZeros,
+        _sorted.length );
+
+  } // calcCompressionRate
+
+  /**
+   * Returns the root of the sum of squares of all values a limit sets to zero.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param limit
+   *          the smallest absolute value kept
+   * @return the error
+   */
+  public double calcError( double limit ) {
+
+    int noOfZeros = countBelow( limit );
+
+    double sum = 0.;
+    for( int i = 0; i < noOfZeros; i++ )
+      sum += _sorted[ i ] * _sorted[ i ];
+
+    return Math.sqrt( sum );
+
+  } // calcError
+
+  /**
+   * The number of values below the limit by binary search.
+   *
+   * @author Christian (graetz23@gmail.com)
+   */
+  private int countBelow( double limit ) {
+
+    int lo = 0;
+    int hi = _sorted.length;
+    while( lo < hi ) {
+      int mid = ( lo + hi ) >>> 1;
+      if( _sorted[ mid ] < limit )
+        lo = mid + 1;
+      else
+        hi = mid;
+    } // while
+    return lo;
+
+  } // countBelow
+
+  /**
+   * Java arrays are indexed by int.
+   *
+   * @author Christian (graetz23@gmail.com)
+   */
+  private static int checkSize( long noOfValues ) {
+
+    if( noOfValues > Integer.MAX_VALUE - 8 )
+      throw new IllegalArgumentException(
+          "MagnitudeDistribution - too many values: " + noOfValues );
+    return (int)noOfValues;
+
+  } // checkSize
+
+} // MagnitudeDistribution
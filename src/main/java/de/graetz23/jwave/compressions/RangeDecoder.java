@@ -0,0 +1,126 @@
+/**
+ * JWave is distributed under the MIT License (MIT); this file is part of.
+ *
+ * Copyright (c) 2008-2025 JWave Christian (graetz23@gmail.com)
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.graetz23.jwave.compressions;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Adaptive binary range decoder matching the RangeEncoder; reads the bytes
+ * from a ByteBuffer as they are needed. Package internal part of the
+ * CoefficientCodec.
+ *
+ * @author Christian (graetz23@gmail.com)
+ */
+final class RangeDecoder {
+
+  private final ByteBuffer _buffer;
+
+  private int _range = -1;
+
+  private int _code = 0;
+
+  RangeDecoder( ByteBuffer buffer ) {
+
+    _buffer = buffer;
+    for( int i = 0; i < 5; i++ )
+      _code = ( _code << 8 ) | read( );
+
+  } // RangeDecoder
+
+  int decodeBit( short[ ] probs, int index ) {
+
+    int prob = probs[ index ];
+    int bound = ( _range >>> RangeEncoder.NO_OF_PROB_BITS ) * prob;
+    int bit;
+    if( ( _code ^ 0x80000000 ) < ( bound ^ 0x80000000 ) ) {
+      _range = bound;
+      probs[ index ] = (short)( prob + ( ( ( 1 << RangeEncoder.NO_OF_PROB_BITS )
+          - prob ) >>> RangeEncoder.NO_OF_MOVE_BITS ) );
+      bit = 0;
+    } else {
+      _range -= bound;
+      _code -= bound;
+      probs[ index ] =
+          (short)( prob - ( prob >>> RangeEncoder.NO_OF_MOVE_BITS ) );
+      bit = 1;
+    } // if
+    if( ( _range & RangeEncoder.TOP_MASK ) == 0 ) {
+      _code = ( _code << 8 ) | read( );
+      _range <<= 8;
+    } // if
+    return bit;
+
+  } // decodeBit
+
+  long decodeDirectBits( int noOfBits ) {
+
+    long result = 0;
+    for( int i = noOfBits; i != 0; i-- ) {
+      _range >>>= 1;
+      int t = ( _code - _range ) >>> 31;
+      _code -= _range & ( t - 1 );
+      result = ( result << 1 ) | ( 1 - t );
+      if( ( _range & RangeEncoder.TOP_MASK ) == 0 ) {
+        _code = ( _code << 8 ) | read( );
+        _range <<= 8;
+      } // if
+    } // i
+    return result;
+
+  } // decodeDirectBits
+
+  /**
+   * Decodes a number of zero or larger coded by RangeEncoder#encodeNumber.
+   */
+  long decodeNumber( short[ ] model ) {
+
+    int noOfBits = 1;
+    while( noOfBits < 64 && decodeBit( model,
+        Math.min( noOfBits - 1, RangeEncoder.NO_OF_PREFIX_CTX - 1 ) ) == 1 )
+      noOfBits++;
+
+    int noOfMantissa = noOfBits - 1;
+    int noOfTree = Math.min( 2, noOfMantissa );
+    long n = 1;
+    int node = 1;
+    for( int t = 1; t <= noOfTree; t++ ) {
+      int bit = decodeBit( model,
+          RangeEncoder.NO_OF_PREFIX_CTX + noOfBits * 4 + node );
+      node = ( node << 1 ) | bit;
+      n = ( n << 1 ) | bit;
+    } // t
+    int noOfDirect = noOfMantissa - noOfTree;
+    n = ( n << noOfDirect ) | decodeDirectBits( noOfDirect );
+
+    return n - 1;
+
+  } // decodeNumber
+
+  private int read( ) {
+
+    return _buffer.get( ) & 0xFF;
+
+  } // read
+
+} // RangeDecoder
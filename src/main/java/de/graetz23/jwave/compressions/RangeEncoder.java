@@ -0,0 +1,186 @@
+/**
+ * JWave is distributed under the MIT License (MIT); this file is part of.
+ *
+ * Copyright (c) 2008-2025 JWave Christian (graetz23@gmail.com)
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.graetz23.jwave.compressions;
+
+import java.util.Arrays;
+
+/**
+ * Adaptive binary range encoder in the style of LZMA; bits are coded by
+ * probabilities of 11 bit that adapt to the data. Numbers are binarized by an
+ * adaptive Elias gamma code. Package internal part of the CoefficientCodec.
+ *
+ * @author Christian (graetz23@gmail.com)
+ */
+final class RangeEncoder {
+
+  static final int NO_OF_PROB_BITS = 11;
+
+  static final int PROB_INIT = 1 << ( NO_OF_PROB_BITS - 1 );
+
+  static final int NO_OF_MOVE_BITS = 5;
+
+  static final int TOP_MASK = ~( ( 1 << 24 ) - 1 );
+
+  /**
+   * Contexts of the unary prefix of the number of bits.
+   */
+  static final int NO_OF_PREFIX_CTX = 64;
+
+  /**
+   * The size of a model for numbers; prefix contexts and a bit tree of the two
+   * highest mantissa bits per number of bits.
+   */
+  static final int MODEL_SIZE = NO_OF_PREFIX_CTX + 65 * 4;
+
+  private byte[ ] _buf = new byte[ 1024 ];
+
+  private int _pos = 0;
+
+  private long _low = 0;
+
+  private int _range = -1;
+
+  private int _cache = 0;
+
+  private long _cacheSize = 1;
+
+  /**
+   * Returns a new model for numbers with all probabilities at one half.
+   */
+  static short[ ] createModel( ) {
+
+    short[ ] model = new short[ MODEL_SIZE ];
+    Arrays.fill( model, (short)PROB_INIT );
+    return model;
+
+  } // createModel
+
+  void encodeBit( short[ ] probs, int index, int bit ) {
+
+    int prob = probs[ index ];
+    int bound = ( _range >>> NO_OF_PROB_BITS ) * prob;
+    if( bit == 0 ) {
+      _range = bound;
+      probs[ index ] =
+          (short)( prob + ( ( ( 1 << NO_OF_PROB_BITS ) - prob ) >>> NO_OF_MOVE_BITS ) );
+    } else {
+      _low += bound & 0xFFFFFFFFL;
+      _range -= bound;
+      probs[ index ] = (short)( prob - ( prob >>> NO_OF_MOVE_BITS ) );
+    } // if
+    if( ( _range & TOP_MASK ) == 0 ) {
+      _range <<= 8;
+      shiftLow( );
+    } // if
+
+  } // encodeBit
+
+  void encodeDirectBits( long value, int noOfBits ) {
+
+    for( int i = noOfBits - 1; i >= 0; i-- ) {
+      _range >>>= 1;
+      if( ( ( value >>> i ) & 1 ) == 1 )
+        _low += _range;
+      if( ( _range & TOP_MASK ) == 0 ) {
+        _range <<= 8;
+        shiftLow( );
+      } // if
+    } // i
+
+  } // encodeDirectBits
+
+  /**
+   * Encodes a number of zero or larger by an adaptive Elias gamma code.
+   */
+  void encodeNumber( short[ ] model, long value ) {
+
+    long n = value + 1;
+    int noOfBits = 64 - Long.numberOfLeadingZeros( n );
+
+    // unary prefix of the number of bits
+    for( int t = 0; t < noOfBits - 1; t++ )
+      encodeBit( model, Math.min( t, NO_OF_PREFIX_CTX - 1 ), 1 );
+    if( noOfBits < 64 )
+      encodeBit( model, Math.min( noOfBits - 1, NO_OF_PREFIX_CTX - 1 ), 0 );
+
+    // two highest mantissa bits adaptive, all others direct
+    int noOfMantissa = noOfBits - 1;
+    int noOfTree = Math.min( 2, noOfMantissa );
+    int node = 1;
+    for( int t = 1; t <= noOfTree; t++ ) {
+      int bit = (int)( ( n >>> ( noOfMantissa - t ) ) & 1 );
+      encodeBit( model, NO_OF_PREFIX_CTX + noOfBits * 4 + node, bit );
+      node = ( node << 1 ) | bit;
+    } // t
+    encodeDirectBits( n, noOfMantissa - noOfTree );
+
+  } // encodeNumber
+
+  /**
+   * Writes the pending bytes; the encoder is done afterwards.
+   */
+  void flush( ) {
+
+    for( int i = 0; i < 5; i++ )
+      shiftLow( );
+
+  } // flush
+
+  private void shiftLow( ) {
+
+    int lowHi = (int)( _low >>> 32 );
+    if( lowHi != 0 || _low < 0xFF000000L ) {
+      int temp = _cache;
+      do {
+        write( temp + lowHi );
+        temp = 0xFF;
+      } while( --_cacheSize != 0 );
+      _cache = ( (int)_low ) >>> 24;
+    } // if
+    _cacheSize++;
+    _low = ( _low & 0xFFFFFF ) << 8;
+
+  } // shiftLow
+
+  private void write( int b ) {
+
+    if( _pos == _buf.length )
+      _buf = Arrays.copyOf( _buf, _buf.length << 1 );
+    _buf[ _pos++ ] = (byte)b;
+
+  } // write
+
+  byte[ ] getBytes( ) {
+
+    return _buf;
+
+  } // getBytes
+
+  int getNoOfBytes( ) {
+
+    return _pos;
+
+  } // getNoOfBytes
+
+} // RangeEncoder
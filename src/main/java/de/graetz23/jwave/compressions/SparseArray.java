@@ -0,0 +1,111 @@
+/**
+ * JWave is distributed under the MIT License (MIT); this file is part of.
+ *
+ * Copyright (c) 2008-2025 JWave Christian (graetz23@gmail.com)
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.graetz23.jwave.compressions;
+
+import java.util.Arrays;
+
+/**
+ * The non zero coefficients of a compressed array.
+ *
+ * @author Christian (graetz23@gmail.com)
+ */
+public class SparseArray extends SparseCoefficients {
+
+  /**
+   * Keeps the non zero values of a dense array.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param arr
+   *          the dense array
+   */
+  public SparseArray( double[ ] arr ) {
+
+    this( arr, 0. );
+
+  } // SparseArray
+
+  /**
+   * Keeps the non zero values of a dense array not below the limit.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param arr
+   *          the dense array
+   * @param limit
+   *          the smallest absolute value kept
+   */
+  public SparseArray( double[ ] arr, double limit ) {
+
+    super( arr.length, collect( arr, limit ) );
+
+  } // SparseArray
+
+  private static Builder collect( double[ ] arr, double limit ) {
+
+    Builder builder = new Builder( );
+    builder.add( arr, 0, limit );
+    return builder;
+
+  } // collect
+
+  /**
+   * Returns the length of the array.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @return the number of values
+   */
+  public int getLength( ) {
+
+    return _noOfValues;
+
+  } // getLength
+
+  /**
+   * Writes all values into a dense array; all other values are set to zero.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param arr
+   *          the dense array of the same length
+   * @return the given array
+   */
+  public double[ ] toArray( double[ ] arr ) {
+
+    Arrays.fill( arr, 0. );
+    forEachNonZero( ( index, value ) -> arr[ index ] = value );
+    return arr;
+
+  } // toArray
+
+  /**
+   * Returns a new dense array keeping all values.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @return the dense array
+   */
+  public double[ ] toArray( ) {
+
+    return toArray( new double[ _noOfValues ] );
+
+  } // toArray
+
+} // SparseArray
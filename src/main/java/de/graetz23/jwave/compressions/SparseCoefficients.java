@@ -0,0 +1,300 @@
+/**
+ * JWave is distributed under the MIT License (MIT); this file is part of.
+ *
+ * Copyright (c) 2008-2025 JWave Christian (graetz23@gmail.com)
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.graetz23.jwave.compressions;
+
+import java.util.Arrays;
+
+/**
+ * Compact storage of the non zero coefficients left by a compression; instead
+ * of a dense array full of zeros only the values and their positions are kept.
+ * Positions are flat indices in row-major order and are stored either as
+ * deltas between sorted indices or as a bitmap of one bit per value, whatever
+ * takes less memory. The values are packed in order of their indices.
+ *
+ * @author Christian (graetz23@gmail.com)
+ */
+public abstract class SparseCoefficients {
+
+  /**
+   * The encoding of the positions of the non zero values.
+   *
+   * @author Christian (graetz23@gmail.com)
+   */
+  public enum Encoding {
+
+    /**
+     * The first index followed by the distances to the previous index; four
+     * bytes per non zero value.
+     */
+    DELTAS,
+
+    /**
+     * One bit per value, set for non zero values; one byte per eight values.
+     */
+    BITMAP
+
+  } // enum
+
+  /**
+   * Visitor getting all non zero values in order of their flat indices.
+   *
+   * @author Christian (graetz23@gmail.com)
+   */
+  @FunctionalInterface
+  public interface Visitor {
+
+    /**
+     * @param index
+     *          the flat index in row-major order
+     * @param value
+     *          the non zero value
+     */
+    void visit( int index, double value );
+
+  } // interface
+
+  /**
+   * The number of all values, including the zeros.
+   */
+  protected final int _noOfValues;
+
+  /**
+   * The encoding of the positions.
+   */
+  protected final Encoding _encoding;
+
+  /**
+   * The deltas between sorted indices; null for a bitmap.
+   */
+  protected final int[ ] _deltas;
+
+  /**
+   * The bitmap of non zero positions; null for deltas.
+   */
+  protected final long[ ] _bitmap;
+
+  /**
+   * The packed non zero values in order of their indices.
+   */
+  protected final double[ ] _values;
+
+  /**
+   * Encodes the given non zero values; the smaller encoding is chosen.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param noOfValues
+   *          the number of all values
+   * @param builder
+   *          the non zero values in ascending order of their indices
+   */
+  protected SparseCoefficients( int noOfValues, Builder builder ) {
+
+    _noOfValues = noOfValues;
+    _values = Arrays.copyOf( builder._values, builder._size );
+
+    int[ ] indices = builder._indices;
+    int noOfNonZeros = builder._size;
+
+    long bytesOfDeltas = 4L * noOfNonZeros;
+    long bytesOfBitmap = 8L * ( ( (long)noOfValues + 63 ) / 64 );
+
+    if( bytesOfDeltas <= bytesOfBitmap ) {
+
+      _encoding = Encoding.DELTAS;
+      _bitmap = null;
+      _deltas = new int[ noOfNonZeros ];
+      int previous = 0;
+      for( int n = 0; n < noOfNonZeros; n++ ) {
+        _deltas[ n ] = indices[ n ] - previous;
+        previous = indices[ n ];
+      } // n
+
+    } else {
+
+      _encoding = Encoding.BITMAP;
+      _deltas = null;
+      _bitmap = new long[ (int)( ( (long)noOfValues + 63 ) / 64 ) ];
+      for( int n = 0; n < noOfNonZeros; n++ )
+        _bitmap[ indices[ n ] >>> 6 ] |= 1L << indices[ n ];
+
+    } // if
+
+  } // SparseCoefficients
+
+  /**
+   * Returns the number of all values, including the zeros.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @return the number of values
+   */
+  public int getNoOfValues( ) {
+
+    return _noOfValues;
+
+  } // getNoOfValues
+
+  /**
+   * Returns the number of stored non zero values.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @return the number of non zero values
+   */
+  public int getNoOfNonZeros( ) {
+
+    return _values.length;
+
+  } // getNoOfNonZeros
+
+  /**
+   * Returns the chosen encoding of the positions.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @return the encoding
+   */
+  public Encoding getEncoding( ) {
+
+    return _encoding;
+
+  } // getEncoding
+
+  /**
+   * Returns the number of bytes taken by positions and values.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @return the number of bytes
+   */
+  public long getNoOfBytes( ) {
+
+    long bytes = 8L * _values.length;
+    if( _deltas != null )
+      bytes += 4L * _deltas.length;
+    if( _bitmap != null )
+      bytes += 8L * _bitmap.length;
+    return bytes;
+
+  } // getNoOfBytes
+
+  /**
+   * Returns the compression rate; the percentage of zeros.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @return the compression rate as a percentage: [0 .. 100] %
+   */
+  public double getCompressionRate( ) {
+
+    return Compressor.calcCompressionRate( _values.length, _noOfValues );
+
+  } // getCompressionRate
+
+  /**
+   * Passes all non zero values in order of their flat indices to the visitor;
+   * costs are by the number of non zero values for deltas and by the number of
+   * values divided by 64 for a bitmap.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param visitor
+   *          gets the flat index and the value
+   */
+  public void forEachNonZero( Visitor visitor ) {
+
+    if( _deltas != null ) {
+
+      int index = 0;
+      for( int n = 0; n < _deltas.length; n++ ) {
+        index += _deltas[ n ];
+        visitor.visit( index, _values[ n ] );
+      } // n
+
+    } else {
+
+      int n = 0;
+      for( int w = 0; w < _bitmap.length; w++ ) {
+        long word = _bitmap[ w ];
+        while( word != 0 ) {
+          int bit = Long.numberOfTrailingZeros( word );
+          visitor.visit( ( w << 6 ) + bit, _values[ n++ ] );
+          word &= word - 1; // clear lowest bit
+        } // word
+      } // w
+
+    } // if
+
+  } // forEachNonZero
+
+  /**
+   * Java arrays are indexed by int; the flat index has to fit.
+   *
+   * @author Christian (graetz23@gmail.com)
+   */
+  protected static int checkSize( long noOfValues ) {
+
+    if( noOfValues > Integer.MAX_VALUE - 8 )
+      throw new IllegalArgumentException(
+          "SparseCoefficients - too many values: " + noOfValues );
+    return (int)noOfValues;
+
+  } // checkSize
+
+  /**
+   * Collects non zero values in ascending order of their indices; growing by
+   * doubling.
+   *
+   * @author Christian (graetz23@gmail.com)
+   */
+  protected static final class Builder {
+
+    int[ ] _indices = new int[ 16 ];
+
+    double[ ] _values = new double[ 16 ];
+
+    int _size = 0;
+
+    void add( int index, double value ) {
+
+      if( _size == _indices.length ) {
+        int capacity = Math.max( 16, _size << 1 );
+        _indices = Arrays.copyOf( _indices, capacity );
+        _values = Arrays.copyOf( _values, capacity );
+      } // if
+      _indices[ _size ] = index;
+      _values[ _size++ ] = value;
+
+    } // add
+
+    /**
+     * Adds all values of an array not below the limit, skipping zeros.
+     */
+    void add( double[ ] arr, int offSet, double limit ) {
+
+      for( int i = 0; i < arr.length; i++ ) {
+        double val = arr[ i ];
+        if( val != 0. && Math.abs( val ) >= limit )
+          add( offSet + i, val );
+      } // i
+
+    } // add
+
+  } // class
+
+} // SparseCoefficients
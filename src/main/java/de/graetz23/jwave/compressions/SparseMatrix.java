@@ -0,0 +1,142 @@
+/**
+ * JWave is distributed under the MIT License (MIT); this file is part of.
+ *
+ * Copyright (c) 2008-2025 JWave Christian (graetz23@gmail.com)
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.graetz23.jwave.compressions;
+
+import java.util.Arrays;
+
+/**
+ * The non zero coefficients of a compressed matrix; the flat index of (i,j) is
+ * i * noOfCols + j.
+ *
+ * @author Christian (graetz23@gmail.com)
+ */
+public class SparseMatrix extends SparseCoefficients {
+
+  /**
+   * The number of rows i.
+   */
+  protected final int _noOfRows;
+
+  /**
+   * The number of columns j.
+   */
+  protected final int _noOfCols;
+
+  /**
+   * Keeps the non zero values of a dense matrix.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param mat
+   *          the dense matrix
+   */
+  public SparseMatrix( double[ ][ ] mat ) {
+
+    this( mat, 0. );
+
+  } // SparseMatrix
+
+  /**
+   * Keeps the non zero values of a dense matrix not below the limit.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param mat
+   *          the dense matrix
+   * @param limit
+   *          the smallest absolute value kept
+   */
+  public SparseMatrix( double[ ][ ] mat, double limit ) {
+
+    super( checkSize( (long)mat.length * mat[ 0 ].length ),
+        collect( mat, limit ) );
+
+    _noOfRows = mat.length;
+    _noOfCols = mat[ 0 ].length;
+
+  } // SparseMatrix
+
+  private static Builder collect( double[ ][ ] mat, double limit ) {
+
+    Builder builder = new Builder( );
+    int noOfCols = mat[ 0 ].length;
+    for( int i = 0; i < mat.length; i++ )
+      builder.add( mat[ i ], i * noOfCols, limit );
+    return builder;
+
+  } // collect
+
+  /**
+   * Returns the number of rows i.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @return the number of rows
+   */
+  public int getNoOfRows( ) {
+
+    return _noOfRows;
+
+  } // getNoOfRows
+
+  /**
+   * Returns the number of columns j.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @return the number of columns
+   */
+  public int getNoOfCols( ) {
+
+    return _noOfCols;
+
+  } // getNoOfCols
+
+  /**
+   * Writes all values into a dense matrix; all other values are set to zero.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param mat
+   *          the dense matrix of the same dimensions
+   * @return the given matrix
+   */
+  public double[ ][ ] toArray( double[ ][ ] mat ) {
+
+    for( double[ ] arr : mat )
+      Arrays.fill( arr, 0. );
+    forEachNonZero( ( index, value ) -> mat[ index / _noOfCols ][ index
+        % _noOfCols ] = value );
+    return mat;
+
+  } // toArray
+
+  /**
+   * Returns a new dense matrix keeping all values.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @return the dense matrix
+   */
+  public double[ ][ ] toArray( ) {
+
+    return toArray( new double[ _noOfRows ][ _noOfCols ] );
+
+  } // toArray
+
+} // SparseMatrix
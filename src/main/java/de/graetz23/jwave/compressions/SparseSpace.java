@@ -0,0 +1,166 @@
+/**
+ * JWave is distributed under the MIT License (MIT); this file is part of.
+ *
+ * Copyright (c) 2008-2025 JWave Christian (graetz23@gmail.com)
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.graetz23.jwave.compressions;
+
+import java.util.Arrays;
+
+/**
+ * The non zero coefficients of a compressed space; the flat index of (i,j,k) is
+ * ( i * noOfCols + j ) * noOfLvls + k.
+ *
+ * @author Christian (graetz23@gmail.com)
+ */
+public class SparseSpace extends SparseCoefficients {
+
+  /**
+   * The number of rows i.
+   */
+  protected final int _noOfRows;
+
+  /**
+   * The number of columns j.
+   */
+  protected final int _noOfCols;
+
+  /**
+   * The number of levels k.
+   */
+  protected final int _noOfLvls;
+
+  /**
+   * Keeps the non zero values of a dense space.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param spc
+   *          the dense space
+   */
+  public SparseSpace( double[ ][ ][ ] spc ) {
+
+    this( spc, 0. );
+
+  } // SparseSpace
+
+  /**
+   * Keeps the non zero values of a dense space not below the limit.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param spc
+   *          the dense space
+   * @param limit
+   *          the smallest absolute value kept
+   */
+  public SparseSpace( double[ ][ ][ ] spc, double limit ) {
+
+    super( checkSize( (long)spc.length * spc[ 0 ].length * spc[ 0 ][ 0 ].length ),
+        collect( spc, limit ) );
+
+    _noOfRows = spc.length;
+    _noOfCols = spc[ 0 ].length;
+    _noOfLvls = spc[ 0 ][ 0 ].length;
+
+  } // SparseSpace
+
+  private static Builder collect( double[ ][ ][ ] spc, double limit ) {
+
+    Builder builder = new Builder( );
+    int noOfCols = spc[ 0 ].length;
+    int noOfLvls = spc[ 0 ][ 0 ].length;
+    for( int i = 0; i < spc.length; i++ )
+      for( int j = 0; j < noOfCols; j++ )
+        builder.add( spc[ i ][ j ], ( i * noOfCols + j ) * noOfLvls, limit );
+    return builder;
+
+  } // collect
+
+  /**
+   * Returns the number of rows i.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @return the number of rows
+   */
+  public int getNoOfRows( ) {
+
+    return _noOfRows;
+
+  } // getNoOfRows
+
+  /**
+   * Returns the number of columns j.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @return the number of columns
+   */
+  public int getNoOfCols( ) {
+
+    return _noOfCols;
+
+  } // getNoOfCols
+
+  /**
+   * Returns the number of levels k.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @return the number of levels
+   */
+  public int getNoOfLvls( ) {
+
+    return _noOfLvls;
+
+  } // getNoOfLvls
+
+  /**
+   * Writes all values into a dense space; all other values are set to zero.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param spc
+   *          the dense space of the same dimensions
+   * @return the given space
+   */
+  public double[ ][ ][ ] toArray( double[ ][ ][ ] spc ) {
+
+    for( double[ ][ ] mat : spc )
+      for( double[ ] arr : mat )
+        Arrays.fill( arr, 0. );
+    forEachNonZero( ( index, value ) -> {
+      int k = index % _noOfLvls;
+      int ij = index / _noOfLvls;
+      spc[ ij / _noOfCols ][ ij % _noOfCols ][ k ] = value;
+    } );
+    return spc;
+
+  } // toArray
+
+  /**
+   * Returns a new dense space keeping all values.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @return the dense space
+   */
+  public double[ ][ ][ ] toArray( ) {
+
+    return toArray( new double[ _noOfRows ][ _noOfCols ][ _noOfLvls ] );
+
+  } // toArray
+
+} // SparseSpace
@@ -0,0 +1,310 @@
+/**
+ * JWave is distributed under the MIT License (MIT); this file is part of.
+ *
+ * Copyright (c) 2008-2025 JWave Christian (graetz23@gmail.com)
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.graetz23.jwave.compressions;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import de.graetz23.jwave.exceptions.JWaveException;
+import de.graetz23.jwave.exceptions.JWaveFailure;
+import de.graetz23.jwave.tools.MathToolKit;
+
+/**
+ * Embedded coder by set partitioning in hierarchical trees (SPIHT) for the 2-D
+ * coefficients of a FastWaveletTransform. Coefficients are sent bit plane by
+ * bit plane, most significant first, and sets of insignificant coefficients
+ * along the spatial orientation trees are sent by a single bit. Therefore the
+ * stream can be truncated at any byte and still gives the best reconstruction
+ * for its length; the SpihtDecoder refines its reconstruction while more
+ * bytes arrive.
+ *
+ * The trees follow the dyadic positions of the coefficients; see SpihtTree.
+ * Any matrix of power of two dimensions can be coded, the coding is most
+ * efficient for the coefficients of a decomposition of the same level in both
+ * dimensions.
+ *
+ * @author Christian (graetz23@gmail.com)
+ */
+public class SpihtCodec {
+
+  /**
+   * The smallest threshold coded; bit planes below are not sent.
+   */
+  protected final double _minThreshold;
+
+  /**
+   * Coding all bit planes down to the given threshold.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param minThreshold
+   *          the smallest threshold coded; e.g. the accuracy needed
+   */
+  public SpihtCodec( double minThreshold ) {
+
+    try {
+
+      if( !( minThreshold > 0. ) || Double.isInfinite( minThreshold ) )
+        throw new JWaveFailure(
+            "SpihtCodec - given threshold should be larger than zero!" );
+
+    } catch( JWaveException e ) {
+
+      e.showMessage( );
+      System.out.println( "SpihtCodec - setting threshold to: " + 1.e-6 );
+      minThreshold = 1.e-6;
+
+    }
+
+    _minThreshold = minThreshold;
+
+  } // SpihtCodec
+
+  /**
+   * Encodes the coefficients of a complete decomposition.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param matHilb
+   *          the 2-D coefficients of power of two dimensions
+   * @return the stream, ready for reading
+   * @throws JWaveException
+   *           if the dimensions are not powers of two
+   */
+  public ByteBuffer encode( double[ ][ ] matHilb ) throws JWaveException {
+
+    int level = Math.min( Integer.numberOfTrailingZeros( matHilb.length ),
+        Integer.numberOfTrailingZeros( matHilb[ 0 ].length ) );
+    return encode( matHilb, level, Integer.MAX_VALUE );
+
+  } // encode
+
+  /**
+   * Encodes the coefficients of a decomposition of a certain level; the coding
+   * stops early, if the stream reaches the given number of bytes.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param matHilb
+   *          the 2-D coefficients of power of two dimensions
+   * @param level
+   *          the level of the decomposition; the approximation has size
+   *          ( noOfRows >> level ) x ( noOfCols >> level )
+   * @param maxBytes
+   *          the largest size of the stream including its header
+   * @return the stream, ready for reading
+   * @throws JWaveException
+   *           if dimensions or level do not fit
+   */
+  public ByteBuffer encode( double[ ][ ] matHilb, int level, int maxBytes )
+      throws JWaveException {
+
+    int noOfRows = matHilb.length;
+    int noOfCols = matHilb[ 0 ].length;
+    check( noOfRows, noOfCols, level );
+    if( maxBytes < SpihtTree.HEADER_SIZE )
+      throw new JWaveFailure( "SpihtCodec - given size is below the header size: "
+          + SpihtTree.HEADER_SIZE );
+
+    SpihtTree tree = new SpihtTree( noOfRows, noOfCols, level );
+    int noOfValues = noOfRows * noOfCols;
+
+    // magnitudes of coefficients, of descendants, and of grand descendants
+    double[ ] abs = new double[ noOfValues ];
+    double max = 0.;
+    for( int i = 0; i < noOfRows; i++ )
+      for( int j = 0; j < noOfCols; j++ ) {
+        abs[ i * noOfCols + j ] = Math.abs( matHilb[ i ][ j ] );
+        max = Math.max( max, abs[ i * noOfCols + j ] );
+      } // j
+    double[ ] maxOfD = new double[ noOfValues ];
+    double[ ] maxOfL = new double[ noOfValues ];
+    int[ ] children = new int[ 4 ];
+    for( int idx = noOfValues - 1; idx >= 0; idx-- ) { // children first
+      int n = tree.children( idx, children );
+      for( int c = 0; c < n; c++ ) {
+        int child = children[ c ];
+        maxOfD[ idx ] = Math.max( maxOfD[ idx ],
+            Math.max( abs[ child ], maxOfD[ child ] ) );
+        maxOfL[ idx ] = Math.max( maxOfL[ idx ], maxOfD[ child ] );
+      } // c
+    } // idx
+
+    int minPlane = Math.getExponent( _minThreshold );
+    int topPlane = max > 0. ? Math.getExponent( max ) : minPlane - 1;
+    minPlane = Math.max( minPlane, topPlane - 60 ); // keeps refinement exact
+
+    Bits bits = new Bits( maxBytes - SpihtTree.HEADER_SIZE );
+
+    SpihtTree.Ints lip = new SpihtTree.Ints( );
+    SpihtTree.Ints lis = new SpihtTree.Ints( );
+    SpihtTree.Ints lsp = new SpihtTree.Ints( );
+    tree.init( lip, lis );
+
+    for( int plane = topPlane; plane >= minPlane && !bits._isFull; plane-- ) {
+
+      double threshold = Math.scalb( 1., plane );
+      int noOfRefined = lsp._size;
+
+      // sorting pass over insignificant pixels
+      for( int p = 0; p < lip._size && !bits._isFull; p++ ) {
+        int idx = lip._arr[ p ];
+        if( bits.write( abs[ idx ] >= threshold ) ) {
+          bits.write( matHilb[ idx / noOfCols ][ idx % noOfCols ] < 0. );
+          lsp.add( idx );
+          lip._arr[ p ] = -1;
+        } // if
+      } // p
+      lip.compact( );
+
+      // sorting pass over insignificant sets; new sets are appended
+      for( int p = 0; p < lis._size && !bits._isFull; p++ ) {
+        int entry = lis._arr[ p ];
+        int idx = entry >> 1;
+        if( ( entry & 1 ) == 0 ) { // type A: all descendants
+          if( bits.write( maxOfD[ idx ] >= threshold ) ) {
+            int n = tree.children( idx, children );
+            for( int c = 0; c < n; c++ ) {
+              int child = children[ c ];
+              if( bits.write( abs[ child ] >= threshold ) ) {
+                bits.write( matHilb[ child / noOfCols ][ child % noOfCols ] < 0. );
+                lsp.add( child );
+              } else
+                lip.add( child );
+            } // c
+            if( tree.hasGrandChildren( idx, children ) )
+              lis.add( ( idx << 1 ) | 1 ); // type B
+            lis._arr[ p ] = -1;
+          } // if
+        } else { // type B: all grand descendants
+          if( bits.write( maxOfL[ idx ] >= threshold ) ) {
+            int n = tree.children( idx, children );
+            for( int c = 0; c < n; c++ )
+              lis.add( children[ c ] << 1 );
+            lis._arr[ p ] = -1;
+          } // if
+        } // if
+      } // p
+      lis.compact( );
+
+      // refinement pass over pixels significant before this plane
+      for( int p = 0; p < noOfRefined && !bits._isFull; p++ ) {
+        int idx = lsp._arr[ p ];
+        bits.write( ( ( (long)( abs[ idx ] / threshold ) ) & 1 ) == 1 );
+      } // p
+
+    } // plane
+
+    ByteBuffer buffer =
+        ByteBuffer.allocate( SpihtTree.HEADER_SIZE + bits.getNoOfBytes( ) );
+    buffer.putInt( SpihtTree.MAGIC );
+    buffer.put( SpihtTree.VERSION );
+    buffer.putInt( noOfRows );
+    buffer.putInt( noOfCols );
+    buffer.putInt( level );
+    buffer.putInt( topPlane );
+    buffer.putInt( minPlane );
+    buffer.put( bits._bytes, 0, bits.getNoOfBytes( ) );
+    buffer.flip( );
+    return buffer;
+
+  } // encode
+
+  /**
+   * Decodes a complete or truncated stream at once.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param buffer
+   *          the stream or its first bytes
+   * @return the reconstructed coefficients
+   * @throws JWaveException
+   *           if the buffer keeps no SPIHT stream
+   */
+  public static double[ ][ ] decode( ByteBuffer buffer ) throws JWaveException {
+
+    SpihtDecoder decoder = new SpihtDecoder( );
+    decoder.update( buffer );
+    decoder.finish( );
+    return decoder.getCoefficients( );
+
+  } // decode
+
+  /**
+   * Checks dimensions and level.
+   */
+  static void check( int noOfRows, int noOfCols, int level )
+      throws JWaveException {
+
+    if( !MathToolKit.isBinary( noOfRows ) || !MathToolKit.isBinary( noOfCols ) )
+      throw new JWaveFailure( "SpihtCodec - dimensions are not powers of two: "
+          + noOfRows + " x " + noOfCols );
+    if( (long)noOfRows * noOfCols > ( 1 << 30 ) )
+      throw new JWaveFailure( "SpihtCodec - matrix is too large: " + noOfRows
+          + " x " + noOfCols );
+    if( level < 0 || level > Integer.numberOfTrailingZeros( noOfRows )
+        || level > Integer.numberOfTrailingZeros( noOfCols ) )
+      throw new JWaveFailure( "SpihtCodec - level is out of range: " + level );
+
+  } // check
+
+  /**
+   * Bits written most significant first; bits above the budget are dropped.
+   */
+  private static final class Bits {
+
+    private final long _maxBits;
+
+    byte[ ] _bytes = new byte[ 1024 ];
+
+    long _noOfBits = 0;
+
+    boolean _isFull = false;
+
+    Bits( int maxBytes ) {
+
+      _maxBits = 8L * maxBytes;
+      _isFull = _maxBits == 0;
+
+    } // Bits
+
+    boolean write( boolean bit ) {
+
+      if( _isFull )
+        return bit;
+      int pos = (int)( _noOfBits >>> 3 );
+      if( pos == _bytes.length )
+        _bytes = Arrays.copyOf( _bytes, _bytes.length << 1 );
+      if( bit )
+        _bytes[ pos ] |= (byte)( 0x80 >>> ( _noOfBits & 7 ) );
+      _isFull = ++_noOfBits >= _maxBits;
+      return bit;
+
+    } // write
+
+    int getNoOfBytes( ) {
+
+      return (int)( ( _noOfBits + 7 ) >>> 3 );
+
+    } // getNoOfBytes
+
+  } // class
+
+} // SpihtCodec
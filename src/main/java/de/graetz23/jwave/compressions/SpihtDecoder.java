@@ -0,0 +1,356 @@
+/**
+ * JWave is distributed under the MIT License (MIT); this file is part of.
+ *
+ * Copyright (c) 2008-2025 JWave Christian (graetz23@gmail.com)
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.graetz23.jwave.compressions;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import de.graetz23.jwave.exceptions.JWaveException;
+import de.graetz23.jwave.exceptions.JWaveFailure;
+
+/**
+ * Progressive decoder of a stream of the SpihtCodec. The bytes may arrive in
+ * pieces of any size; each update decodes as far as the bytes received allow
+ * and the reconstruction available by getCoefficients( ) improves with every
+ * piece. After the last piece, finish( ) uses the remaining bits, too.
+ *
+ * @author Christian (graetz23@gmail.com)
+ */
+public class SpihtDecoder {
+
+  private static final int LIP = 0;
+
+  private static final int LIS = 1;
+
+  private static final int REF = 2;
+
+  private byte[ ] _bytes = new byte[ 1024 ];
+
+  private int _noOfBytes = 0;
+
+  private long _bitPos = 0;
+
+  private boolean _isFinished = false;
+
+  private SpihtTree _tree;
+
+  private double[ ][ ] _matHilb;
+
+  private SpihtTree.Ints _lip;
+
+  private SpihtTree.Ints _lis;
+
+  private SpihtTree.Ints _lsp;
+
+  private final int[ ] _children = new int[ 4 ];
+
+  private int _plane;
+
+  private int _minPlane;
+
+  private int _phase;
+
+  private int _pos;
+
+  private int _noOfRefined;
+
+  /**
+   * Decoder waiting for the first bytes of a stream.
+   *
+   * @author Christian (graetz23@gmail.com)
+   */
+  public SpihtDecoder( ) {
+
+  } // SpihtDecoder
+
+  /**
+   * Takes the next bytes of the stream, all remaining ones of the buffer, and
+   * refines the reconstruction.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param buffer
+   *          the next bytes of the stream
+   * @throws JWaveException
+   *           if the stream is finished or if the header is not valid
+   */
+  public void update( ByteBuffer buffer ) throws JWaveException {
+
+    if( _isFinished )
+      throw new JWaveFailure( "SpihtDecoder - stream is already finished" );
+
+    int length = buffer.remaining( );
+    if( _noOfBytes + length > _bytes.length )
+      _bytes = Arrays.copyOf( _bytes,
+          Math.max( _noOfBytes + length, _bytes.length << 1 ) );
+    buffer.get( _bytes, _noOfBytes, length );
+    _noOfBytes += length;
+
+    if( _tree == null && _noOfBytes >= SpihtTree.HEADER_SIZE )
+      readHeader( );
+    if( _tree != null )
+      decode( false );
+
+  } // update
+
+  /**
+   * Marks the end of the stream and decodes the remaining bits; a truncated
+   * stream gives the reconstruction of its bytes.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @throws JWaveException
+   *           if the stream is shorter than its header
+   */
+  public void finish( ) throws JWaveException {
+
+    if( _isFinished )
+      return;
+    if( _tree == null )
+      throw new JWaveFailure( "SpihtDecoder - stream is shorter than header" );
+    decode( true );
+    _isFinished = true;
+
+  } // finish
+
+  /**
+   * The current reconstruction, updated in place by further bytes.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @return the coefficients or null if the header is not complete
+   */
+  public double[ ][ ] getCoefficients( ) {
+
+    return _matHilb;
+
+  } // getCoefficients
+
+  public int getNoOfRows( ) {
+
+    return _tree == null ? 0 : _tree._noOfRows;
+
+  } // getNoOfRows
+
+  public int getNoOfCols( ) {
+
+    return _tree == null ? 0 : _tree._noOfCols;
+
+  } // getNoOfCols
+
+  public int getLevel( ) {
+
+    return _tree == null ? 0 : _tree._level;
+
+  } // getLevel
+
+  /**
+   * The exponent of the bit plane in decoding; the error of a coefficient is
+   * below 2^plane for the planes decoded completely.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @return the exponent of the current bit plane
+   */
+  public int getPlane( ) {
+
+    return _plane;
+
+  } // getPlane
+
+  /**
+   * The number of bits decoded so far.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @return bits of the stream decoded without its header
+   */
+  public long getNoOfBits( ) {
+
+    return _bitPos;
+
+  } // getNoOfBits
+
+  /**
+   * True if all bit planes of the stream are decoded.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @return true if decoding is complete
+   */
+  public boolean isComplete( ) {
+
+    return _tree != null && _plane < _minPlane;
+
+  } // isComplete
+
+  private void readHeader( ) throws JWaveException {
+
+    ByteBuffer header = ByteBuffer.wrap( _bytes, 0, SpihtTree.HEADER_SIZE );
+    if( header.getInt( ) != SpihtTree.MAGIC )
+      throw new JWaveFailure( "SpihtDecoder - stream is not a SPIHT stream" );
+    byte version = header.get( );
+    if( version != SpihtTree.VERSION )
+      throw new JWaveFailure( "SpihtDecoder - unknown version: " + version );
+    int noOfRows = header.getInt( );
+    int noOfCols = header.getInt( );
+    int level = header.getInt( );
+    SpihtCodec.check( noOfRows, noOfCols, level );
+
+    _plane = header.getInt( );
+    _minPlane = header.getInt( );
+    _tree = new SpihtTree( noOfRows, noOfCols, level );
+    _matHilb = new double[ noOfRows ][ noOfCols ];
+    _lip = new SpihtTree.Ints( );
+    _lis = new SpihtTree.Ints( );
+    _lsp = new SpihtTree.Ints( );
+    _tree.init( _lip, _lis );
+    _phase = LIP;
+    _pos = 0;
+    _noOfRefined = 0;
+
+  } // readHeader
+
+  /**
+   * Decodes entry by entry; not being final, it stops in front of an entry
+   * that may need more bits than available, else at the last bit.
+   */
+  private void decode( boolean isFinal ) {
+
+    while( _plane >= _minPlane ) {
+
+      double threshold = Math.scalb( 1., _plane );
+
+      if( _phase == LIP ) {
+
+        for( ; _pos < _lip._size; _pos++ ) {
+          if( !isFinal && getNoOfBitsLeft( ) < 2 )
+            return;
+          int idx = _lip._arr[ _pos ];
+          int bit = read( );
+          if( bit < 0 )
+            return;
+          if( bit == 1 ) {
+            if( !setSignificant( idx, threshold ) )
+              return;
+            _lip._arr[ _pos ] = -1;
+          } // if
+        } // _pos
+        _lip.compact( );
+        _phase = LIS;
+        _pos = 0;
+
+      } // LIP
+
+      if( _phase == LIS ) {
+
+        for( ; _pos < _lis._size; _pos++ ) {
+          int entry = _lis._arr[ _pos ];
+          int idx = entry >> 1;
+          boolean isTypeA = ( entry & 1 ) == 0;
+          if( !isFinal && getNoOfBitsLeft( ) < ( isTypeA
+              ? SpihtTree.MAX_BITS_PER_ENTRY : 1 ) )
+            return;
+          int bit = read( );
+          if( bit < 0 )
+            return;
+          if( bit == 0 )
+            continue;
+          if( isTypeA ) {
+            int n = _tree.children( idx, _children );
+            for( int c = 0; c < n; c++ ) {
+              int child = _children[ c ];
+              bit = read( );
+              if( bit < 0 )
+                return;
+              if( bit == 1 ) {
+                if( !setSignificant( child, threshold ) )
+                  return;
+              } else
+                _lip.add( child );
+            } // c
+            if( _tree.hasGrandChildren( idx, _children ) )
+              _lis.add( ( idx << 1 ) | 1 );
+          } else {
+            int n = _tree.children( idx, _children );
+            for( int c = 0; c < n; c++ )
+              _lis.add( _children[ c ] << 1 );
+          } // if
+          _lis._arr[ _pos ] = -1;
+        } // _pos
+        _lis.compact( );
+        _phase = REF;
+        _pos = 0;
+
+      } // LIS
+
+      for( ; _pos < _noOfRefined; _pos++ ) {
+        int bit = read( );
+        if( bit < 0 )
+          return;
+        int idx = _lsp._arr[ _pos ];
+        int i = idx / _tree._noOfCols;
+        int j = idx % _tree._noOfCols;
+        double half = _matHilb[ i ][ j ] < 0. ? -threshold * .5
+            : threshold * .5;
+        _matHilb[ i ][ j ] += bit == 1 ? half : -half;
+      } // _pos
+
+      _plane--;
+      _phase = LIP;
+      _pos = 0;
+      _noOfRefined = _lsp._size;
+
+    } // plane
+
+  } // decode
+
+  /**
+   * Reads the sign of a new significant coefficient and sets it to the center
+   * of [ threshold, 2 * threshold ); false if the sign is missing.
+   */
+  private boolean setSignificant( int idx, double threshold ) {
+
+    int sign = read( );
+    if( sign < 0 )
+      return false;
+    _matHilb[ idx / _tree._noOfCols ][ idx % _tree._noOfCols ] =
+        sign == 1 ? -1.5 * threshold : 1.5 * threshold;
+    _lsp.add( idx );
+    return true;
+
+  } // setSignificant
+
+  private long getNoOfBitsLeft( ) {
+
+    return 8L * ( _noOfBytes - SpihtTree.HEADER_SIZE ) - _bitPos;
+
+  } // getNoOfBitsLeft
+
+  private int read( ) {
+
+    if( getNoOfBitsLeft( ) <= 0 )
+      return -1;
+    int b = _bytes[ SpihtTree.HEADER_SIZE + (int)( _bitPos >>> 3 ) ];
+    int bit = ( b >>> ( 7 - (int)( _bitPos & 7 ) ) ) & 1;
+    _bitPos++;
+    return bit;
+
+  } // read
+
+} // SpihtDecoder
@@ -0,0 +1,168 @@
+/**
+ * JWave is distributed under the MIT License (MIT); this file is part of.
+ *
+ * Copyright (c) 2008-2025 JWave Christian (graetz23@gmail.com)
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.graetz23.jwave.compressions;
+
+import java.util.Arrays;
+
+/**
+ * The spatial orientation trees of SPIHT over a matrix of 2-D wavelet
+ * coefficients and the lists of the coder; shared by SpihtCodec and
+ * SpihtDecoder, so both walk the trees the same way. Package internal.
+ *
+ * The roots are the coefficients of the approximation of size ( noOfRows >>
+ * level ) x ( noOfCols >> level ) at the top left. A root (i,j) has the three
+ * children (i,j+w), (i+h,j), and (i+h,j+w) in the details of the coarsest
+ * level; any other coefficient (i,j) has the four children (2i,2j), (2i,2j+1),
+ * (2i+1,2j), and (2i+1,2j+1) if these exist. Coefficients are addressed by
+ * their flat index i * noOfCols + j.
+ *
+ * @author Christian (graetz23@gmail.com)
+ */
+final class SpihtTree {
+
+  /**
+   * Marks a SPIHT stream; the characters JWSP.
+   */
+  static final int MAGIC = 0x4A575350;
+
+  static final byte VERSION = 1;
+
+  /**
+   * The size of the header in bytes.
+   */
+  static final int HEADER_SIZE = 4 + 1 + 4 + 4 + 4 + 4 + 4;
+
+  /**
+   * The maximal number of bits processing a single entry of a list takes.
+   */
+  static final int MAX_BITS_PER_ENTRY = 1 + 4 * 2;
+
+  final int _noOfRows;
+
+  final int _noOfCols;
+
+  final int _level;
+
+  final int _noOfRootRows;
+
+  final int _noOfRootCols;
+
+  SpihtTree( int noOfRows, int noOfCols, int level ) {
+
+    _noOfRows = noOfRows;
+    _noOfCols = noOfCols;
+    _level = level;
+    _noOfRootRows = noOfRows >> level;
+    _noOfRootCols = noOfCols >> level;
+
+  } // SpihtTree
+
+  /**
+   * Writes the children of a coefficient and returns their number.
+   */
+  int children( int idx, int[ ] children ) {
+
+    int i = idx / _noOfCols;
+    int j = idx % _noOfCols;
+
+    if( i < _noOfRootRows && j < _noOfRootCols ) {
+
+      if( _level == 0 )
+        return 0;
+      children[ 0 ] = i * _noOfCols + j + _noOfRootCols;
+      children[ 1 ] = ( i + _noOfRootRows ) * _noOfCols + j;
+      children[ 2 ] = ( i + _noOfRootRows ) * _noOfCols + j + _noOfRootCols;
+      return 3;
+
+    } // roots
+
+    if( 2 * i + 1 >= _noOfRows || 2 * j + 1 >= _noOfCols )
+      return 0;
+
+    int first = 2 * i * _noOfCols + 2 * j;
+    children[ 0 ] = first;
+    children[ 1 ] = first + 1;
+    children[ 2 ] = first + _noOfCols;
+    children[ 3 ] = first + _noOfCols + 1;
+    return 4;
+
+  } // children
+
+  /**
+   * True if the children of a coefficient have children; the set L of SPIHT
+   * is not empty then.
+   */
+  boolean hasGrandChildren( int idx, int[ ] children ) {
+
+    return children( idx, children ) > 0
+        && children( children[ 0 ], children ) > 0;
+
+  } // hasGrandChildren
+
+  /**
+   * Initializes the lists of insignificant pixels and sets by the roots.
+   */
+  void init( Ints lip, Ints lis ) {
+
+    int[ ] children = new int[ 4 ];
+    for( int i = 0; i < _noOfRootRows; i++ )
+      for( int j = 0; j < _noOfRootCols; j++ ) {
+        int idx = i * _noOfCols + j;
+        lip.add( idx );
+        if( children( idx, children ) > 0 )
+          lis.add( idx << 1 ); // type A
+      } // j
+
+  } // init
+
+  /**
+   * Growing list of int values; entries set to -1 are removed by compact( ).
+   */
+  static final class Ints {
+
+    int[ ] _arr = new int[ 64 ];
+
+    int _size = 0;
+
+    void add( int value ) {
+
+      if( _size == _arr.length )
+        _arr = Arrays.copyOf( _arr, _size << 1 );
+      _arr[ _size++ ] = value;
+
+    } // add
+
+    void compact( ) {
+
+      int n = 0;
+      for( int p = 0; p < _size; p++ )
+        if( _arr[ p ] >= 0 )
+          _arr[ n++ ] = _arr[ p ];
+      _size = n;
+
+    } // compact
+
+  } // class
+
+} // SpihtTree
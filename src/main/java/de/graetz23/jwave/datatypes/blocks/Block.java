@@ -36,6 +36,30 @@ import de.graetz23.jwave.exceptions.JWaveFailure;
  */
 public abstract class Block extends Super {
 
+  /**
+   * Call back for iterating over the stored values of a Block object.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   */
+  public interface Visitor {
+
+    /**
+     * Takes the value stored at (i,j).
+     * 
+     * @author Christian (graetz23@gmail.com)
+     * @param i
+     *          from 0 to noOfRows-1
+     * @param j
+     *          from 0 to noOfCols-1
+     * @param value
+     *          the stored value
+     * @throws JWaveException
+     *           if the visitor fails; e.g. while storing the value elsewhere
+     */
+    void visit( int i, int j, double value ) throws JWaveException;
+
+  } // Visitor
+
   /**
    * The number of rows of this Block.
    * 
@@ -88,7 +112,7 @@ public abstract class Block extends Super {
   public Block( Block block ) {
     _offSetRow = block._offSetRow;
     _offSetCol = block._offSetCol;
-    _noOfRows = block._offSetRow;
+    _noOfRows = block._noOfRows;
     _noOfCols = block._noOfCols;
   } // Block
 
@@ -214,6 +238,49 @@ public abstract class Block extends Super {
 
   } // check
 
+  /**
+   * Check the given input of i as position in number of rows, otherwise throw
+   * a failure (exception) if i as position is not valid.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param i
+   *          from 0 to noOfRows-1
+   * @throws JWaveException
+   *           if i is out of bounds
+   */
+  protected void checkRow( int i ) throws JWaveException {
+
+    if( i < 0 )
+      throw new JWaveFailure( "Block - i is smaller than zero" );
+
+    if( i >= _noOfRows )
+      throw new JWaveFailure( "Block - i is not smaller than noOfRows: "
+          + _noOfRows );
+
+  } // checkRow
+
+  /**
+   * Check the length of an array passed for a row or a column.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param arr
+   *          the passed array
+   * @param length
+   *          the expected length; noOfCols for a row, noOfRows for a column
+   * @throws JWaveException
+   *           if the array is null or its length does not match
+   */
+  protected void checkLength( double[ ] arr, int length ) throws JWaveException {
+
+    if( arr == null )
+      throw new JWaveFailure( "Block - given array is null" );
+
+    if( arr.length != length )
+      throw new JWaveFailure( "Block - given array is of length: "
+          + arr.length + " but expected is: " + length );
+
+  } // checkLength
+
   /**
    * Getter for a stored value of type double.
    * 
@@ -243,4 +310,181 @@ public abstract class Block extends Super {
    */
   public abstract void set( int i, int j, double value ) throws JWaveException;
 
+  /**
+   * Getter for a stored value that returns the given default value if no value
+   * is stored at (i,j); e.g. in sparse data representations. Sub types should
+   * override this for not throwing and catching a failure per missing value.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param i
+   *          position in rows of the block
+   * @param j
+   *          position in columns of the block
+   * @param defaultValue
+   *          returned if no value is stored at (i,j); e.g. 0.
+   * @return the stored value or the default value
+   * @throws JWaveException
+   *           if i and / or j are out of bounds
+   */
+  public double get( int i, int j, double defaultValue ) throws JWaveException {
+
+    check( i, j ); // out of bounds is not taken for a missing value
+
+    double value = defaultValue;
+    try {
+      value = get( i, j );
+    } catch( JWaveFailure notStored ) {
+      // no value stored, take the default
+    } // try
+    return value;
+
+  } // get
+
+  /**
+   * Passes all stored values that are not zero to the visitor. Sub types of
+   * sparse data representations should override this for costs by the number
+   * of stored values instead by the number of rows times columns.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param visitor
+   *          called for each non zero value
+   * @throws JWaveException
+   *           if no memory is allocated or the visitor fails
+   */
+  public void forEachNonZero( Visitor visitor ) throws JWaveException {
+
+    checkMemory( );
+
+    for( int i = 0; i < _noOfRows; i++ )
+      for( int j = 0; j < _noOfCols; j++ ) {
+        double value = get( i, j, 0. );
+        if( value != 0. )
+          visitor.visit( i, j, value );
+      } // j
+
+  } // forEachNonZero
+
+  /**
+   * Copies the row i into the given array of length noOfCols. Sub types of
+   * dense data representations should override this for bulk copies.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param i
+   *          from 0 to noOfRows-1
+   * @param row
+   *          array of length noOfCols that is filled
+   * @return the passed array
+   * @throws JWaveException
+   *           if i is out of bounds or the array does not match
+   */
+  public double[ ] getRow( int i, double[ ] row ) throws JWaveException {
+
+    checkMemory( );
+    checkRow( i );
+    checkLength( row, _noOfCols );
+
+    for( int j = 0; j < _noOfCols; j++ )
+      row[ j ] = get( i, j, 0. );
+
+    return row;
+
+  } // getRow
+
+  /**
+   * Returns a copy of the row i.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param i
+   *          from 0 to noOfRows-1
+   * @return new array of length noOfCols
+   * @throws JWaveException
+   *           if i is out of bounds
+   */
+  public double[ ] getRow( int i ) throws JWaveException {
+    return getRow( i, new double[ _noOfCols ] );
+  } // getRow
+
+  /**
+   * Stores the given array of length noOfCols as row i.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param i
+   *          from 0 to noOfRows-1
+   * @param row
+   *          array of length noOfCols
+   * @throws JWaveException
+   *           if i is out of bounds or the array does not match
+   */
+  public void setRow( int i, double[ ] row ) throws JWaveException {
+
+    checkMemory( );
+    checkRow( i );
+    checkLength( row, _noOfCols );
+
+    for( int j = 0; j < _noOfCols; j++ )
+      set( i, j, row[ j ] );
+
+  } // setRow
+
+  /**
+   * Copies the column j into the given array of length noOfRows.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param j
+   *          from 0 to noOfCols-1
+   * @param col
+   *          array of length noOfRows that is filled
+   * @return the passed array
+   * @throws JWaveException
+   *           if j is out of bounds or the array does not match
+   */
+  public double[ ] getCol( int j, double[ ] col ) throws JWaveException {
+
+    checkMemory( );
+    check( j );
+    checkLength( col, _noOfRows );
+
+    for( int i = 0; i < _noOfRows; i++ )
+      col[ i ] = get( i, j, 0. );
+
+    return col;
+
+  } // getCol
+
+  /**
+   * Returns a copy of the column j.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param j
+   *          from 0 to noOfCols-1
+   * @return new array of length noOfRows
+   * @throws JWaveException
+   *           if j is out of bounds
+   */
+  public double[ ] getCol( int j ) throws JWaveException {
+    return getCol( j, new double[ _noOfRows ] );
+  } // getCol
+
+  /**
+   * Stores the given array of length noOfRows as column j.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param j
+   *          from 0 to noOfCols-1
+   * @param col
+   *          array of length noOfRows
+   * @throws JWaveException
+   *           if j is out of bounds or the array does not match
+   */
+  public void setCol( int j, double[ ] col ) throws JWaveException {
+
+    checkMemory( );
+    check( j );
+    checkLength( col, _noOfRows );
+
+    for( int i = 0; i < _noOfRows; i++ )
+      set( i, j, col[ i ] );
+
+  } // setCol
+
 } // class
@@ -0,0 +1,398 @@
+/**
+ * JWave is distributed under the MIT License (MIT); this file is part of.
+ *
+ * Copyright (c) 2008-2025 JWave Christian (graetz23@gmail.com)
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.graetz23.jwave.datatypes.blocks;
+
+import de.graetz23.jwave.exceptions.JWaveException;
+import de.graetz23.jwave.exceptions.JWaveFailure;
+
+/**
+ * A block that stores all values in one contiguous array in row-major order;
+ * value (i,j) is kept at base + i * rowStride + j * colStride. A block created
+ * by slice(..) is a view that shares the array of the block it was taken from.
+ * 
+ * @author Christian (graetz23@gmail.com)
+ */
+public class BlockFlat extends Block {
+
+  /**
+   * The array keeping all values; shared by views.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   */
+  protected double[ ] _arr = null;
+
+  /**
+   * Position of (0,0) in the array.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   */
+  protected int _base;
+
+  /**
+   * Distance in the array between (i,j) and (i+1,j).
+   * 
+   * @author Christian (graetz23@gmail.com)
+   */
+  protected int _rowStride;
+
+  /**
+   * Distance in the array between (i,j) and (i,j+1); one, except for views
+   * taken from a SpaceFlat object.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   */
+  protected int _colStride;
+
+  /**
+   * Create an object of a sub type; e.g. as pattern.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   */
+  public BlockFlat( ) {
+    super( );
+  } // BlockFlat
+
+  /**
+   * Copy constructor that takes over - if available - the values of another
+   * type of block into a new contiguous array.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param block
+   *          object of type block; e.g. BlockFull
+   */
+  public BlockFlat( Block block ) {
+
+    super( block ); // takes the off sets and the dimension
+
+    try {
+      alloc( ); // all values are zero
+      if( block.isAllocated( ) ) {
+        if( block instanceof BlockFlat ) {
+          double[ ] row = new double[ _noOfCols ];
+          for( int i = 0; i < _noOfRows; i++ )
+            setRow( i, block.getRow( i, row ) );
+        } else
+          block.forEachNonZero( ( i, j, value ) -> _arr[ i * _noOfCols + j ] =
+              value );
+      } // if
+    } catch( JWaveException e ) {
+      e.printStackTrace( );
+    } // try
+
+  } // BlockFlat
+
+  /**
+   * Constructor setting members; memory is allocated by alloc().
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param noOfRows
+   * @param noOfCols
+   */
+  public BlockFlat( int noOfRows, int noOfCols ) {
+    super( noOfRows, noOfCols );
+  } // BlockFlat
+
+  /**
+   * Passing information that takes the block as a part of a global structure;
+   * e.g. a SuperBlock.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param offSetRow
+   *          the global off set of rows of the block
+   * @param offSetCol
+   *          the global off set of columns of the block
+   * @param noOfRows
+   *          the number of rows of the block
+   * @param noOfCols
+   *          the number of columns of the block
+   */
+  public BlockFlat( int offSetRow, int offSetCol, int noOfRows, int noOfCols ) {
+    super( offSetRow, offSetCol, noOfRows, noOfCols );
+  } // BlockFlat
+
+  /**
+   * Wraps an existing array as a view without copying; used by slice(..) and
+   * by SpaceFlat. The caller takes care that all positions are inside of the
+   * array.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param offSetRow
+   *          the global off set of rows of the block
+   * @param offSetCol
+   *          the global off set of columns of the block
+   * @param noOfRows
+   *          the number of rows of the block
+   * @param noOfCols
+   *          the number of columns of the block
+   * @param arr
+   *          the shared array
+   * @param base
+   *          position of (0,0) in the array
+   * @param rowStride
+   *          distance between (i,j) and (i+1,j)
+   * @param colStride
+   *          distance between (i,j) and (i,j+1)
+   */
+  public BlockFlat( int offSetRow, int offSetCol, int noOfRows,
+      int noOfCols, double[ ] arr, int base, int rowStride, int colStride ) {
+    super( offSetRow, offSetCol, noOfRows, noOfCols );
+    _arr = arr;
+    _base = base;
+    _rowStride = rowStride;
+    _colStride = colStride;
+  } // BlockFlat
+
+  /**
+   * Wraps a row-major array of length noOfRows * noOfCols without copying.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param noOfRows
+   *          the number of rows of the block
+   * @param noOfCols
+   *          the number of columns of the block
+   * @param arr
+   *          row-major array of length noOfRows * noOfCols
+   * @return a block using the given array as storage
+   * @throws JWaveException
+   *           if the length of the array does not match
+   */
+  public static BlockFlat wrap( int noOfRows, int noOfCols, double[ ] arr )
+      throws JWaveException {
+
+    if( arr == null || (long)noOfRows * noOfCols != arr.length )
+      throw new JWaveFailure( "BlockFlat - array does not match dimension: "
+          + noOfRows + " x " + noOfCols );
+
+    return new BlockFlat( 0, 0, noOfRows, noOfCols, arr, 0, noOfCols, 1 );
+
+  } // wrap
+
+  /*
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.datatypes.Super#copy()
+   */
+  @Override public Block copy( ) {
+    return new BlockFlat( this );
+  } // copy
+
+  /*
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.datatypes.Super#isAllocated()
+   */
+  @Override public boolean isAllocated( ) {
+    boolean isAllocated = true;
+    if( _arr == null )
+      isAllocated = false;
+    return isAllocated;
+  } // isAllocated
+
+  /*
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.datatypes.Super#alloc()
+   */
+  @Override public void alloc( ) throws JWaveException {
+    if( !isAllocated( ) ) {
+      long length = (long)_noOfRows * _noOfCols;
+      if( length > Integer.MAX_VALUE - 8 )
+        throw new JWaveFailure( "BlockFlat - too many values for one array: "
+            + length );
+      _arr = new double[ (int)length ];
+      _base = 0;
+      _rowStride = _noOfCols;
+      _colStride = 1;
+    } // if
+  } // alloc
+
+  /*
+   * Releases the array; a view only drops its reference to the shared array.
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.datatypes.Super#erase()
+   */
+  @Override public void erase( ) throws JWaveException {
+    _arr = null;
+  } // erase
+
+  /*
+   * Getter!
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.datatypes.blocks.Block#get(int, int)
+   */
+  @Override public double get( int i, int j ) throws JWaveException {
+    checkMemory( );
+    check( i, j );
+    return _arr[ _base + i * _rowStride + j * _colStride ];
+  } // get
+
+  /*
+   * Setter!
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.datatypes.blocks.Block#set(int, int, double)
+   */
+  @Override public void set( int i, int j, double value ) throws JWaveException {
+    checkMemory( );
+    check( i, j );
+    _arr[ _base + i * _rowStride + j * _colStride ] = value;
+  } // set
+
+  /*
+   * Getter! A flat block stores a value for each (i,j); default is never taken.
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.datatypes.blocks.Block#get(int, int, double)
+   */
+  @Override public double get( int i, int j, double defaultValue )
+      throws JWaveException {
+    return get( i, j );
+  } // get
+
+  /*
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.datatypes.blocks.Block#forEachNonZero(Block.Visitor)
+   */
+  @Override public void forEachNonZero( Visitor visitor )
+      throws JWaveException {
+
+    checkMemory( );
+
+    for( int i = 0; i < _noOfRows; i++ ) {
+      int pos = _base + i * _rowStride;
+      for( int j = 0; j < _noOfCols; j++, pos += _colStride )
+        if( _arr[ pos ] != 0. )
+          visitor.visit( i, j, _arr[ pos ] );
+    } // i
+
+  } // forEachNonZero
+
+  /*
+   * Copies the row by System.arraycopy.
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.datatypes.blocks.Block#getRow(int, double[])
+   */
+  @Override public double[ ] getRow( int i, double[ ] row )
+      throws JWaveException {
+
+    checkMemory( );
+    checkRow( i );
+    checkLength( row, _noOfCols );
+
+    int pos = _base + i * _rowStride;
+    if( _colStride == 1 )
+      System.arraycopy( _arr, pos, row, 0, _noOfCols );
+    else
+      for( int j = 0; j < _noOfCols; j++, pos += _colStride )
+        row[ j ] = _arr[ pos ];
+
+    return row;
+
+  } // getRow
+
+  /*
+   * Copies the row by System.arraycopy.
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.datatypes.blocks.Block#setRow(int, double[])
+   */
+  @Override public void setRow( int i, double[ ] row ) throws JWaveException {
+
+    checkMemory( );
+    checkRow( i );
+    checkLength( row, _noOfCols );
+
+    int pos = _base + i * _rowStride;
+    if( _colStride == 1 )
+      System.arraycopy( row, 0, _arr, pos, _noOfCols );
+    else
+      for( int j = 0; j < _noOfCols; j++, pos += _colStride )
+        _arr[ pos ] = row[ j ];
+
+  } // setRow
+
+  /*
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.datatypes.blocks.Block#getCol(int, double[])
+   */
+  @Override public double[ ] getCol( int j, double[ ] col )
+      throws JWaveException {
+
+    checkMemory( );
+    check( j );
+    checkLength( col, _noOfRows );
+
+    int pos = _base + j * _colStride;
+    for( int i = 0; i < _noOfRows; i++, pos += _rowStride )
+      col[ i ] = _arr[ pos ];
+
+    return col;
+
+  } // getCol
+
+  /*
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.datatypes.blocks.Block#setCol(int, double[])
+   */
+  @Override public void setCol( int j, double[ ] col ) throws JWaveException {
+
+    checkMemory( );
+    check( j );
+    checkLength( col, _noOfRows );
+
+    int pos = _base + j * _colStride;
+    for( int i = 0; i < _noOfRows; i++, pos += _rowStride )
+      _arr[ pos ] = col[ i ];
+
+  } // setCol
+
+  /**
+   * Returns a view of the rows i .. i+noOfRows-1 and the columns j ..
+   * j+noOfCols-1 that shares the array of this block; changes of one are seen
+   * by the other. Use copy() on the view for an independent block.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param i
+   *          first row of the view
+   * @param j
+   *          first column of the view
+   * @param noOfRows
+   *          the number of rows of the view
+   * @param noOfCols
+   *          the number of columns of the view
+   * @return a view of type BlockFlat
+   * @throws JWaveException
+   *           if the view is not inside of this block
+   */
+  public BlockFlat slice( int i, int j, int noOfRows, int noOfCols )
+      throws JWaveException {
+
+    checkMemory( );
+
+    if( i < 0 || j < 0 || noOfRows < 0 || noOfCols < 0
+        || i + noOfRows > _noOfRows || j + noOfCols > _noOfCols )
+      throw new JWaveFailure( "BlockFlat - slice is not inside of block: ("
+          + i + "," + j + ") + " + noOfRows + " x " + noOfCols );
+
+    return new BlockFlat( _offSetRow + i, _offSetCol + j, noOfRows, noOfCols,
+        _arr, _base + i * _rowStride + j * _colStride, _rowStride,
+        _colStride );
+
+  } // slice
+
+} // class
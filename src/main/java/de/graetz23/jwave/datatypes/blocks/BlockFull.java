@@ -61,16 +61,13 @@ public class BlockFull extends Block {
     super( block ); // takes the off sets and the dimension
 
     try {
-      alloc( );
-      for( int i = 0; i < _noOfRows; i++ )
-        for( int j = 0; j < _noOfCols; j++ )
-          set( i, j, block.get( i, j ) );
+      alloc( ); // all values are zero
+      if( block.isAllocated( ) )
+        block.forEachNonZero( ( i, j, value ) -> _arrLines[ j ].set( i, value ) );
     } catch( JWaveException e ) {
       e.printStackTrace( );
     } // try
 
-    // TODO optimize this constructor by instanceof
-
   } // BlockFull
 
   /**
@@ -179,4 +176,14 @@ public class BlockFull extends Block {
     line.set( i, value ); // checks i again
   } // set
 
+  /*
+   * Getter! A full block stores a value for each (i,j); default is never taken.
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.datatypes.blocks.Block#get(int, int, double)
+   */
+  @Override public double get( int i, int j, double defaultValue )
+      throws JWaveException {
+    return get( i, j );
+  } // get
+
 } // class
@@ -24,6 +24,7 @@
 package de.graetz23.jwave.datatypes.blocks;
 
 import java.util.HashMap;
+import java.util.Map;
 
 import de.graetz23.jwave.datatypes.lines.Line;
 import de.graetz23.jwave.datatypes.lines.LineHash;
@@ -66,16 +67,30 @@ public class BlockHash extends Block {
     super( block ); // takes the off sets and the dimension
 
     try {
-      alloc( );
-      for( int i = 0; i < _noOfRows; i++ )
-        for( int j = 0; j < _noOfCols; j++ )
-          set( i, j, block.get( i, j ) );
+
+      if( block instanceof BlockHash ) {
+
+        BlockHash blockHash = (BlockHash)block;
+        if( blockHash.isAllocated( ) ) {
+          alloc( );
+          for( Map.Entry< Integer, Line > entry : blockHash._hashMapLines
+              .entrySet( ) )
+            _hashMapLines.put( entry.getKey( ),
+                (Line)entry.getValue( ).copy( ) );
+        } // if
+
+      } else {
+
+        alloc( );
+        if( block.isAllocated( ) )
+          block.forEachNonZero( ( i, j, value ) -> set( i, j, value ) );
+
+      } // if
+
     } catch( JWaveException e ) {
       e.printStackTrace( );
     } // try
 
-    // TODO optimize this constructor by instanceof
-
   } // BlockHash
 
   /**
@@ -199,4 +214,44 @@ public class BlockHash extends Block {
 
   } // set
 
+  /*
+   * Getter! Returns the default value for each (i,j) having no stored value.
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.datatypes.blocks.Block#get(int, int, double)
+   */
+  @Override public double get( int i, int j, double defaultValue )
+      throws JWaveException {
+
+    checkMemory( );
+
+    check( i, j );
+
+    Line line = _hashMapLines.get( j );
+
+    if( line == null )
+      return defaultValue;
+
+    return line.get( i, defaultValue );
+
+  } // get
+
+  /*
+   * Passes all stored values that are not zero to the visitor; the order is
+   * undefined. Costs are by the number of stored values.
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.datatypes.blocks.Block#forEachNonZero(Block.Visitor)
+   */
+  @Override public void forEachNonZero( Visitor visitor )
+      throws JWaveException {
+
+    checkMemory( );
+
+    for( Map.Entry< Integer, Line > entry : _hashMapLines.entrySet( ) ) {
+      int j = entry.getKey( );
+      entry.getValue( ).forEachNonZero(
+          ( i, value ) -> visitor.visit( i, j, value ) );
+    } // columns
+
+  } // forEachNonZero
+
 } // class
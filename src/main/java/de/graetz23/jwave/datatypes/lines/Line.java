@@ -23,8 +23,11 @@
  */
 package de.graetz23.jwave.datatypes.lines;
 
+import java.util.Arrays;
+
 import de.graetz23.jwave.datatypes.Super;
 import de.graetz23.jwave.exceptions.JWaveException;
+import de.graetz23.jwave.exceptions.JWaveFailureNotFound;
 import de.graetz23.jwave.exceptions.JWaveFailureNotValid;
 
 /**
@@ -35,6 +38,28 @@ import de.graetz23.jwave.exceptions.JWaveFailureNotValid;
  */
 public abstract class Line extends Super {
 
+  /**
+   * Call back for iterating over the stored values of a Line object.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   */
+  public interface Visitor {
+
+    /**
+     * Takes the value stored at row i.
+     * 
+     * @author Christian (graetz23@gmail.com)
+     * @param i
+     *          from 0 to noOfRows-1
+     * @param value
+     *          the stored value
+     * @throws JWaveException
+     *           if the visitor fails; e.g. while storing the value elsewhere
+     */
+    void visit( int i, double value ) throws JWaveException;
+
+  } // Visitor
+
   /**
    * @author Christian (graetz23@gmail.com)
    * @date 16.05.2015 15:02:58
@@ -72,8 +97,8 @@ public abstract class Line extends Super {
    * @param line
    */
   public Line( Line line ) {
-    _offSetRow = line._noOfRows;
-    _noOfRows = line._offSetRow;
+    _offSetRow = line._offSetRow;
+    _noOfRows = line._noOfRows;
   } // Line
 
   /**
@@ -203,4 +228,129 @@ public abstract class Line extends Super {
    */
   public abstract void set( int i, double val ) throws JWaveException;
 
+  /**
+   * Getter for the stored values that returns the given default value if no
+   * value is stored for i; e.g. in sparse data representations. Sub types
+   * should override this for not throwing and catching a failure per missing
+   * value.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param i
+   *          from 0 to noOfRows-1 as range of input
+   * @param defaultValue
+   *          returned if no value is stored for i; e.g. 0.
+   * @return the stored double value or the default value
+   * @throws JWaveException
+   *           if i is out of bounds
+   */
+  public double get( int i, double defaultValue ) throws JWaveException {
+
+    double value = defaultValue;
+    try {
+      value = get( i );
+    } catch( JWaveFailureNotFound notFound ) {
+      // no value stored, take the default
+    } // try
+    return value;
+
+  } // get
+
+  /**
+   * Passes all stored values that are not zero to the visitor by increasing i.
+   * Sub types of sparse data representations should override this for costs by
+   * the number of stored values instead by the number of rows.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param visitor
+   *          called for each non zero value
+   * @throws JWaveException
+   *           if no memory is allocated or the visitor fails
+   */
+  public void forEachNonZero( Visitor visitor ) throws JWaveException {
+
+    checkMemory( );
+
+    for( int i = 0; i < _noOfRows; i++ ) {
+      double value = get( i, 0. );
+      if( value != 0. )
+        visitor.visit( i, value );
+    } // i
+
+  } // forEachNonZero
+
+  /**
+   * Check the length of an array passed for all values of the line.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param arr
+   *          the passed array
+   * @throws JWaveException
+   *           if the array is null or not of length noOfRows
+   */
+  protected void checkLength( double[ ] arr ) throws JWaveException {
+
+    if( arr == null )
+      throw new JWaveFailureNotValid( "Line - given array is null" );
+
+    if( arr.length != _noOfRows )
+      throw new JWaveFailureNotValid( "Line - given array is of length: "
+          + arr.length + " but noOfRows is: " + _noOfRows );
+
+  } // checkLength
+
+  /**
+   * Copies all values into the given array of length noOfRows; values not
+   * stored are taken as zero. Sub types of dense data representations should
+   * override this for bulk copies.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param arr
+   *          array of length noOfRows that is filled
+   * @return the passed array
+   * @throws JWaveException
+   *           if no memory is allocated or the array does not match
+   */
+  public double[ ] getArray( double[ ] arr ) throws JWaveException {
+
+    checkMemory( );
+    checkLength( arr );
+
+    Arrays.fill( arr, 0. );
+    forEachNonZero( ( i, value ) -> arr[ i ] = value );
+
+    return arr;
+
+  } // getArray
+
+  /**
+   * Returns a copy of all values as an array of length noOfRows.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @return new array of length noOfRows
+   * @throws JWaveException
+   *           if no memory is allocated
+   */
+  public double[ ] getArray( ) throws JWaveException {
+    return getArray( new double[ _noOfRows ] );
+  } // getArray
+
+  /**
+   * Stores all values of the given array of length noOfRows.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param arr
+   *          array of length noOfRows
+   * @throws JWaveException
+   *           if no memory is allocated or the array does not match
+   */
+  public void setArray( double[ ] arr ) throws JWaveException {
+
+    checkMemory( );
+    checkLength( arr );
+
+    for( int i = 0; i < _noOfRows; i++ )
+      set( i, arr[ i ] );
+
+  } // setArray
+
 } // class
@@ -67,15 +67,15 @@ public class LineFull extends Line {
 
       alloc( );
 
-      for( int i = 0; i < line._noOfRows; i++ )
-        set( i, line.get( i ) );
+      if( line instanceof LineFull && line.isAllocated( ) )
+        System.arraycopy( ( (LineFull)line )._arr, 0, _arr, 0, _noOfRows );
+      else if( line.isAllocated( ) )
+        line.forEachNonZero( ( i, value ) -> _arr[ i ] = value ); // zero else
 
     } catch( JWaveException e ) {
       e.printStackTrace( );
     } // try
 
-    // TODO improve constructor memory passing by (instance of); e.g. LineHash
-
   } // LineFull
 
   /**
@@ -111,15 +111,8 @@ public class LineFull extends Line {
 
     Line line = new LineFull( _offSetRow, _noOfRows );
 
-    try {
-      if( isAllocated( ) ) {
-        line.alloc( );
-        for( int i = 0; i < line.getNoOfRows( ); i++ )
-          line.set( i, get( i ) );
-      } // isAllocated
-    } catch( JWaveException e ) {
-      e.printStackTrace( );
-    } // try - never ever
+    if( isAllocated( ) )
+      line = new LineFull( this );
 
     return line;
 
@@ -181,4 +174,39 @@ public class LineFull extends Line {
     _arr[ i ] = value;
   } // set
 
+  /*
+   * Getter! A full line stores a value for each i; default is never taken.
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.datatypes.lines.Line#get(int, double)
+   */
+  @Override public double get( int i, double defaultValue )
+      throws JWaveException {
+    checkMemory( );
+    checkIndex( i );
+    return _arr[ i ];
+  } // get
+
+  /*
+   * Copies by System.arraycopy.
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.datatypes.lines.Line#getArray(double[])
+   */
+  @Override public double[ ] getArray( double[ ] arr ) throws JWaveException {
+    checkMemory( );
+    checkLength( arr );
+    System.arraycopy( _arr, 0, arr, 0, _noOfRows );
+    return arr;
+  } // getArray
+
+  /*
+   * Copies by System.arraycopy.
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.datatypes.lines.Line#setArray(double[])
+   */
+  @Override public void setArray( double[ ] arr ) throws JWaveException {
+    checkMemory( );
+    checkLength( arr );
+    System.arraycopy( arr, 0, _arr, 0, _noOfRows );
+  } // setArray
+
 } // class
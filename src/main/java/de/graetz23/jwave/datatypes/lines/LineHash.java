@@ -23,13 +23,14 @@
  */
 package de.graetz23.jwave.datatypes.lines;
 
-import java.util.HashMap;
-
+import de.graetz23.jwave.datatypes.natives.IntDoubleHashMap;
 import de.graetz23.jwave.exceptions.JWaveException;
 import de.graetz23.jwave.exceptions.JWaveFailureNotFound;
 
 /**
- * Uses HashMap generic for sparse data representations.
+ * Uses a primitive open addressing hash map for sparse data representations;
+ * each stored value takes an int and a double in two plain arrays instead of
+ * two boxed objects and an entry node.
  * 
  * @author Christian (graetz23@gmail.com)
  * @date 16.05.2015 16:30:00
@@ -42,7 +43,15 @@ public class LineHash extends Line {
    * @author Christian (graetz23@gmail.com)
    * @date 16.05.2015 16:31:41
    */
-  HashMap< Integer, Double > _hashMap;
+  IntDoubleHashMap _hashMap;
+
+  /**
+   * Ratio of stored values to slots of the hash map; smaller is faster, larger
+   * is taking less memory.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   */
+  protected float _loadFactor = IntDoubleHashMap.DEFAULT_LOAD_FACTOR;
 
   /**
    * Pass nothing, use this a a place holder.
@@ -69,17 +78,25 @@ public class LineHash extends Line {
 
     try {
 
-      alloc( );
+      if( line instanceof LineHash ) {
+
+        LineHash lineHash = (LineHash)line;
+        _loadFactor = lineHash._loadFactor;
+        if( lineHash.isAllocated( ) )
+          _hashMap = new IntDoubleHashMap( lineHash._hashMap );
+
+      } else {
+
+        alloc( );
+        if( line.isAllocated( ) )
+          line.forEachNonZero( ( i, value ) -> _hashMap.put( i, value ) );
 
-      for( int i = 0; i < line._noOfRows; i++ )
-        set( i, line.get( i ) );
+      } // if
 
     } catch( JWaveException e ) {
       e.printStackTrace( );
     } // try
 
-    // TODO improve constructor memory passing by (instance of)
-
   } // LineHash
 
   /**
@@ -105,6 +122,21 @@ public class LineHash extends Line {
     super( offSetRow, noOfRows );
   } // LineHash
 
+  /**
+   * Pass an off set to the line, a number of rows, and the load factor of the
+   * internal hash map. The load factor is checked while allocating memory.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param offSetRow
+   * @param noOfRows
+   * @param loadFactor
+   *          ratio of stored values to slots in range of ]0 .. 1[
+   */
+  public LineHash( int offSetRow, int noOfRows, float loadFactor ) {
+    super( offSetRow, noOfRows );
+    _loadFactor = loadFactor;
+  } // LineHash
+
   /*
    * Get a full copy of this Line object!
    * @author Christian (graetz23@gmail.com)
@@ -113,29 +145,7 @@ public class LineHash extends Line {
    */
   @Override public Line copy( ) {
 
-    int offSetRow = getOffSetRow( );
-    int noOfRows = getNoOfRows( );
-
-    Line line = new LineHash( offSetRow, noOfRows );
-
-    try {
-      if( isAllocated( ) ) {
-        line.alloc( );
-        for( int i = 0; i < noOfRows; i++ ) {
-          try {
-            line.set( i, get( i ) );
-          } catch( JWaveFailureNotFound notFound ) {
-            // do nothing, no value stored
-          } catch( JWaveException e ) {
-            e.printStackTrace( );
-          } // try - never ever
-        } // i      
-      } // isAllocated
-    } catch( JWaveException e ) {
-      e.printStackTrace( );
-    } // try - never ever
-
-    return line;
+    return new LineHash( this ); // copies the stored values only
 
   } // copy
 
@@ -159,7 +169,8 @@ public class LineHash extends Line {
   @Override public void alloc( ) throws JWaveException {
 
     if( !isAllocated( ) )
-      _hashMap = new HashMap< Integer, Double >( );
+      _hashMap = new IntDoubleHashMap( IntDoubleHashMap.DEFAULT_CAPACITY,
+          _loadFactor );
 
   } // alloc
 
@@ -186,15 +197,13 @@ public class LineHash extends Line {
 
     checkIndex( i );
 
-    double value = 0.;
+    int slot = _hashMap.find( i ); // probing the map only once
 
-    if( _hashMap.containsKey( i ) )
-      value = _hashMap.get( i );
-    else
+    if( slot < 0 )
       throw new JWaveFailureNotFound(
           "Line - no value stored for requested i: " + i );
 
-    return value;
+    return _hashMap.getValue( slot );
 
   } // get
 
@@ -214,4 +223,90 @@ public class LineHash extends Line {
 
   } // set
 
+  /*
+   * Getter! Returns the default value for each i having no stored value.
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.datatypes.lines.Line#get(int, double)
+   */
+  @Override public double get( int i, double defaultValue )
+      throws JWaveException {
+
+    checkMemory( );
+
+    checkIndex( i );
+
+    return _hashMap.get( i, defaultValue );
+
+  } // get
+
+  /*
+   * Replaces all stored values by the non zero values of the array.
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.datatypes.lines.Line#setArray(double[])
+   */
+  @Override public void setArray( double[ ] arr ) throws JWaveException {
+
+    checkMemory( );
+
+    checkLength( arr );
+
+    _hashMap.clear( );
+    for( int i = 0; i < _noOfRows; i++ )
+      if( arr[ i ] != 0. )
+        _hashMap.put( i, arr[ i ] );
+
+  } // setArray
+
+  /**
+   * Returns the load factor of the internal hash map.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @return ratio of stored values to slots
+   */
+  public float getLoadFactor( ) {
+
+    return _loadFactor;
+
+  } // getLoadFactor
+
+  /**
+   * Returns the number of stored values, zeros set explicitly included.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @return number of stored values or zero if no memory is allocated
+   */
+  public int getNoOfStored( ) {
+
+    int noOfStored = 0;
+    if( isAllocated( ) )
+      noOfStored = _hashMap.size( );
+    return noOfStored;
+
+  } // getNoOfStored
+
+  /*
+   * Passes all stored values that are not zero to the visitor; the order of the
+   * rows is undefined. Costs are by the number of stored values and not by the
+   * number of rows.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.datatypes.lines.Line#forEachNonZero(Line.Visitor)
+   */
+  @Override public void forEachNonZero( Visitor visitor )
+      throws JWaveException {
+
+    checkMemory( );
+
+    IntDoubleHashMap hashMap = _hashMap;
+    int capacity = hashMap.getCapacity( );
+    for( int s = 0; s < capacity; s++ ) {
+      if( hashMap.isUsed( s ) ) {
+        double value = hashMap.getValue( s );
+        if( value != 0. )
+          visitor.visit( hashMap.getKey( s ), value );
+      } // if
+    } // slots
+
+  } // forEachNonZero
+
 } // class
@@ -0,0 +1,448 @@
+/**
+ * JWave is distributed under the MIT License (MIT); this file is part of.
+ *
+ * Copyright (c) 2008-2025 JWave Christian (graetz23@gmail.com)
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.graetz23.jwave.datatypes.natives;
+
+import java.util.Arrays;
+
+import de.graetz23.jwave.exceptions.JWaveException;
+import de.graetz23.jwave.exceptions.JWaveFailureNotValid;
+
+/**
+ * A hash map of primitive int keys to primitive double values using open
+ * addressing with linear probing. Keys and values are kept in two plain arrays,
+ * so neither boxed objects nor entry nodes are allocated per stored value. The
+ * keys are indices of data containers and therefore have to be zero or
+ * positive; a negative key is marking an empty slot.
+ * 
+ * @author Christian (graetz23@gmail.com)
+ */
+public class IntDoubleHashMap {
+
+  /**
+   * The load factor used if none is given; ratio of stored keys to slots.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   */
+  public static final float DEFAULT_LOAD_FACTOR = .75f;
+
+  /**
+   * The number of slots allocated if no expected size is given.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   */
+  public static final int DEFAULT_CAPACITY = 16;
+
+  /**
+   * Marker of an empty slot in the array of keys.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   */
+  private static final int EMPTY = -1;
+
+  /**
+   * The largest possible number of slots; 2^30.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   */
+  private static final int MAX_CAPACITY = 1 << 30;
+
+  /**
+   * The keys of the stored values or EMPTY for an unused slot.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   */
+  private int[ ] _keys;
+
+  /**
+   * The stored values at the same slot as their keys.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   */
+  private double[ ] _values;
+
+  /**
+   * Ratio of stored keys to slots; if exceeded the arrays are doubled.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   */
+  private final float _loadFactor;
+
+  /**
+   * The number of stored keys.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   */
+  private int _size;
+
+  /**
+   * The number of stored keys that forces a rehash of the map.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   */
+  private int _maxSize;
+
+  /**
+   * Number of slots - 1; the number of slots is always of 2^p | pEN.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   */
+  private int _mask;
+
+  /**
+   * Create an empty map of default capacity and default load factor.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   */
+  public IntDoubleHashMap( ) {
+
+    _loadFactor = DEFAULT_LOAD_FACTOR;
+    allocSlots( DEFAULT_CAPACITY );
+
+  } // IntDoubleHashMap
+
+  /**
+   * Create an empty map that can take the expected number of values without
+   * rehashing, while keeping the given ratio of stored keys to slots.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param expectedSize
+   *          the number of values expected to be stored
+   * @param loadFactor
+   *          ratio of stored keys to slots in range of ]0 .. 1[; small values
+   *          are faster, large values are taking less memory
+   * @throws JWaveException
+   *           if the load factor or the expected size are not valid
+   */
+  public IntDoubleHashMap( int expectedSize, float loadFactor )
+      throws JWaveException {
+
+    if( !( loadFactor > 0.f && loadFactor < 1.f ) )
+      throw new JWaveFailureNotValid( "IntDoubleHashMap - "
+          + "load factor has to be in range of ]0 .. 1[: " + loadFactor );
+
+    if( expectedSize < 0 )
+      throw new JWaveFailureNotValid( "IntDoubleHashMap - "
+          + "expected size is smaller than zero: " + expectedSize );
+
+    _loadFactor = loadFactor;
+    allocSlots( calcCapacity( expectedSize, loadFactor ) );
+
+  } // IntDoubleHashMap
+
+  /**
+   * Copy constructor taking over all keys and values of the given map by
+   * copying its arrays; no rehashing is done.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param hashMap
+   *          the map to be copied
+   */
+  public IntDoubleHashMap( IntDoubleHashMap hashMap ) {
+
+    _loadFactor = hashMap._loadFactor;
+    _keys = Arrays.copyOf( hashMap._keys, hashMap._keys.length );
+    _values = Arrays.copyOf( hashMap._values, hashMap._values.length );
+    _size = hashMap._size;
+    _maxSize = hashMap._maxSize;
+    _mask = hashMap._mask;
+
+  } // IntDoubleHashMap
+
+  /**
+   * Returns the smallest number of slots of 2^p | pEN, taking the expected
+   * number of keys by the given load factor.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param expectedSize
+   *          the number of keys
+   * @param loadFactor
+   *          ratio of stored keys to slots
+   * @return number of slots
+   */
+  private static int calcCapacity( int expectedSize, float loadFactor ) {
+
+    long minCapacity = (long)Math.ceil( expectedSize / (double)loadFactor ) + 1;
+
+    int capacity = 2;
+    while( capacity < minCapacity && capacity < MAX_CAPACITY )
+      capacity <<= 1;
+
+    return capacity;
+
+  } // calcCapacity
+
+  /**
+   * Spreads the bits of the key over the hash code by multiplying with the
+   * golden ratio, due to indices being sequential in most cases.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param key
+   *          zero or positive key
+   * @return mixed hash code of the key
+   */
+  private static int mix( int key ) {
+
+    int h = key * 0x9E3779B9;
+    return h ^ ( h >>> 16 );
+
+  } // mix
+
+  /**
+   * Allocates empty arrays of keys and values.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param capacity
+   *          number of slots of 2^p | pEN
+   */
+  private void allocSlots( int capacity ) {
+
+    _keys = new int[ capacity ];
+    Arrays.fill( _keys, EMPTY );
+    _values = new double[ capacity ];
+    _mask = capacity - 1;
+    _maxSize = Math.min( (int)( capacity * _loadFactor ), capacity - 1 );
+    _size = 0;
+
+  } // allocSlots
+
+  /**
+   * Doubles the number of slots and stores all keys and values again.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   */
+  private void rehash( ) {
+
+    int[ ] keys = _keys;
+    double[ ] values = _values;
+
+    allocSlots( keys.length << 1 );
+
+    for( int s = 0; s < keys.length; s++ ) {
+      int key = keys[ s ];
+      if( key != EMPTY ) {
+        int slot = mix( key ) & _mask;
+        while( _keys[ slot ] != EMPTY )
+          slot = ( slot + 1 ) & _mask;
+        _keys[ slot ] = key;
+        _values[ slot ] = values[ s ];
+        _size++;
+      } // if
+    } // s
+
+  } // rehash
+
+  /**
+   * Returns the slot keeping the given key or -1 if the key is not stored.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param key
+   *          the searched key
+   * @return slot in range of 0 .. getCapacity( ) - 1 or -1 if not found
+   */
+  public int find( int key ) {
+
+    if( key < 0 )
+      return -1;
+
+    int slot = mix( key ) & _mask;
+    int stored = _keys[ slot ];
+    while( stored != EMPTY ) {
+      if( stored == key )
+        return slot;
+      slot = ( slot + 1 ) & _mask;
+      stored = _keys[ slot ];
+    } // probing
+
+    return -1;
+
+  } // find
+
+  /**
+   * Returns true if a value is stored for the given key.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param key
+   *          the searched key
+   * @return true if key is stored
+   */
+  public boolean containsKey( int key ) {
+
+    return find( key ) >= 0;
+
+  } // containsKey
+
+  /**
+   * Returns the value stored for the given key or the given default value, if
+   * the key is not stored; the map is probed only once.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param key
+   *          the searched key
+   * @param defaultValue
+   *          returned if the key is not stored
+   * @return stored value or the default value
+   */
+  public double get( int key, double defaultValue ) {
+
+    int slot = find( key );
+    if( slot < 0 )
+      return defaultValue;
+    return _values[ slot ];
+
+  } // get
+
+  /**
+   * Stores the value for the given key; an already stored value is replaced.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param key
+   *          zero or positive key
+   * @param value
+   *          any value of type double
+   * @throws JWaveException
+   *           if the key is negative
+   */
+  public void put( int key, double value ) throws JWaveException {
+
+    if( key < 0 )
+      throw new JWaveFailureNotValid( "IntDoubleHashMap - "
+          + "key is smaller than zero: " + key );
+
+    int slot = mix( key ) & _mask;
+    int stored = _keys[ slot ];
+    while( stored != EMPTY ) {
+      if( stored == key ) {
+        _values[ slot ] = value;
+        return;
+      } // if
+      slot = ( slot + 1 ) & _mask;
+      stored = _keys[ slot ];
+    } // probing
+
+    if( _size >= _maxSize && _keys.length < MAX_CAPACITY ) {
+      rehash( );
+      slot = mix( key ) & _mask;
+      while( _keys[ slot ] != EMPTY )
+        slot = ( slot + 1 ) & _mask;
+    } // if
+
+    _keys[ slot ] = key;
+    _values[ slot ] = value;
+    _size++;
+
+  } // put
+
+  /**
+   * Drops all stored keys and values but keeps the allocated slots.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   */
+  public void clear( ) {
+
+    Arrays.fill( _keys, EMPTY );
+    _size = 0;
+
+  } // clear
+
+  /**
+   * Returns the number of stored keys.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @return number of stored keys
+   */
+  public int size( ) {
+
+    return _size;
+
+  } // size
+
+  /**
+   * Returns the load factor of this map.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @return ratio of stored keys to slots
+   */
+  public float getLoadFactor( ) {
+
+    return _loadFactor;
+
+  } // getLoadFactor
+
+  /**
+   * Returns the number of slots; use it together with isUsed( slot ),
+   * getKey( slot ), and getValue( slot ) for iterating over all stored values
+   * without allocating any object.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @return number of slots
+   */
+  public int getCapacity( ) {
+
+    return _keys.length;
+
+  } // getCapacity
+
+  /**
+   * Returns true if the slot is keeping a key.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param slot
+   *          in range of 0 .. getCapacity( ) - 1
+   * @return true if slot is used
+   */
+  public boolean isUsed( int slot ) {
+
+    return _keys[ slot ] != EMPTY;
+
+  } // isUsed
+
+  /**
+   * Returns the key stored in the given slot.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param slot
+   *          in range of 0 .. getCapacity( ) - 1
+   * @return the key or a negative number if slot is not used
+   */
+  public int getKey( int slot ) {
+
+    return _keys[ slot ];
+
+  } // getKey
+
+  /**
+   * Returns the value stored in the given slot.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param slot
+   *          in range of 0 .. getCapacity( ) - 1
+   * @return the stored value; undefined if slot is not used
+   */
+  public double getValue( int slot ) {
+
+    return _values[ slot ];
+
+  } // getValue
+
+} // class
@@ -24,6 +24,8 @@
 package de.graetz23.jwave.datatypes.spaces;
 
 import de.graetz23.jwave.datatypes.Super;
+import de.graetz23.jwave.datatypes.blocks.Block;
+import de.graetz23.jwave.datatypes.blocks.BlockFlat;
 import de.graetz23.jwave.exceptions.JWaveException;
 import de.graetz23.jwave.exceptions.JWaveFailure;
 
@@ -35,6 +37,32 @@ import de.graetz23.jwave.exceptions.JWaveFailure;
  */
 public abstract class Space extends Super {
 
+  /**
+   * Call back for iterating over the stored values of a Space object.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   */
+  public interface Visitor {
+
+    /**
+     * Takes the value stored at (i,j,k).
+     * 
+     * @author Christian (graetz23@gmail.com)
+     * @param i
+     *          from 0 to noOfRows-1
+     * @param j
+     *          from 0 to noOfCols-1
+     * @param k
+     *          from 0 to noOfLvls-1
+     * @param value
+     *          the stored value
+     * @throws JWaveException
+     *           if the visitor fails; e.g. while storing the value elsewhere
+     */
+    void visit( int i, int j, int k, double value ) throws JWaveException;
+
+  } // Visitor
+
   /**
    * @author Christian (graetz23@gmail.com)
    * @date 16.05.2015 15:46:06
@@ -292,6 +320,74 @@ public abstract class Space extends Super {
 
   } // check
 
+  /**
+   * Check the given input of i as position in number of rows; a slab is all
+   * values (i,*,*).
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param i
+   *          from 0 to noOfRows-1
+   * @throws JWaveException
+   *           if i is out of bounds
+   */
+  protected void checkSlab( int i ) throws JWaveException {
+
+    if( i < 0 )
+      throw new JWaveFailure( "Space - i is smaller than zero" );
+
+    if( i >= _noOfRows )
+      throw new JWaveFailure( "Space - i is not smaller than noOfRows: "
+          + _noOfRows );
+
+  } // checkSlab
+
+  /**
+   * Check the given input of (i,j); a row is all values (i,j,*) along the
+   * levels.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param i
+   *          from 0 to noOfRows-1
+   * @param j
+   *          from 0 to noOfCols-1
+   * @throws JWaveException
+   *           if (i,j) is out of bounds
+   */
+  protected void checkRow( int i, int j ) throws JWaveException {
+
+    checkSlab( i );
+
+    if( j < 0 )
+      throw new JWaveFailure( "Space - j is smaller than zero" );
+
+    if( j >= _noOfCols )
+      throw new JWaveFailure( "Space - j is not smaller than noOfCols: "
+          + _noOfCols );
+
+  } // checkRow
+
+  /**
+   * Check the length of an array passed for a row.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param arr
+   *          the passed array
+   * @param length
+   *          the expected length
+   * @throws JWaveException
+   *           if the array is null or its length does not match
+   */
+  protected void checkLength( double[ ] arr, int length ) throws JWaveException {
+
+    if( arr == null )
+      throw new JWaveFailure( "Space - given array is null" );
+
+    if( arr.length != length )
+      throw new JWaveFailure( "Space - given array is of length: "
+          + arr.length + " but expected is: " + length );
+
+  } // checkLength
+
   /**
    * Getter!
    * 
@@ -328,4 +424,185 @@ public abstract class Space extends Super {
   public abstract void set( int i, int j, int k, double value )
       throws JWaveException;
 
+  /**
+   * Getter for a stored value that returns the given default value if no value
+   * is stored at (i,j,k); e.g. in sparse data representations. Sub types
+   * should override this for not throwing and catching a failure per missing
+   * value.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param i
+   *          from 0 to noOfRows-1
+   * @param j
+   *          from 0 to noOfCols-1
+   * @param k
+   *          from 0 to noOfLvls-1
+   * @param defaultValue
+   *          returned if no value is stored at (i,j,k); e.g. 0.
+   * @return the stored value or the default value
+   * @throws JWaveException
+   *           if (i,j,k) is out of bounds
+   */
+  public double get( int i, int j, int k, double defaultValue )
+      throws JWaveException {
+
+    check( i, j, k ); // out of bounds is not taken for a missing value
+
+    double value = defaultValue;
+    try {
+      value = get( i, j, k );
+    } catch( JWaveFailure notStored ) {
+      // no value stored, take the default
+    } // try
+    return value;
+
+  } // get
+
+  /**
+   * Passes all stored values that are not zero to the visitor. Sub types of
+   * sparse data representations should override this for costs by the number
+   * of stored values instead by the number of rows times columns times levels.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param visitor
+   *          called for each non zero value
+   * @throws JWaveException
+   *           if no memory is allocated or the visitor fails
+   */
+  public void forEachNonZero( Visitor visitor ) throws JWaveException {
+
+    checkMemory( );
+
+    for( int i = 0; i < _noOfRows; i++ )
+      for( int j = 0; j < _noOfCols; j++ )
+        for( int k = 0; k < _noOfLvls; k++ ) {
+          double value = get( i, j, k, 0. );
+          if( value != 0. )
+            visitor.visit( i, j, k, value );
+        } // k
+
+  } // forEachNonZero
+
+  /**
+   * Copies the values (i,j,0) .. (i,j,noOfLvls-1) into the given array. Sub
+   * types of dense data representations should override this for bulk copies.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param i
+   *          from 0 to noOfRows-1
+   * @param j
+   *          from 0 to noOfCols-1
+   * @param row
+   *          array of length noOfLvls that is filled
+   * @return the passed array
+   * @throws JWaveException
+   *           if (i,j) is out of bounds or the array does not match
+   */
+  public double[ ] getRow( int i, int j, double[ ] row ) throws JWaveException {
+
+    checkMemory( );
+    checkRow( i, j );
+    checkLength( row, _noOfLvls );
+
+    for( int k = 0; k < _noOfLvls; k++ )
+      row[ k ] = get( i, j, k, 0. );
+
+    return row;
+
+  } // getRow
+
+  /**
+   * Returns a copy of the values (i,j,0) .. (i,j,noOfLvls-1).
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param i
+   *          from 0 to noOfRows-1
+   * @param j
+   *          from 0 to noOfCols-1
+   * @return new array of length noOfLvls
+   * @throws JWaveException
+   *           if (i,j) is out of bounds
+   */
+  public double[ ] getRow( int i, int j ) throws JWaveException {
+    return getRow( i, j, new double[ _noOfLvls ] );
+  } // getRow
+
+  /**
+   * Stores the given array as values (i,j,0) .. (i,j,noOfLvls-1).
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param i
+   *          from 0 to noOfRows-1
+   * @param j
+   *          from 0 to noOfCols-1
+   * @param row
+   *          array of length noOfLvls
+   * @throws JWaveException
+   *           if (i,j) is out of bounds or the array does not match
+   */
+  public void setRow( int i, int j, double[ ] row ) throws JWaveException {
+
+    checkMemory( );
+    checkRow( i, j );
+    checkLength( row, _noOfLvls );
+
+    for( int k = 0; k < _noOfLvls; k++ )
+      set( i, j, k, row[ k ] );
+
+  } // setRow
+
+  /**
+   * Returns a copy of the slab i; all values (i,*,*) as a block of noOfCols
+   * rows and noOfLvls columns.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param i
+   *          from 0 to noOfRows-1
+   * @return a new block keeping (j,k) at (i,j,k)
+   * @throws JWaveException
+   *           if i is out of bounds
+   */
+  public Block getSlab( int i ) throws JWaveException {
+
+    checkMemory( );
+    checkSlab( i );
+
+    Block block = new BlockFlat( _offSetCol, _offSetLvl, _noOfCols, _noOfLvls );
+    block.alloc( );
+
+    double[ ] row = new double[ _noOfLvls ];
+    for( int j = 0; j < _noOfCols; j++ )
+      block.setRow( j, getRow( i, j, row ) );
+
+    return block;
+
+  } // getSlab
+
+  /**
+   * Stores the given block of noOfCols rows and noOfLvls columns as slab i.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param i
+   *          from 0 to noOfRows-1
+   * @param block
+   *          keeping (j,k) for (i,j,k)
+   * @throws JWaveException
+   *           if i is out of bounds or the block does not match
+   */
+  public void setSlab( int i, Block block ) throws JWaveException {
+
+    checkMemory( );
+    checkSlab( i );
+
+    if( block == null || block.getNoOfRows( ) != _noOfCols
+        || block.getNoOfCols( ) != _noOfLvls )
+      throw new JWaveFailure( "Space - block does not match a slab of: "
+          + _noOfCols + " x " + _noOfLvls );
+
+    double[ ] row = new double[ _noOfLvls ];
+    for( int j = 0; j < _noOfCols; j++ )
+      setRow( i, j, block.getRow( j, row ) );
+
+  } // setSlab
+
 } // class
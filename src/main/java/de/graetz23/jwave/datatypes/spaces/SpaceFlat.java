@@ -0,0 +1,415 @@
+/**
+ * JWave is distributed under the MIT License (MIT); this file is part of.
+ *
+ * Copyright (c) 2008-2025 JWave Christian (graetz23@gmail.com)
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.graetz23.jwave.datatypes.spaces;
+
+import de.graetz23.jwave.datatypes.blocks.Block;
+import de.graetz23.jwave.datatypes.blocks.BlockFlat;
+import de.graetz23.jwave.exceptions.JWaveException;
+import de.graetz23.jwave.exceptions.JWaveFailure;
+
+/**
+ * A space that stores all values in one contiguous array in row-major order;
+ * value (i,j,k) is kept at base + i * slabStride + j * rowStride + k. So a row
+ * (i,j,*) and a slab (i,*,*) are contiguous in memory. Spaces created by
+ * slice(..) and blocks created by slab(..) or level(..) are views that share
+ * the array.
+ * 
+ * @author Christian (graetz23@gmail.com)
+ */
+public class SpaceFlat extends Space {
+
+  /**
+   * The array keeping all values; shared by views.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   */
+  protected double[ ] _arr = null;
+
+  /**
+   * Position of (0,0,0) in the array.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   */
+  protected int _base;
+
+  /**
+   * Distance in the array between (i,j,k) and (i+1,j,k).
+   * 
+   * @author Christian (graetz23@gmail.com)
+   */
+  protected int _slabStride;
+
+  /**
+   * Distance in the array between (i,j,k) and (i,j+1,k).
+   * 
+   * @author Christian (graetz23@gmail.com)
+   */
+  protected int _rowStride;
+
+  /**
+   * A space object with no input; e.g. as a pattern.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   */
+  public SpaceFlat( ) {
+    super( );
+  } // SpaceFlat
+
+  /**
+   * Copy constructor taking over the values of any type of space into a new
+   * contiguous array.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param space
+   *          object of type space; e.g. SpaceFull
+   */
+  public SpaceFlat( Space space ) {
+
+    super( space );
+
+    try {
+      alloc( ); // all values are zero
+      if( space.isAllocated( ) ) {
+        if( space instanceof SpaceFlat ) {
+          double[ ] row = new double[ _noOfLvls ];
+          for( int i = 0; i < _noOfRows; i++ )
+            for( int j = 0; j < _noOfCols; j++ )
+              setRow( i, j, space.getRow( i, j, row ) );
+        } else
+          space.forEachNonZero( ( i, j, k, value ) -> _arr[ ( i * _noOfCols + j )
+              * _noOfLvls + k ] = value );
+      } // if
+    } catch( JWaveException e ) {
+      e.printStackTrace( );
+    } // try
+
+  } // SpaceFlat
+
+  /**
+   * Constructor setting members; memory is allocated by alloc().
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param noOfRows
+   *          the number of rows
+   * @param noOfCols
+   *          the number of columns
+   * @param noOfLvls
+   *          the number of levels (height)
+   */
+  public SpaceFlat( int noOfRows, int noOfCols, int noOfLvls ) {
+    super( noOfRows, noOfCols, noOfLvls );
+  } // SpaceFlat
+
+  /**
+   * Configure a space (a cube) as a part of a super space.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param offSetRow
+   *          the starting position for the row of the space
+   * @param offSetCol
+   *          the starting position for the column of the space
+   * @param offSetLvl
+   *          the starting position for the level (height) of the space
+   * @param noOfRows
+   *          the number of rows
+   * @param noOfCols
+   *          the number of columns
+   * @param noOfLvls
+   *          the number of levels (height)
+   */
+  public SpaceFlat( int offSetRow, int offSetCol, int offSetLvl, int noOfRows,
+      int noOfCols, int noOfLvls ) {
+    super( offSetRow, offSetCol, offSetLvl, noOfRows, noOfCols, noOfLvls );
+  } // SpaceFlat
+
+  /**
+   * View on an existing array without copying; used by slice(..).
+   * 
+   * @author Christian (graetz23@gmail.com)
+   */
+  private SpaceFlat( int offSetRow, int offSetCol, int offSetLvl, int noOfRows,
+      int noOfCols, int noOfLvls, double[ ] arr, int base, int slabStride,
+      int rowStride ) {
+    super( offSetRow, offSetCol, offSetLvl, noOfRows, noOfCols, noOfLvls );
+    _arr = arr;
+    _base = base;
+    _slabStride = slabStride;
+    _rowStride = rowStride;
+  } // SpaceFlat
+
+  /**
+   * Wraps a row-major array of length noOfRows * noOfCols * noOfLvls without
+   * copying.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param noOfRows
+   *          the number of rows
+   * @param noOfCols
+   *          the number of columns
+   * @param noOfLvls
+   *          the number of levels (height)
+   * @param arr
+   *          row-major array of length noOfRows * noOfCols * noOfLvls
+   * @return a space using the given array as storage
+   * @throws JWaveException
+   *           if the length of the array does not match
+   */
+  public static SpaceFlat wrap( int noOfRows, int noOfCols, int noOfLvls,
+      double[ ] arr ) throws JWaveException {
+
+    if( arr == null || (long)noOfRows * noOfCols * noOfLvls != arr.length )
+      throw new JWaveFailure( "SpaceFlat - array does not match dimension: "
+          + noOfRows + " x " + noOfCols + " x " + noOfLvls );
+
+    return new SpaceFlat( 0, 0, 0, noOfRows, noOfCols, noOfLvls, arr, 0,
+        noOfCols * noOfLvls, noOfLvls );
+
+  } // wrap
+
+  /*
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.datatypes.Super#copy()
+   */
+  @Override public Space copy( ) {
+    return new SpaceFlat( this );
+  } // copy
+
+  /*
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.datatypes.Super#isAllocated()
+   */
+  @Override public boolean isAllocated( ) {
+    boolean isAllocated = true;
+    if( _arr == null )
+      isAllocated = false;
+    return isAllocated;
+  } // isAllocated
+
+  /*
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.datatypes.Super#alloc()
+   */
+  @Override public void alloc( ) throws JWaveException {
+    if( !isAllocated( ) ) {
+      long length = (long)_noOfRows * _noOfCols * _noOfLvls;
+      if( length > Integer.MAX_VALUE - 8 )
+        throw new JWaveFailure( "SpaceFlat - too many values for one array: "
+            + length );
+      _arr = new double[ (int)length ];
+      _base = 0;
+      _slabStride = _noOfCols * _noOfLvls;
+      _rowStride = _noOfLvls;
+    } // if
+  } // alloc
+
+  /*
+   * Releases the array; a view only drops its reference to the shared array.
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.datatypes.Super#erase()
+   */
+  @Override public void erase( ) throws JWaveException {
+    _arr = null;
+  } // erase
+
+  /*
+   * Getter!
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.datatypes.spaces.Space#get(int, int, int)
+   */
+  @Override public double get( int i, int j, int k ) throws JWaveException {
+    checkMemory( );
+    check( i, j, k );
+    return _arr[ _base + i * _slabStride + j * _rowStride + k ];
+  } // get
+
+  /*
+   * Setter!
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.datatypes.spaces.Space#set(int, int, int, double)
+   */
+  @Override public void set( int i, int j, int k, double value )
+      throws JWaveException {
+    checkMemory( );
+    check( i, j, k );
+    _arr[ _base + i * _slabStride + j * _rowStride + k ] = value;
+  } // set
+
+  /*
+   * Getter! A flat space stores a value for each (i,j,k); default is never
+   * taken.
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.datatypes.spaces.Space#get(int, int, int, double)
+   */
+  @Override public double get( int i, int j, int k, double defaultValue )
+      throws JWaveException {
+    return get( i, j, k );
+  } // get
+
+  /*
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.datatypes.spaces.Space#forEachNonZero(Space.Visitor)
+   */
+  @Override public void forEachNonZero( Visitor visitor )
+      throws JWaveException {
+
+    checkMemory( );
+
+    for( int i = 0; i < _noOfRows; i++ )
+      for( int j = 0; j < _noOfCols; j++ ) {
+        int pos = _base + i * _slabStride + j * _rowStride;
+        for( int k = 0; k < _noOfLvls; k++, pos++ )
+          if( _arr[ pos ] != 0. )
+            visitor.visit( i, j, k, _arr[ pos ] );
+      } // j
+
+  } // forEachNonZero
+
+  /*
+   * Copies the row by System.arraycopy.
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.datatypes.spaces.Space#getRow(int, int, double[])
+   */
+  @Override public double[ ] getRow( int i, int j, double[ ] row )
+      throws JWaveException {
+
+    checkMemory( );
+    checkRow( i, j );
+    checkLength( row, _noOfLvls );
+
+    System.arraycopy( _arr, _base + i * _slabStride + j * _rowStride, row, 0,
+        _noOfLvls );
+
+    return row;
+
+  } // getRow
+
+  /*
+   * Copies the row by System.arraycopy.
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.datatypes.spaces.Space#setRow(int, int, double[])
+   */
+  @Override public void setRow( int i, int j, double[ ] row )
+      throws JWaveException {
+
+    checkMemory( );
+    checkRow( i, j );
+    checkLength( row, _noOfLvls );
+
+    System.arraycopy( row, 0, _arr, _base + i * _slabStride + j * _rowStride,
+        _noOfLvls );
+
+  } // setRow
+
+  /*
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.datatypes.spaces.Space#getSlab(int)
+   */
+  @Override public Block getSlab( int i ) throws JWaveException {
+    return slab( i ).copy( );
+  } // getSlab
+
+  /**
+   * Returns a view of the slab i; all values (i,*,*) as a block of noOfCols
+   * rows and noOfLvls columns sharing the array of this space.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param i
+   *          from 0 to noOfRows-1
+   * @return a view keeping (j,k) at (i,j,k)
+   * @throws JWaveException
+   *           if i is out of bounds
+   */
+  public BlockFlat slab( int i ) throws JWaveException {
+
+    checkMemory( );
+    checkSlab( i );
+
+    return new BlockFlat( _offSetCol, _offSetLvl, _noOfCols, _noOfLvls, _arr,
+        _base + i * _slabStride, _rowStride, 1 );
+
+  } // slab
+
+  /**
+   * Returns a view of the level k; all values (*,*,k) as a block of noOfRows
+   * rows and noOfCols columns sharing the array of this space. The view is
+   * not contiguous in memory.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param k
+   *          from 0 to noOfLvls-1
+   * @return a view keeping (i,j) at (i,j,k)
+   * @throws JWaveException
+   *           if k is out of bounds
+   */
+  public BlockFlat level( int k ) throws JWaveException {
+
+    checkMemory( );
+    check( k );
+
+    return new BlockFlat( _offSetRow, _offSetCol, _noOfRows, _noOfCols, _arr,
+        _base + k, _slabStride, _rowStride );
+
+  } // level
+
+  /**
+   * Returns a view of the cube starting at (i,j,k) sharing the array of this
+   * space; changes of one are seen by the other. Use copy() on the view for an
+   * independent space.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param i
+   *          first row of the view
+   * @param j
+   *          first column of the view
+   * @param k
+   *          first level of the view
+   * @param noOfRows
+   *          the number of rows of the view
+   * @param noOfCols
+   *          the number of columns of the view
+   * @param noOfLvls
+   *          the number of levels of the view
+   * @return a view of type SpaceFlat
+   * @throws JWaveException
+   *           if the view is not inside of this space
+   */
+  public SpaceFlat slice( int i, int j, int k, int noOfRows, int noOfCols,
+      int noOfLvls ) throws JWaveException {
+
+    checkMemory( );
+
+    if( i < 0 || j < 0 || k < 0 || noOfRows < 0 || noOfCols < 0
+        || noOfLvls < 0 || i + noOfRows > _noOfRows
+        || j + noOfCols > _noOfCols || k + noOfLvls > _noOfLvls )
+      throw new JWaveFailure( "SpaceFlat - slice is not inside of space: ("
+          + i + "," + j + "," + k + ") + " + noOfRows + " x " + noOfCols
+          + " x " + noOfLvls );
+
+    return new SpaceFlat( _offSetRow + i, _offSetCol + j, _offSetLvl + k,
+        noOfRows, noOfCols, noOfLvls, _arr, _base + i * _slabStride + j
+            * _rowStride + k, _slabStride, _rowStride );
+
+  } // slice
+
+} // class
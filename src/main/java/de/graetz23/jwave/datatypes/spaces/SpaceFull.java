@@ -62,17 +62,14 @@ public class SpaceFull extends Space {
     super( space );
 
     try {
-      alloc( );
-      for( int i = 0; i < _noOfRows; i++ )
-        for( int j = 0; j < _noOfCols; j++ )
-          for( int k = 0; k < _noOfLvls; k++ )
-            set( i, j, k, space.get( i, j, k ) );
+      alloc( ); // all values are zero
+      if( space.isAllocated( ) )
+        space.forEachNonZero( ( i, j, k, value ) -> _arrBlocks[ k ].set( i, j,
+            value ) );
     } catch( JWaveException e ) {
       e.printStackTrace( );
     } // try
 
-    // TODO implement more efficient by using instanceof
-
   } // Space
 
   /**
@@ -198,4 +195,15 @@ public class SpaceFull extends Space {
     block.set( i, j, value );
   } // set
 
+  /*
+   * Getter! A full space stores a value for each (i,j,k); default is never
+   * taken.
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.datatypes.spaces.Space#get(int, int, int, double)
+   */
+  @Override public double get( int i, int j, int k, double defaultValue )
+      throws JWaveException {
+    return get( i, j, k );
+  } // get
+
 } // class
@@ -24,6 +24,7 @@
 package de.graetz23.jwave.datatypes.spaces;
 
 import java.util.HashMap;
+import java.util.Map;
 
 import de.graetz23.jwave.datatypes.blocks.Block;
 import de.graetz23.jwave.datatypes.blocks.BlockHash;
@@ -67,17 +68,30 @@ public class SpaceHash extends Space {
     super( space );
 
     try {
-      alloc( );
-      for( int i = 0; i < _noOfRows; i++ )
-        for( int j = 0; j < _noOfCols; j++ )
-          for( int k = 0; k < _noOfLvls; k++ )
-            set( i, j, k, space.get( i, j, k ) );
+
+      if( space instanceof SpaceHash ) {
+
+        SpaceHash spaceHash = (SpaceHash)space;
+        if( spaceHash.isAllocated( ) ) {
+          alloc( );
+          for( Map.Entry< Integer, Block > entry : spaceHash._hashMapBlocks
+              .entrySet( ) )
+            _hashMapBlocks.put( entry.getKey( ),
+                (Block)entry.getValue( ).copy( ) );
+        } // if
+
+      } else {
+
+        alloc( );
+        if( space.isAllocated( ) )
+          space.forEachNonZero( ( i, j, k, value ) -> set( i, j, k, value ) );
+
+      } // if
+
     } catch( JWaveException e ) {
       e.printStackTrace( );
     } // try
 
-    // TODO implement more efficient by using instanceof
-
   } // SpaceHash
 
   /**
@@ -218,4 +232,44 @@ public class SpaceHash extends Space {
 
   } // set
 
+  /*
+   * Getter! Returns the default value for each (i,j,k) having no stored value.
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.datatypes.spaces.Space#get(int, int, int, double)
+   */
+  @Override public double get( int i, int j, int k, double defaultValue )
+      throws JWaveException {
+
+    checkMemory( );
+
+    check( i, j, k );
+
+    Block block = _hashMapBlocks.get( k );
+
+    if( block == null )
+      return defaultValue;
+
+    return block.get( i, j, defaultValue );
+
+  } // get
+
+  /*
+   * Passes all stored values that are not zero to the visitor; the order is
+   * undefined. Costs are by the number of stored values.
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.datatypes.spaces.Space#forEachNonZero(Space.Visitor)
+   */
+  @Override public void forEachNonZero( Visitor visitor )
+      throws JWaveException {
+
+    checkMemory( );
+
+    for( Map.Entry< Integer, Block > entry : _hashMapBlocks.entrySet( ) ) {
+      int k = entry.getKey( );
+      entry.getValue( ).forEachNonZero(
+          ( i, j, value ) -> visitor.visit( i, j, k, value ) );
+    } // levels
+
+  } // forEachNonZero
+
 } // class
@@ -0,0 +1,437 @@
+/**
+ * JWave is distributed under the MIT License (MIT); this file is part of.
+ *
+ * Copyright (c) 2008-2025 JWave Christian (graetz23@gmail.com)
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.graetz23.jwave.datatypes.spaces;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import de.graetz23.jwave.datatypes.blocks.Block;
+import de.graetz23.jwave.datatypes.blocks.BlockFlat;
+import de.graetz23.jwave.exceptions.JWaveException;
+import de.graetz23.jwave.exceptions.JWaveFailure;
+
+/**
+ * A space that keeps its values outside of the Java heap; either in direct
+ * memory or memory-mapped from a file. Values are stored row-major like in
+ * SpaceFlat, (i,j,k) at (i * noOfCols + j) * noOfLvls + k, as little endian
+ * doubles without any header; a mapped file can be opened again by the same
+ * dimension. The storage is split into buffers of whole slabs (i,*,*), each
+ * buffer keeping at most MAX_BUFFER_SIZE values, so volumes much larger than
+ * the heap and larger than 2 GB are possible, while a single slab has to fit
+ * one buffer.
+ * 
+ * Direct memory is limited by -XX:MaxDirectMemorySize; for volumes larger than
+ * the physical memory map a file. Mapped memory is released by the garbage
+ * collector after erase(); call force() for writing changes to the file.
+ * 
+ * @author Christian (graetz23@gmail.com)
+ */
+public class SpaceOffHeap extends Space {
+
+  /**
+   * The maximal number of values kept by a single buffer; 1 GB.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   */
+  public static final long MAX_BUFFER_SIZE = 1L << 27;
+
+  /**
+   * The file that is mapped or null for direct memory.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   */
+  protected Path _path = null;
+
+  /**
+   * The memory of each buffer; of type MappedByteBuffer if a file is mapped.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   */
+  protected ByteBuffer[ ] _arrBytes = null;
+
+  /**
+   * Views of type double on the memory of each buffer.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   */
+  protected DoubleBuffer[ ] _arrBuffers = null;
+
+  /**
+   * The number of slabs (i,*,*) kept by each buffer.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   */
+  protected int _slabsPerBuffer;
+
+  /**
+   * The number of values of a slab; noOfCols * noOfLvls.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   */
+  protected int _slabSize;
+
+  /**
+   * A space object with no input; e.g. as a pattern.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   */
+  public SpaceOffHeap( ) {
+    super( );
+  } // SpaceOffHeap
+
+  /**
+   * Copy constructor taking over the values of any type of space into direct
+   * memory; also if the given space maps a file.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param space
+   *          object of type space; e.g. SpaceFlat
+   */
+  public SpaceOffHeap( Space space ) {
+
+    super( space );
+
+    try {
+      alloc( ); // all values are zero
+      if( space.isAllocated( ) ) {
+        double[ ] row = new double[ _noOfLvls ];
+        for( int i = 0; i < _noOfRows; i++ )
+          for( int j = 0; j < _noOfCols; j++ )
+            setRow( i, j, space.getRow( i, j, row ) );
+      } // if
+    } catch( JWaveException e ) {
+      e.printStackTrace( );
+    } // try
+
+  } // SpaceOffHeap
+
+  /**
+   * Constructor setting members for a space in direct memory; memory is
+   * allocated by alloc().
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param noOfRows
+   *          the number of rows
+   * @param noOfCols
+   *          the number of columns
+   * @param noOfLvls
+   *          the number of levels (height)
+   */
+  public SpaceOffHeap( int noOfRows, int noOfCols, int noOfLvls ) {
+    super( noOfRows, noOfCols, noOfLvls );
+  } // SpaceOffHeap
+
+  /**
+   * Configure a space (a cube) in direct memory as a part of a super space.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param offSetRow
+   *          the starting position for the row of the space
+   * @param offSetCol
+   *          the starting position for the column of the space
+   * @param offSetLvl
+   *          the starting position for the level (height) of the space
+   * @param noOfRows
+   *          the number of rows
+   * @param noOfCols
+   *          the number of columns
+   * @param noOfLvls
+   *          the number of levels (height)
+   */
+  public SpaceOffHeap( int offSetRow, int offSetCol, int offSetLvl,
+      int noOfRows, int noOfCols, int noOfLvls ) {
+    super( offSetRow, offSetCol, offSetLvl, noOfRows, noOfCols, noOfLvls );
+  } // SpaceOffHeap
+
+  /**
+   * Constructor setting members for a space mapped from a file; the file is
+   * created or enlarged by alloc() and values already stored are kept.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param path
+   *          the file keeping the values
+   * @param noOfRows
+   *          the number of rows
+   * @param noOfCols
+   *          the number of columns
+   * @param noOfLvls
+   *          the number of levels (height)
+   */
+  public SpaceOffHeap( Path path, int noOfRows, int noOfCols, int noOfLvls ) {
+    super( noOfRows, noOfCols, noOfLvls );
+    _path = path;
+  } // SpaceOffHeap
+
+  /*
+   * Copies to direct memory.
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.datatypes.Super#copy()
+   */
+  @Override public Space copy( ) {
+    return new SpaceOffHeap( this );
+  } // copy
+
+  /**
+   * Returns true if the values are mapped from a file.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @return true if a file is mapped else false
+   */
+  public boolean isMapped( ) {
+    return _path != null;
+  } // isMapped
+
+  /*
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.datatypes.Super#isAllocated()
+   */
+  @Override public boolean isAllocated( ) {
+    boolean isAllocated = true;
+    if( _arrBuffers == null )
+      isAllocated = false;
+    return isAllocated;
+  } // isAllocated
+
+  /*
+   * Allocates direct memory or maps the file.
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.datatypes.Super#alloc()
+   */
+  @Override public void alloc( ) throws JWaveException {
+
+    if( isAllocated( ) )
+      return;
+
+    long slabSize = (long)_noOfCols * _noOfLvls;
+    if( slabSize > MAX_BUFFER_SIZE )
+      throw new JWaveFailure( "SpaceOffHeap - slab is larger than a buffer: "
+          + slabSize );
+
+    _slabSize = (int)slabSize;
+    _slabsPerBuffer = _slabSize == 0 ? Math.max( _noOfRows, 1 )
+        : (int)Math.min( MAX_BUFFER_SIZE / _slabSize, Math.max( _noOfRows, 1 ) );
+
+    int noOfBuffers = ( _noOfRows + _slabsPerBuffer - 1 ) / _slabsPerBuffer;
+
+    ByteBuffer[ ] arrBytes = new ByteBuffer[ noOfBuffers ];
+
+    if( _path == null ) {
+
+      for( int b = 0; b < noOfBuffers; b++ )
+        arrBytes[ b ] = ByteBuffer.allocateDirect( bufferBytes( b ) );
+
+    } else {
+
+      try( FileChannel channel = FileChannel.open( _path,
+          StandardOpenOption.CREATE, StandardOpenOption.READ,
+          StandardOpenOption.WRITE ) ) {
+
+        for( int b = 0; b < noOfBuffers; b++ )
+          arrBytes[ b ] = channel.map( FileChannel.MapMode.READ_WRITE, (long)b
+              * _slabsPerBuffer * _slabSize * Double.BYTES, bufferBytes( b ) );
+
+      } catch( IOException e ) {
+        throw new JWaveFailure( "SpaceOffHeap - can not map file: " + _path
+            + " - " + e.getMessage( ) );
+      } // try
+
+    } // if
+
+    DoubleBuffer[ ] arrBuffers = new DoubleBuffer[ noOfBuffers ];
+    for( int b = 0; b < noOfBuffers; b++ )
+      arrBuffers[ b ] =
+          arrBytes[ b ].order( ByteOrder.LITTLE_ENDIAN ).asDoubleBuffer( );
+
+    _arrBytes = arrBytes;
+    _arrBuffers = arrBuffers;
+
+  } // alloc
+
+  /**
+   * The number of bytes of buffer b; the last one may keep less slabs.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param b
+   *          the number of the buffer
+   * @return the size in bytes
+   */
+  private int bufferBytes( int b ) {
+    int noOfSlabs = Math.min( _slabsPerBuffer, _noOfRows - b * _slabsPerBuffer );
+    return noOfSlabs * _slabSize * Double.BYTES;
+  } // bufferBytes
+
+  /*
+   * Writes changes to a mapped file and drops all buffers.
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.datatypes.Super#erase()
+   */
+  @Override public void erase( ) throws JWaveException {
+    force( );
+    _arrBytes = null;
+    _arrBuffers = null;
+  } // erase
+
+  /**
+   * Writes all changes to the mapped file; does nothing for direct memory.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   */
+  public void force( ) {
+    if( _arrBytes != null )
+      for( ByteBuffer bytes : _arrBytes )
+        if( bytes instanceof MappedByteBuffer )
+          ( (MappedByteBuffer)bytes ).force( );
+  } // force
+
+  /**
+   * The buffer keeping slab i.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   */
+  private DoubleBuffer buffer( int i ) {
+    return _arrBuffers[ i / _slabsPerBuffer ];
+  } // buffer
+
+  /**
+   * The position of (i,j,0) in the buffer keeping slab i.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   */
+  private int position( int i, int j ) {
+    return ( i % _slabsPerBuffer ) * _slabSize + j * _noOfLvls;
+  } // position
+
+  /*
+   * Getter!
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.datatypes.spaces.Space#get(int, int, int)
+   */
+  @Override public double get( int i, int j, int k ) throws JWaveException {
+    checkMemory( );
+    check( i, j, k );
+    return buffer( i ).get( position( i, j ) + k );
+  } // get
+
+  /*
+   * Setter!
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.datatypes.spaces.Space#set(int, int, int, double)
+   */
+  @Override public void set( int i, int j, int k, double value )
+      throws JWaveException {
+    checkMemory( );
+    check( i, j, k );
+    buffer( i ).put( position( i, j ) + k, value );
+  } // set
+
+  /*
+   * Getter! This space stores a value for each (i,j,k); default is never
+   * taken.
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.datatypes.spaces.Space#get(int, int, int, double)
+   */
+  @Override public double get( int i, int j, int k, double defaultValue )
+      throws JWaveException {
+    return get( i, j, k );
+  } // get
+
+  /*
+   * Reads each row by a single bulk copy.
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.datatypes.spaces.Space#forEachNonZero(Space.Visitor)
+   */
+  @Override public void forEachNonZero( Visitor visitor )
+      throws JWaveException {
+
+    checkMemory( );
+
+    double[ ] row = new double[ _noOfLvls ];
+    for( int i = 0; i < _noOfRows; i++ )
+      for( int j = 0; j < _noOfCols; j++ ) {
+        buffer( i ).get( position( i, j ), row, 0, _noOfLvls );
+        for( int k = 0; k < _noOfLvls; k++ )
+          if( row[ k ] != 0. )
+            visitor.visit( i, j, k, row[ k ] );
+      } // j
+
+  } // forEachNonZero
+
+  /*
+   * Copies the row by a single bulk copy.
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.datatypes.spaces.Space#getRow(int, int, double[])
+   */
+  @Override public double[ ] getRow( int i, int j, double[ ] row )
+      throws JWaveException {
+
+    checkMemory( );
+    checkRow( i, j );
+    checkLength( row, _noOfLvls );
+
+    buffer( i ).get( position( i, j ), row, 0, _noOfLvls );
+
+    return row;
+
+  } // getRow
+
+  /*
+   * Copies the row by a single bulk copy.
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.datatypes.spaces.Space#setRow(int, int, double[])
+   */
+  @Override public void setRow( int i, int j, double[ ] row )
+      throws JWaveException {
+
+    checkMemory( );
+    checkRow( i, j );
+    checkLength( row, _noOfLvls );
+
+    buffer( i ).put( position( i, j ), row, 0, _noOfLvls );
+
+  } // setRow
+
+  /*
+   * Copies the slab by a single bulk copy onto the heap.
+   * @author Christian (graetz23@gmail.com)
+   * @see jwave.datatypes.spaces.Space#getSlab(int)
+   */
+  @Override public Block getSlab( int i ) throws JWaveException {
+
+    checkMemory( );
+    checkSlab( i );
+
+    double[ ] arr = new double[ _slabSize ];
+    buffer( i ).get( position( i, 0 ), arr, 0, _slabSize );
+
+    return BlockFlat.wrap( _noOfCols, _noOfLvls, arr );
+
+  } // getSlab
+
+} // class
@@ -0,0 +1,143 @@
+/**
+ * JWave is distributed under the MIT License (MIT); this file is part of.
+ *
+ * Copyright (c) 2008-2025 JWave Christian (graetz23@gmail.com)
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.graetz23.jwave.exceptions;
+
+/**
+ * Unchecked exception of the StrictTransform carrying an error code; it
+ * records no stack trace and no suppressed exceptions, so throwing it costs
+ * little more than the object itself, and nothing is printed.
+ * 
+ * @author Christian (graetz23@gmail.com)
+ */
+public class JWaveRuntimeException extends RuntimeException {
+
+  /**
+   * Generated serial ID for this exception
+   */
+  private static final long serialVersionUID = 6034856197428311409L;
+
+  /**
+   * The error codes of JWave; stable for handling failures by code.
+   */
+  public enum Code {
+
+    /**
+     * a given object or array is null
+     */
+    NULL_ARGUMENT,
+
+    /**
+     * a length is not of 2^p | p E N
+     */
+    NOT_BINARY,
+
+    /**
+     * a level is not in the range of 0 .. p of a length of 2^p
+     */
+    LEVEL_OUT_OF_RANGE,
+
+    /**
+     * an array does not match the dimensions validated before
+     */
+    SHAPE_MISMATCH,
+
+    /**
+     * the method is not implemented by the transform
+     */
+    NOT_IMPLEMENTED,
+
+    /**
+     * any other failure of JWave; see JWaveFailure
+     */
+    FAILURE,
+
+    /**
+     * any other error of JWave; see JWaveError
+     */
+    ERROR
+
+  } // enum
+
+  private final Code _code;
+
+  /**
+   * constructor taking an error code and a message
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param code
+   *          the error code
+   * @param message
+   *          stored message for this exception
+   */
+  public JWaveRuntimeException( Code code, String message ) {
+    this( code, message, null );
+  } // JWaveRuntimeException
+
+  /**
+   * constructor taking an error code, a message, and the cause
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param code
+   *          the error code
+   * @param message
+   *          stored message for this exception
+   * @param cause
+   *          the checked exception of JWave or null
+   */
+  public JWaveRuntimeException( Code code, String message, Throwable cause ) {
+    super( message, cause, false, false ); // no stack trace
+    _code = code;
+  } // JWaveRuntimeException
+
+  /**
+   * Converts a checked exception of JWave; the error code is derived from its
+   * type.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @param e
+   *          the checked exception
+   * @return the unchecked exception keeping e as cause
+   */
+  public static JWaveRuntimeException of( JWaveException e ) {
+    Code code;
+    if( e instanceof JWaveFailureNotImplemented )
+      code = Code.NOT_IMPLEMENTED;
+    else if( e instanceof JWaveError )
+      code = Code.ERROR;
+    else
+      code = Code.FAILURE;
+    return new JWaveRuntimeException( code, e.getMessage( ), e );
+  } // of
+
+  /**
+   * Returns the error code.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @return the error code
+   */
+  public Code getCode( ) {
+    return _code;
+  } // getCode
+
+} // class
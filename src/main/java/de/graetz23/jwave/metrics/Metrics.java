@@ -0,0 +1,235 @@
+/**
+ * JWave is distributed under the MIT License (MIT); this file is part of.
+ *
+ * Copyright (c) 2008-2025 JWave Christian (graetz23@gmail.com)
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.graetz23.jwave.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+
+import de.graetz23.jwave.metrics.MetricsProvider.Counter;
+import de.graetz23.jwave.metrics.MetricsProvider.Histogram;
+
+/**
+ * The registry of the MetricsProvider objects the transforms report to. The
+ * providers of the ServiceLoader are registered on first use; others may be
+ * registered and unregistered at any time.
+ *
+ * The instruments of all providers are resolved once per TransformInfo and
+ * kept with it, so reporting is a lookup and a plain loop over arrays;
+ * registering starts them anew. Without providers the registry is null and
+ * isEnabled( ) is a single volatile read.
+ *
+ * @author Christian (graetz23@gmail.com)
+ */
+public final class Metrics {
+
+  /**
+   * Counter of the transforms done.
+   */
+  public static final String CALLS = "jwave.transform.calls";
+
+  /**
+   * Counter of the coefficients transformed.
+   */
+  public static final String VALUES = "jwave.transform.values";
+
+  /**
+   * Histogram of the durations of the transforms in nanoseconds.
+   */
+  public static final String NANOS = "jwave.transform.nanos";
+
+  /**
+   * Histogram of the bytes the transforms allocated; recorded where the
+   * virtual machine measures the allocation of threads.
+   */
+  public static final String BYTES = "jwave.transform.bytes";
+
+  private static final List< MetricsProvider > _providers =
+      new ArrayList< MetricsProvider >( );
+
+  private static volatile Registry _registry;
+
+  static {
+    try {
+      for( MetricsProvider provider : ServiceLoader
+          .load( MetricsProvider.class, Metrics.class.getClassLoader( ) ) )
+        _providers.add( provider );
+    } catch( ServiceConfigurationError e ) {
+      // broken provider configuration; run without metrics
+    } // try
+    _registry = Registry.of( _providers );
+  } // static
+
+  private Metrics( ) {
+  } // Metrics
+
+  /**
+   * Returns true if any provider is registered.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @return true if reporting
+   */
+  public static boolean isEnabled( ) {
+    return _registry != null;
+  } // isEnabled
+
+  /**
+   * Registers a provider; asked for its instruments by the transforms
+   * reported next.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param provider
+   *          the provider
+   */
+  public static synchronized void register( MetricsProvider provider ) {
+    if( provider != null && !_providers.contains( provider ) ) {
+      _providers.add( provider );
+      _registry = Registry.of( _providers );
+    } // if
+  } // register
+
+  /**
+   * Unregisters a provider, e.g. one of the ServiceLoader.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param provider
+   *          the provider
+   */
+  public static synchronized void unregister( MetricsProvider provider ) {
+    if( _providers.remove( provider ) )
+      _registry = Registry.of( _providers );
+  } // unregister
+
+  /**
+   * Returns the providers registered.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @return a copy of the providers
+   */
+  public static synchronized List< MetricsProvider > getProviders( ) {
+    return new ArrayList< MetricsProvider >( _providers );
+  } // getProviders
+
+  /**
+   * Reports a transform done to all providers.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param info
+   *          transform, wavelet, kernel, and direction
+   * @param noOfValues
+   *          the number of coefficients transformed
+   * @param nanos
+   *          the duration
+   * @param noOfBytes
+   *          the bytes allocated; negative if not measured
+   */
+  static void report( TransformInfo info, long noOfValues, long nanos,
+      long noOfBytes ) {
+
+    Registry registry = _registry;
+    if( registry == null )
+      return;
+    Instruments instruments = registry._instruments.get( info );
+    if( instruments == null )
+      instruments = registry._instruments.computeIfAbsent( info,
+          i -> new Instruments( registry._providers, i ) );
+    for( Counter counter : instruments._calls )
+      counter.increment( 1L );
+    for( Counter counter : instruments._values )
+      counter.increment( noOfValues );
+    for( Histogram histogram : instruments._nanos )
+      histogram.record( nanos );
+    if( noOfBytes >= 0 )
+      for( Histogram histogram : instruments._bytes )
+        histogram.record( noOfBytes );
+
+  } // report
+
+  /**
+   * The providers registered and their instruments by info.
+   */
+  private static final class Registry {
+
+    private final MetricsProvider[ ] _providers;
+
+    private final ConcurrentHashMap< TransformInfo, Instruments > _instruments =
+        new ConcurrentHashMap< TransformInfo, Instruments >( );
+
+    private Registry( List< MetricsProvider > providers ) {
+      _providers = providers.toArray( new MetricsProvider[ providers.size( ) ] );
+    } // Registry
+
+    private static Registry of( List< MetricsProvider > providers ) {
+      return providers.isEmpty( ) ? null : new Registry( providers );
+    } // of
+
+  } // class
+
+  /**
+   * The instruments of all providers for an info by name; immutable.
+   */
+  private static final class Instruments {
+
+    private final Counter[ ] _calls;
+
+    private final Counter[ ] _values;
+
+    private final Histogram[ ] _nanos;
+
+    private final Histogram[ ] _bytes;
+
+    private Instruments( MetricsProvider[ ] providers, TransformInfo info ) {
+      _calls = counters( providers, CALLS, info );
+      _values = counters( providers, VALUES, info );
+      _nanos = histograms( providers, NANOS, info );
+      _bytes = histograms( providers, BYTES, info );
+    } // Instruments
+
+    private static Counter[ ] counters( MetricsProvider[ ] providers,
+        String name, TransformInfo info ) {
+      List< Counter > counters = new ArrayList< Counter >( );
+      for( MetricsProvider provider : providers ) {
+        Counter counter = provider.counter( name, info );
+        if( counter != null )
+          counters.add( counter );
+      } // provider
+      return counters.toArray( new Counter[ counters.size( ) ] );
+    } // counters
+
+    private static Histogram[ ] histograms( MetricsProvider[ ] providers,
+        String name, TransformInfo info ) {
+      List< Histogram > histograms = new ArrayList< Histogram >( );
+      for( MetricsProvider provider : providers ) {
+        Histogram histogram = provider.histogram( name, info );
+        if( histogram != null )
+          histograms.add( histogram );
+      } // provider
+      return histograms.toArray( new Histogram[ histograms.size( ) ] );
+    } // histograms
+
+  } // class
+
+} // class
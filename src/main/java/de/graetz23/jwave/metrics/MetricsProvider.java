@@ -0,0 +1,86 @@
+/**
+ * JWave is distributed under the MIT License (MIT); this file is part of.
+ *
+ * Copyright (c) 2008-2025 JWave Christian (graetz23@gmail.com)
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.graetz23.jwave.metrics;
+
+/**
+ * Service provider interface bridging the metrics of JWave to a monitoring
+ * system. Providers are found by the java.util.ServiceLoader, listed in
+ * META-INF/services/de.graetz23.jwave.metrics.MetricsProvider, or given to
+ * Metrics#register( .. ).
+ *
+ * Each instrument is asked for once per name and TransformInfo, on the first
+ * transform of that info after registering; the info is to be mapped to the
+ * labels or tags of the monitoring system. The instruments are called from
+ * any thread on the hot paths of the transforms, so they have to be thread
+ * safe and should be cheap.
+ *
+ * @author Christian (graetz23@gmail.com)
+ */
+public interface MetricsProvider {
+
+  /**
+   * A monotonic count; e.g. of calls.
+   */
+  interface Counter {
+
+    void increment( long delta );
+
+  } // interface
+
+  /**
+   * A distribution of values; e.g. of durations in nanoseconds.
+   */
+  interface Histogram {
+
+    void record( long value );
+
+  } // interface
+
+  /**
+   * Returns the counter of a name for the transforms of an info; see the
+   * names of Metrics.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param name
+   *          the name; e.g. Metrics.CALLS
+   * @param info
+   *          transform, wavelet, kernel, and direction counted
+   * @return the counter; null to drop the values
+   */
+  Counter counter( String name, TransformInfo info );
+
+  /**
+   * Returns the histogram of a name for the transforms of an info; see the
+   * names of Metrics.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param name
+   *          the name; e.g. Metrics.NANOS
+   * @param info
+   *          transform, wavelet, kernel, and direction recorded
+   * @return the histogram; null to drop the values
+   */
+  Histogram histogram( String name, TransformInfo info );
+
+} // interface
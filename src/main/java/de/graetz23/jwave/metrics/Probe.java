@@ -0,0 +1,189 @@
+/**
+ * JWave is distributed under the MIT License (MIT); this file is part of.
+ *
+ * Copyright (c) 2008-2025 JWave Christian (graetz23@gmail.com)
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.graetz23.jwave.metrics;
+
+import java.lang.management.ManagementFactory;
+
+import de.graetz23.jwave.transforms.BasicTransform;
+import de.graetz23.jwave.transforms.WaveletTransform;
+
+/**
+ * Measures a single transform for the JDK Flight Recorder and the Metrics.
+ * Hot paths do
+ *
+ * <pre>
+ * Probe probe = Probe.begin( );
+ * ... transform ...
+ * if( probe != null )
+ *   probe.end( this, "forward", shape, levels );
+ * </pre>
+ *
+ * begin( ) returns null if neither a recording takes TransformEvent nor a
+ * provider is registered; then the event is never committed, the JIT drops
+ * its allocation, and the cost is two checks. Transforms failing are not
+ * reported.
+ *
+ * @author Christian (graetz23@gmail.com)
+ */
+public final class Probe {
+
+  private static final com.sun.management.ThreadMXBean THREADS = threads( );
+
+  private final TransformEvent _event;
+
+  private final long _nanos;
+
+  private final long _noOfBytes;
+
+  private Probe( TransformEvent event ) {
+    _event = event;
+    _noOfBytes = allocatedBytes( );
+    _nanos = System.nanoTime( );
+  } // Probe
+
+  /**
+   * Begins to measure a transform.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @return the probe; null if nothing is to be measured
+   */
+  public static Probe begin( ) {
+
+    TransformEvent event = new TransformEvent( );
+    boolean isRecorded = event.isEnabled( );
+    if( !isRecorded && !Metrics.isEnabled( ) )
+      return null;
+    if( !isRecorded )
+      return new Probe( null );
+    event.begin( );
+    return new Probe( event );
+
+  } // begin
+
+  /**
+   * Ends the measure of a transform of a BasicTransform object.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param transform
+   *          the transform
+   * @param direction
+   *          "forward" or "reverse"
+   * @param shape
+   *          the lengths of the dimensions
+   * @param levels
+   *          the levels per dimension
+   */
+  public void end( BasicTransform transform, String direction, int[ ] shape,
+      int[ ] levels ) {
+
+    String wavelet = transform instanceof WaveletTransform
+        ? ( (WaveletTransform)transform ).getWavelet( ).getName( )
+        : ""; // transform without wavelet; e.g. Fourier
+    end( transform.getName( ), wavelet, transform.getClass( ).getSimpleName( ),
+        direction, shape, levels );
+
+  } // end
+
+  /**
+   * Ends the measure of a transform.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param transform
+   *          the name of the transform
+   * @param wavelet
+   *          the name of the wavelet
+   * @param kernel
+   *          the code path; e.g. a plan's strategy
+   * @param direction
+   *          "forward" or "reverse"
+   * @param shape
+   *          the lengths of the dimensions
+   * @param levels
+   *          the levels per dimension; null for all levels
+   */
+  public void end( String transform, String wavelet, String kernel,
+      String direction, int[ ] shape, int[ ] levels ) {
+
+    long nanos = System.nanoTime( ) - _nanos;
+    long noOfBytes = _noOfBytes < 0 ? -1L : allocatedBytes( ) - _noOfBytes;
+
+    long noOfValues = 1L;
+    for( int length : shape )
+      noOfValues *= length;
+    if( Metrics.isEnabled( ) )
+      Metrics.report( new TransformInfo( transform, wavelet, kernel,
+          direction ), noOfValues, nanos, noOfBytes );
+
+    if( _event == null )
+      return;
+    _event.end( );
+    if( _event.shouldCommit( ) ) {
+      _event.transform = transform;
+      _event.wavelet = wavelet;
+      _event.kernel = kernel;
+      _event.direction = direction;
+      _event.shape = join( shape, "x" );
+      _event.levels = levels == null ? "all" : join( levels, "," );
+      _event.bytesAllocated = noOfBytes;
+      _event.commit( );
+    } // if
+
+  } // end
+
+  private static String join( int[ ] values, String separator ) {
+    StringBuilder builder = new StringBuilder( );
+    for( int v = 0; v < values.length; v++ )
+      builder.append( v == 0 ? "" : separator ).append( values[ v ] );
+    return builder.toString( );
+  } // join
+
+  /**
+   * Returns the bytes the current thread allocated so far, as measured by the
+   * virtual machine; e.g. for the difference over a call.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @return the bytes; -1 if not measured
+   */
+  public static long allocatedBytes( ) {
+    return THREADS == null ? -1L : THREADS.getCurrentThreadAllocatedBytes( );
+  } // allocatedBytes
+
+  private static com.sun.management.ThreadMXBean threads( ) {
+    try {
+      java.lang.management.ThreadMXBean threads =
+          ManagementFactory.getThreadMXBean( );
+      if( threads instanceof com.sun.management.ThreadMXBean ) {
+        com.sun.management.ThreadMXBean sunThreads =
+            (com.sun.management.ThreadMXBean)threads;
+        if( sunThreads.isThreadAllocatedMemorySupported( )
+            && sunThreads.isThreadAllocatedMemoryEnabled( ) )
+          return sunThreads;
+      } // if
+    } catch( LinkageError | RuntimeException e ) {
+      // no jdk.management module; allocation is not measured
+    } // try
+    return null;
+  } // threads
+
+} // class
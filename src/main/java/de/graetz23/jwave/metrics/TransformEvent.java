@@ -0,0 +1,72 @@
+/**
+ * JWave is distributed under the MIT License (MIT); this file is part of.
+ *
+ * Copyright (c) 2008-2025 JWave Christian (graetz23@gmail.com)
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.graetz23.jwave.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder event of a transform; committed by Probe. Duration and
+ * thread are recorded by the event itself. Enabled by default in recordings;
+ * e.g. java -XX:StartFlightRecording ..., or by the name
+ * de.graetz23.jwave.Transform in a recording's settings.
+ *
+ * @author Christian (graetz23@gmail.com)
+ */
+@Name( "de.graetz23.jwave.Transform" )
+@Label( "JWave Transform" )
+@Category( "JWave" )
+@Description( "A transform of an array, a matrix, or a space" )
+@StackTrace( false )
+public final class TransformEvent extends Event {
+
+  @Label( "Transform" )
+  public String transform;
+
+  @Label( "Wavelet" )
+  public String wavelet;
+
+  @Label( "Kernel" )
+  @Description( "The code path; the transform class or a plan's strategy" )
+  public String kernel;
+
+  @Label( "Direction" )
+  public String direction;
+
+  @Label( "Shape" )
+  public String shape;
+
+  @Label( "Levels" )
+  public String levels;
+
+  @Label( "Bytes Allocated" )
+  @DataAmount
+  public long bytesAllocated;
+
+} // class
@@ -0,0 +1,124 @@
+/**
+ * JWave is distributed under the MIT License (MIT); this file is part of.
+ *
+ * Copyright (c) 2008-2025 JWave Christian (graetz23@gmail.com)
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.graetz23.jwave.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The dimensions a transform is reported by: transform, wavelet, kernel, and
+ * direction, as in TransformEvent; immutable. Providers resolve their
+ * instruments once per object of equal values, e.g. as tags. Shapes are left
+ * out, as too many; see Metrics.VALUES.
+ *
+ * @author Christian (graetz23@gmail.com)
+ */
+public final class TransformInfo {
+
+  private final String _transform;
+
+  private final String _wavelet;
+
+  private final String _kernel;
+
+  private final String _direction;
+
+  private final int _hash;
+
+  /**
+   * @author Christian (graetz23@gmail.com)
+   * @param transform
+   *          the name of the transform
+   * @param wavelet
+   *          the name of the wavelet; empty if none
+   * @param kernel
+   *          the code path; the transform class or a plan's strategy
+   * @param direction
+   *          "forward" or "reverse"
+   */
+  public TransformInfo( String transform, String wavelet, String kernel,
+      String direction ) {
+    _transform = String.valueOf( transform );
+    _wavelet = String.valueOf( wavelet );
+    _kernel = String.valueOf( kernel );
+    _direction = String.valueOf( direction );
+    int hash = _transform.hashCode( );
+    hash = 31 * hash + _wavelet.hashCode( );
+    hash = 31 * hash + _kernel.hashCode( );
+    _hash = 31 * hash + _direction.hashCode( );
+  } // TransformInfo
+
+  public String getTransform( ) {
+    return _transform;
+  } // getTransform
+
+  public String getWavelet( ) {
+    return _wavelet;
+  } // getWavelet
+
+  public String getKernel( ) {
+    return _kernel;
+  } // getKernel
+
+  public String getDirection( ) {
+    return _direction;
+  } // getDirection
+
+  /**
+   * Returns the dimensions as tags, keyed transform, wavelet, kernel, and
+   * direction; e.g. for monitoring systems of tagged metrics.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @return a new map of the tags in that order
+   */
+  public Map< String, String > getTags( ) {
+    Map< String, String > tags = new LinkedHashMap< String, String >( );
+    tags.put( "transform", _transform );
+    tags.put( "wavelet", _wavelet );
+    tags.put( "kernel", _kernel );
+    tags.put( "direction", _direction );
+    return tags;
+  } // getTags
+
+  @Override public boolean equals( Object object ) {
+    if( this == object )
+      return true;
+    if( !( object instanceof TransformInfo ) )
+      return false;
+    TransformInfo info = (TransformInfo)object;
+    return _hash == info._hash && _transform.equals( info._transform )
+        && _wavelet.equals( info._wavelet ) && _kernel.equals( info._kernel )
+        && _direction.equals( info._direction );
+  } // equals
+
+  @Override public int hashCode( ) {
+    return _hash;
+  } // hashCode
+
+  @Override public String toString( ) {
+    return _transform + " | " + _wavelet + " | " + _kernel + " | "
+        + _direction;
+  } // toString
+
+} // class
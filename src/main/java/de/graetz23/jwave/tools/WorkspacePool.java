@@ -0,0 +1,198 @@
+/**
+ * JWave is distributed under the MIT License (MIT); this file is part of.
+ *
+ * Copyright (c) 2008-2025 JWave Christian (graetz23@gmail.com)
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.graetz23.jwave.tools;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Pool of double arrays the transforms borrow as scratch memory for a single
+ * call and give back on leaving it. Nothing is bound to a thread: memory is
+ * held by the calls running, not by the threads that ever ran one, so many
+ * short lived threads doing small transforms share the same few arrays.
+ *
+ * Arrays are pooled by powers of two in a few slots per size, striped by the
+ * calling thread so concurrent calls rarely meet on the same slot; a thread
+ * finds the arrays it gave back in its own stripe. The pooled memory is
+ * bounded by a capacity in bytes; arrays beyond it are left to the garbage
+ * collector. Borrowed arrays are not cleared.
+ *
+ * @author Christian (graetz23@gmail.com)
+ */
+public final class WorkspacePool {
+
+  /**
+   * The default number of bytes kept by the pool.
+   */
+  public static final long DEFAULT_CAPACITY = 64L << 20;
+
+  /**
+   * The largest length of arrays pooled is 2^MAX_EXPONENT; longer ones are
+   * allocated per call.
+   */
+  public static final int MAX_EXPONENT = 24;
+
+  /**
+   * The number of arrays of a size kept per stripe.
+   */
+  public static final int SLOTS = 4;
+
+  private static final int STRIPES = Integer.highestOneBit(
+      Math.max( Runtime.getRuntime( ).availableProcessors( ), 1 ) * 2 - 1 );
+
+  private static final AtomicReferenceArray< double[ ] > _slots =
+      new AtomicReferenceArray< double[ ] >(
+          STRIPES * ( MAX_EXPONENT + 1 ) * SLOTS );
+
+  private static final AtomicLong _noOfBytes = new AtomicLong( );
+
+  private static volatile long _capacity = DEFAULT_CAPACITY;
+
+  private WorkspacePool( ) {
+  } // WorkspacePool
+
+  /**
+   * Borrows an array of at least a length; to be given back by release( .. )
+   * when the call is done, best in a finally block. Its values are undefined.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param length
+   *          the minimal length
+   * @return an array of length 2^p &gt;= length, or of length itself if beyond
+   *         2^MAX_EXPONENT
+   */
+  public static double[ ] acquire( int length ) {
+
+    int exponent = exponent( length );
+    if( exponent > MAX_EXPONENT )
+      return new double[ length ];
+
+    int base = base( exponent );
+    for( int s = 0; s < SLOTS; s++ ) {
+      double[ ] arr = _slots.get( base + s );
+      if( arr != null && _slots.compareAndSet( base + s, arr, null ) ) {
+        _noOfBytes.addAndGet( -8L * arr.length );
+        return arr;
+      } // if
+    } // s
+    return new double[ 1 << exponent ];
+
+  } // acquire
+
+  /**
+   * Gives back an array borrowed by acquire( .. ); it must not be used
+   * afterwards. Arrays not of the pool's sizes, or beyond its capacity, are
+   * dropped.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param arr
+   *          the array or null
+   */
+  public static void release( double[ ] arr ) {
+
+    if( arr == null || Integer.bitCount( arr.length ) != 1 )
+      return;
+    int exponent = Integer.numberOfTrailingZeros( arr.length );
+    if( exponent > MAX_EXPONENT )
+      return;
+
+    long noOfBytes = 8L * arr.length;
+    if( _noOfBytes.addAndGet( noOfBytes ) > _capacity ) {
+      _noOfBytes.addAndGet( -noOfBytes );
+      return;
+    } // if
+
+    int base = base( exponent );
+    for( int s = 0; s < SLOTS; s++ )
+      if( _slots.get( base + s ) == null
+          && _slots.compareAndSet( base + s, null, arr ) )
+        return;
+    _noOfBytes.addAndGet( -noOfBytes ); // slots taken; dropped
+
+  } // release
+
+  /**
+   * Sets the number of bytes the pool keeps at most; arrays pooled already
+   * are dropped if beyond.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @param capacity
+   *          number of bytes; 0 disables pooling
+   */
+  public static void setCapacity( long capacity ) {
+
+    _capacity = Math.max( capacity, 0L );
+    if( _noOfBytes.get( ) > _capacity )
+      clear( );
+
+  } // setCapacity
+
+  public static long getCapacity( ) {
+    return _capacity;
+  } // getCapacity
+
+  /**
+   * Returns the number of bytes of the arrays kept by the pool.
+   *
+   * @author Christian (graetz23@gmail.com)
+   * @return number of bytes pooled
+   */
+  public static long getNoOfBytes( ) {
+    return _noOfBytes.get( );
+  } // getNoOfBytes
+
+  /**
+   * Drops all pooled arrays.
+   *
+   * @author Christian (graetz23@gmail.com)
+   */
+  public static void clear( ) {
+
+    for( int s = 0; s < _slots.length( ); s++ ) {
+      double[ ] arr = _slots.getAndSet( s, null );
+      if( arr != null )
+        _noOfBytes.addAndGet( -8L * arr.length );
+    } // s
+
+  } // clear
+
+  /**
+   * The exponent of the smallest power of two not below length.
+   */
+  private static int exponent( int length ) {
+    return length <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros( length - 1 );
+  } // exponent
+
+  /**
+   * The first slot of a size in the stripe of the calling thread.
+   */
+  private static int base( int exponent ) {
+
+    long id = Thread.currentThread( ).getId( );
+    int stripe = (int)( ( id * 0x9E3779B97F4A7C15L ) >>> 40 ) & ( STRIPES - 1 );
+    return ( stripe * ( MAX_EXPONENT + 1 ) + exponent ) * SLOTS;
+
+  } // base
+
+} // class
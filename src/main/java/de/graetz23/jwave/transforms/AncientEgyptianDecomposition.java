@@ -23,6 +23,8 @@
  */
 package de.graetz23.jwave.transforms;
 
+import java.util.Arrays;
+
 import de.graetz23.jwave.exceptions.JWaveException;
 import de.graetz23.jwave.tools.MathToolKit;
 
@@ -95,7 +97,7 @@ public class AncientEgyptianDecomposition extends BasicTransform {
     @Override
     public double[] forward(double[] arrTime) throws JWaveException {
 
-        double[] arrHilb = new double[arrTime.length];
+        double[] arrHilb = Arrays.copyOf(arrTime, arrTime.length);
 
         int[] ancientEgyptianMultipliers = null;
 
@@ -109,17 +111,10 @@ public class AncientEgyptianDecomposition extends BasicTransform {
             int arrTimeSubLength =
                     (int) MathToolKit.scalb(1., ancientEgyptianMultiplier);
 
-            double[] arrTimeSub = new double[arrTimeSubLength];
-
-            for (int i = 0; i < arrTimeSub.length; i++)
-                arrTimeSub[i] = arrTime[i + offSet];
-
-            double[] arrHilbSub = _basicTransform.forward(arrTimeSub);
-
-            for (int i = 0; i < arrHilbSub.length; i++)
-                arrHilb[i + offSet] = arrHilbSub[i];
+            // in place; transforms working in place allocate nothing per part
+            _basicTransform.forwardInPlace(arrHilb, offSet, arrTimeSubLength);
 
-            offSet += arrHilbSub.length;
+            offSet += arrTimeSubLength;
 
         } // m - no of sub transforms
 
@@ -141,7 +136,7 @@ public class AncientEgyptianDecomposition extends BasicTransform {
     @Override
     public double[] reverse(double[] arrHilb) throws JWaveException {
 
-        double[] arrTime = new double[arrHilb.length];
+        double[] arrTime = Arrays.copyOf(arrHilb, arrHilb.length);
 
         int[] ancientEgyptianMultipliers = null;
         try {
@@ -162,17 +157,10 @@ public class AncientEgyptianDecomposition extends BasicTransform {
             int arrHilbSubLength =
                     (int) MathToolKit.scalb(1., ancientEgyptianMultiplier);
 
-            double[] arrHilbSub = new double[arrHilbSubLength];
-
-            for (int i = 0; i < arrHilbSub.length; i++)
-                arrHilbSub[i] = arrHilb[i + offSet];
-
-            double[] arrTimeSub = _basicTransform.reverse(arrHilbSub);
-
-            for (int i = 0; i < arrTimeSub.length; i++)
-                arrTime[i + offSet] = arrTimeSub[i];
+            // in place; transforms working in place allocate nothing per part
+            _basicTransform.reverseInPlace(arrTime, offSet, arrHilbSubLength);
 
-            offSet += arrHilbSub.length;
+            offSet += arrHilbSubLength;
 
         } // m - no of sub transforms
 
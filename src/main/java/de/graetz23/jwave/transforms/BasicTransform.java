@@ -23,11 +23,25 @@
  */
 package de.graetz23.jwave.transforms;
 
+import java.util.Arrays;
+
+import de.graetz23.jwave.compressions.SparseArray;
+import de.graetz23.jwave.compressions.SparseMatrix;
+import de.graetz23.jwave.compressions.SparseSpace;
+import de.graetz23.jwave.datatypes.blocks.Block;
+import de.graetz23.jwave.datatypes.blocks.BlockFlat;
+import de.graetz23.jwave.datatypes.lines.Line;
+import de.graetz23.jwave.datatypes.lines.LineFull;
 import de.graetz23.jwave.datatypes.natives.Complex;
+import de.graetz23.jwave.datatypes.spaces.Space;
+import de.graetz23.jwave.datatypes.spaces.SpaceFlat;
+import de.graetz23.jwave.datatypes.spaces.SpaceOffHeap;
 import de.graetz23.jwave.exceptions.JWaveError;
 import de.graetz23.jwave.exceptions.JWaveException;
 import de.graetz23.jwave.exceptions.JWaveFailure;
+import de.graetz23.jwave.metrics.Probe;
 import de.graetz23.jwave.tools.MathToolKit;
+import de.graetz23.jwave.tools.WorkspacePool;
 import de.graetz23.jwave.transforms.wavelets.Wavelet;
 
 /**
@@ -147,6 +161,113 @@ public abstract class BasicTransform {
 
     } // method
 
+    /**
+     * Performs the 1-D forward transform in place for a part of an array. By
+     * default the part is copied and transformed by forward( .. ); transforms
+     * able to work in place override this, so no array is allocated per call.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param arr
+     *          keeping the part of time domain; replaced by its coefficients
+     *          of frequency or Hilbert domain
+     * @param off
+     *          position of the part in arr
+     * @param length
+     *          the length of the part
+     * @throws JWaveException
+     *           if the part is not in the array or not supported by the
+     *           transform
+     */
+    public void forwardInPlace(double[] arr, int off, int length)
+            throws JWaveException {
+
+        checkPart(arr, off, length);
+        double[] arrHilb = forward(Arrays.copyOfRange(arr, off, off + length));
+        System.arraycopy(arrHilb, 0, arr, off, length);
+
+    } // method
+
+    /**
+     * Performs the 1-D forward transform of a certain level in place for a part
+     * of an array; see forwardInPlace( double[ ], int, int ).
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param arr
+     *          keeping the part of time domain; replaced by its coefficients
+     *          of frequency or Hilbert domain
+     * @param off
+     *          position of the part in arr
+     * @param length
+     *          the length of the part
+     * @param level
+     *          the level of Hilbert space; energy & detail coefficients
+     * @throws JWaveException
+     *           if the part is not in the array or not supported by the
+     *           transform
+     */
+    public void forwardInPlace(double[] arr, int off, int length, int level)
+            throws JWaveException {
+
+        checkPart(arr, off, length);
+        double[] arrHilb =
+                forward(Arrays.copyOfRange(arr, off, off + length), level);
+        System.arraycopy(arrHilb, 0, arr, off, length);
+
+    } // method
+
+    /**
+     * Performs the 1-D reverse transform in place for a part of an array; see
+     * forwardInPlace( double[ ], int, int ).
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param arr
+     *          keeping the part of frequency or Hilbert domain; replaced by its
+     *          coefficients of time domain
+     * @param off
+     *          position of the part in arr
+     * @param length
+     *          the length of the part
+     * @throws JWaveException
+     *           if the part is not in the array or not supported by the
+     *           transform
+     */
+    public void reverseInPlace(double[] arr, int off, int length)
+            throws JWaveException {
+
+        checkPart(arr, off, length);
+        double[] arrTime = reverse(Arrays.copyOfRange(arr, off, off + length));
+        System.arraycopy(arrTime, 0, arr, off, length);
+
+    } // method
+
+    /**
+     * Performs the 1-D reverse transform of a certain level in place for a part
+     * of an array; see forwardInPlace( double[ ], int, int ).
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param arr
+     *          keeping the part of frequency or Hilbert domain; replaced by its
+     *          coefficients of time domain
+     * @param off
+     *          position of the part in arr
+     * @param length
+     *          the length of the part
+     * @param level
+     *          the level of Hilbert space; energy & detail coefficients
+     * @throws JWaveException
+     *           if the part is not in the array or not supported by the
+     *           transform
+     */
+    public void reverseInPlace(double[] arr, int off, int length, int level)
+            throws JWaveException {
+
+        checkPart(arr, off, length);
+        double[] arrTime =
+                reverse(Arrays.copyOfRange(arr, off, off + length), level);
+        System.arraycopy(arrTime, 0, arr, off, length);
+
+    } // method
+
     /**
      * Generates from a 2-D decomposition a 1-D time series.
      *
@@ -345,40 +466,68 @@ public abstract class BasicTransform {
     public double[][] forward(double[][] matTime, int lvlM, int lvlN)
             throws JWaveException {
 
+        Probe probe = Probe.begin();
+
         int noOfRows = matTime.length;
         int noOfCols = matTime[0].length;
 
-        double[][] matHilb = new double[noOfRows][noOfCols];
+        double[][] matHilb = new double[noOfRows][];
+        for (int i = 0; i < noOfRows; i++)
+            matHilb[i] = Arrays.copyOf(matTime[i], noOfCols);
 
-        for (int i = 0; i < noOfRows; i++) {
+        forwardInPlace(matHilb, lvlM, lvlN);
 
-            double[] arrTime = new double[noOfCols];
+        if (probe != null)
+            probe.end(this, "forward", new int[]{noOfRows, noOfCols},
+                    new int[]{lvlM, lvlN});
 
-            for (int j = 0; j < noOfCols; j++)
-                arrTime[j] = matTime[i][j];
+        return matHilb;
 
-            double[] arrHilb = forward(arrTime, lvlN);
+    } // method
 
-            for (int j = 0; j < noOfCols; j++)
-                matHilb[i][j] = arrHilb[j];
+    /**
+     * Performs the 2-D forward transform of a certain level in place for a
+     * given matrix: each row by lvlN, then each column by lvlM. The rows are
+     * transformed where they are; the columns are gathered one by one into a
+     * line borrowed from the WorkspacePool.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param mat
+     *          coefficients of 2-D time domain; replaced by the coefficients
+     *          of 2-D frequency or Hilbert domain
+     * @param lvlM
+     *          level to stop in dimension M of the matrix
+     * @param lvlN
+     *          level to stop in dimension N of the matrix
+     * @throws JWaveException
+     */
+    public void forwardInPlace(double[][] mat, int lvlM, int lvlN)
+            throws JWaveException {
 
-        } // rows
+        int noOfRows = mat.length;
+        int noOfCols = mat[0].length;
 
-        for (int j = 0; j < noOfCols; j++) {
+        for (int i = 0; i < noOfRows; i++)
+            forwardInPlace(mat[i], 0, noOfCols, lvlN);
 
-            double[] arrTime = new double[noOfRows];
+        double[] arrLine = WorkspacePool.acquire(noOfRows);
+        try {
 
-            for (int i = 0; i < noOfRows; i++)
-                arrTime[i] = matHilb[i][j];
+            for (int j = 0; j < noOfCols; j++) {
 
-            double[] arrHilb = forward(arrTime, lvlM);
+                for (int i = 0; i < noOfRows; i++)
+                    arrLine[i] = mat[i][j];
 
-            for (int i = 0; i < noOfRows; i++)
-                matHilb[i][j] = arrHilb[i];
+                forwardInPlace(arrLine, 0, noOfRows, lvlM);
 
-        } // cols
+                for (int i = 0; i < noOfRows; i++)
+                    mat[i][j] = arrLine[i];
 
-        return matHilb;
+            } // cols
+
+        } finally {
+            WorkspacePool.release(arrLine);
+        } // try
 
     } // method
 
@@ -418,40 +567,67 @@ public abstract class BasicTransform {
     public double[][] reverse(double[][] matFreq, int lvlM, int lvlN)
             throws JWaveException {
 
+        Probe probe = Probe.begin();
+
         int noOfRows = matFreq.length;
         int noOfCols = matFreq[0].length;
 
-        double[][] matTime = new double[noOfRows][noOfCols];
+        double[][] matTime = new double[noOfRows][];
+        for (int i = 0; i < noOfRows; i++)
+            matTime[i] = Arrays.copyOf(matFreq[i], noOfCols);
 
-        for (int j = 0; j < noOfCols; j++) {
+        reverseInPlace(matTime, lvlM, lvlN);
 
-            double[] arrFreq = new double[noOfRows];
+        if (probe != null)
+            probe.end(this, "reverse", new int[]{noOfRows, noOfCols},
+                    new int[]{lvlM, lvlN});
 
-            for (int i = 0; i < noOfRows; i++)
-                arrFreq[i] = matFreq[i][j];
+        return matTime;
 
-            double[] arrTime = reverse(arrFreq, lvlM); // AED
+    } // method
 
-            for (int i = 0; i < noOfRows; i++)
-                matTime[i][j] = arrTime[i];
+    /**
+     * Performs the 2-D reverse transform of a certain level in place for a
+     * given matrix: each column by lvlM, then each row by lvlN; mirrors
+     * forwardInPlace( double[ ][ ], int, int ).
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param mat
+     *          coefficients of 2-D frequency or Hilbert domain; replaced by the
+     *          coefficients of 2-D time domain
+     * @param lvlM
+     *          level to start reconstruction for dimension M of the matrix
+     * @param lvlN
+     *          level to start reconstruction for dimension N of the matrix
+     * @throws JWaveException
+     */
+    public void reverseInPlace(double[][] mat, int lvlM, int lvlN)
+            throws JWaveException {
 
-        } // cols
+        int noOfRows = mat.length;
+        int noOfCols = mat[0].length;
 
-        for (int i = 0; i < noOfRows; i++) {
+        double[] arrLine = WorkspacePool.acquire(noOfRows);
+        try {
 
-            double[] arrFreq = new double[noOfCols];
+            for (int j = 0; j < noOfCols; j++) {
 
-            for (int j = 0; j < noOfCols; j++)
-                arrFreq[j] = matTime[i][j];
+                for (int i = 0; i < noOfRows; i++)
+                    arrLine[i] = mat[i][j];
 
-            double[] arrTime = reverse(arrFreq, lvlN); // AED
+                reverseInPlace(arrLine, 0, noOfRows, lvlM); // AED
 
-            for (int j = 0; j < noOfCols; j++)
-                matTime[i][j] = arrTime[j];
+                for (int i = 0; i < noOfRows; i++)
+                    mat[i][j] = arrLine[i];
 
-        } // rows
+            } // cols
 
-        return matTime;
+        } finally {
+            WorkspacePool.release(arrLine);
+        } // try
+
+        for (int i = 0; i < noOfRows; i++)
+            reverseInPlace(mat[i], 0, noOfCols, lvlN); // AED
 
     } // method
 
@@ -489,59 +665,69 @@ public abstract class BasicTransform {
     public double[][][] forward(double[][][] spcTime, int lvlP, int lvlQ,
                                 int lvlR) throws JWaveException {
 
-        int noOfRows = spcTime.length; // first dimension
-        int noOfCols = spcTime[0].length; // second dimension
-        int noOfHigh = spcTime[0][0].length; // third dimension
+        Probe probe = Probe.begin();
 
-        double[][][] spcHilb = new double[noOfRows][noOfCols][noOfHigh];
+        double[][][] spcHilb = copy(spcTime);
 
-        for (int i = 0; i < noOfRows; i++) {
+        forwardInPlace(spcHilb, lvlP, lvlQ, lvlR);
 
-            double[][] matTime = new double[noOfCols][noOfHigh];
+        if (probe != null)
+            probe.end(this, "forward", new int[]{spcHilb.length, spcHilb[0].length,
+                    spcHilb[0][0].length}, new int[]{lvlP, lvlQ, lvlR});
 
-            for (int j = 0; j < noOfCols; j++) {
+        return spcHilb;
 
-                for (int k = 0; k < noOfHigh; k++) {
+    } // method
 
-                    matTime[j][k] = spcTime[i][j][k];
+    /**
+     * Performs the 3-D forward transform of a certain level in place for a
+     * given space (3-D): each slab (i,*,*) in 2-D, then all values along i;
+     * those are gathered into a line borrowed from the WorkspacePool.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param spc
+     *          coefficients of 3-D time domain; replaced by the coefficients of
+     *          3-D frequency or Hilbert domain
+     * @param lvlP
+     *          level to stop in dimension of the columns j
+     * @param lvlQ
+     *          level to stop in dimension of the levels k
+     * @param lvlR
+     *          level to stop in dimension of the rows i
+     * @throws JWaveException
+     */
+    public void forwardInPlace(double[][][] spc, int lvlP, int lvlQ, int lvlR)
+            throws JWaveException {
 
-                } // high
+        int noOfRows = spc.length; // first dimension
+        int noOfCols = spc[0].length; // second dimension
+        int noOfHigh = spc[0][0].length; // third dimension
 
-            } // cols
+        for (int i = 0; i < noOfRows; i++)
+            forwardInPlace(spc[i], lvlP, lvlQ); // 2-D forward
 
-            double[][] matHilb = forward(matTime, lvlP, lvlQ); // 2-D forward
+        double[] arrLine = WorkspacePool.acquire(noOfRows);
+        try {
 
             for (int j = 0; j < noOfCols; j++) {
 
                 for (int k = 0; k < noOfHigh; k++) {
 
-                    spcHilb[i][j][k] = matHilb[j][k];
-
-                } // high
-
-            } // cols
-
-        } // rows
-
-        for (int j = 0; j < noOfCols; j++) {
-
-            for (int k = 0; k < noOfHigh; k++) {
-
-                double[] arrTime = new double[noOfRows];
-
-                for (int i = 0; i < noOfRows; i++)
-                    arrTime[i] = spcHilb[i][j][k];
+                    for (int i = 0; i < noOfRows; i++)
+                        arrLine[i] = spc[i][j][k];
 
-                double[] arrHilb = forward(arrTime, lvlR); // 1-D forward
+                    forwardInPlace(arrLine, 0, noOfRows, lvlR); // 1-D forward
 
-                for (int i = 0; i < noOfRows; i++)
-                    spcHilb[i][j][k] = arrHilb[i];
+                    for (int i = 0; i < noOfRows; i++)
+                        spc[i][j][k] = arrLine[i];
 
-            } // high
+                } // high
 
-        } // cols
+            } // cols
 
-        return spcHilb;
+        } finally {
+            WorkspacePool.release(arrLine);
+        } // try
 
     } // method
 
@@ -580,62 +766,811 @@ public abstract class BasicTransform {
     public double[][][] reverse(double[][][] spcHilb, int lvlP, int lvlQ,
                                 int lvlR) throws JWaveException {
 
-        int noOfRows = spcHilb.length; // first dimension
-        int noOfCols = spcHilb[0].length; // second dimension
-        int noOfHigh = spcHilb[0][0].length; // third dimension
+        Probe probe = Probe.begin();
 
-        double[][][] spcTime = new double[noOfRows][noOfCols][noOfHigh];
+        double[][][] spcTime = copy(spcHilb);
 
-        for (int i = 0; i < noOfRows; i++) {
+        reverseInPlace(spcTime, lvlP, lvlQ, lvlR);
 
-            double[][] matHilb = new double[noOfCols][noOfHigh];
+        if (probe != null)
+            probe.end(this, "reverse", new int[]{spcTime.length, spcTime[0].length,
+                    spcTime[0][0].length}, new int[]{lvlP, lvlQ, lvlR});
 
-            for (int j = 0; j < noOfCols; j++) {
+        return spcTime;
 
-                for (int k = 0; k < noOfHigh; k++) {
+    } // method
 
-                    matHilb[j][k] = spcHilb[i][j][k];
+    /**
+     * Performs the 3-D reverse transform of a certain level in place for a
+     * given space (3-D); mirrors forwardInPlace( double[ ][ ][ ], int, int, int
+     * ) and runs in the same order.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param spc
+     *          coefficients of 3-D frequency or Hilbert domain; replaced by the
+     *          coefficients of 3-D time domain
+     * @param lvlP
+     *          level to start reconstruction in dimension of the columns j
+     * @param lvlQ
+     *          level to start reconstruction in dimension of the levels k
+     * @param lvlR
+     *          level to start reconstruction in dimension of the rows i
+     * @throws JWaveException
+     */
+    public void reverseInPlace(double[][][] spc, int lvlP, int lvlQ, int lvlR)
+            throws JWaveException {
 
-                } // high
+        int noOfRows = spc.length; // first dimension
+        int noOfCols = spc[0].length; // second dimension
+        int noOfHigh = spc[0][0].length; // third dimension
 
-            } // cols
+        for (int i = 0; i < noOfRows; i++)
+            reverseInPlace(spc[i], lvlP, lvlQ); // 2-D reverse
 
-            double[][] matTime = reverse(matHilb, lvlP, lvlQ); // 2-D reverse
+        double[] arrLine = WorkspacePool.acquire(noOfRows);
+        try {
 
             for (int j = 0; j < noOfCols; j++) {
 
                 for (int k = 0; k < noOfHigh; k++) {
 
-                    spcTime[i][j][k] = matTime[j][k];
+                    for (int i = 0; i < noOfRows; i++)
+                        arrLine[i] = spc[i][j][k];
+
+                    reverseInPlace(arrLine, 0, noOfRows, lvlR); // 1-D reverse
+
+                    for (int i = 0; i < noOfRows; i++)
+                        spc[i][j][k] = arrLine[i];
 
                 } // high
 
             } // cols
 
+        } finally {
+            WorkspacePool.release(arrLine);
+        } // try
+
+    } // method
+
+    /**
+     * Performs the 3-D forward transform in place for a given space of any
+     * type; e.g. a SpaceOffHeap object that does not fit the heap.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param space
+     *          coefficients of 3-D time domain; replaced by the coefficients of
+     *          3-D frequency or Hilbert domain
+     * @throws JWaveException
+     */
+    public void forwardInPlace(Space space) throws JWaveException {
+
+        int maxP = MathToolKit.getExponent(space.getNoOfCols()); // 2-D of slab
+        int maxQ = MathToolKit.getExponent(space.getNoOfLvls()); // 2-D of slab
+        int maxR = MathToolKit.getExponent(space.getNoOfRows()); // along i
+        forwardInPlace(space, maxP, maxQ, maxR);
+
+    } // method
+
+    /**
+     * Performs the 3-D forward transform of a certain level in place for a given
+     * space of any type, slab by slab: each slab (i,*,*) is transformed in 2-D,
+     * afterwards all values (*,j,*) are read row by row for transforming along
+     * i. At most a slab or noOfRows times noOfLvls values are held on the heap,
+     * so the space is never copied as a whole into a double[][][].
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param space
+     *          coefficients of 3-D time domain; replaced by the coefficients of
+     *          3-D frequency or Hilbert domain
+     * @param lvlP
+     *          level to stop in dimension of the columns j
+     * @param lvlQ
+     *          level to stop in dimension of the levels k
+     * @param lvlR
+     *          level to stop in dimension of the rows i
+     * @throws JWaveException
+     */
+    public void forwardInPlace(Space space, int lvlP, int lvlQ, int lvlR)
+            throws JWaveException {
+
+        int noOfRows = space.getNoOfRows(); // first dimension
+        int noOfCols = space.getNoOfCols(); // second dimension
+        int noOfHigh = space.getNoOfLvls(); // third dimension
+
+        double[][] matTime = new double[noOfCols][noOfHigh];
+
+        for (int i = 0; i < noOfRows; i++) {
+
+            for (int j = 0; j < noOfCols; j++)
+                space.getRow(i, j, matTime[j]);
+
+            forwardInPlace(matTime, lvlP, lvlQ); // 2-D forward
+
+            for (int j = 0; j < noOfCols; j++)
+                space.setRow(i, j, matTime[j]);
+
         } // rows
 
+        double[][] matPlane = new double[noOfRows][noOfHigh];
+        double[] arrTime = new double[noOfRows];
+
         for (int j = 0; j < noOfCols; j++) {
 
-            for (int k = 0; k < noOfHigh; k++) {
+            for (int i = 0; i < noOfRows; i++)
+                space.getRow(i, j, matPlane[i]);
 
-                double[] arrHilb = new double[noOfRows];
+            for (int k = 0; k < noOfHigh; k++) {
 
                 for (int i = 0; i < noOfRows; i++)
-                    arrHilb[i] = spcTime[i][j][k];
+                    arrTime[i] = matPlane[i][k];
 
-                double[] arrTime = reverse(arrHilb, lvlR); // 1-D reverse
+                forwardInPlace(arrTime, 0, noOfRows, lvlR); // 1-D forward
 
                 for (int i = 0; i < noOfRows; i++)
-                    spcTime[i][j][k] = arrTime[i];
+                    matPlane[i][k] = arrTime[i];
 
             } // high
 
+            for (int i = 0; i < noOfRows; i++)
+                space.setRow(i, j, matPlane[i]);
+
         } // cols
 
-        return spcTime;
+    } // method
+
+    /**
+     * Performs the 1-D forward transform for a given line of any type.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param lineTime
+     *          coefficients of 1-D time domain
+     * @return coefficients of 1-D frequency or Hilbert domain as LineFull
+     * @throws JWaveException
+     */
+    public Line forward(Line lineTime) throws JWaveException {
+
+        Line lineHilb = new LineFull(lineTime.getOffSetRow(),
+                lineTime.getNoOfRows());
+        lineHilb.alloc();
+        lineHilb.setArray(forward(lineTime.getArray()));
+        return lineHilb;
+
+    } // method
+
+    /**
+     * Performs the 1-D forward transform of a certain level for a given line of
+     * any type.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param lineTime
+     *          coefficients of 1-D time domain
+     * @param level
+     *          the level of Hilbert space
+     * @return coefficients of 1-D Hilbert domain as LineFull
+     * @throws JWaveException
+     */
+    public Line forward(Line lineTime, int level) throws JWaveException {
+
+        Line lineHilb = new LineFull(lineTime.getOffSetRow(),
+                lineTime.getNoOfRows());
+        lineHilb.alloc();
+        lineHilb.setArray(forward(lineTime.getArray(), level));
+        return lineHilb;
+
+    } // method
+
+    /**
+     * Performs the 1-D reverse transform for a given line of any type.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param lineFreq
+     *          coefficients of 1-D frequency or Hilbert domain
+     * @return coefficients of 1-D time domain as LineFull
+     * @throws JWaveException
+     */
+    public Line reverse(Line lineFreq) throws JWaveException {
+
+        Line lineTime = new LineFull(lineFreq.getOffSetRow(),
+                lineFreq.getNoOfRows());
+        lineTime.alloc();
+        lineTime.setArray(reverse(lineFreq.getArray()));
+        return lineTime;
+
+    } // method
+
+    /**
+     * Performs the 1-D reverse transform of a certain level for a given line of
+     * any type.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param lineHilb
+     *          coefficients of 1-D Hilbert domain
+     * @param level
+     *          the level of Hilbert space
+     * @return coefficients of 1-D time domain as LineFull
+     * @throws JWaveException
+     */
+    public Line reverse(Line lineHilb, int level) throws JWaveException {
+
+        Line lineTime = new LineFull(lineHilb.getOffSetRow(),
+                lineHilb.getNoOfRows());
+        lineTime.alloc();
+        lineTime.setArray(reverse(lineHilb.getArray(), level));
+        return lineTime;
+
+    } // method
+
+    /**
+     * Performs the 2-D forward transform for a given block of any type.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param blockTime
+     *          coefficients of 2-D time domain
+     * @return coefficients of 2-D frequency or Hilbert domain as BlockFlat
+     * @throws JWaveException
+     */
+    public Block forward(Block blockTime) throws JWaveException {
+
+        int maxM = MathToolKit.getExponent(blockTime.getNoOfRows());
+        int maxN = MathToolKit.getExponent(blockTime.getNoOfCols());
+        return forward(blockTime, maxM, maxN);
 
     } // method
 
+    /**
+     * Performs the 2-D forward transform of a certain level for a given block of
+     * any type; rows and columns are read and written by the bulk accessors of
+     * a BlockFlat copy instead of a double[][].
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param blockTime
+     *          coefficients of 2-D time domain
+     * @param lvlM
+     *          level to stop in dimension M (rows i) of the block
+     * @param lvlN
+     *          level to stop in dimension N (columns j) of the block
+     * @return coefficients of 2-D Hilbert domain as BlockFlat
+     * @throws JWaveException
+     */
+    public Block forward(Block blockTime, int lvlM, int lvlN)
+            throws JWaveException {
+
+        Block blockHilb = new BlockFlat(blockTime); // O(nnz) for a BlockHash
+
+        int noOfRows = blockHilb.getNoOfRows();
+        int noOfCols = blockHilb.getNoOfCols();
+
+        double[] arrRow = new double[noOfCols];
+        for (int i = 0; i < noOfRows; i++)
+            blockHilb.setRow(i, forward(blockHilb.getRow(i, arrRow), lvlN));
+
+        double[] arrCol = new double[noOfRows];
+        for (int j = 0; j < noOfCols; j++)
+            blockHilb.setCol(j, forward(blockHilb.getCol(j, arrCol), lvlM));
+
+        return blockHilb;
+
+    } // method
+
+    /**
+     * Performs the 2-D reverse transform for a given block of any type.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param blockFreq
+     *          coefficients of 2-D frequency or Hilbert domain
+     * @return coefficients of 2-D time domain as BlockFlat
+     * @throws JWaveException
+     */
+    public Block reverse(Block blockFreq) throws JWaveException {
+
+        int maxM = MathToolKit.getExponent(blockFreq.getNoOfRows());
+        int maxN = MathToolKit.getExponent(blockFreq.getNoOfCols());
+        return reverse(blockFreq, maxM, maxN);
+
+    } // method
+
+    /**
+     * Performs the 2-D reverse transform of a certain level for a given block of
+     * any type. Columns and rows without non zero values are skipped; so a
+     * sparse BlockHash costs by its stored columns in the first pass. The first
+     * column and row are transformed anyway, so lengths and levels are checked
+     * as for arrays.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param blockHilb
+     *          coefficients of 2-D Hilbert domain
+     * @param lvlM
+     *          level to start reconstruction in dimension M (rows i)
+     * @param lvlN
+     *          level to start reconstruction in dimension N (columns j)
+     * @return coefficients of 2-D time domain as BlockFlat
+     * @throws JWaveException
+     */
+    public Block reverse(Block blockHilb, int lvlM, int lvlN)
+            throws JWaveException {
+
+        Block blockTime = new BlockFlat(blockHilb); // O(nnz) for a BlockHash
+
+        int noOfRows = blockTime.getNoOfRows();
+        int noOfCols = blockTime.getNoOfCols();
+
+        double[] arrCol = new double[noOfRows];
+        for (int j = 0; j < noOfCols; j++)
+            if (!isZero(blockTime.getCol(j, arrCol)) || j == 0)
+                blockTime.setCol(j, reverse(arrCol, lvlM));
+
+        double[] arrRow = new double[noOfCols];
+        for (int i = 0; i < noOfRows; i++)
+            if (!isZero(blockTime.getRow(i, arrRow)) || i == 0)
+                blockTime.setRow(i, reverse(arrRow, lvlN));
+
+        return blockTime;
+
+    } // method
+
+    /**
+     * Performs the 3-D forward transform for a given space of any type.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param spaceTime
+     *          coefficients of 3-D time domain
+     * @return coefficients of 3-D frequency or Hilbert domain
+     * @throws JWaveException
+     */
+    public Space forward(Space spaceTime) throws JWaveException {
+
+        Space spaceHilb = copyForTransform(spaceTime);
+        forwardInPlace(spaceHilb);
+        return spaceHilb;
+
+    } // method
+
+    /**
+     * Performs the 3-D forward transform of a certain level for a given space of
+     * any type; see forwardInPlace(..) for the levels.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param spaceTime
+     *          coefficients of 3-D time domain
+     * @return coefficients of 3-D Hilbert domain; a SpaceOffHeap for a
+     *         SpaceOffHeap and a SpaceFlat otherwise
+     * @throws JWaveException
+     */
+    public Space forward(Space spaceTime, int lvlP, int lvlQ, int lvlR)
+            throws JWaveException {
+
+        Space spaceHilb = copyForTransform(spaceTime);
+        forwardInPlace(spaceHilb, lvlP, lvlQ, lvlR);
+        return spaceHilb;
+
+    } // method
+
+    /**
+     * Performs the 3-D reverse transform for a given space of any type.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param spaceFreq
+     *          coefficients of 3-D frequency or Hilbert domain
+     * @return coefficients of 3-D time domain
+     * @throws JWaveException
+     */
+    public Space reverse(Space spaceFreq) throws JWaveException {
+
+        Space spaceTime = copyForTransform(spaceFreq);
+        reverseInPlace(spaceTime);
+        return spaceTime;
+
+    } // method
+
+    /**
+     * Performs the 3-D reverse transform of a certain level for a given space of
+     * any type; slabs and lines without non zero values are skipped, so a
+     * sparse SpaceHash costs by its non zero slabs in the first pass.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param spaceHilb
+     *          coefficients of 3-D Hilbert domain
+     * @return coefficients of 3-D time domain; a SpaceOffHeap for a
+     *         SpaceOffHeap and a SpaceFlat otherwise
+     * @throws JWaveException
+     */
+    public Space reverse(Space spaceHilb, int lvlP, int lvlQ, int lvlR)
+            throws JWaveException {
+
+        Space spaceTime = copyForTransform(spaceHilb);
+        reverseInPlace(spaceTime, lvlP, lvlQ, lvlR);
+        return spaceTime;
+
+    } // method
+
+    /**
+     * Copies a space for transforming it in place; off-heap spaces stay off
+     * the heap, all others become a SpaceFlat by their non zero values.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param space
+     *          any type of space
+     * @return a new space of the same dimension and values
+     */
+    private Space copyForTransform(Space space) {
+
+        if (space instanceof SpaceOffHeap)
+            return new SpaceOffHeap(space);
+
+        return new SpaceFlat(space);
+
+    } // method
+
+    /**
+     * Performs the 1-D reverse transform straight from sparse coefficients.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param sparseHilb
+     *          non zero coefficients of 1-D frequency or Hilbert domain
+     * @return coefficients of 1-D time domain
+     * @throws JWaveException
+     */
+    public double[] reverse(SparseArray sparseHilb) throws JWaveException {
+
+        return reverse(sparseHilb,
+                MathToolKit.getExponent(sparseHilb.getLength()));
+
+    } // method
+
+    /**
+     * Performs the 1-D reverse transform of a certain level straight from
+     * sparse coefficients; the values are written to the array of the result
+     * only, so no dense array of coefficients is kept in between.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param sparseHilb
+     *          non zero coefficients of 1-D frequency or Hilbert domain
+     * @param level
+     *          the level of Hilbert space
+     * @return coefficients of 1-D time domain
+     * @throws JWaveException
+     */
+    public double[] reverse(SparseArray sparseHilb, int level)
+            throws JWaveException {
+
+        double[] arrTime = new double[sparseHilb.getLength()];
+        if (sparseHilb.getNoOfNonZeros() == 0)
+            return arrTime;
+
+        sparseHilb.forEachNonZero((index, value) -> arrTime[index] = value);
+
+        return reverse(arrTime, level);
+
+    } // method
+
+    /**
+     * Performs the 2-D reverse transform straight from sparse coefficients.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param sparseHilb
+     *          non zero coefficients of 2-D frequency or Hilbert domain
+     * @return coefficients of 2-D time domain
+     * @throws JWaveException
+     */
+    public double[][] reverse(SparseMatrix sparseHilb) throws JWaveException {
+
+        int maxM = MathToolKit.getExponent(sparseHilb.getNoOfRows());
+        int maxN = MathToolKit.getExponent(sparseHilb.getNoOfCols());
+        return reverse(sparseHilb, maxM, maxN);
+
+    } // method
+
+    /**
+     * Performs the 2-D reverse transform of a certain level straight from
+     * sparse coefficients. The values are written to the matrix of the result
+     * and are transformed there; columns without any value are skipped, as well
+     * as rows being zero afterwards.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param sparseHilb
+     *          non zero coefficients of 2-D frequency or Hilbert domain
+     * @param lvlM
+     *          level to start reconstruction in dimension M (rows i)
+     * @param lvlN
+     *          level to start reconstruction in dimension N (columns j)
+     * @return coefficients of 2-D time domain
+     * @throws JWaveException
+     */
+    public double[][] reverse(SparseMatrix sparseHilb, int lvlM, int lvlN)
+            throws JWaveException {
+
+        int noOfRows = sparseHilb.getNoOfRows();
+        int noOfCols = sparseHilb.getNoOfCols();
+
+        double[][] matTime = new double[noOfRows][noOfCols];
+        boolean[] isNonZeroCol = new boolean[noOfCols];
+
+        sparseHilb.forEachNonZero((index, value) -> {
+            int j = index % noOfCols;
+            matTime[index / noOfCols][j] = value;
+            isNonZeroCol[j] = true;
+        });
+
+        reverseInPlace(matTime, isNonZeroCol, lvlM, lvlN);
+
+        return matTime;
+
+    } // method
+
+    /**
+     * Performs the 3-D reverse transform straight from sparse coefficients.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param sparseHilb
+     *          non zero coefficients of 3-D frequency or Hilbert domain
+     * @return coefficients of 3-D time domain
+     * @throws JWaveException
+     */
+    public double[][][] reverse(SparseSpace sparseHilb) throws JWaveException {
+
+        int maxP = MathToolKit.getExponent(sparseHilb.getNoOfCols()); // 2-D of slab
+        int maxQ = MathToolKit.getExponent(sparseHilb.getNoOfLvls()); // 2-D of slab
+        int maxR = MathToolKit.getExponent(sparseHilb.getNoOfRows()); // along i
+        return reverse(sparseHilb, maxP, maxQ, maxR);
+
+    } // method
+
+    /**
+     * Performs the 3-D reverse transform of a certain level straight from
+     * sparse coefficients. The values are written to the space of the result
+     * and are transformed there; first along i for lines (j,k) keeping values
+     * only, then by slabs (i,*,*) skipping columns k without values.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param sparseHilb
+     *          non zero coefficients of 3-D frequency or Hilbert domain
+     * @param lvlP
+     *          level to start reconstruction along j
+     * @param lvlQ
+     *          level to start reconstruction along k
+     * @param lvlR
+     *          level to start reconstruction along i
+     * @return coefficients of 3-D time domain
+     * @throws JWaveException
+     */
+    public double[][][] reverse(SparseSpace sparseHilb, int lvlP, int lvlQ,
+                                int lvlR) throws JWaveException {
+
+        int noOfRows = sparseHilb.getNoOfRows();
+        int noOfCols = sparseHilb.getNoOfCols();
+        int noOfLvls = sparseHilb.getNoOfLvls();
+
+        double[][][] spcTime = new double[noOfRows][noOfCols][noOfLvls];
+        boolean[] isNonZeroLine = new boolean[noOfCols * noOfLvls];
+        boolean[] isNonZeroCol = new boolean[noOfLvls];
+
+        sparseHilb.forEachNonZero((index, value) -> {
+            int k = index % noOfLvls;
+            int ij = index / noOfLvls;
+            int j = ij % noOfCols;
+            spcTime[ij / noOfCols][j][k] = value;
+            isNonZeroLine[j * noOfLvls + k] = true;
+            isNonZeroCol[k] = true;
+        });
+
+        double[] arrHilb = new double[noOfRows];
+        for (int j = 0; j < noOfCols; j++)
+            for (int k = 0; k < noOfLvls; k++)
+                if (isNonZeroLine[j * noOfLvls + k]) {
+
+                    for (int i = 0; i < noOfRows; i++)
+                        arrHilb[i] = spcTime[i][j][k];
+
+                    double[] arrTime = reverse(arrHilb, lvlR); // along i
+
+                    for (int i = 0; i < noOfRows; i++)
+                        spcTime[i][j][k] = arrTime[i];
+
+                } // lines
+
+        for (int i = 0; i < noOfRows; i++)
+            reverseInPlace(spcTime[i], isNonZeroCol, lvlP, lvlQ);
+
+        return spcTime;
+
+    } // method
+
+    /**
+     * Performs the 2-D reverse transform of a matrix in place; columns not
+     * marked as non zero are skipped, as well as rows being zero afterwards.
+     *
+     * @author Christian (graetz23@gmail.com)
+     */
+    private void reverseInPlace(double[][] mat, boolean[] isNonZeroCol,
+                                int lvlM, int lvlN) throws JWaveException {
+
+        int noOfRows = mat.length;
+        int noOfCols = mat[0].length;
+
+        double[] arrCol = new double[noOfRows];
+        for (int j = 0; j < noOfCols; j++)
+            if (isNonZeroCol[j]) {
+
+                for (int i = 0; i < noOfRows; i++)
+                    arrCol[i] = mat[i][j];
+
+                double[] arrTime = reverse(arrCol, lvlM);
+
+                for (int i = 0; i < noOfRows; i++)
+                    mat[i][j] = arrTime[i];
+
+            } // cols
+
+        for (int i = 0; i < noOfRows; i++)
+            if (!isZero(mat[i]))
+                mat[i] = reverse(mat[i], lvlN);
+
+    } // method
+
+    /**
+     * Returns true if all values of the array are zero; linear transforms map
+     * zeros to zeros, so such an array needs no transform.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param arr
+     *          any array
+     * @return true if no value is non zero
+     */
+    protected static boolean isZero(double[] arr) {
+
+        for (double value : arr)
+            if (value != 0.)
+                return false;
+        return true;
+
+    } // method
+
+    /**
+     * Performs the 3-D reverse transform in place for a given space of any
+     * type; e.g. a SpaceOffHeap object that does not fit the heap.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param space
+     *          coefficients of 3-D frequency or Hilbert domain; replaced by the
+     *          coefficients of 3-D time domain
+     * @throws JWaveException
+     */
+    public void reverseInPlace(Space space) throws JWaveException {
+
+        int maxP = MathToolKit.getExponent(space.getNoOfCols()); // 2-D of slab
+        int maxQ = MathToolKit.getExponent(space.getNoOfLvls()); // 2-D of slab
+        int maxR = MathToolKit.getExponent(space.getNoOfRows()); // along i
+        reverseInPlace(space, maxP, maxQ, maxR);
+
+    } // method
+
+    /**
+     * Performs the 3-D reverse transform of a certain level in place for a given
+     * space of any type, slab by slab; mirrors forwardInPlace(..). Slabs and
+     * lines without non zero values are skipped, except the first ones, so
+     * lengths and levels are checked as for arrays.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param space
+     *          coefficients of 3-D frequency or Hilbert domain; replaced by the
+     *          coefficients of 3-D time domain
+     * @param lvlP
+     *          level to start reconstruction in dimension of the columns j
+     * @param lvlQ
+     *          level to start reconstruction in dimension of the levels k
+     * @param lvlR
+     *          level to start reconstruction in dimension of the rows i
+     * @throws JWaveException
+     */
+    public void reverseInPlace(Space space, int lvlP, int lvlQ, int lvlR)
+            throws JWaveException {
+
+        int noOfRows = space.getNoOfRows(); // first dimension
+        int noOfCols = space.getNoOfCols(); // second dimension
+        int noOfHigh = space.getNoOfLvls(); // third dimension
+
+        double[][] matHilb = new double[noOfCols][noOfHigh];
+
+        for (int i = 0; i < noOfRows; i++) {
+
+            boolean isZero = true;
+            for (int j = 0; j < noOfCols; j++)
+                isZero &= isZero(space.getRow(i, j, matHilb[j]));
+
+            if (isZero && i > 0)
+                continue; // reverse of a zero slab is a zero slab
+
+            reverseInPlace(matHilb, lvlP, lvlQ); // 2-D reverse
+
+            for (int j = 0; j < noOfCols; j++)
+                space.setRow(i, j, matHilb[j]);
+
+        } // rows
+
+        double[][] matPlane = new double[noOfRows][noOfHigh];
+        double[] arrHilb = new double[noOfRows];
+
+        for (int j = 0; j < noOfCols; j++) {
+
+            for (int i = 0; i < noOfRows; i++)
+                space.getRow(i, j, matPlane[i]);
+
+            for (int k = 0; k < noOfHigh; k++) {
+
+                for (int i = 0; i < noOfRows; i++)
+                    arrHilb[i] = matPlane[i][k];
+
+                if (isZero(arrHilb) && (j > 0 || k > 0))
+                    continue; // stays zero
+
+                reverseInPlace(arrHilb, 0, noOfRows, lvlR); // 1-D reverse
+
+                for (int i = 0; i < noOfRows; i++)
+                    matPlane[i][k] = arrHilb[i];
+
+            } // high
+
+            for (int i = 0; i < noOfRows; i++)
+                space.setRow(i, j, matPlane[i]);
+
+        } // cols
+
+    } // method
+
+    /**
+     * Checks a part of an array lies within it.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @throws JWaveException
+     *           if the part is not in the array
+     */
+    protected void checkPart(double[] arr, int off, int length)
+            throws JWaveException {
+
+        if (arr == null || off < 0 || length < 0 || off > arr.length - length)
+            throw new JWaveFailure("BasicTransform#checkPart - "
+                    + "given part is not in the given array");
+
+    } // method
+
+    /**
+     * Checks a part of an array lies within it, is of length 2^p | pEN, and
+     * the level is in range of the part.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @throws JWaveException
+     *           if the part is not in the array, not binary, or the level is
+     *           out of range
+     */
+    protected void checkPart(double[] arr, int off, int length, int level)
+            throws JWaveException {
+
+        checkPart(arr, off, length);
+        if (!isBinary(length))
+            throw new JWaveFailure("BasicTransform#checkPart - "
+                    + "given length is not 2^p | p E N ... = 1, 2, 4, 8, 16, 32, .. "
+                    + "please use the Ancient Egyptian Decomposition for any other array length!");
+        if (level < 0 || level > calcExponent(length))
+            throw new JWaveFailure("BasicTransform#checkPart - "
+                    + "given level is out of range for given array");
+
+    } // method
+
+    /**
+     * Copies a space row by row.
+     */
+    private static double[][][] copy(double[][][] spc) {
+
+        int noOfCols = spc[0].length;
+        int noOfHigh = spc[0][0].length;
+        double[][][] spcCopy = new double[spc.length][noOfCols][];
+        for (int i = 0; i < spc.length; i++)
+            for (int j = 0; j < noOfCols; j++)
+                spcCopy[i][j] = Arrays.copyOf(spc[i][j], noOfHigh);
+        return spcCopy;
+
+    } // copy
+
     /**
      * Returns true if given integer is of type binary (2, 4, 8, 16, ..) else the
      * method returns false.
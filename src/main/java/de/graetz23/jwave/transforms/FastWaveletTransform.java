@@ -25,6 +25,8 @@ package de.graetz23.jwave.transforms;
 
 import java.util.Arrays;
 
+import de.graetz23.jwave.metrics.Probe;
+import de.graetz23.jwave.tools.WorkspacePool;
 import de.graetz23.jwave.transforms.wavelets.Wavelet;
 import de.graetz23.jwave.exceptions.JWaveException;
 import de.graetz23.jwave.exceptions.JWaveFailure;
@@ -80,20 +82,12 @@ public class FastWaveletTransform extends WaveletTransform {
             throw new JWaveFailure("FastWaveletTransform#forward - "
                     + "given level is out of range for given array");
 
+        Probe probe = Probe.begin();
         double[] arrHilb = Arrays.copyOf(arrTime, arrTime.length);
-
-        int l = 0;
-        int h = arrHilb.length;
-        int transformWavelength = _wavelet.getTransformWavelength(); // normally 2
-        while (h >= transformWavelength && l < level) {
-
-            double[] arrTempPart = _wavelet.forward(arrHilb, h);
-            System.arraycopy(arrTempPart, 0, arrHilb, 0, h);
-            h = h >> 1;
-            l++;
-
-        } // levels
-
+        forwardSteps(arrHilb, 0, arrHilb.length, level);
+        if (probe != null)
+            probe.end(this, "forward", new int[]{arrHilb.length},
+                    new int[]{level});
         return arrHilb;
 
     } // forward
@@ -128,26 +122,118 @@ public class FastWaveletTransform extends WaveletTransform {
             throw new JWaveFailure("FastWaveletTransform#reverse - "
                     + "given level is out of range for given array");
 
-        int length = arrHilb.length; // length of first Hilbert space
-        double[] arrTime = Arrays.copyOf(arrHilb, length);
+        Probe probe = Probe.begin();
+        double[] arrTime = Arrays.copyOf(arrHilb, arrHilb.length);
+        reverseSteps(arrTime, 0, arrTime.length, level);
+        if (probe != null)
+            probe.end(this, "reverse", new int[]{arrTime.length},
+                    new int[]{level});
+        return arrTime;
+
+    } // reverse
+
+    /**
+     * Performs the 1-D forward transform of the FWT in place for a part of an
+     * array; the workspace is borrowed from the WorkspacePool, so nothing is
+     * allocated.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @throws JWaveException
+     *           if the part is not of length 2^p | pEN, not in the array, or
+     *           the level is out of range
+     * @see BasicTransform#forwardInPlace(double[], int, int, int)
+     */
+    @Override
+    public void forwardInPlace(double[] arr, int off, int length, int level)
+            throws JWaveException {
+
+        checkPart(arr, off, length, level);
+        forwardSteps(arr, off, length, level);
+
+    } // forwardInPlace
+
+    /**
+     * Performs the 1-D reverse transform of the FWT in place for a part of an
+     * array; the workspace is borrowed from the WorkspacePool, so nothing is
+     * allocated.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @throws JWaveException
+     *           if the part is not of length 2^p | pEN, not in the array, or
+     *           the level is out of range
+     * @see BasicTransform#reverseInPlace(double[], int, int, int)
+     */
+    @Override
+    public void reverseInPlace(double[] arr, int off, int length, int level)
+            throws JWaveException {
+
+        checkPart(arr, off, length, level);
+        reverseSteps(arr, off, length, level);
+
+    } // reverseInPlace
+
+    @Override
+    public void forwardInPlace(double[] arr, int off, int length)
+            throws JWaveException {
+        forwardInPlace(arr, off, length, calcExponent(length));
+    } // forwardInPlace
+
+    @Override
+    public void reverseInPlace(double[] arr, int off, int length)
+            throws JWaveException {
+        reverseInPlace(arr, off, length, calcExponent(length));
+    } // reverseInPlace
+
+    private void forwardSteps(double[] arr, int off, int length, int level) {
+
+        int transformWavelength = _wavelet.getTransformWavelength(); // normally 2
+        if (level < 1 || length < transformWavelength)
+            return;
+
+        double[] work = WorkspacePool.acquire(_wavelet.getWorkspaceLength(length));
+        try {
+
+            int l = 0;
+            int h = length;
+            while (h >= transformWavelength && l < level) {
+
+                _wavelet.forward(arr, off, h, work);
+                h = h >> 1;
+                l++;
+
+            } // levels
+
+        } finally {
+            WorkspacePool.release(work);
+        } // try
+
+    } // forwardSteps
+
+    private void reverseSteps(double[] arr, int off, int length, int level) {
 
         int transformWavelength = _wavelet.getTransformWavelength(); // normally 2
         int h = transformWavelength;
 
-        int steps = calcExponent(length);
+        int steps = Integer.numberOfTrailingZeros(length); // length is 2^p
         for (int l = level; l < steps; l++)
             h = h << 1; // begin reverse transform at certain - matching - level of Hilbert space
+        if (h > length || h < transformWavelength)
+            return;
 
-        while (h <= arrTime.length && h >= transformWavelength) {
+        double[] work = WorkspacePool.acquire(_wavelet.getWorkspaceLength(length));
+        try {
 
-            double[] arrTempPart = _wavelet.reverse(arrTime, h);
-            System.arraycopy(arrTempPart, 0, arrTime, 0, h);
-            h = h << 1;
+            while (h <= length && h >= transformWavelength) {
 
-        } // levels
+                _wavelet.reverse(arr, off, h, work);
+                h = h << 1;
 
-        return arrTime;
+            } // levels
 
-    } // reverse
+        } finally {
+            WorkspacePool.release(work);
+        } // try
+
+    } // reverseSteps
 
 } // FastWaveletTransfrom
\ No newline at end of file
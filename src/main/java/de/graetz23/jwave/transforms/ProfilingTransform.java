@@ -0,0 +1,505 @@
+/**
+ * JWave is distributed under the MIT License (MIT); this file is part of.
+ *
+ * Copyright (c) 2008-2025 JWave Christian (graetz23@gmail.com)
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.graetz23.jwave.transforms;
+
+import java.util.Arrays;
+
+import de.graetz23.jwave.exceptions.JWaveException;
+import de.graetz23.jwave.exceptions.JWaveFailure;
+import de.graetz23.jwave.exceptions.JWaveRuntimeException;
+import de.graetz23.jwave.exceptions.JWaveRuntimeException.Code;
+import de.graetz23.jwave.metrics.Probe;
+import de.graetz23.jwave.tools.WorkspacePool;
+
+/**
+ * Profiling mode of a FastWaveletTransform or a WaveletPacketTransform: same
+ * results, while each level is measured for wall time, the energy of its
+ * coefficients, and the bytes allocated. The energies are summed by the
+ * kernels computing the coefficients, so there is no second scan. All 1-D
+ * transforms done, those of the lines of matrices and spaces included, are
+ * summed up per direction into a Report until reset( ).
+ *
+ * Levels are counted as by forward: level 1 is the step of the full length,
+ * level l the step of length 2^p / 2^( l - 1 ). Forward reports the energies
+ * of the scaling and the wavelet coefficients a level puts out; reverse those
+ * it takes in, so the energies of both directions match. For an orthonormal
+ * wavelet the wavelet energies of all levels of a FWT and the scaling energy
+ * of its last level sum up to the energy of the signal.
+ *
+ * @author Christian (graetz23@gmail.com)
+ */
+public class ProfilingTransform extends WaveletTransform {
+
+    /**
+     * Per level measures of the transforms done in a direction; the objects
+     * returned are snapshots.
+     */
+    public static final class Report {
+
+        private long _noOfCalls;
+
+        private long _nanos;
+
+        private long _noOfBytes;
+
+        private long[] _levelNanos = new long[0];
+
+        private double[] _scalingEnergies = new double[0];
+
+        private double[] _waveletEnergies = new double[0];
+
+        private long[] _levelBytes = new long[0];
+
+        private Report() {
+        } // Report
+
+        private Report(Report report) {
+            _noOfCalls = report._noOfCalls;
+            _nanos = report._nanos;
+            _noOfBytes = report._noOfBytes;
+            _levelNanos = report._levelNanos.clone();
+            _scalingEnergies = report._scalingEnergies.clone();
+            _waveletEnergies = report._waveletEnergies.clone();
+            _levelBytes = report._levelBytes.clone();
+        } // Report
+
+        /**
+         * Adds the measures of a call; bytes of -1 mark not measured.
+         */
+        private void add(long nanos, long noOfBytes, long[] levelNanos,
+                         double[] scalingEnergies, double[] waveletEnergies,
+                         long[] levelBytes) {
+            int noOfLevels = levelNanos.length;
+            if (noOfLevels > _levelNanos.length) {
+                _levelNanos = Arrays.copyOf(_levelNanos, noOfLevels);
+                _scalingEnergies = Arrays.copyOf(_scalingEnergies, noOfLevels);
+                _waveletEnergies = Arrays.copyOf(_waveletEnergies, noOfLevels);
+                _levelBytes = Arrays.copyOf(_levelBytes, noOfLevels);
+            } // if
+            _noOfCalls++;
+            _nanos += nanos;
+            _noOfBytes = add(_noOfBytes, noOfBytes);
+            for (int l = 0; l < noOfLevels; l++) {
+                _levelNanos[l] += levelNanos[l];
+                _scalingEnergies[l] += scalingEnergies[l];
+                _waveletEnergies[l] += waveletEnergies[l];
+                _levelBytes[l] = add(_levelBytes[l], levelBytes[l]);
+            } // l
+        } // add
+
+        private static long add(long noOfBytes, long delta) {
+            return noOfBytes < 0 || delta < 0 ? -1L : noOfBytes + delta;
+        } // add
+
+        /**
+         * Returns the number of 1-D transforms summed up.
+         */
+        public long getNoOfCalls() {
+            return _noOfCalls;
+        } // getNoOfCalls
+
+        /**
+         * Returns the number of levels of the deepest transform.
+         */
+        public int getNoOfLevels() {
+            return _levelNanos.length;
+        } // getNoOfLevels
+
+        /**
+         * Returns the wall time of the calls in nanoseconds; copying the
+         * results of the allocating methods included.
+         */
+        public long getNanos() {
+            return _nanos;
+        } // getNanos
+
+        /**
+         * Returns the bytes allocated by the calls, or -1 if not measured by
+         * the virtual machine.
+         */
+        public long getNoOfBytes() {
+            return _noOfBytes;
+        } // getNoOfBytes
+
+        /**
+         * Returns the wall time of a level in nanoseconds.
+         *
+         * @param level
+         *          1, .., getNoOfLevels( )
+         */
+        public long getNanos(int level) {
+            return _levelNanos[level - 1];
+        } // getNanos
+
+        /**
+         * Returns the sum of squares of the scaling coefficients of a level.
+         *
+         * @param level
+         *          1, .., getNoOfLevels( )
+         */
+        public double getScalingEnergy(int level) {
+            return _scalingEnergies[level - 1];
+        } // getScalingEnergy
+
+        /**
+         * Returns the sum of squares of the wavelet coefficients of a level.
+         *
+         * @param level
+         *          1, .., getNoOfLevels( )
+         */
+        public double getWaveletEnergy(int level) {
+            return _waveletEnergies[level - 1];
+        } // getWaveletEnergy
+
+        /**
+         * Returns the sum of squares of all coefficients of a level.
+         *
+         * @param level
+         *          1, .., getNoOfLevels( )
+         */
+        public double getEnergy(int level) {
+            return getScalingEnergy(level) + getWaveletEnergy(level);
+        } // getEnergy
+
+        /**
+         * Returns the bytes allocated by a level, or -1 if not measured.
+         *
+         * @param level
+         *          1, .., getNoOfLevels( )
+         */
+        public long getNoOfBytes(int level) {
+            return _levelBytes[level - 1];
+        } // getNoOfBytes
+
+        /**
+         * The report as a table of a line per level; e.g. for logs.
+         */
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder();
+            builder.append("calls: ").append(_noOfCalls).append(", nanos: ")
+                    .append(_nanos).append(", bytes: ").append(_noOfBytes);
+            for (int l = 1; l <= getNoOfLevels(); l++)
+                builder.append(String.format(
+                        "%nlevel %2d: nanos %12d, scaling energy %.6e, "
+                                + "wavelet energy %.6e, bytes %d",
+                        l, getNanos(l), getScalingEnergy(l),
+                        getWaveletEnergy(l), getNoOfBytes(l)));
+            return builder.toString();
+        } // toString
+
+    } // class
+
+    private final boolean _isPacket;
+
+    /**
+     * The reports summed up; guarded by this.
+     */
+    private Report _forwardReport;
+
+    private Report _reverseReport;
+
+    /**
+     * Constructor profiling the transform given.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @param transform
+     *          a FastWaveletTransform or a WaveletPacketTransform
+     * @throws JWaveRuntimeException
+     *           if the transform is null or of another type
+     */
+    public ProfilingTransform(WaveletTransform transform) {
+
+        super(transform == null ? null : transform.getWavelet());
+        if (transform == null)
+            throw new JWaveRuntimeException(Code.NULL_ARGUMENT,
+                    "ProfilingTransform - given transform is null!");
+        if (!(transform instanceof FastWaveletTransform)
+                && !(transform instanceof WaveletPacketTransform))
+            throw new JWaveRuntimeException(Code.NOT_IMPLEMENTED,
+                    "ProfilingTransform - no profiling for: "
+                            + transform.getName());
+        _isPacket = transform instanceof WaveletPacketTransform;
+        _name = transform.getName(); // results are those of the transform
+        _forwardReport = new Report();
+        _reverseReport = new Report();
+
+    } // ProfilingTransform
+
+    /**
+     * Returns a snapshot of the forward transforms done since the last
+     * reset( ).
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @return the report
+     */
+    public synchronized Report getForwardReport() {
+        return new Report(_forwardReport);
+    } // getForwardReport
+
+    /**
+     * Returns a snapshot of the reverse transforms done since the last
+     * reset( ).
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @return the report
+     */
+    public synchronized Report getReverseReport() {
+        return new Report(_reverseReport);
+    } // getReverseReport
+
+    /**
+     * Starts both reports anew.
+     *
+     * @author Christian (graetz23@gmail.com)
+     */
+    public synchronized void reset() {
+        _forwardReport = new Report();
+        _reverseReport = new Report();
+    } // reset
+
+    /**
+     * Performs the 1-D forward transform of the profiled transform, measured
+     * per level.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @throws JWaveException
+     *           if given array is not of length 2^p | pEN or given level does
+     *           not match the supported domain (array)
+     * @see FastWaveletTransform#forward(double[], int)
+     */
+    @Override
+    public double[] forward(double[] arrTime, int level)
+            throws JWaveException {
+
+        check(arrTime, level, "forward");
+        long noOfBytes = Probe.allocatedBytes();
+        long nanos = System.nanoTime();
+        double[] arrHilb = Arrays.copyOf(arrTime, arrTime.length);
+        forwardSteps(arrHilb, 0, arrHilb.length, level, nanos, noOfBytes);
+        return arrHilb;
+
+    } // forward
+
+    /**
+     * Performs the 1-D reverse transform of the profiled transform, measured
+     * per level.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @throws JWaveException
+     *           if given array is not of length 2^p | pEN or given level does
+     *           not match the supported domain (array)
+     * @see FastWaveletTransform#reverse(double[], int)
+     */
+    @Override
+    public double[] reverse(double[] arrHilb, int level)
+            throws JWaveException {
+
+        check(arrHilb, level, "reverse");
+        long noOfBytes = Probe.allocatedBytes();
+        long nanos = System.nanoTime();
+        double[] arrTime = Arrays.copyOf(arrHilb, arrHilb.length);
+        reverseSteps(arrTime, 0, arrTime.length, level, nanos, noOfBytes);
+        return arrTime;
+
+    } // reverse
+
+    @Override
+    public void forwardInPlace(double[] arr, int off, int length, int level)
+            throws JWaveException {
+
+        checkPart(arr, off, length, level);
+        forwardSteps(arr, off, length, level, System.nanoTime(),
+                Probe.allocatedBytes());
+
+    } // forwardInPlace
+
+    @Override
+    public void reverseInPlace(double[] arr, int off, int length, int level)
+            throws JWaveException {
+
+        checkPart(arr, off, length, level);
+        reverseSteps(arr, off, length, level, System.nanoTime(),
+                Probe.allocatedBytes());
+
+    } // reverseInPlace
+
+    @Override
+    public void forwardInPlace(double[] arr, int off, int length)
+            throws JWaveException {
+        forwardInPlace(arr, off, length, calcExponent(length));
+    } // forwardInPlace
+
+    @Override
+    public void reverseInPlace(double[] arr, int off, int length)
+            throws JWaveException {
+        reverseInPlace(arr, off, length, calcExponent(length));
+    } // reverseInPlace
+
+    private void check(double[] arr, int level, String method)
+            throws JWaveException {
+
+        if (!isBinary(arr.length))
+            throw new JWaveFailure(
+                    "ProfilingTransform#" + method + " - "
+                            + "given array length is not 2^p | p E N ... = 1, 2, 4, 8, 16, 32, .. "
+                            + "please use the Ancient Egyptian Decomposition for any other array length!");
+        if (level < 0 || level > calcExponent(arr.length))
+            throw new JWaveFailure("ProfilingTransform#" + method + " - "
+                    + "given level is out of range for given array");
+
+    } // check
+
+    /**
+     * The steps of FastWaveletTransform or WaveletPacketTransform, measured
+     * per level; nanos and noOfBytes at the begin of the call.
+     */
+    private void forwardSteps(double[] arr, int off, int length, int level,
+                              long nanos, long noOfBytes) {
+
+        int transformWavelength = _wavelet.getTransformWavelength();
+        int noOfLevels = 0; // levels run
+        for (int h = length; h >= transformWavelength && noOfLevels < level;
+             h >>= 1)
+            noOfLevels++;
+
+        Measures measures = new Measures(noOfLevels);
+        double[] work = WorkspacePool.acquire(_wavelet.getWorkspaceLength(length));
+        try {
+
+            int h = length;
+            for (int l = 0; l < noOfLevels; l++, h >>= 1) {
+
+                int g = _isPacket ? length / h : 1; // packets of the level
+                measures.begin();
+                for (int p = 0; p < g; p++)
+                    _wavelet.forward(arr, off + p * h, h, work,
+                            measures._energy);
+                measures.end(l);
+
+            } // levels
+
+        } finally {
+            WorkspacePool.release(work);
+        } // try
+
+        measures.report(this, true, nanos, noOfBytes);
+
+    } // forwardSteps
+
+    private void reverseSteps(double[] arr, int off, int length, int level,
+                              long nanos, long noOfBytes) {
+
+        int transformWavelength = _wavelet.getTransformWavelength();
+        int steps = Integer.numberOfTrailingZeros(length); // length is 2^p
+        int h = transformWavelength;
+        for (int l = level; l < steps; l++)
+            h = h << 1; // begin at the matching level of Hilbert space
+
+        int noOfLevels = 0; // levels run; the last one is of length h
+        for (int k = h; k <= length && k >= transformWavelength; k <<= 1)
+            noOfLevels++;
+
+        Measures measures = new Measures(noOfLevels);
+        double[] work = WorkspacePool.acquire(_wavelet.getWorkspaceLength(length));
+        try {
+
+            for (int l = noOfLevels - 1; l >= 0; l--, h <<= 1) {
+
+                int g = _isPacket ? length / h : 1;
+                measures.begin();
+                for (int p = 0; p < g; p++)
+                    _wavelet.reverse(arr, off + p * h, h, work,
+                            measures._energy);
+                measures.end(l);
+
+            } // levels
+
+        } finally {
+            WorkspacePool.release(work);
+        } // try
+
+        measures.report(this, false, nanos, noOfBytes);
+
+    } // reverseSteps
+
+    /**
+     * The measures of a single call.
+     */
+    private static final class Measures {
+
+        private final long[] _nanos;
+
+        private final double[] _scalingEnergies;
+
+        private final double[] _waveletEnergies;
+
+        private final long[] _noOfBytes;
+
+        /**
+         * The sums of the level running; filled by the kernels.
+         */
+        private final double[] _energy = new double[2];
+
+        private long _beginNanos;
+
+        private long _beginBytes;
+
+        private Measures(int noOfLevels) {
+            _nanos = new long[noOfLevels];
+            _scalingEnergies = new double[noOfLevels];
+            _waveletEnergies = new double[noOfLevels];
+            _noOfBytes = new long[noOfLevels];
+        } // Measures
+
+        private void begin() {
+            _energy[0] = 0.;
+            _energy[1] = 0.;
+            _beginBytes = Probe.allocatedBytes();
+            _beginNanos = System.nanoTime();
+        } // begin
+
+        private void end(int l) {
+            _nanos[l] = System.nanoTime() - _beginNanos;
+            _noOfBytes[l] = _beginBytes < 0 ? -1L
+                    : Probe.allocatedBytes() - _beginBytes;
+            _scalingEnergies[l] = _energy[0];
+            _waveletEnergies[l] = _energy[1];
+        } // end
+
+        private void report(ProfilingTransform transform, boolean isForward,
+                            long nanos, long noOfBytes) {
+            nanos = System.nanoTime() - nanos;
+            noOfBytes = noOfBytes < 0 ? -1L
+                    : Probe.allocatedBytes() - noOfBytes;
+            synchronized (transform) {
+                (isForward ? transform._forwardReport
+                        : transform._reverseReport).add(nanos, noOfBytes,
+                        _nanos, _scalingEnergies, _waveletEnergies, _noOfBytes);
+            } // synchronized
+        } // report
+
+    } // class
+
+} // class
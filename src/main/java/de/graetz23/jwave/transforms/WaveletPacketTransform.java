@@ -26,6 +26,8 @@ package de.graetz23.jwave.transforms;
 
 import java.util.Arrays;
 
+import de.graetz23.jwave.metrics.Probe;
+import de.graetz23.jwave.tools.WorkspacePool;
 import de.graetz23.jwave.transforms.wavelets.Wavelet;
 import de.graetz23.jwave.exceptions.JWaveException;
 import de.graetz23.jwave.exceptions.JWaveFailure;
@@ -82,42 +84,12 @@ public class WaveletPacketTransform extends WaveletTransform {
             throw new JWaveFailure(
                     "WaveletPacketTransform#forward - given level is out of range for given array");
 
-        double[] arrHilb = new double[arrTime.length];
-        for (int i = 0; i < arrTime.length; i++)
-            arrHilb[i] = arrTime[i];
-
-        int k = arrTime.length;
-
-        int h = arrTime.length;
-
-        int transformWavelength = _wavelet.getTransformWavelength(); // 2, 4, 8, 16, 32, ...
-
-        int l = 0;
-
-        while (h >= transformWavelength && l < level) {
-
-            int g = k / h; // 1 -> 2 -> 4 -> 8 -> ...
-
-            for (int p = 0; p < g; p++) {
-
-                double[] iBuf = new double[h];
-
-                for (int i = 0; i < h; i++)
-                    iBuf[i] = arrHilb[i + (p * h)];
-
-                double[] oBuf = _wavelet.forward(iBuf, h);
-
-                for (int i = 0; i < h; i++)
-                    arrHilb[i + (p * h)] = oBuf[i];
-
-            } // packets
-
-            h = h >> 1;
-
-            l++;
-
-        } // levels
-
+        Probe probe = Probe.begin();
+        double[] arrHilb = Arrays.copyOf(arrTime, arrTime.length);
+        forwardSteps(arrHilb, 0, arrHilb.length, level);
+        if (probe != null)
+            probe.end(this, "forward", new int[]{arrHilb.length},
+                    new int[]{level});
         return arrHilb;
 
     } // forward
@@ -150,43 +122,126 @@ public class WaveletPacketTransform extends WaveletTransform {
             throw new JWaveFailure(
                     "WaveletPacketTransform#reverse - given level is out of range for given array");
 
-        int length = arrHilb.length; // length of first Hilbert space
-        double[] arrTime = Arrays.copyOf(arrHilb, length);
+        Probe probe = Probe.begin();
+        double[] arrTime = Arrays.copyOf(arrHilb, arrHilb.length);
+        reverseSteps(arrTime, 0, arrTime.length, level);
+        if (probe != null)
+            probe.end(this, "reverse", new int[]{arrTime.length},
+                    new int[]{level});
+        return arrTime;
+
+    } // reverse
+
+    /**
+     * Performs the 1-D forward transform of the WPT in place for a part of an
+     * array; the workspace is borrowed from the WorkspacePool, so nothing is
+     * allocated.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @throws JWaveException
+     *           if the part is not of length 2^p | pEN, not in the array, or
+     *           the level is out of range
+     * @see BasicTransform#forwardInPlace(double[], int, int, int)
+     */
+    @Override
+    public void forwardInPlace(double[] arr, int off, int length, int level)
+            throws JWaveException {
+
+        checkPart(arr, off, length, level);
+        forwardSteps(arr, off, length, level);
+
+    } // forwardInPlace
+
+    /**
+     * Performs the 1-D reverse transform of the WPT in place for a part of an
+     * array; the workspace is borrowed from the WorkspacePool, so nothing is
+     * allocated.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @throws JWaveException
+     *           if the part is not of length 2^p | pEN, not in the array, or
+     *           the level is out of range
+     * @see BasicTransform#reverseInPlace(double[], int, int, int)
+     */
+    @Override
+    public void reverseInPlace(double[] arr, int off, int length, int level)
+            throws JWaveException {
+
+        checkPart(arr, off, length, level);
+        reverseSteps(arr, off, length, level);
+
+    } // reverseInPlace
+
+    @Override
+    public void forwardInPlace(double[] arr, int off, int length)
+            throws JWaveException {
+        forwardInPlace(arr, off, length, calcExponent(length));
+    } // forwardInPlace
+
+    @Override
+    public void reverseInPlace(double[] arr, int off, int length)
+            throws JWaveException {
+        reverseInPlace(arr, off, length, calcExponent(length));
+    } // reverseInPlace
+
+    private void forwardSteps(double[] arr, int off, int length, int level) {
 
         int transformWavelength = _wavelet.getTransformWavelength(); // 2, 4, 8, 16, 32, ...
+        if (level < 1 || length < transformWavelength)
+            return;
 
-        int k = arrTime.length;
+        double[] work = WorkspacePool.acquire(_wavelet.getWorkspaceLength(length));
+        try {
 
-        int h = transformWavelength;
+            int h = length;
+            int l = 0;
+            while (h >= transformWavelength && l < level) {
 
-        int steps = calcExponent(length);
-        for (int l = level; l < steps; l++)
-            h = h << 1; // begin reverse transform at certain - matching - level of hilbert space
+                int g = length / h; // 1 -> 2 -> 4 -> 8 -> ...
 
-        while (h <= arrTime.length && h >= transformWavelength) {
+                for (int p = 0; p < g; p++)
+                    _wavelet.forward(arr, off + p * h, h, work);
 
-            int g = k / h; // ... -> 8 -> 4 -> 2 -> 1
+                h = h >> 1;
+                l++;
 
-            for (int p = 0; p < g; p++) {
+            } // levels
 
-                double[] iBuf = new double[h];
+        } finally {
+            WorkspacePool.release(work);
+        } // try
 
-                for (int i = 0; i < h; i++)
-                    iBuf[i] = arrTime[i + (p * h)];
+    } // forwardSteps
 
-                double[] oBuf = _wavelet.reverse(iBuf, h);
+    private void reverseSteps(double[] arr, int off, int length, int level) {
 
-                for (int i = 0; i < h; i++)
-                    arrTime[i + (p * h)] = oBuf[i];
+        int transformWavelength = _wavelet.getTransformWavelength(); // 2, 4, 8, 16, 32, ...
+        int h = transformWavelength;
 
-            } // packets
+        int steps = Integer.numberOfTrailingZeros(length); // length is 2^p
+        for (int l = level; l < steps; l++)
+            h = h << 1; // begin reverse transform at certain - matching - level of hilbert space
+        if (h > length || h < transformWavelength)
+            return;
 
-            h = h << 1;
+        double[] work = WorkspacePool.acquire(_wavelet.getWorkspaceLength(length));
+        try {
 
-        } // levels
+            while (h <= length && h >= transformWavelength) {
 
-        return arrTime;
+                int g = length / h; // ... -> 8 -> 4 -> 2 -> 1
 
-    } // reverse
+                for (int p = 0; p < g; p++)
+                    _wavelet.reverse(arr, off + p * h, h, work);
+
+                h = h << 1;
+
+            } // levels
+
+        } finally {
+            WorkspacePool.release(work);
+        } // try
+
+    } // reverseSteps
 
 } // class
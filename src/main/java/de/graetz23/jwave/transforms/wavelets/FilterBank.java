@@ -0,0 +1,596 @@
+/**
+ * JWave is distributed under the MIT License (MIT); this file is part of.
+ *
+ * Copyright (c) 2008-2025 JWave Christian (graetz23@gmail.com)
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.graetz23.jwave.transforms.wavelets;
+
+import java.nio.DoubleBuffer;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Immutable filter bank of a Wavelet for kernels reading the filters in hot
+ * loops. The taps are copied once on construction and handed out as read
+ * only DoubleBuffer views or by index, so no access copies. Derived forms -
+ * reversed taps, the even and odd polyphase components, and taps dilated for
+ * the algorithme a trous - are precomputed; dilated taps on first request of
+ * a level.
+ *
+ * @author Christian (graetz23@gmail.com)
+ */
+public final class FilterBank {
+
+    /**
+     * The four filters of a wavelet.
+     */
+    public enum Filter {
+
+        SCALING_DECOMPOSITION, WAVELET_DECOMPOSITION, SCALING_RECONSTRUCTION, WAVELET_RECONSTRUCTION
+
+    } // enum
+
+    /**
+     * The largest level of dilation supported; taps of level l are spread by
+     * 2^l.
+     */
+    public static final int MAX_DILATION = 20;
+
+    private static final Filter[] FILTERS = Filter.values();
+
+    private final String _name;
+
+    private final double[][] _taps;
+
+    private final double[][] _reversed;
+
+    private final double[][] _even;
+
+    private final double[][] _odd;
+
+    /**
+     * The polyphase components in reversed order; the reverse transform
+     * gathers by them.
+     */
+    private final double[][] _evenReversed;
+
+    private final double[][] _oddReversed;
+
+    /**
+     * The number of values the phases are extended by; the largest number of
+     * polyphase taps less one.
+     */
+    private final int _pad;
+
+    /**
+     * Dilated taps by filter and level; built on demand.
+     */
+    private final AtomicReferenceArray<double[]> _dilated;
+
+    /**
+     * Copies the filters of a wavelet and derives all other forms.
+     *
+     * @param wavelet the wavelet keeping the filters
+     * @author Christian (graetz23@gmail.com)
+     */
+    public FilterBank(Wavelet wavelet) {
+
+        _name = wavelet.getName();
+        _taps = new double[][]{wavelet.getScalingDeComposition(),
+                wavelet.getWaveletDeComposition(),
+                wavelet.getScalingReConstruction(),
+                wavelet.getWaveletReConstruction()};
+
+        int noOfFilters = FILTERS.length;
+        _reversed = new double[noOfFilters][];
+        _even = new double[noOfFilters][];
+        _odd = new double[noOfFilters][];
+        _evenReversed = new double[noOfFilters][];
+        _oddReversed = new double[noOfFilters][];
+        for (int f = 0; f < noOfFilters; f++) {
+            double[] taps = _taps[f];
+            int length = taps.length;
+            _reversed[f] = new double[length];
+            _even[f] = new double[(length + 1) / 2];
+            _odd[f] = new double[length / 2];
+            for (int i = 0; i < length; i++) {
+                _reversed[f][length - 1 - i] = taps[i];
+                if (i % 2 == 0)
+                    _even[f][i / 2] = taps[i];
+                else
+                    _odd[f][i / 2] = taps[i];
+            } // i
+            _evenReversed[f] = reverse(_even[f]);
+            _oddReversed[f] = reverse(_odd[f]);
+        } // f
+
+        int noOfTaps = 0;
+        for (int f = 0; f < noOfFilters; f++)
+            noOfTaps = Math.max(noOfTaps, _even[f].length);
+        _pad = Math.max(noOfTaps - 1, 0);
+
+        _dilated = new AtomicReferenceArray<double[]>(
+                noOfFilters * (MAX_DILATION + 1));
+        for (int f = 0; f < noOfFilters; f++)
+            _dilated.set(f * (MAX_DILATION + 1), _taps[f]); // level 0
+
+    } // FilterBank
+
+    /**
+     * Returns the name of the wavelet.
+     *
+     * @return the name of the wavelet
+     * @author Christian (graetz23@gmail.com)
+     */
+    public String getName() {
+        return _name;
+    } // getName
+
+    /**
+     * Returns the number of taps of a filter.
+     *
+     * @param filter one of the four filters
+     * @return the number of taps
+     * @author Christian (graetz23@gmail.com)
+     */
+    public int getLength(Filter filter) {
+        return _taps[filter.ordinal()].length;
+    } // getLength
+
+    /**
+     * Returns a single tap of a filter; no bounds beyond the array's own.
+     *
+     * @param filter one of the four filters
+     * @param i      index of the tap
+     * @return the tap
+     * @author Christian (graetz23@gmail.com)
+     */
+    public double getTap(Filter filter, int i) {
+        return _taps[filter.ordinal()][i];
+    } // getTap
+
+    /**
+     * Returns a read only view of the taps of a filter; each call returns an
+     * own view, so position and limit are not shared between threads.
+     *
+     * @param filter one of the four filters
+     * @return read only view of the taps
+     * @author Christian (graetz23@gmail.com)
+     */
+    public DoubleBuffer getTaps(Filter filter) {
+        return view(_taps[filter.ordinal()]);
+    } // getTaps
+
+    /**
+     * Returns a read only view of the taps of a filter in reversed order, e.g.
+     * for writing a correlation as a convolution.
+     *
+     * @param filter one of the four filters
+     * @return read only view of the reversed taps
+     * @author Christian (graetz23@gmail.com)
+     */
+    public DoubleBuffer getReversed(Filter filter) {
+        return view(_reversed[filter.ordinal()]);
+    } // getReversed
+
+    /**
+     * Returns a read only view of the even polyphase component of a filter; the
+     * taps 0, 2, 4, ..
+     *
+     * @param filter one of the four filters
+     * @return read only view of the even taps
+     * @author Christian (graetz23@gmail.com)
+     */
+    public DoubleBuffer getEven(Filter filter) {
+        return view(_even[filter.ordinal()]);
+    } // getEven
+
+    /**
+     * Returns a read only view of the odd polyphase component of a filter; the
+     * taps 1, 3, 5, ..
+     *
+     * @param filter one of the four filters
+     * @return read only view of the odd taps
+     * @author Christian (graetz23@gmail.com)
+     */
+    public DoubleBuffer getOdd(Filter filter) {
+        return view(_odd[filter.ordinal()]);
+    } // getOdd
+
+    /**
+     * Returns a read only view of the taps of a filter dilated for a certain
+     * level, by inserting 2^level - 1 zeros between neighboring taps; the
+     * filters of the stationary (undecimated) transform at that level.
+     *
+     * @param filter one of the four filters
+     * @param level  0, the taps themselves, .. MAX_DILATION
+     * @return read only view of ( length - 1 ) * 2^level + 1 taps
+     * @author Christian (graetz23@gmail.com)
+     */
+    public DoubleBuffer getDilated(Filter filter, int level) {
+
+        if (level < 0 || level > MAX_DILATION)
+            throw new IllegalArgumentException(
+                    "FilterBank#getDilated - level is out of range: " + level);
+
+        int pos = filter.ordinal() * (MAX_DILATION + 1) + level;
+        double[] dilated = _dilated.get(pos);
+        if (dilated == null) { // racing threads build equal arrays
+            double[] taps = _taps[filter.ordinal()];
+            int step = 1 << level;
+            dilated = new double[(taps.length - 1) * step + 1];
+            for (int i = 0; i < taps.length; i++)
+                dilated[i * step] = taps[i];
+            if (!_dilated.compareAndSet(pos, null, dilated))
+                dilated = _dilated.get(pos);
+        } // if
+        return view(dilated);
+
+    } // getDilated
+
+    /**
+     * Returns the length of the workspace the polyphase kernels need for
+     * transforming a certain length.
+     *
+     * @param length the length to transform; even
+     * @return the minimal length of the workspace
+     * @author Christian (graetz23@gmail.com)
+     */
+    public int getWorkspaceLength(int length) {
+        return 2 * ((length >> 1) + _pad);
+    } // getWorkspaceLength
+
+    /**
+     * Performs the forward transform of Wavelet#forward in polyphase form: the
+     * input is split into its even and odd samples, and each output is the sum
+     * of two contiguous dot products of a phase and the matching polyphase
+     * component of a filter. Periodic boundaries are handled by extending the
+     * phases, so the inner loops have neither modulo nor strides.
+     *
+     * @param arrTime       array keeping time domain coefficients
+     * @param arrTimeLength the length of the part of arrTime to transform; even
+     * @param arrHilb       array of at least arrTimeLength taking the
+     *                      coefficients { scaling | wavelet }
+     * @author Christian (graetz23@gmail.com)
+     */
+    public void forward(double[] arrTime, int arrTimeLength, double[] arrHilb) {
+        forward(arrTime, 0, arrTimeLength, arrHilb, 0,
+                new double[getWorkspaceLength(arrTimeLength)]);
+    } // forward
+
+    /**
+     * Performs the forward transform in polyphase form for a part of an array
+     * using a given workspace; source and target may be the same part, as the
+     * source is read completely into the workspace first.
+     *
+     * @param src    array keeping time domain coefficients
+     * @param srcOff position of the part in src
+     * @param length the length of the part; even
+     * @param dst    array taking the coefficients { scaling | wavelet }
+     * @param dstOff position of the part in dst
+     * @param work   workspace of at least getWorkspaceLength( length )
+     * @author Christian (graetz23@gmail.com)
+     */
+    public void forward(double[] src, int srcOff, int length, double[] dst,
+                        int dstOff, double[] work) {
+
+        int s = Filter.SCALING_DECOMPOSITION.ordinal();
+        int w = Filter.WAVELET_DECOMPOSITION.ordinal();
+        double[] scalingEven = _even[s], scalingOdd = _odd[s];
+        double[] waveletEven = _even[w], waveletOdd = _odd[w];
+
+        int h = length >> 1;
+        int o = h + _pad;
+        phases(src, srcOff, h, o, work);
+
+        for (int i = 0; i < h; i++) {
+            dst[dstOff + i] = dot(work, i, scalingEven)
+                    + dot(work, o + i, scalingOdd);
+            dst[dstOff + i + h] = dot(work, i, waveletEven)
+                    + dot(work, o + i, waveletOdd);
+        } // i
+
+    } // forward
+
+    /**
+     * Performs forward( src, srcOff, length, dst, dstOff, work ) and adds the
+     * sums of squares of the scaling and of the wavelet coefficients put out
+     * to energy[ 0 ] and energy[ 1 ]; summed in the loop computing them.
+     *
+     * @param src    array keeping time domain coefficients
+     * @param srcOff position of the part in src
+     * @param length the length of the part; even
+     * @param dst    array taking the coefficients { scaling | wavelet }
+     * @param dstOff position of the part in dst
+     * @param work   workspace of at least getWorkspaceLength( length )
+     * @param energy array of at least two, the sums are added to
+     * @author Christian (graetz23@gmail.com)
+     */
+    public void forward(double[] src, int srcOff, int length, double[] dst,
+                        int dstOff, double[] work, double[] energy) {
+
+        int s = Filter.SCALING_DECOMPOSITION.ordinal();
+        int w = Filter.WAVELET_DECOMPOSITION.ordinal();
+        double[] scalingEven = _even[s], scalingOdd = _odd[s];
+        double[] waveletEven = _even[w], waveletOdd = _odd[w];
+
+        int h = length >> 1;
+        int o = h + _pad;
+        phases(src, srcOff, h, o, work);
+
+        double scalingEnergy = 0., waveletEnergy = 0.;
+        for (int i = 0; i < h; i++) {
+            double scaling = dot(work, i, scalingEven)
+                    + dot(work, o + i, scalingOdd);
+            double wavelet = dot(work, i, waveletEven)
+                    + dot(work, o + i, waveletOdd);
+            dst[dstOff + i] = scaling;
+            dst[dstOff + i + h] = wavelet;
+            scalingEnergy += scaling * scaling;
+            waveletEnergy += wavelet * wavelet;
+        } // i
+        energy[0] += scalingEnergy;
+        energy[1] += waveletEnergy;
+
+    } // forward
+
+    /**
+     * Performs the reverse transform of Wavelet#reverse in polyphase form: each
+     * even and each odd output sample is gathered by contiguous dot products of
+     * the scaling and the wavelet coefficients and the reversed polyphase
+     * components of the reconstruction filters, instead of scattering each
+     * coefficient into the output.
+     *
+     * @param arrHilb       array keeping the coefficients { scaling | wavelet }
+     * @param arrHilbLength the length of the part of arrHilb to transform; even
+     * @param arrTime       array of at least arrHilbLength taking the time domain
+     *                      coefficients
+     * @author Christian (graetz23@gmail.com)
+     */
+    public void reverse(double[] arrHilb, int arrHilbLength, double[] arrTime) {
+        reverse(arrHilb, 0, arrHilbLength, arrTime, 0,
+                new double[getWorkspaceLength(arrHilbLength)]);
+    } // reverse
+
+    /**
+     * Performs the reverse transform in polyphase form for a part of an array
+     * using a given workspace; source and target may be the same part, as the
+     * source is read completely into the workspace first.
+     *
+     * @param src    array keeping the coefficients { scaling | wavelet }
+     * @param srcOff position of the part in src
+     * @param length the length of the part; even
+     * @param dst    array taking the time domain coefficients
+     * @param dstOff position of the part in dst
+     * @param work   workspace of at least getWorkspaceLength( length )
+     * @author Christian (graetz23@gmail.com)
+     */
+    public void reverse(double[] src, int srcOff, int length, double[] dst,
+                        int dstOff, double[] work) {
+
+        // coefficients extended periodically to the front by pad values, so
+        // position p + pad - m keeps the coefficient ( p - m ) mod h; scaling
+        // at 0, wavelet at o of the workspace
+        int h = length >> 1;
+        int o = h + _pad;
+        for (int q = 0; q < o; q++) {
+            int i = Math.floorMod(q - _pad, h);
+            work[q] = src[srcOff + i];
+            work[o + q] = src[srcOff + i + h];
+        } // q
+
+        gather(work, h, o, dst, dstOff);
+
+    } // reverse
+
+    /**
+     * Performs reverse( src, srcOff, length, dst, dstOff, work ) and adds the
+     * sums of squares of the scaling and of the wavelet coefficients taken in
+     * to energy[ 0 ] and energy[ 1 ]; summed in the loop reading them.
+     *
+     * @param src    array keeping the coefficients { scaling | wavelet }
+     * @param srcOff position of the part in src
+     * @param length the length of the part; even
+     * @param dst    array taking the time domain coefficients
+     * @param dstOff position of the part in dst
+     * @param work   workspace of at least getWorkspaceLength( length )
+     * @param energy array of at least two, the sums are added to
+     * @author Christian (graetz23@gmail.com)
+     */
+    public void reverse(double[] src, int srcOff, int length, double[] dst,
+                        int dstOff, double[] work, double[] energy) {
+
+        // as reverse; the pad values wrapped first, then each coefficient
+        // once at q = i + pad
+        int h = length >> 1;
+        int o = h + _pad;
+        for (int q = 0; q < _pad; q++) {
+            int i = Math.floorMod(q - _pad, h);
+            work[q] = src[srcOff + i];
+            work[o + q] = src[srcOff + i + h];
+        } // q
+        double scalingEnergy = 0., waveletEnergy = 0.;
+        for (int i = 0; i < h; i++) {
+            double scaling = src[srcOff + i];
+            double wavelet = src[srcOff + i + h];
+            work[_pad + i] = scaling;
+            work[o + _pad + i] = wavelet;
+            scalingEnergy += scaling * scaling;
+            waveletEnergy += wavelet * wavelet;
+        } // i
+        energy[0] += scalingEnergy;
+        energy[1] += waveletEnergy;
+
+        gather(work, h, o, dst, dstOff);
+
+    } // reverse
+
+    /**
+     * The loop of reverse: gathers the outputs from the extended coefficients
+     * in the workspace.
+     */
+    private void gather(double[] work, int h, int o, double[] dst,
+                        int dstOff) {
+
+        int s = Filter.SCALING_RECONSTRUCTION.ordinal();
+        int w = Filter.WAVELET_RECONSTRUCTION.ordinal();
+        double[] scalingEven = _evenReversed[s], scalingOdd = _oddReversed[s];
+        double[] waveletEven = _evenReversed[w], waveletOdd = _oddReversed[w];
+
+        int se = _pad - (scalingEven.length - 1);
+        int so = _pad - (scalingOdd.length - 1);
+        int we = o + _pad - (waveletEven.length - 1);
+        int wo = o + _pad - (waveletOdd.length - 1);
+        for (int p = 0; p < h; p++) {
+            dst[dstOff + (p << 1)] = dot(work, p + se, scalingEven)
+                    + dot(work, p + we, waveletEven);
+            dst[dstOff + (p << 1) + 1] = dot(work, p + so, scalingOdd)
+                    + dot(work, p + wo, waveletOdd);
+        } // p
+
+    } // gather
+
+    /**
+     * Performs the forward transform as direct periodic convolution, the loop
+     * Wavelet#forward ran before the polyphase kernels: each output sums the
+     * full taps over the input wrapped at its length. Same results as forward
+     * up to rounding; kept as a candidate kernel, since it may run faster for
+     * short filters on some machines.
+     *
+     * @param src    array keeping time domain coefficients
+     * @param srcOff position of the part in src
+     * @param length the length of the part; even
+     * @param dst    array taking the coefficients { scaling | wavelet }
+     * @param dstOff position of the part in dst
+     * @param work   workspace of at least getWorkspaceLength( length )
+     * @author Christian (graetz23@gmail.com)
+     */
+    public void forwardConvolution(double[] src, int srcOff, int length,
+                                   double[] dst, int dstOff, double[] work) {
+
+        double[] scaling = _taps[Filter.SCALING_DECOMPOSITION.ordinal()];
+        double[] wavelet = _taps[Filter.WAVELET_DECOMPOSITION.ordinal()];
+
+        System.arraycopy(src, srcOff, work, 0, length);
+
+        int h = length >> 1;
+        for (int i = 0; i < h; i++) {
+            double sumScaling = 0.;
+            double sumWavelet = 0.;
+            for (int j = 0; j < scaling.length; j++) {
+                int k = ((i << 1) + j) % length;
+                sumScaling += work[k] * scaling[j];
+            } // j
+            for (int j = 0; j < wavelet.length; j++) {
+                int k = ((i << 1) + j) % length;
+                sumWavelet += work[k] * wavelet[j];
+            } // j
+            dst[dstOff + i] = sumScaling;
+            dst[dstOff + i + h] = sumWavelet;
+        } // i
+
+    } // forwardConvolution
+
+    /**
+     * Performs the reverse transform as direct periodic convolution, the loop
+     * Wavelet#reverse ran before the polyphase kernels: each coefficient is
+     * scattered by the full taps into the output wrapped at its length. Same
+     * results as reverse up to rounding.
+     *
+     * @param src    array keeping the coefficients { scaling | wavelet }
+     * @param srcOff position of the part in src
+     * @param length the length of the part; even
+     * @param dst    array taking the time domain coefficients
+     * @param dstOff position of the part in dst
+     * @param work   workspace of at least getWorkspaceLength( length )
+     * @author Christian (graetz23@gmail.com)
+     */
+    public void reverseConvolution(double[] src, int srcOff, int length,
+                                   double[] dst, int dstOff, double[] work) {
+
+        double[] scaling = _taps[Filter.SCALING_RECONSTRUCTION.ordinal()];
+        double[] wavelet = _taps[Filter.WAVELET_RECONSTRUCTION.ordinal()];
+
+        System.arraycopy(src, srcOff, work, 0, length);
+        for (int k = 0; k < length; k++)
+            dst[dstOff + k] = 0.;
+
+        int h = length >> 1;
+        for (int i = 0; i < h; i++) {
+            for (int j = 0; j < scaling.length; j++) {
+                int k = ((i << 1) + j) % length;
+                dst[dstOff + k] += work[i] * scaling[j];
+            } // j
+            for (int j = 0; j < wavelet.length; j++) {
+                int k = ((i << 1) + j) % length;
+                dst[dstOff + k] += work[i + h] * wavelet[j];
+            } // j
+        } // i
+
+    } // reverseConvolution
+
+    /**
+     * Returns the name of the wavelet.
+     *
+     * @return String with the name of the wavelet
+     * @author Christian (graetz23@gmail.com)
+     */
+    public String toString() {
+        return getName();
+    } // toString
+
+    /**
+     * Dot product of the taps and arr starting at a position.
+     */
+    private static double dot(double[] arr, int pos, double[] taps) {
+        double sum = 0.;
+        for (int m = 0; m < taps.length; m++)
+            sum += arr[pos + m] * taps[m];
+        return sum;
+    } // dot
+
+    /**
+     * The phases of forward: even samples at 0, odd samples at o of the
+     * workspace, each extended periodically by the taps reaching beyond h.
+     */
+    private void phases(double[] src, int srcOff, int h, int o,
+                        double[] work) {
+        for (int p = 0; p < h; p++) {
+            work[p] = src[srcOff + (p << 1)];
+            work[o + p] = src[srcOff + (p << 1) + 1];
+        } // p
+        for (int p = h; p < o; p++) {
+            work[p] = work[p - h];
+            work[o + p] = work[o + p - h];
+        } // p
+    } // phases
+
+    private static double[] reverse(double[] taps) {
+        double[] reversed = new double[taps.length];
+        for (int i = 0; i < taps.length; i++)
+            reversed[taps.length - 1 - i] = taps[i];
+        return reversed;
+    } // reverse
+
+    private static DoubleBuffer view(double[] taps) {
+        return DoubleBuffer.wrap(taps).asReadOnlyBuffer();
+    } // view
+
+} // class
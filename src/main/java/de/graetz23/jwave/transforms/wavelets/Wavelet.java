@@ -73,6 +73,27 @@ public abstract class Wavelet {
      */
     protected double[] _waveletReCon;
 
+    /**
+     * The immutable filter bank; built on first request.
+     */
+    private volatile FilterBank _filterBank;
+
+    /**
+     * True if a class derived overrides forward or reverse; its own step is
+     * then run by the in place methods, too.
+     */
+    private final boolean _isOwnForward;
+
+    private final boolean _isOwnReverse;
+
+    /**
+     * True if a class derived overrides the in place forward or reverse, or
+     * the step they run; the energies are then summed after the step.
+     */
+    private final boolean _isOwnInPlaceForward;
+
+    private final boolean _isOwnInPlaceReverse;
+
     /**
      * Constructor; predefine members to default values or null!
      *
@@ -86,6 +107,12 @@ public abstract class Wavelet {
         _waveletDeCom = null;
         _scalingReCon = null;
         _waveletReCon = null;
+        _isOwnForward = isOverridden("forward");
+        _isOwnReverse = isOverridden("reverse");
+        _isOwnInPlaceForward = _isOwnForward || isOverridden("forward",
+                double[].class, int.class, int.class, double[].class);
+        _isOwnInPlaceReverse = _isOwnReverse || isOverridden("reverse",
+                double[].class, int.class, int.class, double[].class);
     } // Wavelet
 
     /**
@@ -209,6 +236,21 @@ public abstract class Wavelet {
         return Arrays.copyOf(_waveletReCon, _waveletReCon.length);
     } // getWaveletReConstruction
 
+    /**
+     * Returns the immutable filter bank of this wavelet, giving read only access
+     * to all filters and their derived forms without copying per access. Built
+     * on first request; the filters must not change afterwards.
+     *
+     * @return the filter bank of this wavelet
+     * @author Christian (graetz23@gmail.com)
+     */
+    public final FilterBank getFilterBank() {
+        FilterBank filterBank = _filterBank;
+        if (filterBank == null) // racing threads build equal filter banks
+            _filterBank = filterBank = new FilterBank(this);
+        return filterBank;
+    } // getFilterBank
+
     /**
      * Performs the forward transform for the given array from time domain to
      * Hilbert domain and returns a new array of the same size keeping
@@ -225,23 +267,9 @@ public abstract class Wavelet {
 
         double[] arrHilb = new double[arrTimeLength];
 
-        int h = arrHilb.length >> 1; // .. -> 8 -> 4 -> 2 .. shrinks in each step by half wavelength
-        for (int i = 0; i < h; i++) {
-
-            arrHilb[i] = arrHilb[i + h] = 0.; // set to zero before sum up
-
-            for (int j = 0; j < _motherWavelength; j++) {
-
-                int k = (i << 1) + j; // k = ( i * 2 ) + j;
-                while (k >= arrHilb.length)
-                    k -= arrHilb.length; // circulate over arrays if scaling and wavelet are are larger
-
-                arrHilb[i] += arrTime[k] * _scalingDeCom[j]; // low pass filter for the energy (approximation)
-                arrHilb[i + h] += arrTime[k] * _waveletDeCom[j]; // high pass filter for the details
-
-            } // Sorting each step in patterns of: { scaling coefficients | wavelet coefficients }
-
-        } // h = 2^(p-1) | p = { 1, 2, .., N } .. shrinks in each step by half wavelength
+        // polyphase form: contiguous dot products of even and odd samples
+        // with the even and odd taps; see FilterBank#forward
+        getFilterBank().forward(arrTime, arrTimeLength, arrHilb);
 
         return arrHilb;
 
@@ -262,29 +290,131 @@ public abstract class Wavelet {
     public double[] reverse(double[] arrHilb, int arrHilbLength) {
 
         double[] arrTime = new double[arrHilbLength];
-        for (int i = 0; i < arrTime.length; i++)
-            arrTime[i] = 0.; // set to zero before sum up
 
-        int h = arrTime.length >> 1; // .. -> 8 -> 4 -> 2 .. shrinks in each step by half wavelength
-        for (int i = 0; i < h; i++) {
+        // polyphase form: each time sample is gathered instead of scattering
+        // each coefficient; see FilterBank#reverse
+        getFilterBank().reverse(arrHilb, arrHilbLength, arrTime);
 
-            for (int j = 0; j < _motherWavelength; j++) {
+        return arrTime;
 
-                int k = (i << 1) + j; // k = ( i * 2 ) + j;
-                while (k >= arrTime.length)
-                    k -= arrTime.length; // circulate over arrays if scaling and wavelet are larger
+    } // reverse
 
-                // adding up energy from low pass (approximation) and details from high pass filter
-                arrTime[k] +=
-                        (arrHilb[i] * _scalingReCon[j])
-                                + (arrHilb[i + h] * _waveletReCon[j]); // looks better with brackets
+    /**
+     * Returns the length of the workspace the in place methods need for
+     * transforming a certain length.
+     *
+     * @param length the length to transform; even
+     * @return the minimal length of the workspace
+     * @author Christian (graetz23@gmail.com)
+     */
+    public int getWorkspaceLength(int length) {
+        return Math.max(getFilterBank().getWorkspaceLength(length), length);
+    } // getWorkspaceLength
 
-            } // Reconstruction from patterns of: { scaling coefficients | wavelet coefficients }
+    /**
+     * Performs the forward transform in place for a part of an array using a
+     * given workspace, so nothing is allocated; same results as forward.
+     *
+     * @param arr    array keeping time domain coefficients; replaced by the
+     *               coefficients { scaling | wavelet }
+     * @param off    position of the part in arr
+     * @param length the length of the part; even
+     * @param work   workspace of at least getWorkspaceLength( length )
+     * @author Christian (graetz23@gmail.com)
+     */
+    public void forward(double[] arr, int off, int length, double[] work) {
+        if (_isOwnForward) {
+            System.arraycopy(arr, off, work, 0, length);
+            System.arraycopy(forward(work, length), 0, arr, off, length);
+        } else
+            getFilterBank().forward(arr, off, length, arr, off, work);
+    } // forward
 
-        } // h = 2^(p-1) | p = { 1, 2, .., N } .. shrink in each step by half wavelength
+    /**
+     * Performs the reverse transform in place for a part of an array using a
+     * given workspace, so nothing is allocated; same results as reverse.
+     *
+     * @param arr    array keeping the coefficients { scaling | wavelet };
+     *               replaced by time domain coefficients
+     * @param off    position of the part in arr
+     * @param length the length of the part; even
+     * @param work   workspace of at least getWorkspaceLength( length )
+     * @author Christian (graetz23@gmail.com)
+     */
+    public void reverse(double[] arr, int off, int length, double[] work) {
+        if (_isOwnReverse) {
+            System.arraycopy(arr, off, work, 0, length);
+            System.arraycopy(reverse(work, length), 0, arr, off, length);
+        } else
+            getFilterBank().reverse(arr, off, length, arr, off, work);
+    } // reverse
 
-        return arrTime;
+    /**
+     * Performs forward( arr, off, length, work ) and adds the sums of squares
+     * of the scaling and of the wavelet coefficients put out to energy[ 0 ]
+     * and energy[ 1 ]; summed by the kernel computing them, or after the step
+     * of a class derived having its own.
+     *
+     * @param arr    array keeping time domain coefficients; replaced by the
+     *               coefficients { scaling | wavelet }
+     * @param off    position of the part in arr
+     * @param length the length of the part; even
+     * @param work   workspace of at least getWorkspaceLength( length )
+     * @param energy array of at least two, the sums are added to
+     * @author Christian (graetz23@gmail.com)
+     */
+    public void forward(double[] arr, int off, int length, double[] work,
+                        double[] energy) {
+        if (_isOwnInPlaceForward) {
+            forward(arr, off, length, work);
+            addEnergy(arr, off, length, energy);
+        } else
+            getFilterBank().forward(arr, off, length, arr, off, work, energy);
+    } // forward
 
+    /**
+     * Performs reverse( arr, off, length, work ) and adds the sums of squares
+     * of the scaling and of the wavelet coefficients taken in to energy[ 0 ]
+     * and energy[ 1 ]; summed by the kernel reading them, or before the step
+     * of a class derived having its own.
+     *
+     * @param arr    array keeping the coefficients { scaling | wavelet };
+     *               replaced by time domain coefficients
+     * @param off    position of the part in arr
+     * @param length the length of the part; even
+     * @param work   workspace of at least getWorkspaceLength( length )
+     * @param energy array of at least two, the sums are added to
+     * @author Christian (graetz23@gmail.com)
+     */
+    public void reverse(double[] arr, int off, int length, double[] work,
+                        double[] energy) {
+        if (_isOwnInPlaceReverse) {
+            addEnergy(arr, off, length, energy);
+            reverse(arr, off, length, work);
+        } else
+            getFilterBank().reverse(arr, off, length, arr, off, work, energy);
     } // reverse
 
+    private static void addEnergy(double[] arr, int off, int length,
+                                  double[] energy) {
+        int h = length >> 1;
+        for (int i = 0; i < h; i++) {
+            energy[0] += arr[off + i] * arr[off + i];
+            energy[1] += arr[off + h + i] * arr[off + h + i];
+        } // i
+    } // addEnergy
+
+    private boolean isOverridden(String name) {
+        return isOverridden(name, double[].class, int.class);
+    } // isOverridden
+
+    private boolean isOverridden(String name, Class<?>... types) {
+        try {
+            return getClass().getMethod(name, types)
+                    .getDeclaringClass() != Wavelet.class;
+        } catch (NoSuchMethodException e) {
+            return false;
+        } // try
+    } // isOverridden
+
 } // Wavelet
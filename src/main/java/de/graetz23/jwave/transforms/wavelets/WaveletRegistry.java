@@ -0,0 +1,76 @@
+/**
+ * JWave is distributed under the MIT License (MIT); this file is part of.
+ *
+ * Copyright (c) 2008-2025 JWave Christian (graetz23@gmail.com)
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package de.graetz23.jwave.transforms.wavelets;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of shared Wavelet objects; each wavelet is built once by the
+ * WaveletBuilder on its first lookup and the same object is returned for
+ * any later lookup. A Wavelet keeps its coefficients in protected members
+ * and hands out copies only, while forward and reverse work on local arrays;
+ * so a shared object is safe for concurrent use.
+ *
+ * @author Christian (graetz23@gmail.com)
+ */
+public class WaveletRegistry {
+
+    /**
+     * The wavelets built so far by their identifiers.
+     */
+    private static final ConcurrentHashMap<String, Wavelet> _wavelets =
+            new ConcurrentHashMap<String, Wavelet>();
+
+    /**
+     * Returns the shared Wavelet object for a given identifier; thread safe.
+     *
+     * @param waveletName identifier as stored in Wavelet object
+     * @return the shared object of type Wavelet or null if the identifier is
+     * not known
+     * @author Christian (graetz23@gmail.com)
+     */
+    static public Wavelet get(String waveletName) {
+
+        Wavelet wavelet = _wavelets.get(waveletName);
+        if (wavelet == null) // computeIfAbsent blocks a bin; look up first
+            wavelet = _wavelets.computeIfAbsent(waveletName,
+                    WaveletBuilder::create);
+        return wavelet;
+
+    } // get
+
+    /**
+     * Builds all wavelets of WaveletBuilder.create2arr( ) in advance, so no
+     * lookup of them pays for building.
+     *
+     * @author Christian (graetz23@gmail.com)
+     */
+    static public void preload() {
+
+        for (Wavelet wavelet : WaveletBuilder.create2arr())
+            _wavelets.putIfAbsent(wavelet.getName(), wavelet);
+
+    } // preload
+
+} // class
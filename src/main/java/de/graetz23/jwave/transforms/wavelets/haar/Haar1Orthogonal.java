@@ -205,4 +205,20 @@ public class Haar1Orthogonal extends Wavelet {
 
     } // reverse
 
+    /**
+     * The reverse transform in place; the polyphase reverse of Wavelet reduced
+     * by the energy correction factor, as the reverse transform above.
+     *
+     * @author Christian (graetz23@gmail.com)
+     * @see Wavelet#reverse(double[], int, int, double[])
+     */
+    @Override
+    public void reverse(double[] arr, int off, int length, double[] work) {
+
+        getFilterBank().reverse(arr, off, length, arr, off, work);
+        for (int i = off; i < off + length; i++)
+            arr[i] *= _energyCorrectionFactor;
+
+    } // reverse
+
 } // Haar1Orthogonal
@@ -8,8 +8,42 @@
  */
 package de.graetz23.jwave;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import de.graetz23.jwave.compressions.CoefficientCodec;
+import de.graetz23.jwave.compressions.CoefficientDecoder;
+import de.graetz23.jwave.compressions.CoefficientStore;
+import de.graetz23.jwave.compressions.CoefficientStoreWriter;
+import de.graetz23.jwave.compressions.Compression;
+import de.graetz23.jwave.compressions.MagnitudeDistribution;
+import de.graetz23.jwave.compressions.SparseArray;
+import de.graetz23.jwave.compressions.SparseCoefficients;
+import de.graetz23.jwave.compressions.SparseMatrix;
+import de.graetz23.jwave.compressions.SparseSpace;
+import de.graetz23.jwave.compressions.SpihtCodec;
+import de.graetz23.jwave.compressions.SpihtDecoder;
 import de.graetz23.jwave.compressions.Compressor;
+import de.graetz23.jwave.compressions.CompressorError;
 import de.graetz23.jwave.compressions.CompressorMagnitude;
+import de.graetz23.jwave.compressions.CompressorPeaksAverage;
+import de.graetz23.jwave.compressions.CompressorRate;
+import de.graetz23.jwave.compressions.CompressorTopK;
+import de.graetz23.jwave.datatypes.blocks.BlockHash;
+import de.graetz23.jwave.datatypes.lines.LineHash;
+import de.graetz23.jwave.datatypes.spaces.SpaceHash;
+import de.graetz23.jwave.exceptions.JWaveException;
+import de.graetz23.jwave.exceptions.JWaveFailure;
+import de.graetz23.jwave.exceptions.JWaveRuntimeException;
 import de.graetz23.jwave.tools.MathToolKit;
 import de.graetz23.jwave.transforms.FastWaveletTransform;
 import de.graetz23.jwave.transforms.wavelets.Wavelet;
@@ -128,4 +162,716 @@ public class CompressorTest extends Base {
 
   } // testCompressionSteps
 
+  /**
+   * Test the stateless compression methods by sharing one compressor instance
+   * by several threads and by calling it repeatedly.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   */
+  @Test public void testCompressionStateless( ) throws InterruptedException {
+
+    Compressor[ ] compressors =
+        { new CompressorMagnitude( 1.0 ), new CompressorPeaksAverage( 1.0 ) };
+
+    int noOfThreads = 4;
+    int noOfSignals = 8;
+
+    double[ ][ ] arrOfTime = new double[ noOfSignals ][ ];
+    for( int s = 0; s < noOfSignals; s++ )
+      arrOfTime[ s ] =
+          MathToolKit.createSineOscillation( 1024, s + 1 ); // differing peaks
+
+    for( Compressor compressor : compressors ) {
+
+      // sequential results as reference
+      double[ ][ ] arrOfComp = new double[ noOfSignals ][ ];
+      double[ ] arrOfMagnitude = new double[ noOfSignals ];
+      for( int s = 0; s < noOfSignals; s++ ) {
+
+        Compression< double[ ] > compression =
+            compressor.compression( arrOfTime[ s ] );
+        arrOfComp[ s ] = compression.getData( );
+        arrOfMagnitude[ s ] = compression.getMagnitude( );
+
+        assertEquals( compressor.calcCompressionRate( arrOfComp[ s ] ),
+            compression.getCompressionRate( ), 1.e-10 );
+        assertEquals( arrOfTime[ s ].length, compression.getNoOfValues( ) );
+
+      } // s
+
+      // repeated calls of the compress methods do not depend on earlier calls
+      for( int s = noOfSignals - 1; s >= 0; s-- ) {
+        assertArrayEquals( arrOfComp[ s ],
+            compressor.compress( arrOfTime[ s ] ), 0. );
+        assertEquals( arrOfMagnitude[ s ], compressor.getMagnitude( ), 0. );
+      } // s
+
+      // one shared instance used by several threads concurrently
+      Thread[ ] threads = new Thread[ noOfThreads ];
+      boolean[ ] failed = new boolean[ noOfThreads ];
+      for( int t = 0; t < noOfThreads; t++ ) {
+        final int tt = t;
+        threads[ t ] = new Thread( ( ) -> {
+          for( int r = 0; r < 100; r++ ) {
+            int s = ( r + tt ) % noOfSignals;
+            Compression< double[ ] > compression =
+                compressor.compression( arrOfTime[ s ] );
+            if( compression.getMagnitude( ) != arrOfMagnitude[ s ]
+                || !Arrays.equals( compression.getData( ),
+                    arrOfComp[ s ] ) )
+              failed[ tt ] = true;
+          } // r
+        } );
+        threads[ t ].start( );
+      } // t
+      for( int t = 0; t < noOfThreads; t++ ) {
+        threads[ t ].join( );
+        assertEquals( false, failed[ t ] );
+      } // t
+
+    } // compressor
+
+  } // testCompressionStateless
+
+  /**
+   * Tests that a derived class written against the former interface, only
+   * implementing the compress methods and storing the magnitude, still drives
+   * the stateless compression methods; and that a derived class implementing
+   * neither fails instead of recursing.
+   *
+   * @author Christian (graetz23@gmail.com)
+   */
+  @Test public void testCompressionFormerInterface( ) {
+
+    Compressor former = new Compressor( 0.5 ) {
+      @Override public double[ ] compress( double[ ] arrHilb ) {
+        _magnitude = 0.;
+        for( double val : arrHilb )
+          _magnitude = Math.max( _magnitude, Math.abs( val ) );
+        return compress( arrHilb, _magnitude );
+      } // compress
+    };
+
+    double[ ] arrHilb = { 4., -1., 3., 0.5, -2.5, 0. };
+    double[ ] arrExpected = { 4., 0., 3., 0., -2.5, 0. };
+
+    Compression< double[ ] > compression = former.compression( arrHilb );
+    assertEquals( 4., compression.getMagnitude( ), 0. );
+    assertArrayEquals( arrExpected, compression.getData( ), 0. );
+    assertEquals( 3, compression.getNoOfNonZeros( ) );
+    assertArrayEquals( arrExpected, former.compressSparse( arrHilb ).toArray( ),
+        0. );
+
+    Compressor neither = new Compressor( 1. ) { };
+    JWaveRuntimeException.Code code = null;
+    try {
+      neither.compress( arrHilb );
+    } catch( JWaveRuntimeException e ) {
+      code = e.getCode( );
+    } // try
+    assertEquals( JWaveRuntimeException.Code.NOT_IMPLEMENTED, code );
+
+  } // testCompressionFormerInterface
+
+  /**
+   * Test compressing in place and into a buffer of the caller against the
+   * compression allocating its result; large enough for running in parallel.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   */
+  @Test public void testCompressionInPlace( ) {
+
+    Compressor[ ] compressors =
+        { new CompressorMagnitude( 1.0 ), new CompressorPeaksAverage( 0.5 ) };
+
+    int noOfRows = 640;
+    int noOfCols = 512;
+    double[ ][ ] matHilb = new double[ noOfRows ][ ];
+    for( int i = 0; i < noOfRows; i++ )
+      matHilb[ i ] = MathToolKit.createSineOscillation( noOfCols, i % 7 + 1 );
+
+    int noOfLvls = 64;
+    double[ ][ ][ ] spcHilb = new double[ 80 ][ 64 ][ ];
+    for( int i = 0; i < spcHilb.length; i++ )
+      for( int j = 0; j < spcHilb[ i ].length; j++ )
+        spcHilb[ i ][ j ] =
+            MathToolKit.createSineOscillation( noOfLvls, ( i + j ) % 5 + 1 );
+
+    for( Compressor compressor : compressors ) {
+
+      double[ ] arrHilb = matHilb[ 3 ].clone( );
+      Compression< double[ ] > arrCompression =
+          compressor.compression( arrHilb );
+      assertEquals( arrCompression.getNoOfNonZeros( ),
+          compressor.compress( arrHilb, arrHilb ) );
+      assertArrayEquals( arrCompression.getData( ), arrHilb, 0. );
+
+      Compression< double[ ][ ] > matCompression =
+          compressor.compression( matHilb );
+      double[ ][ ] matComp = new double[ noOfRows ][ noOfCols ];
+      long noOfNonZeros = compressor.compress( matHilb, matComp );
+      assertEquals( matCompression.getNoOfNonZeros( ), noOfNonZeros );
+      for( int i = 0; i < noOfRows; i++ )
+        assertArrayEquals( matCompression.getData( )[ i ], matComp[ i ], 0. );
+      assertEquals( matCompression.getCompressionRate( ),
+          Compressor.calcCompressionRate( noOfNonZeros,
+              (long)noOfRows * noOfCols ), 0. );
+
+      Compression< double[ ][ ][ ] > spcCompression =
+          compressor.compression( spcHilb );
+      double[ ][ ][ ] spcComp = new double[ spcHilb.length ][ ][ ];
+      for( int i = 0; i < spcHilb.length; i++ ) {
+        spcComp[ i ] = new double[ spcHilb[ i ].length ][ ];
+        for( int j = 0; j < spcHilb[ i ].length; j++ )
+          spcComp[ i ][ j ] = spcHilb[ i ][ j ].clone( );
+      } // i
+      assertEquals( spcCompression.getNoOfNonZeros( ),
+          compressor.compress( spcComp, spcComp ) );
+      for( int i = 0; i < spcHilb.length; i++ )
+        for( int j = 0; j < spcHilb[ i ].length; j++ )
+          assertArrayEquals( spcCompression.getData( )[ i ][ j ],
+              spcComp[ i ][ j ], 0. );
+
+    } // compressor
+
+  } // testCompressionInPlace
+
+  /**
+   * Test keeping the K largest coefficients against sorting all magnitudes;
+   * with many ties and large enough for running in parallel.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   */
+  @Test public void testCompressionTopK( ) throws JWaveException {
+
+    Random random = new Random( 42 );
+
+    int noOfRows = 600;
+    int noOfCols = 500;
+    double[ ][ ] matHilb = new double[ noOfRows ][ noOfCols ];
+    for( int i = 0; i < noOfRows; i++ )
+      for( int j = 0; j < noOfCols; j++ )
+        matHilb[ i ][ j ] = random.nextInt( 201 ) - 100; // ties and zeros
+
+    double[ ] sorted = new double[ noOfRows * noOfCols ];
+    for( int i = 0; i < noOfRows; i++ )
+      for( int j = 0; j < noOfCols; j++ )
+        sorted[ i * noOfCols + j ] = Math.abs( matHilb[ i ][ j ] );
+    Arrays.sort( sorted );
+
+    int[ ] arrOfK = { 0, 1, 1000, 12345, sorted.length / 2 };
+    for( int noOfCoefficients : arrOfK ) {
+
+      CompressorTopK compressor = new CompressorTopK( noOfCoefficients );
+
+      double kth = noOfCoefficients == 0 ? Double.POSITIVE_INFINITY
+          : sorted[ sorted.length - noOfCoefficients ];
+      assertEquals( kth, compressor.calcMagnitude( matHilb ), 0. );
+
+      BlockHash block = compressor.select( matHilb );
+      int[ ] noOfSelected = new int[ 1 ];
+      double[ ] smallest = { Double.MAX_VALUE };
+      block.forEachNonZero( ( i, j, value ) -> {
+        assertEquals( matHilb[ i ][ j ], value, 0. );
+        noOfSelected[ 0 ]++;
+        smallest[ 0 ] = Math.min( smallest[ 0 ], Math.abs( value ) );
+      } );
+      assertEquals( noOfCoefficients, noOfSelected[ 0 ] );
+      if( noOfCoefficients > 0 )
+        assertEquals( kth, smallest[ 0 ], 0. );
+
+      // dense compression keeps all ties of the K-th largest magnitude
+      long noOfNonZeros =
+          compressor.compress( matHilb, new double[ noOfRows ][ noOfCols ] );
+      assertEquals( true, noOfNonZeros >= noOfCoefficients );
+
+    } // noOfCoefficients
+
+    // magnitudes over all exponents, a constant narrowed by all histogram
+    // passes, and signed zeros
+    double[ ][ ] matWide = new double[ 300 ][ 1000 ];
+    double[ ][ ] matConst = new double[ 300 ][ 1000 ];
+    double[ ][ ] matZeros = new double[ 300 ][ 1000 ];
+    double[ ] sortedWide = new double[ 300 * 1000 ];
+    for( int i = 0; i < 300; i++ )
+      for( int j = 0; j < 1000; j++ ) {
+        matWide[ i ][ j ] =
+            random.nextGaussian( ) * Math.pow( 10., random.nextInt( 601 ) - 300 );
+        matConst[ i ][ j ] = j % 2 == 0 ? 7.25 : -7.25;
+        matZeros[ i ][ j ] = j % 3 == 0 ? -0. : ( j % 3 == 1 ? 0. : 1. );
+        sortedWide[ i * 1000 + j ] = Math.abs( matWide[ i ][ j ] );
+      } // j
+    Arrays.sort( sortedWide );
+    for( int noOfCoefficients : new int[ ] { 1, 777, 150000, 299999 } ) {
+      CompressorTopK compressor = new CompressorTopK( noOfCoefficients );
+      assertEquals( sortedWide[ sortedWide.length - noOfCoefficients ],
+          compressor.calcMagnitude( matWide ), 0. );
+      assertEquals( 7.25, compressor.calcMagnitude( matConst ), 0. );
+      assertEquals( noOfCoefficients <= 100000 ? 1. : 0.,
+          compressor.calcMagnitude( matZeros ), 0. );
+    } // noOfCoefficients
+
+    // a fraction on arrays and spaces
+    CompressorTopK compressor = new CompressorTopK( .1 );
+
+    double[ ] arrHilb = MathToolKit.createSineOscillation( 100000, 7 );
+    LineHash line = compressor.select( arrHilb );
+    assertEquals( 10000, line.getNoOfStored( ) );
+
+    double[ ][ ][ ] spcHilb = new double[ 16 ][ 32 ][ 64 ];
+    for( int i = 0; i < 16; i++ )
+      for( int j = 0; j < 32; j++ )
+        for( int k = 0; k < 64; k++ )
+          spcHilb[ i ][ j ][ k ] = random.nextGaussian( );
+    SpaceHash space = compressor.select( spcHilb );
+    int[ ] noOfSelected = new int[ 1 ];
+    double limit = compressor.calcMagnitude( spcHilb );
+    space.forEachNonZero( ( i, j, k, value ) -> {
+      assertEquals( spcHilb[ i ][ j ][ k ], value, 0. );
+      assertEquals( true, Math.abs( value ) >= limit );
+      noOfSelected[ 0 ]++;
+    } );
+    assertEquals( Math.round( .1 * 16 * 32 * 64 ), noOfSelected[ 0 ] );
+
+  } // testCompressionTopK
+
+  /**
+   * Test compressing to a target compression rate and by an error bound.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   */
+  @Test public void testCompressionRateAndError( ) {
+
+    Random random = new Random( 7 );
+
+    int noOfRows = 300;
+    int noOfCols = 200;
+    double[ ][ ] matHilb = new double[ noOfRows ][ noOfCols ];
+    for( int i = 0; i < noOfRows; i++ )
+      for( int j = 0; j < noOfCols; j++ )
+        matHilb[ i ][ j ] = i % 10 == 0 ? 0. : random.nextInt( 1000 ) * .01;
+    long noOfValues = (long)noOfRows * noOfCols;
+
+    MagnitudeDistribution distribution = new MagnitudeDistribution( matHilb );
+
+    double[ ] arrOfRates = { 0., 50., 95., 99.9, 100. };
+    for( double rate : arrOfRates ) {
+
+      CompressorRate compressor = new CompressorRate( rate );
+      double[ ][ ] matComp = new double[ noOfRows ][ noOfCols ];
+      long noOfNonZeros = compressor.compress( matHilb, matComp );
+      double achieved = Compressor.calcCompressionRate( noOfNonZeros, noOfValues );
+
+      assertEquals( true, achieved >= rate );
+      assertEquals( compressor.calcMagnitude( distribution ),
+          compressor.calcMagnitude( matHilb ), 0. );
+      assertEquals( achieved, distribution.calcCompressionRate(
+          compressor.calcMagnitude( distribution ) ), 1.e-10 );
+
+    } // rate
+
+    double[ ] arrOfErrors = { 0., 1., 10., 100., 1.e6 };
+    for( double error : arrOfErrors ) {
+
+      CompressorError compressor = new CompressorError( error );
+      double[ ][ ] matComp = new double[ noOfRows ][ noOfCols ];
+      compressor.compress( matHilb, matComp );
+
+      double sum = 0.;
+      double smallestKept = Double.MAX_VALUE;
+      for( int i = 0; i < noOfRows; i++ )
+        for( int j = 0; j < noOfCols; j++ ) {
+          double diff = matHilb[ i ][ j ] - matComp[ i ][ j ];
+          sum += diff * diff;
+          if( matComp[ i ][ j ] != 0. )
+            smallestKept = Math.min( smallestKept, Math.abs( matComp[ i ][ j ] ) );
+        } // j
+      assertEquals( true, Math.sqrt( sum ) <= error );
+      assertEquals( Math.sqrt( sum ),
+          distribution.calcError( compressor.calcMagnitude( matHilb ) ), 1.e-6 );
+
+      // dropping the next magnitude as well breaks the bound
+      if( smallestKept < Double.MAX_VALUE )
+        assertEquals( true,
+            distribution.calcError( Math.nextUp( smallestKept ) ) > error );
+
+    } // error
+
+  } // testCompressionRateAndError
+
+  /**
+   * Test compressing to sparse coefficients and transforming back straight
+   * from them against the dense compression.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   */
+  @Test public void testCompressionSparse( ) {
+
+    Random random = new Random( 11 );
+
+    Transform fwt = new Transform(
+        new FastWaveletTransform( WaveletBuilder.create( "Daubechies 4" ) ) );
+
+    double[ ] arrTime = MathToolKit.createSineOscillation( 4096, 3 );
+    double[ ][ ] matTime = new double[ 64 ][ 32 ];
+    for( int i = 0; i < 64; i++ )
+      for( int j = 0; j < 32; j++ )
+        matTime[ i ][ j ] = Math.sin( i * .1 ) * Math.cos( j * .2 );
+    double[ ][ ][ ] spcTime = new double[ 16 ][ 8 ][ 32 ];
+    for( int i = 0; i < 16; i++ )
+      for( int j = 0; j < 8; j++ )
+        for( int k = 0; k < 32; k++ )
+          spcTime[ i ][ j ][ k ] = random.nextGaussian( );
+
+    Compressor[ ] compressors = { new CompressorRate( 98. ),
+        new CompressorRate( 10. ), new CompressorMagnitude( 1.0 ) };
+
+    for( Compressor compressor : compressors ) {
+
+      double[ ] arrHilb = fwt.forward( arrTime );
+      SparseArray sparseArr = compressor.compressSparse( arrHilb );
+      double[ ] arrComp = compressor.compress( arrHilb );
+      assertArrayEquals( arrComp, sparseArr.toArray( ), 0. );
+      assertEquals( compressor.calcCompressionRate( arrComp ),
+          sparseArr.getCompressionRate( ), 1.e-10 );
+      assertEquals( true, sparseArr.getNoOfBytes( ) <= 8L * arrComp.length );
+      assertArrayEquals( fwt.reverse( arrComp ), fwt.reverse( sparseArr ),
+          1.e-10 );
+
+      double[ ][ ] matHilb = fwt.forward( matTime );
+      SparseMatrix sparseMat = compressor.compressSparse( matHilb );
+      double[ ][ ] matComp = compressor.compress( matHilb );
+      double[ ][ ] matReco = fwt.reverse( matComp );
+      double[ ][ ] matSparse = fwt.reverse( sparseMat );
+      for( int i = 0; i < matComp.length; i++ ) {
+        assertArrayEquals( matComp[ i ], sparseMat.toArray( )[ i ], 0. );
+        assertArrayEquals( matReco[ i ], matSparse[ i ], 1.e-10 );
+      } // i
+
+      double[ ][ ][ ] spcHilb = fwt.forward( spcTime, 3, 5, 4 );
+      SparseSpace sparseSpc = compressor.compressSparse( spcHilb );
+      double[ ][ ][ ] spcComp = compressor.compress( spcHilb );
+      double[ ][ ][ ] spcReco = fwt.reverse( spcComp, 3, 5, 4 );
+      double[ ][ ][ ] spcSparse = fwt.reverse( sparseSpc, 3, 5, 4 );
+      for( int i = 0; i < spcComp.length; i++ )
+        for( int j = 0; j < spcComp[ i ].length; j++ ) {
+          assertArrayEquals( spcComp[ i ][ j ], sparseSpc.toArray( )[ i ][ j ],
+              0. );
+          assertArrayEquals( spcReco[ i ][ j ], spcSparse[ i ][ j ], 1.e-10 );
+        } // j
+
+    } // compressor
+
+    // the smaller encoding is chosen
+    assertEquals( SparseCoefficients.Encoding.DELTAS,
+        new CompressorRate( 98. ).compressSparse( fwt.forward( arrTime ) )
+            .getEncoding( ) );
+    assertEquals( SparseCoefficients.Encoding.BITMAP,
+        new CompressorRate( 10. ).compressSparse( fwt.forward( arrTime ) )
+            .getEncoding( ) );
+
+  } // testCompressionSparse
+
+  /**
+   * Test the quantizing and entropy coding codec; errors are bound by the step
+   * sizes and the stream is decoded one by one as well as at once.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   */
+  @Test public void testCoefficientCodec( ) throws JWaveException {
+
+    Transform fwt = new Transform(
+        new FastWaveletTransform( WaveletBuilder.create( "Daubechies 4" ) ) );
+
+    double[ ] arrTime = MathToolKit.createSineOscillation( 1 << 16, 5 );
+    double[ ] arrHilb = fwt.forward( arrTime );
+
+    double step = 1.e-3;
+    double[ ] scales = { 1., 1., 1., 1., 2., 4., 8. };
+    CoefficientCodec[ ] codecs = { new CoefficientCodec( step ),
+        new CoefficientCodec( step, 1. ),
+        new CoefficientCodec( step, .5, scales ) };
+
+    for( CoefficientCodec codec : codecs ) {
+
+      ByteBuffer buffer = codec.encode( arrHilb );
+      assertEquals( true, buffer.remaining( ) * 10L < 8L * arrHilb.length );
+
+      double[ ] arrDeco = CoefficientCodec.decoder( buffer ).decodeArray( );
+      assertEquals( 0, buffer.remaining( ) ); // moved behind the stream
+      for( int i = 0; i < arrHilb.length; i++ )
+        assertEquals( arrHilb[ i ], arrDeco[ i ],
+            codec.getStep( CoefficientCodec.calcBand( i ) ) );
+
+      // streaming in small chunks gives the same
+      buffer.rewind( );
+      CoefficientDecoder decoder = CoefficientCodec.decoder( buffer );
+      double[ ] chunk = new double[ 1000 ];
+      int pos = 0;
+      int n;
+      while( ( n = decoder.read( chunk, 0, chunk.length ) ) > 0 ) {
+        for( int i = 0; i < n; i++ )
+          assertEquals( arrDeco[ pos + i ], chunk[ i ], 0. );
+        pos += n;
+      } // while
+      assertEquals( arrHilb.length, pos );
+
+    } // codec
+
+    // matrices and spaces of random values, large and small magnitudes
+    Random random = new Random( 3 );
+    double[ ][ ] matHilb = new double[ 33 ][ 17 ];
+    for( double[ ] arr : matHilb )
+      for( int j = 0; j < arr.length; j++ )
+        arr[ j ] = random.nextGaussian( ) * Math.pow( 10., random.nextInt( 9 ) - 4 );
+    double[ ][ ][ ] spcHilb = new double[ 5 ][ 6 ][ 7 ];
+    for( double[ ][ ] mat : spcHilb )
+      for( double[ ] arr : mat )
+        for( int k = 0; k < arr.length; k++ )
+          arr[ k ] = random.nextInt( 3 ) == 0 ? random.nextGaussian( ) : 0.;
+
+    CoefficientCodec codec = new CoefficientCodec( step, .2, scales );
+    double[ ][ ] matDeco =
+        CoefficientCodec.decoder( codec.encode( matHilb ) ).decodeMatrix( );
+    for( int i = 0; i < matHilb.length; i++ )
+      for( int j = 0; j < matHilb[ i ].length; j++ )
+        assertEquals( matHilb[ i ][ j ], matDeco[ i ][ j ], codec.getStep(
+            Math.max( CoefficientCodec.calcBand( i ),
+                CoefficientCodec.calcBand( j ) ) ) );
+
+    double[ ][ ][ ] spcDeco =
+        CoefficientCodec.decoder( codec.encode( spcHilb ) ).decodeSpace( );
+    for( int i = 0; i < spcHilb.length; i++ )
+      for( int j = 0; j < spcHilb[ i ].length; j++ )
+        for( int k = 0; k < spcHilb[ i ][ j ].length; k++ )
+          assertEquals( spcHilb[ i ][ j ][ k ], spcDeco[ i ][ j ][ k ], 8. * step );
+
+    // large bins round trip within the step size
+    double[ ][ ] arrOfLarge =
+        { { 1.e18, -4.e17, 0., 3.5 }, { 1.e-290, 0., -2.e-295, 0. } };
+    double[ ] arrOfStep = { 1., 1.e-300 };
+    for( int c = 0; c < arrOfLarge.length; c++ ) {
+      CoefficientCodec large = new CoefficientCodec( arrOfStep[ c ] );
+      double[ ] arrDeco = CoefficientCodec
+          .decoder( large.encode( arrOfLarge[ c ] ) ).decodeArray( );
+      for( int i = 0; i < arrDeco.length; i++ )
+        assertEquals( arrOfLarge[ c ][ i ], arrDeco[ i ], arrOfStep[ c ] );
+    } // c
+
+    // values not finite or beyond the bins are reported, not decoded wrong
+    double[ ][ ] arrOfInvalid =
+        { { 0., 1.e300 }, { 1., Double.POSITIVE_INFINITY },
+            { Double.NEGATIVE_INFINITY }, { Double.NaN, 0. } };
+    double[ ] arrOfInvalidStep = { 1.e-300, 1., 1., 1. };
+    for( int c = 0; c < arrOfInvalid.length; c++ ) {
+      boolean isRejected = false;
+      try {
+        new CoefficientCodec( arrOfInvalidStep[ c ] )
+            .encode( arrOfInvalid[ c ] );
+      } catch( JWaveFailure e ) {
+        isRejected = true;
+      } // try
+      assertTrue( isRejected );
+    } // c
+    assertEquals( false, CoefficientCodec.isQuantizable( 1.e300, 1.e-300 ) );
+    assertEquals( true, CoefficientCodec.isQuantizable( 1.e18, 1. ) );
+
+    // broken streams are reported
+    ByteBuffer truncated = codec.encode( matHilb );
+    truncated.limit( truncated.limit( ) - 10 );
+    boolean isReported = false;
+    try {
+      CoefficientCodec.decoder( truncated );
+    } catch( JWaveException e ) {
+      isReported = true;
+    } // try
+    assertEquals( true, isReported );
+
+  } // testCoefficientCodec
+
+  @Test public void testSpihtCodec( ) throws JWaveException {
+
+    Transform fwt = new Transform(
+        new FastWaveletTransform( WaveletBuilder.create( "Daubechies 4" ) ) );
+
+    Random random = new Random( 5 );
+    double[ ][ ] matTime = new double[ 64 ][ 128 ];
+    for( int i = 0; i < 64; i++ )
+      for( int j = 0; j < 128; j++ )
+        matTime[ i ][ j ] = Math.sin( i * .1 ) * Math.cos( j * .05 ) + .01
+            * random.nextGaussian( );
+    double[ ][ ] matHilb = fwt.forward( matTime );
+
+    double minThreshold = 1.e-4;
+    SpihtCodec codec = new SpihtCodec( minThreshold );
+    ByteBuffer buffer = codec.encode( matHilb );
+
+    // complete stream is accurate up to the smallest threshold
+    double[ ][ ] matDeco = SpihtCodec.decode( buffer.duplicate( ) );
+    for( int i = 0; i < 64; i++ )
+      for( int j = 0; j < 128; j++ )
+        assertEquals( matHilb[ i ][ j ], matDeco[ i ][ j ], minThreshold );
+
+    // longer prefixes never give a larger error
+    double lastError = Double.MAX_VALUE;
+    for( int length = 29; length <= buffer.limit( ); length += 97 ) {
+      ByteBuffer prefix = buffer.duplicate( );
+      prefix.limit( length );
+      double error = calcError( matHilb, SpihtCodec.decode( prefix ) );
+      assertTrue( error <= lastError );
+      lastError = error;
+    } // length
+
+    // a budget gives the prefix of the complete stream
+    ByteBuffer budget = codec.encode( matHilb, 6, 500 );
+    assertEquals( 500, budget.limit( ) );
+    ByteBuffer prefix = buffer.duplicate( );
+    prefix.limit( 500 );
+    assertEquals( prefix, budget );
+
+    // decoding pieces as they arrive gives the same as decoding at once
+    SpihtDecoder decoder = new SpihtDecoder( );
+    double lastProgress = Double.MAX_VALUE;
+    for( int pos = 0; pos < buffer.limit( ); pos += 13 ) {
+      ByteBuffer piece = buffer.duplicate( );
+      piece.position( pos );
+      piece.limit( Math.min( pos + 13, buffer.limit( ) ) );
+      decoder.update( piece );
+      if( decoder.getCoefficients( ) != null ) {
+        double error = calcError( matHilb, decoder.getCoefficients( ) );
+        assertTrue( error <= lastProgress );
+        lastProgress = error;
+      } // if
+    } // pos
+    decoder.finish( );
+    assertTrue( decoder.isComplete( ) );
+    for( int i = 0; i < 64; i++ )
+      assertArrayEquals( matDeco[ i ], decoder.getCoefficients( )[ i ], 0. );
+
+    // reconstruction of complete stream
+    double[ ][ ] matReco = fwt.reverse( matDeco );
+    for( int i = 0; i < 64; i++ )
+      for( int j = 0; j < 128; j++ )
+        assertEquals( matTime[ i ][ j ], matReco[ i ][ j ], 1.e-2 );
+
+    // dimensions of no power of two are reported
+    boolean isReported = false;
+    try {
+      codec.encode( new double[ 12 ][ 16 ] );
+    } catch( JWaveException e ) {
+      isReported = true;
+    } // try
+    assertTrue( isReported );
+
+  } // testSpihtCodec
+
+  @Test public void testCoefficientStore( ) throws JWaveException, IOException {
+
+    Wavelet wavelet = WaveletBuilder.create( "Daubechies 4" );
+    FastWaveletTransform fwt = new FastWaveletTransform( wavelet );
+
+    Random random = new Random( 13 );
+    double[ ] arrTime = new double[ 1 << 14 ];
+    for( int i = 0; i < arrTime.length; i++ )
+      arrTime[ i ] = Math.sin( i * .01 ) + random.nextGaussian( );
+    int noOfLevels = 9;
+    double[ ] arrHilb = fwt.forward( arrTime, noOfLevels );
+
+    Path path = Files.createTempFile( "jwave", ".jwcs" );
+    try {
+
+      // levels written while transforming equal the complete decomposition
+      try( CoefficientStoreWriter writer =
+          new CoefficientStoreWriter( path, arrTime.length, noOfLevels ) ) {
+        writer.forward( wavelet, arrTime );
+      } // writer
+
+      try( CoefficientStore store = new CoefficientStore( path ) ) {
+
+        assertEquals( arrTime.length, store.getLength( ) );
+        assertEquals( noOfLevels, store.getNoOfLevels( ) );
+        assertArrayEquals( arrHilb, store.toArray( ), 0. );
+        assertArrayEquals( arrTime, fwt.reverse( store.toArray( ), noOfLevels ),
+            1.e-10 );
+
+        // a single level and a time range of it
+        int level = 3;
+        DoubleBuffer details = store.getDetails( level );
+        int n = arrTime.length >> level;
+        assertEquals( n, details.remaining( ) );
+        int first = arrTime.length >> noOfLevels;
+        for( int l = noOfLevels; l > level; l-- )
+          first += arrTime.length >> l;
+        for( int i = 0; i < n; i++ )
+          assertEquals( arrHilb[ first + i ], details.get( i ), 0. );
+
+        DoubleBuffer range = store.getDetails( level, 100, 50 );
+        assertEquals( 50, range.remaining( ) );
+        for( int i = 0; i < 50; i++ )
+          assertEquals( arrHilb[ first + 100 + i ], range.get( ), 0. );
+        assertTrue( range.isReadOnly( ) );
+
+        DoubleBuffer approximation = store.getApproximation( );
+        assertEquals( arrTime.length >> noOfLevels, approximation.remaining( ) );
+        assertEquals( arrHilb[ 0 ], approximation.get( 0 ), 0. );
+
+        // ranges out of the subband are reported
+        boolean isReported = false;
+        try {
+          store.getDetails( level, n - 10, 11 );
+        } catch( JWaveException e ) {
+          isReported = true;
+        } // try
+        assertTrue( isReported );
+
+      } // store
+
+      // pieces of subbands in any order give the same file
+      try( CoefficientStoreWriter writer =
+          new CoefficientStoreWriter( path, arrTime.length, noOfLevels ) ) {
+        for( int pos = arrHilb.length; pos > 0; pos -= 1000 ) {
+          int from = Math.max( 0, pos - 1000 );
+          double[ ] piece = Arrays.copyOfRange( arrHilb, from, pos );
+          int start = 0;
+          int length = arrTime.length >> noOfLevels;
+          if( from < length )
+            writer.writeApproximation( from, piece, 0,
+                Math.min( piece.length, length - from ) );
+          for( int l = noOfLevels; l >= 1; l-- ) {
+            start += length;
+            length = arrTime.length >> l;
+            int a = Math.max( from, start );
+            int b = Math.min( pos, start + length );
+            if( a < b )
+              writer.writeDetails( l, a - start, piece, a - from, b - a );
+          } // l
+        } // pos
+      } // writer
+
+      try( CoefficientStore store = new CoefficientStore( path ) ) {
+        assertArrayEquals( arrHilb, store.toArray( ), 0. );
+      } // store
+
+    } finally {
+      Files.delete( path );
+    } // try
+
+  } // testCoefficientStore
+
+  /**
+   * Sum of squared differences.
+   */
+  private static double calcError( double[ ][ ] matExpected,
+      double[ ][ ] matActual ) {
+
+    double error = 0.;
+    for( int i = 0; i < matExpected.length; i++ )
+      for( int j = 0; j < matExpected[ i ].length; j++ ) {
+        double d = matExpected[ i ][ j ] - matActual[ i ][ j ];
+        error += d * d;
+      } // j
+    return error;
+
+  } // calcError
+
 } // CompressorTest
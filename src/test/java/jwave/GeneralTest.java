@@ -8,14 +8,60 @@
  */
 package de.graetz23.jwave;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.DoubleBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
 
+import de.graetz23.jwave.datatypes.blocks.Block;
+import de.graetz23.jwave.datatypes.blocks.BlockHash;
+import de.graetz23.jwave.datatypes.lines.Line;
+import de.graetz23.jwave.datatypes.lines.LineHash;
+import de.graetz23.jwave.datatypes.spaces.Space;
+import de.graetz23.jwave.datatypes.spaces.SpaceFlat;
+import de.graetz23.jwave.datatypes.spaces.SpaceHash;
+import de.graetz23.jwave.datatypes.spaces.SpaceOffHeap;
+import de.graetz23.jwave.exceptions.JWaveException;
 import de.graetz23.jwave.exceptions.JWaveFailure;
+import de.graetz23.jwave.exceptions.JWaveRuntimeException;
+import de.graetz23.jwave.exceptions.JWaveRuntimeException.Code;
+import de.graetz23.jwave.metrics.Metrics;
+import de.graetz23.jwave.metrics.MetricsProvider;
+import de.graetz23.jwave.metrics.TransformInfo;
 import de.graetz23.jwave.tools.MathToolKit;
+import de.graetz23.jwave.tools.WorkspacePool;
+import de.graetz23.jwave.transforms.AncientEgyptianDecomposition;
+import de.graetz23.jwave.transforms.BasicTransform;
 import de.graetz23.jwave.transforms.DiscreteFourierTransform;
 import de.graetz23.jwave.transforms.FastWaveletTransform;
+import de.graetz23.jwave.transforms.WaveletPacketTransform;
+import de.graetz23.jwave.transforms.wavelets.FilterBank;
+import de.graetz23.jwave.transforms.wavelets.FilterBank.Filter;
 import de.graetz23.jwave.transforms.wavelets.Wavelet;
 import de.graetz23.jwave.transforms.wavelets.WaveletBuilder;
+import de.graetz23.jwave.transforms.wavelets.WaveletRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.Test;
 
 
@@ -81,6 +127,413 @@ public class GeneralTest extends Base {
    * @date 22.03.2015 17:03:44
    * @throws JWaveFailure
    */
+  /**
+   * Test the registry hands out one shared and working Wavelet object per
+   * identifier, also for concurrent lookups.
+   */
+  @Test public void testWaveletRegistry( ) throws JWaveException {
+
+    Wavelet[ ] arrOfWaveletObjects = WaveletBuilder.create2arr( );
+    for( Wavelet expected : arrOfWaveletObjects ) {
+
+      String name = expected.getName( );
+      Wavelet wavelet = WaveletRegistry.get( name );
+      assertEquals( name, wavelet.getName( ) );
+      assertArray( expected.getScalingDeComposition( ),
+          wavelet.getScalingDeComposition( ), 0. );
+      assertArray( expected.getWaveletReConstruction( ),
+          wavelet.getWaveletReConstruction( ), 0. );
+
+      Wavelet[ ] arrShared = new Wavelet[ 64 ];
+      IntStream.range( 0, arrShared.length ).parallel( )
+          .forEach( i -> arrShared[ i ] = WaveletRegistry.get( name ) );
+      for( Wavelet shared : arrShared )
+        assertEquals( true, shared == wavelet );
+
+    } // expected
+
+    double[ ] arrTime = { 1., 2., 3., 4., 5., 6., 7., 8. };
+    Transform fresh = new Transform(
+        new FastWaveletTransform( WaveletBuilder.create( "Daubechies 2" ) ) );
+    Transform shared =
+        TransformBuilder.create( "Fast Wavelet Transform", "Daubechies 2" );
+    assertArray( fresh.forward( arrTime ), shared.forward( arrTime ), 0. );
+
+    assertEquals( null, WaveletRegistry.get( "unknown" ) );
+
+  } // testWaveletRegistry
+
+  /**
+   * Test the filter bank keeps the filters of the wavelet and derives
+   * reversed, polyphase, and dilated taps; all views are read only.
+   */
+  @Test public void testFilterBank( ) {
+
+    Wavelet wavelet = WaveletBuilder.create( "Daubechies 4" );
+    FilterBank filterBank = wavelet.getFilterBank( );
+    assertEquals( true, filterBank == wavelet.getFilterBank( ) );
+
+    double[ ][ ] arrFilters = { wavelet.getScalingDeComposition( ),
+        wavelet.getWaveletDeComposition( ), wavelet.getScalingReConstruction( ),
+        wavelet.getWaveletReConstruction( ) };
+    for( Filter filter : Filter.values( ) ) {
+
+      double[ ] taps = arrFilters[ filter.ordinal( ) ];
+      int length = taps.length;
+      assertEquals( length, filterBank.getLength( filter ) );
+
+      DoubleBuffer view = filterBank.getTaps( filter );
+      DoubleBuffer reversed = filterBank.getReversed( filter );
+      DoubleBuffer even = filterBank.getEven( filter );
+      DoubleBuffer odd = filterBank.getOdd( filter );
+      assertEquals( true, view.isReadOnly( ) );
+      assertEquals( length, even.remaining( ) + odd.remaining( ) );
+      for( int i = 0; i < length; i++ ) {
+        assertEquals( taps[ i ], filterBank.getTap( filter, i ), 0. );
+        assertEquals( taps[ i ], view.get( i ), 0. );
+        assertEquals( taps[ i ], reversed.get( length - 1 - i ), 0. );
+        assertEquals( taps[ i ], ( i % 2 == 0 ? even : odd ).get( i / 2 ), 0. );
+      } // i
+
+      DoubleBuffer dilated = filterBank.getDilated( filter, 2 );
+      assertEquals( ( length - 1 ) * 4 + 1, dilated.remaining( ) );
+      for( int i = 0; i < dilated.remaining( ); i++ )
+        assertEquals( i % 4 == 0 ? taps[ i / 4 ] : 0., dilated.get( i ), 0. );
+
+      boolean isReported = false;
+      try {
+        view.put( 0, 1. );
+      } catch( ReadOnlyBufferException e ) {
+        isReported = true;
+      } // try
+      assertEquals( true, isReported );
+
+    } // filter
+
+    // polyphase kernels match the direct convolution with circulation, also
+    // for filters longer than the signal
+    double[ ] scaling = wavelet.getScalingDeComposition( );
+    double[ ] details = wavelet.getWaveletDeComposition( );
+    Random random = new Random( 7 );
+    for( int length = 2; length <= 64; length <<= 1 ) {
+
+      double[ ] arrTime = new double[ length ];
+      for( int i = 0; i < length; i++ )
+        arrTime[ i ] = random.nextGaussian( );
+
+      int h = length >> 1;
+      double[ ] expected = new double[ length ];
+      for( int i = 0; i < h; i++ )
+        for( int j = 0; j < scaling.length; j++ ) {
+          int k = ( ( i << 1 ) + j ) % length;
+          expected[ i ] += arrTime[ k ] * scaling[ j ];
+          expected[ i + h ] += arrTime[ k ] * details[ j ];
+        } // j
+
+      double[ ] arrHilb = new double[ length ];
+      filterBank.forward( arrTime, length, arrHilb );
+      assertArray( expected, arrHilb, 1.e-12 );
+
+      double[ ] arrReco = new double[ length ];
+      filterBank.reverse( arrHilb, length, arrReco );
+      assertArray( arrTime, arrReco, 1.e-10 );
+
+    } // length
+
+  } // testFilterBank
+
+  /**
+   * Test the strict facade gives the results of Transform and reports bad
+   * inputs by error codes instead of null.
+   */
+  @Test public void testStrictTransform( ) {
+
+    Transform transform = new Transform(
+        new FastWaveletTransform( WaveletBuilder.create( "Daubechies 3" ) ) );
+    StrictTransform strict = new StrictTransform( transform );
+
+    Random random = new Random( 17 );
+    double[ ] arrTime = new double[ 64 ];
+    for( int i = 0; i < arrTime.length; i++ )
+      arrTime[ i ] = random.nextGaussian( );
+    double[ ][ ] matTime = new double[ 16 ][ 32 ];
+    for( double[ ] arr : matTime )
+      for( int j = 0; j < arr.length; j++ )
+        arr[ j ] = random.nextGaussian( );
+    double[ ][ ][ ] spcTime = new double[ 4 ][ 8 ][ 16 ];
+    for( double[ ][ ] mat : spcTime )
+      for( double[ ] arr : mat )
+        for( int k = 0; k < arr.length; k++ )
+          arr[ k ] = random.nextGaussian( );
+
+    assertArray( transform.forward( arrTime ), strict.forward( arrTime ), 0. );
+    assertArray( transform.forward( arrTime, 3 ), strict.forward( arrTime, 3 ),
+        0. );
+    assertMatrix( transform.forward( matTime, 2, 3 ),
+        strict.forward( matTime, 2, 3 ), 0. );
+    assertSpace( transform.forward( spcTime, 1, 2, 1 ),
+        strict.forward( spcTime, 1, 2, 1 ), 0. );
+
+    // validated once for a batch
+    StrictTransform.Shape shape = strict.validateArray( 64, 4 );
+    StrictTransform.Shape shapeMat = strict.validateMatrix( 16, 32, 2, 3 );
+    StrictTransform.Shape shapeSpc = strict.validateSpace( 4, 8, 16, 3, 4, 2 );
+    for( int b = 0; b < 3; b++ ) {
+      assertArray( transform.forward( arrTime, 4 ),
+          strict.forward( shape, arrTime ), 0. );
+      assertArray( arrTime,
+          strict.reverse( shape, strict.forward( shape, arrTime ) ), 1.e-10 );
+      assertMatrix( transform.forward( matTime, 2, 3 ),
+          strict.forward( shapeMat, matTime ), 0. );
+      assertSpace( spcTime,
+          strict.reverse( shapeSpc, strict.forward( shapeSpc, spcTime ) ),
+          1.e-10 );
+    } // b
+
+    // failures surface by their codes
+    assertEquals( Code.NOT_BINARY,
+        codeOf( ( ) -> strict.forward( new double[ 12 ] ) ) );
+    assertEquals( Code.LEVEL_OUT_OF_RANGE,
+        codeOf( ( ) -> strict.forward( arrTime, 7 ) ) );
+    assertEquals( Code.NULL_ARGUMENT,
+        codeOf( ( ) -> strict.forward( (double[ ])null ) ) );
+    assertEquals( Code.SHAPE_MISMATCH,
+        codeOf( ( ) -> strict.forward( shape, new double[ 32 ] ) ) );
+    assertEquals( Code.SHAPE_MISMATCH,
+        codeOf( ( ) -> strict.forward( new double[ ][ ] { new double[ 4 ],
+            new double[ 8 ] } ) ) );
+    assertEquals( Code.LEVEL_OUT_OF_RANGE,
+        codeOf( ( ) -> strict.validateMatrix( 16, 32, 5, 1 ) ) );
+    assertEquals( null, codeOf( ( ) -> strict.validateMatrix( 16, 32, 4, 5 ) ) );
+
+  } // testStrictTransform
+
+  /**
+   * Runs and returns the code of the JWaveRuntimeException thrown or null.
+   */
+  private static Code codeOf( Runnable runnable ) {
+
+    try {
+      runnable.run( );
+    } catch( JWaveRuntimeException e ) {
+      return e.getCode( );
+    } // try
+    return null;
+
+  } // codeOf
+
+  @Test public void testAsyncTransform( ) throws Exception {
+
+    Transform transform = new Transform(
+        new FastWaveletTransform( WaveletBuilder.create( "Daubechies 3" ) ) );
+
+    Random random = new Random( 19 );
+    double[ ] arrTime = new double[ 64 ];
+    for( int i = 0; i < arrTime.length; i++ )
+      arrTime[ i ] = random.nextGaussian( );
+    double[ ][ ] matTime = new double[ 16 ][ 32 ];
+    for( double[ ] arr : matTime )
+      for( int j = 0; j < arr.length; j++ )
+        arr[ j ] = random.nextGaussian( );
+    double[ ][ ][ ] spcTime = new double[ 4 ][ 8 ][ 16 ];
+    for( double[ ][ ] mat : spcTime )
+      for( double[ ] arr : mat )
+        for( int k = 0; k < arr.length; k++ )
+          arr[ k ] = random.nextGaussian( );
+
+    AsyncTransform async =
+        new AsyncTransform( transform.getBasicTransform( ) );
+    assertArray( transform.forward( arrTime ),
+        async.forward( arrTime ).get( ), 0. );
+    assertMatrix( transform.forward( matTime, 2, 3 ),
+        async.forward( matTime, 2, 3 ).get( ), 0. );
+    assertSpace( spcTime, async.forward( spcTime, 3, 4, 2 )
+        .thenCompose( spc -> async.reverse( spc, 3, 4, 2 ) ).get( ), 1.e-10 );
+
+    // failures complete the future by the coded exception
+    try {
+      async.forward( new double[ 63 ] ).get( );
+      assertTrue( false );
+    } catch( ExecutionException e ) {
+      assertEquals( Code.NOT_BINARY,
+          ( (JWaveRuntimeException)e.getCause( ) ).getCode( ) );
+    } // try
+    assertEquals( 0L, async.getInFlightBytes( ) );
+
+    // an executor run by hand; the cap admits a single array of 64
+    ArrayDeque< Runnable > tasks = new ArrayDeque< Runnable >( );
+    AsyncTransform capped = new AsyncTransform(
+        transform.getBasicTransform( ), tasks::add, 16L * 64 );
+    CompletableFuture< double[ ] > first = capped.forward( arrTime );
+    assertEquals( 16L * 64, capped.getInFlightBytes( ) );
+
+    CompletableFuture< double[ ] > second = capped.reverse( arrTime );
+    assertEquals( 1, capped.getNoOfPending( ) ); // queued, not blocking
+    assertEquals( 1, tasks.size( ) );
+
+    // cancelled while queued: dropped at once, never run
+    assertTrue( second.cancel( false ) );
+    assertEquals( 0, capped.getNoOfPending( ) );
+    CompletableFuture< double[ ] > third = capped.forward( arrTime );
+    assertEquals( 1, capped.getNoOfPending( ) );
+
+    // cancelled while admitted: bytes given back at once, admitting third
+    assertTrue( first.cancel( false ) );
+    assertEquals( 0, capped.getNoOfPending( ) );
+    assertEquals( 16L * 64, capped.getInFlightBytes( ) );
+    assertEquals( 2, tasks.size( ) );
+    while( !tasks.isEmpty( ) )
+      tasks.poll( ).run( ); // first skipped
+    assertTrue( first.isCancelled( ) );
+    assertArray( transform.forward( arrTime ), third.get( ), 0. );
+    assertEquals( 0L, capped.getInFlightBytes( ) );
+
+    // cancelled while running: the bytes stay in flight until it finished
+    CountDownLatch running = new CountDownLatch( 1 );
+    CountDownLatch proceed = new CountDownLatch( 1 );
+    BasicTransform blocking =
+        new FastWaveletTransform( WaveletBuilder.create( "Daubechies 3" ) ) {
+          @Override public double[ ] forward( double[ ] arrTime )
+              throws JWaveException {
+            running.countDown( );
+            try {
+              proceed.await( );
+            } catch( InterruptedException e ) {
+              Thread.currentThread( ).interrupt( );
+            } // try
+            return super.forward( arrTime );
+          } // forward
+        };
+    AsyncTransform held = new AsyncTransform( blocking,
+        runnable -> new Thread( runnable ).start( ), 16L * 64 );
+    CompletableFuture< double[ ] > busy = held.forward( arrTime );
+    assertTrue( running.await( 30, TimeUnit.SECONDS ) );
+    assertTrue( busy.cancel( true ) );
+    assertEquals( 16L * 64, held.getInFlightBytes( ) );
+    CompletableFuture< double[ ] > next = held.reverse( arrTime );
+    assertEquals( 1, held.getNoOfPending( ) ); // the cap still holds
+    proceed.countDown( );
+    assertArray( transform.reverse( arrTime ),
+        next.get( 30, TimeUnit.SECONDS ), 0. );
+    assertTrue( busy.isCancelled( ) );
+    assertEquals( 0, held.getNoOfPending( ) );
+    assertEquals( 0L, held.getInFlightBytes( ) );
+
+    // stages chained on the pool's threads submit beyond the cap
+    ForkJoinPool pool = new ForkJoinPool( 2 );
+    try {
+      AsyncTransform chained = new AsyncTransform(
+          transform.getBasicTransform( ), pool, 64L << 10 );
+      double[ ] arrLong = new double[ 1024 ];
+      for( int i = 0; i < arrLong.length; i++ )
+        arrLong[ i ] = random.nextGaussian( );
+      List< CompletableFuture< double[ ] > > chains =
+          new ArrayList< CompletableFuture< double[ ] > >( );
+      for( int c = 0; c < 32; c++ )
+        chains.add( chained.forward( arrLong )
+            .thenCompose( chained::reverse ) );
+      for( CompletableFuture< double[ ] > chain : chains )
+        assertArray( arrLong, chain.get( 30, TimeUnit.SECONDS ), 1.e-10 );
+      assertEquals( 0L, chained.getInFlightBytes( ) );
+      chained.awaitCapacity( );
+    } finally {
+      pool.shutdown( );
+    } // try
+
+    ExecutorService io = AsyncTransform.newIoExecutor( );
+    try {
+      AsyncTransform pipeline = new AsyncTransform(
+          transform.getBasicTransform( ), io, 16L * 64 );
+      assertArray( arrTime, pipeline.forward( arrTime )
+          .thenCompose( pipeline::reverse ).get( ), 1.e-10 );
+    } finally {
+      io.shutdown( );
+    } // try
+
+  } // testAsyncTransform
+
+  @Test public void testMetrics( ) throws JWaveException, IOException {
+
+    BasicTransform fwt =
+        new FastWaveletTransform( WaveletBuilder.create( "Daubechies 3" ) );
+    double[ ] arrTime = new double[ 64 ];
+    double[ ][ ] matTime = new double[ 16 ][ 32 ];
+    Arrays.fill( arrTime, 1. );
+
+    // counts by name and info; sums of the histograms
+    Map< String, AtomicLong > values =
+        new ConcurrentHashMap< String, AtomicLong >( );
+    MetricsProvider provider = new MetricsProvider( ) {
+      @Override public Counter counter( String name, TransformInfo info ) {
+        AtomicLong value = values.computeIfAbsent( name + " | " + info,
+            n -> new AtomicLong( ) );
+        return value::addAndGet;
+      } // counter
+      @Override public Histogram histogram( String name, TransformInfo info ) {
+        AtomicLong value = values.computeIfAbsent( name + " | " + info,
+            n -> new AtomicLong( ) );
+        return value::addAndGet;
+      } // histogram
+    };
+    TransformInfo forward = new TransformInfo( "Fast Wavelet Transform",
+        "Daubechies 3", "FastWaveletTransform", "forward" );
+    TransformInfo reverse = new TransformInfo( "Fast Wavelet Transform",
+        "Daubechies 3", "FastWaveletTransform", "reverse" );
+    TransformInfo plan = new TransformInfo( "Fast Wavelet Transform",
+        "Daubechies 3", "TransformPlan " + TransformPlan.Strategy.DEFAULT,
+        "forward" );
+    assertEquals( "Daubechies 3", forward.getTags( ).get( "wavelet" ) );
+
+    assertEquals( false, Metrics.isEnabled( ) );
+    Metrics.register( provider );
+    try {
+      assertTrue( Metrics.isEnabled( ) );
+      fwt.forward( arrTime );
+      fwt.forward( matTime, 2, 3 );
+      fwt.reverse( arrTime );
+      TransformPlan.get( fwt.getName( ), fwt.getWavelet( ).getName( ),
+          TransformPlan.Direction.FORWARD, new int[ ] { 64 }, null )
+          .execute( arrTime, new double[ 64 ] );
+      assertEquals( 2L, values.get( Metrics.CALLS + " | " + forward ).get( ) );
+      assertEquals( 64L + 16 * 32,
+          values.get( Metrics.VALUES + " | " + forward ).get( ) );
+      assertEquals( 1L, values.get( Metrics.CALLS + " | " + reverse ).get( ) );
+      assertEquals( 1L, values.get( Metrics.CALLS + " | " + plan ).get( ) );
+      assertEquals( 64L, values.get( Metrics.VALUES + " | " + plan ).get( ) );
+      assertTrue( values.get( Metrics.NANOS + " | " + forward ).get( ) > 0L );
+    } finally {
+      Metrics.unregister( provider );
+    } // try
+    assertEquals( false, Metrics.isEnabled( ) );
+    fwt.forward( arrTime );
+    assertEquals( 2L, values.get( Metrics.CALLS + " | " + forward ).get( ) );
+
+    // the flight recorder takes events without any provider
+    Path file = Files.createTempFile( "jwave", ".jfr" );
+    try {
+      try( Recording recording = new Recording( ) ) {
+        recording.enable( "de.graetz23.jwave.Transform" );
+        recording.start( );
+        fwt.forward( matTime, 2, 3 );
+        recording.stop( );
+        recording.dump( file );
+      } // try
+      List< RecordedEvent > events = RecordingFile.readAllEvents( file );
+      events.removeIf( e -> !e.getEventType( ).getName( )
+          .equals( "de.graetz23.jwave.Transform" ) );
+      assertEquals( 1, events.size( ) );
+      RecordedEvent event = events.get( 0 );
+      assertEquals( "Fast Wavelet Transform", event.getString( "transform" ) );
+      assertEquals( "Daubechies 3", event.getString( "wavelet" ) );
+      assertEquals( "forward", event.getString( "direction" ) );
+      assertEquals( "16x32", event.getString( "shape" ) );
+      assertEquals( "2,3", event.getString( "levels" ) );
+    } finally {
+      Files.deleteIfExists( file );
+    } // try
+
+  } // testMetrics
+
   @Test public void testDFT( ) throws JWaveFailure {
 
     int samplingRate = 8; // sampling rate
@@ -132,4 +585,264 @@ public class GeneralTest extends Base {
 
   } // testDFT
 
+  /**
+   * Test the 3-D transform running slab by slab in place over spaces against
+   * the transform of double[][][].
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @throws JWaveException
+   */
+  @Test public void testSpaceInPlace( ) throws JWaveException {
+
+    int noOfRows = 8, noOfCols = 4, noOfLvls = 16;
+    double[ ][ ][ ] spcTime = new double[ noOfRows ][ noOfCols ][ noOfLvls ];
+    Random randomGenerator = new Random( 42 );
+    for( int i = 0; i < noOfRows; i++ )
+      for( int j = 0; j < noOfCols; j++ )
+        for( int k = 0; k < noOfLvls; k++ )
+          spcTime[ i ][ j ][ k ] = randomGenerator.nextDouble( );
+
+    Space[ ] spaces = new Space[ ] {
+        new SpaceFlat( noOfRows, noOfCols, noOfLvls ),
+        new SpaceOffHeap( noOfRows, noOfCols, noOfLvls ) };
+
+    for( Wavelet wavelet : new Wavelet[ ] { WaveletBuilder.create( "Haar" ),
+        WaveletBuilder.create( "Daubechies 4" ) } ) {
+
+      FastWaveletTransform fwt = new FastWaveletTransform( wavelet );
+      double[ ][ ][ ] spcHilb = fwt.forward( spcTime, 2, 1, 3 );
+
+      for( Space space : spaces ) {
+
+        space.alloc( );
+        for( int i = 0; i < noOfRows; i++ )
+          for( int j = 0; j < noOfCols; j++ )
+            space.setRow( i, j, spcTime[ i ][ j ] );
+
+        fwt.forwardInPlace( space, 2, 1, 3 );
+        for( int i = 0; i < noOfRows; i++ )
+          for( int j = 0; j < noOfCols; j++ )
+            assertArray( spcHilb[ i ][ j ], space.getRow( i, j ), 1.e-12 );
+
+        fwt.reverseInPlace( space, 2, 1, 3 );
+        for( int i = 0; i < noOfRows; i++ )
+          for( int j = 0; j < noOfCols; j++ )
+            assertArray( spcTime[ i ][ j ], space.getRow( i, j ), 1.e-10 );
+
+        fwt.forwardInPlace( space ); // all levels
+        fwt.reverseInPlace( space );
+        for( int i = 0; i < noOfRows; i++ )
+          for( int j = 0; j < noOfCols; j++ )
+            assertArray( spcTime[ i ][ j ], space.getRow( i, j ), 1.e-10 );
+
+        space.erase( );
+
+      } // spaces
+
+    } // wavelets
+
+  } // testSpaceInPlace
+
+  /**
+   * Test the WorkspacePool hands out and takes back arrays within its capacity,
+   * and the in place transforms drawing from it match the transforms
+   * returning new arrays; for parts of arrays, matrices, spaces, and the
+   * ancient Egyptian decomposition.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @throws JWaveException
+   */
+  @Test public void testWorkspacePool( ) throws JWaveException {
+
+    WorkspacePool.clear( );
+    double[ ] arr = WorkspacePool.acquire( 100 );
+    assertEquals( 128, arr.length );
+    WorkspacePool.release( arr );
+    assertEquals( 128 * 8, WorkspacePool.getNoOfBytes( ) );
+    assertTrue( arr == WorkspacePool.acquire( 65 ) ); // same thread, same size
+    assertEquals( 0, WorkspacePool.getNoOfBytes( ) );
+    WorkspacePool.release( new double[ 100 ] ); // not of the pool's sizes
+    assertEquals( 0, WorkspacePool.getNoOfBytes( ) );
+    long capacity = WorkspacePool.getCapacity( );
+    WorkspacePool.setCapacity( 1024 );
+    WorkspacePool.release( new double[ 256 ] ); // beyond capacity
+    assertEquals( 0, WorkspacePool.getNoOfBytes( ) );
+    WorkspacePool.setCapacity( capacity );
+
+    Random random = new Random( 23 );
+    double[ ] arrTime = new double[ 64 ];
+    for( int i = 0; i < arrTime.length; i++ )
+      arrTime[ i ] = random.nextDouble( );
+
+    for( String waveletName : new String[ ] { "Haar", "Haar orthogonal",
+        "Daubechies 4", "BiOrthogonal 3/5" } ) {
+
+      Wavelet wavelet = WaveletRegistry.get( waveletName );
+      for( BasicTransform transform : new BasicTransform[ ] {
+          new FastWaveletTransform( wavelet ),
+          new WaveletPacketTransform( wavelet ) } ) {
+
+        // a part of 32 at 16 of level 3
+        double[ ] part = Arrays.copyOfRange( arrTime, 16, 48 );
+        double[ ] arr64 = arrTime.clone( );
+        transform.forwardInPlace( arr64, 16, 32, 3 );
+        assertArray( transform.forward( part, 3 ),
+            Arrays.copyOfRange( arr64, 16, 48 ), 1.e-12 );
+        assertArray( Arrays.copyOf( arrTime, 16 ), Arrays.copyOf( arr64, 16 ),
+            0. );
+        transform.reverseInPlace( arr64, 16, 32, 3 );
+        assertArray( transform.reverse( transform.forward( part, 3 ), 3 ),
+            Arrays.copyOfRange( arr64, 16, 48 ), 1.e-12 );
+
+        double[ ][ ] matTime = new double[ 8 ][ ];
+        for( int i = 0; i < matTime.length; i++ )
+          matTime[ i ] = Arrays.copyOfRange( arrTime, i * 8, i * 8 + 8 );
+        double[ ][ ] mat = new double[ 8 ][ ];
+        for( int i = 0; i < mat.length; i++ )
+          mat[ i ] = matTime[ i ].clone( );
+        transform.forwardInPlace( mat, 2, 3 );
+        assertMatrix( transform.forward( matTime, 2, 3 ), mat, 1.e-12 );
+        transform.reverseInPlace( mat, 2, 3 );
+        assertMatrix( transform.reverse( transform.forward( matTime, 2, 3 ),
+            2, 3 ), mat, 1.e-12 );
+
+        double[ ][ ][ ] spcTime = { matTime, matTime };
+        double[ ][ ][ ] spc = new double[ 2 ][ 8 ][ ];
+        for( int i = 0; i < spc.length; i++ )
+          for( int j = 0; j < 8; j++ )
+            spc[ i ][ j ] = spcTime[ i ][ j ].clone( );
+        double[ ][ ][ ] spcHilb = transform.forward( spcTime, 3, 2, 1 );
+        transform.forwardInPlace( spc, 3, 2, 1 );
+        assertSpace( spcHilb, spc, 1.e-12 );
+        transform.reverseInPlace( spc, 3, 2, 1 );
+        assertSpace( transform.reverse( spcHilb, 3, 2, 1 ), spc, 1.e-12 );
+
+      } // transform
+
+      // 7 = 4 | 2 | 1, each part transformed by itself
+      FastWaveletTransform fwt = new FastWaveletTransform( wavelet );
+      AncientEgyptianDecomposition aed = new AncientEgyptianDecomposition( fwt );
+      double[ ] arr7 = Arrays.copyOf( arrTime, 7 );
+      double[ ] arrHilb = aed.forward( arr7 );
+      assertArray( fwt.forward( Arrays.copyOf( arr7, 4 ) ),
+          Arrays.copyOf( arrHilb, 4 ), 1.e-12 );
+      assertArray( fwt.forward( Arrays.copyOfRange( arr7, 4, 6 ) ),
+          Arrays.copyOfRange( arrHilb, 4, 6 ), 1.e-12 );
+      assertEquals( arr7[ 6 ], arrHilb[ 6 ], 0. );
+      assertArray( fwt.reverse( Arrays.copyOf( arrHilb, 4 ) ),
+          Arrays.copyOf( aed.reverse( arrHilb ), 4 ), 1.e-12 );
+
+    } // waveletName
+
+  } // testWorkspacePool
+
+  /**
+   * Test the transforms of sparse Line, Block, and Space objects against the
+   * transforms of arrays.
+   * 
+   * @author Christian (graetz23@gmail.com)
+   * @throws JWaveException
+   */
+  @Test public void testDataTypes( ) throws JWaveException {
+
+    Transform fwt = TransformBuilder.create( "Fast Wavelet Transform",
+        "Daubechies 4" );
+
+    Line line = new LineHash( 32 );
+    line.alloc( );
+    line.set( 3, 1. );
+    line.set( 17, -2. );
+    double[ ] arrTime = line.getArray( );
+    Line lineHilb = fwt.forward( line );
+    assertArray( fwt.forward( arrTime ), lineHilb.getArray( ), 1.e-12 );
+    assertArray( arrTime, fwt.reverse( lineHilb ).getArray( ), 1.e-10 );
+    assertArray( fwt.reverse( arrTime, 2 ), fwt.reverse( line, 2 )
+        .getArray( ), 1.e-12 );
+
+    Block block = new BlockHash( 16, 8 );
+    block.alloc( );
+    block.set( 1, 2, 3. );
+    block.set( 9, 7, -1. );
+    double[ ][ ] matTime = new double[ 16 ][ ];
+    for( int i = 0; i < 16; i++ )
+      matTime[ i ] = block.getRow( i );
+    double[ ][ ] matHilb = fwt.forward( matTime, 3, 2 );
+    Block blockHilb = fwt.forward( block, 3, 2 );
+    for( int i = 0; i < 16; i++ )
+      assertArray( matHilb[ i ], blockHilb.getRow( i ), 1.e-12 );
+    double[ ][ ] matReco = fwt.reverse( matTime ); // sparse input
+    Block blockReco = fwt.reverse( block );
+    for( int i = 0; i < 16; i++ )
+      assertArray( matReco[ i ], blockReco.getRow( i ), 1.e-12 );
+
+    Space space = new SpaceHash( 8, 8, 8 );
+    space.alloc( );
+    space.set( 1, 2, 3, 4. );
+    space.set( 7, 0, 5, -1. );
+    double[ ][ ][ ] spcTime = new double[ 8 ][ 8 ][ ];
+    for( int i = 0; i < 8; i++ )
+      for( int j = 0; j < 8; j++ )
+        spcTime[ i ][ j ] = space.getRow( i, j );
+    double[ ][ ][ ] spcHilb = fwt.forward( spcTime );
+    double[ ][ ][ ] spcReco = fwt.reverse( spcTime ); // sparse input
+    Space spaceHilb = fwt.forward( space );
+    Space spaceReco = fwt.reverse( space );
+    for( int i = 0; i < 8; i++ )
+      for( int j = 0; j < 8; j++ ) {
+        assertArray( spcHilb[ i ][ j ], spaceHilb.getRow( i, j ), 1.e-12 );
+        assertArray( spcReco[ i ][ j ], spaceReco.getRow( i, j ), 1.e-12 );
+      } // j
+
+    // all zero data is checked like arrays: lengths not 2^p and levels out of
+    // range are reported before zeros are skipped
+    BasicTransform basic = fwt.getBasicTransform( );
+    Line lineZero = new LineHash( 32 );
+    lineZero.alloc( );
+    Line lineOdd = new LineHash( 24 );
+    lineOdd.alloc( );
+    Block blockZero = new BlockHash( 16, 8 );
+    blockZero.alloc( );
+    Block blockOdd = new BlockHash( 12, 8 );
+    blockOdd.alloc( );
+    Space spaceZero = new SpaceHash( 8, 8, 8 );
+    spaceZero.alloc( );
+    int noOfReported = 0;
+    try {
+      basic.reverse( lineOdd );
+    } catch( JWaveFailure e ) {
+      noOfReported++;
+    } // try
+    try {
+      basic.reverse( lineZero, 6 );
+    } catch( JWaveFailure e ) {
+      noOfReported++;
+    } // try
+    try {
+      basic.reverse( blockOdd, 2, 3 );
+    } catch( JWaveFailure e ) {
+      noOfReported++;
+    } // try
+    try {
+      basic.reverse( blockZero, 3, 4 );
+    } catch( JWaveFailure e ) {
+      noOfReported++;
+    } // try
+    try {
+      basic.reverse( spaceZero, 4, 3, 3 );
+    } catch( JWaveFailure e ) {
+      noOfReported++;
+    } // try
+    try {
+      basic.reverse( spaceZero, 3, 3, 4 );
+    } catch( JWaveFailure e ) {
+      noOfReported++;
+    } // try
+    assertEquals( 6, noOfReported );
+    assertArray( new double[ 32 ], basic.reverse( lineZero, 2 ).getArray( ),
+        0. );
+    assertArray( new double[ 8 ], basic.reverse( blockZero, 3, 2 ).getRow( 15 ),
+        0. );
+
+  } // testDataTypes
+
 } // class
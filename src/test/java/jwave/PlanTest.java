@@ -0,0 +1,273 @@
+/**
+ * Test precompiled transform plans against the transforms they replace.
+ *
+ * @author Christian (graetz23@gmail.com)
+ *
+ * PlanTest.java
+ */
+package de.graetz23.jwave;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import de.graetz23.jwave.TransformPlan.Direction;
+import de.graetz23.jwave.TransformPlan.Kernel;
+import de.graetz23.jwave.TransformPlan.Strategy;
+import de.graetz23.jwave.exceptions.JWaveException;
+import de.graetz23.jwave.exceptions.JWaveRuntimeException;
+import de.graetz23.jwave.exceptions.JWaveRuntimeException.Code;
+import de.graetz23.jwave.transforms.BasicTransform;
+import de.graetz23.jwave.transforms.FastWaveletTransform;
+import de.graetz23.jwave.transforms.WaveletPacketTransform;
+import de.graetz23.jwave.transforms.wavelets.Wavelet;
+import de.graetz23.jwave.transforms.wavelets.WaveletRegistry;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test precompiled transform plans against the transforms they replace.
+ *
+ * @author Christian (graetz23@gmail.com)
+ */
+public class PlanTest extends Base {
+
+  private static final String[ ] WAVELETS =
+      { "Haar", "Haar orthogonal", "Daubechies 4", "Coiflet 2", "Symlet 8" };
+
+  private static final String[ ] TRANSFORMS = {
+      TransformPlan.FAST_WAVELET_TRANSFORM,
+      TransformPlan.WAVELET_PACKET_TRANSFORM };
+
+  /**
+   * Test plans give the results of the FWT and the WPT in 1-D, 2-D, and 3-D,
+   * in both directions, and in place.
+   */
+  @Test public void testTransformPlan( ) throws JWaveException {
+
+    Random random = new Random( 23 );
+    double[ ] arrTime = random( random, 64 );
+    double[ ][ ] matTime = new double[ 16 ][ ];
+    for( int i = 0; i < matTime.length; i++ )
+      matTime[ i ] = random( random, 32 );
+    double[ ][ ][ ] spcTime = new double[ 4 ][ 8 ][ ];
+    for( double[ ][ ] mat : spcTime )
+      for( int j = 0; j < mat.length; j++ )
+        mat[ j ] = random( random, 16 );
+
+    for( String transformName : TRANSFORMS )
+      for( String waveletName : WAVELETS ) {
+
+        Wavelet wavelet = WaveletRegistry.get( waveletName );
+        BasicTransform transform =
+            transformName.equals( TransformPlan.FAST_WAVELET_TRANSFORM )
+                ? new FastWaveletTransform( wavelet )
+                : new WaveletPacketTransform( wavelet );
+
+        for( int level = 0; level <= 6; level++ ) {
+
+          double[ ] arrHilb = transform.forward( arrTime, level );
+          double[ ] arrPlan = new double[ 64 ];
+          TransformPlan.get( transformName, waveletName, Direction.FORWARD,
+              new int[ ] { 64 }, new int[ ] { level } ).execute( arrTime, arrPlan );
+          assertArray( arrHilb, arrPlan, 1.e-12 );
+
+          double[ ] arrReco = transform.reverse( arrHilb, level );
+          TransformPlan.get( transformName, waveletName, Direction.REVERSE,
+              new int[ ] { 64 }, new int[ ] { level } ).execute( arrPlan, arrPlan );
+          assertArray( arrReco, arrPlan, 1.e-12 );
+
+        } // level
+
+        int[ ] levelsMat = { 3, 2 };
+        double[ ][ ] matHilb = transform.forward( matTime, 3, 2 );
+        double[ ][ ] matPlan = new double[ 16 ][ 32 ];
+        TransformPlan.get( transformName, waveletName, Direction.FORWARD,
+            new int[ ] { 16, 32 }, levelsMat ).execute( matTime, matPlan );
+        assertMatrix( matHilb, matPlan, 1.e-12 );
+        TransformPlan.get( transformName, waveletName, Direction.REVERSE,
+            new int[ ] { 16, 32 }, levelsMat ).execute( matPlan, matPlan );
+        assertMatrix( transform.reverse( matHilb, 3, 2 ), matPlan, 1.e-12 );
+
+        int[ ] levelsSpc = { 2, 3, 1 };
+        double[ ][ ][ ] spcHilb = transform.forward( spcTime, 2, 3, 1 );
+        double[ ][ ][ ] spcPlan = new double[ 4 ][ 8 ][ 16 ];
+        TransformPlan.get( transformName, waveletName, Direction.FORWARD,
+            new int[ ] { 4, 8, 16 }, levelsSpc ).execute( spcTime, spcPlan );
+        assertSpace( spcHilb, spcPlan, 1.e-12 );
+        TransformPlan.get( transformName, waveletName, Direction.REVERSE,
+            new int[ ] { 4, 8, 16 }, levelsSpc ).execute( spcPlan, spcPlan );
+        assertSpace( transform.reverse( spcHilb, 2, 3, 1 ), spcPlan, 1.e-12 );
+
+      } // waveletName
+
+  } // testTransformPlan
+
+  /**
+   * Test the cache hands out the same plan per tuple and keeps its bound, and
+   * plans report inputs not matching.
+   */
+  @Test public void testTransformPlanCache( ) {
+
+    TransformPlan.clearCache( );
+    TransformPlan.setCacheCapacity( 4 );
+    try {
+
+      TransformPlan plan = TransformPlan.get( TRANSFORMS[ 0 ], "Haar",
+          Direction.FORWARD, new int[ ] { 8 }, null );
+      assertTrue( plan == TransformPlan.get( TRANSFORMS[ 0 ], "Haar",
+          Direction.FORWARD, new int[ ] { 8 }, null ) );
+      assertTrue( plan != TransformPlan.get( TRANSFORMS[ 0 ], "Haar",
+          Direction.REVERSE, new int[ ] { 8 }, null ) );
+
+      for( int length = 16; length <= 1024; length <<= 1 )
+        TransformPlan.get( TRANSFORMS[ 0 ], "Haar", Direction.FORWARD,
+            new int[ ] { length }, null );
+      assertEquals( 4, TransformPlan.getCacheSize( ) );
+      assertTrue( plan != TransformPlan.get( TRANSFORMS[ 0 ], "Haar",
+          Direction.FORWARD, new int[ ] { 8 }, null ) ); // evicted
+
+      assertEquals( Code.SHAPE_MISMATCH,
+          codeOf( ( ) -> plan.execute( new double[ 16 ], new double[ 16 ] ) ) );
+      assertEquals( Code.SHAPE_MISMATCH,
+          codeOf( ( ) -> plan.execute( new double[ 8 ][ 8 ], new double[ 8 ][ 8 ] ) ) );
+      assertEquals( Code.NOT_BINARY, codeOf( ( ) -> TransformPlan.get(
+          TRANSFORMS[ 0 ], "Haar", Direction.FORWARD, new int[ ] { 12 }, null ) ) );
+      assertEquals( Code.LEVEL_OUT_OF_RANGE, codeOf( ( ) -> TransformPlan.get(
+          TRANSFORMS[ 0 ], "Haar", Direction.FORWARD, new int[ ] { 8 },
+          new int[ ] { 4 } ) ) );
+      assertEquals( Code.NOT_IMPLEMENTED, codeOf( ( ) -> TransformPlan.get(
+          "Discrete Fourier Transform", "Haar", Direction.FORWARD,
+          new int[ ] { 8 }, null ) ) );
+
+    } finally {
+      TransformPlan.setCacheCapacity( TransformPlan.DEFAULT_CACHE_CAPACITY );
+    } // try
+
+  } // testTransformPlanCache
+
+  /**
+   * Test all strategies give the results of the FWT, and the planner keeps
+   * the fastest as wisdom in a file that is read again.
+   */
+  @Test public void testTransformPlanner( ) throws JWaveException,
+      IOException {
+
+    Random random = new Random( 42 );
+    double[ ] arrTime = random( random, 256 );
+    double[ ][ ] matTime = new double[ 32 ][ ];
+    for( int i = 0; i < matTime.length; i++ )
+      matTime[ i ] = random( random, 4 ); // less columns than a block
+    double[ ][ ][ ] spcTime = new double[ 8 ][ 4 ][ ];
+    for( double[ ][ ] mat : spcTime )
+      for( int j = 0; j < mat.length; j++ )
+        mat[ j ] = random( random, 32 );
+
+    String transformName = TRANSFORMS[ 0 ];
+    BasicTransform transform =
+        new FastWaveletTransform( WaveletRegistry.get( "Daubechies 4" ) );
+    double[ ] arrHilb = transform.forward( arrTime );
+    double[ ][ ] matHilb = transform.forward( matTime, 5, 2 );
+    double[ ][ ][ ] spcHilb = transform.forward( spcTime, 2, 5, 3 );
+
+    for( Kernel kernel : Kernel.values( ) )
+      for( int s = 0; s < 4; s++ ) {
+
+        Strategy strategy = new Strategy( kernel, s / 2 == 1, s % 2 == 1 );
+        assertEquals( strategy, Strategy.parse( strategy.toString( ) ) );
+
+        double[ ] arrPlan = new double[ 256 ];
+        TransformPlan.get( transformName, "Daubechies 4", Direction.FORWARD,
+            new int[ ] { 256 }, null, strategy ).execute( arrTime, arrPlan );
+        assertArray( arrHilb, arrPlan, 1.e-12 );
+
+        double[ ][ ] matPlan = new double[ 32 ][ 4 ];
+        TransformPlan.get( transformName, "Daubechies 4", Direction.FORWARD,
+            new int[ ] { 32, 4 }, new int[ ] { 5, 2 }, strategy )
+            .execute( matTime, matPlan );
+        assertMatrix( matHilb, matPlan, 1.e-12 );
+        TransformPlan.get( transformName, "Daubechies 4", Direction.REVERSE,
+            new int[ ] { 32, 4 }, new int[ ] { 5, 2 }, strategy )
+            .execute( matPlan, matPlan );
+        assertMatrix( matTime, matPlan, 1.e-10 );
+
+        double[ ][ ][ ] spcPlan = new double[ 8 ][ 4 ][ 32 ];
+        TransformPlan.get( transformName, "Daubechies 4", Direction.FORWARD,
+            new int[ ] { 8, 4, 32 }, new int[ ] { 2, 5, 3 }, strategy )
+            .execute( spcTime, spcPlan );
+        assertSpace( spcHilb, spcPlan, 1.e-12 );
+        TransformPlan.get( transformName, "Daubechies 4", Direction.REVERSE,
+            new int[ ] { 8, 4, 32 }, new int[ ] { 2, 5, 3 }, strategy )
+            .execute( spcPlan, spcPlan );
+        assertSpace( spcTime, spcPlan, 1.e-10 );
+
+      } // s
+
+    Path wisdomFile = Files.createTempFile( "jwave", ".wisdom" );
+    Path wisdomFileKept = TransformPlanner.getWisdomFile( );
+    TransformPlanner.setWisdomFile( wisdomFile );
+    TransformPlanner.clearWisdom( );
+    try {
+
+      int[ ] dims = { 32, 4 };
+      int[ ] levels = { 5, 2 };
+      assertTrue( TransformPlanner.getWisdom( transformName, "Daubechies 4",
+          Direction.FORWARD, dims, levels ) == null );
+      TransformPlan plan = TransformPlanner.plan( transformName,
+          "Daubechies 4", Direction.FORWARD, dims, levels );
+      Strategy strategy = TransformPlanner.getWisdom( transformName,
+          "Daubechies 4", Direction.FORWARD, dims, levels );
+      assertEquals( strategy, plan.getStrategy( ) );
+      assertTrue( TransformPlanner.getCandidates( 2 ).contains( strategy ) );
+      assertTrue( plan == TransformPlanner.plan( transformName, "Daubechies 4",
+          Direction.FORWARD, dims, levels ) );
+
+      double[ ][ ] matPlan = new double[ 32 ][ 4 ];
+      plan.execute( matTime, matPlan );
+      assertMatrix( matHilb, matPlan, 1.e-12 );
+
+      TransformPlanner.clearWisdom( );
+      TransformPlanner.load( wisdomFile );
+      assertEquals( 1, TransformPlanner.getNoOfWisdoms( ) );
+      assertEquals( strategy, TransformPlanner.getWisdom( transformName,
+          "Daubechies 4", Direction.FORWARD, dims, levels ) );
+
+      assertEquals( Code.NOT_BINARY, codeOf( ( ) -> TransformPlanner.plan(
+          transformName, "Daubechies 4", Direction.FORWARD, new int[ ] { 12 },
+          null ) ) );
+
+    } finally {
+      TransformPlanner.clearWisdom( );
+      TransformPlanner.setWisdomFile( wisdomFileKept );
+      Files.deleteIfExists( wisdomFile );
+    } // try
+
+  } // testTransformPlanner
+
+  private static double[ ] random( Random random, int length ) {
+
+    double[ ] arr = new double[ length ];
+    for( int i = 0; i < length; i++ )
+      arr[ i ] = random.nextGaussian( );
+    return arr;
+
+  } // random
+
+  /**
+   * Runs and returns the code of the JWaveRuntimeException thrown or null.
+   */
+  private static Code codeOf( Runnable runnable ) {
+
+    try {
+      runnable.run( );
+    } catch( JWaveRuntimeException e ) {
+      return e.getCode( );
+    } // try
+    return null;
+
+  } // codeOf
+
+} // PlanTest
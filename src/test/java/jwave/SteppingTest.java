@@ -11,8 +11,15 @@
  */
 package de.graetz23.jwave;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import de.graetz23.jwave.exceptions.JWaveException;
 import de.graetz23.jwave.transforms.FastWaveletTransform;
+import de.graetz23.jwave.transforms.ProfilingTransform;
 import de.graetz23.jwave.transforms.WaveletPacketTransform;
+import de.graetz23.jwave.transforms.WaveletTransform;
 import de.graetz23.jwave.transforms.wavelets.Wavelet;
 import de.graetz23.jwave.transforms.wavelets.WaveletBuilder;
 import org.junit.jupiter.api.Test;
@@ -314,4 +321,81 @@ public class SteppingTest extends Base {
 
   } // testStepping
 
+  /**
+   * Testing the profiling mode: same results as the transform profiled for
+   * any wavelet, and energies per level matching in both directions.
+   *
+   * @author Christian (graetz23@gmail.com)
+   */
+  @Test
+  public void testProfiling( ) throws JWaveException {
+
+    double delta = 1.e-8;
+    Random random = new Random( 23 );
+    double[ ] arrTime = new double[ 64 ];
+    for( int i = 0; i < arrTime.length; i++ )
+      arrTime[ i ] = random.nextGaussian( );
+
+    for( Wavelet wavelet : WaveletBuilder.create2arr( ) ) {
+
+      WaveletTransform[ ] transforms = { new FastWaveletTransform( wavelet ),
+          new WaveletPacketTransform( wavelet ) };
+      for( WaveletTransform transform : transforms ) {
+
+        ProfilingTransform profiling = new ProfilingTransform( transform );
+        for( int level = 0; level <= 6; level++ ) {
+          double[ ] arrHilb = profiling.forward( arrTime, level );
+          assertArray( transform.forward( arrTime, level ), arrHilb, delta );
+          assertArray( transform.reverse( arrHilb, level ),
+              profiling.reverse( arrHilb, level ), delta );
+        } // level
+
+        ProfilingTransform.Report forward = profiling.getForwardReport( );
+        ProfilingTransform.Report reverse = profiling.getReverseReport( );
+        assertEquals( 7L, forward.getNoOfCalls( ) );
+        assertEquals( 7L, reverse.getNoOfCalls( ) );
+        assertEquals( forward.getNoOfLevels( ), reverse.getNoOfLevels( ) );
+        // the levels reverse takes in are rebuilt from the deepest one, so
+        // they carry the rounding of the taps of less precise wavelets
+        for( int l = 1; l <= forward.getNoOfLevels( ); l++ ) {
+          assertEquals( forward.getScalingEnergy( l ),
+              reverse.getScalingEnergy( l ), 1.e-6 * forward.getEnergy( l ) );
+          assertEquals( forward.getWaveletEnergy( l ),
+              reverse.getWaveletEnergy( l ), 1.e-6 * forward.getEnergy( l ) );
+        } // l
+
+      } // transform
+
+    } // wavelet
+
+    // orthonormal: energy is kept by each level of a WPT; details of all
+    // levels of a FWT and its last approximation sum up to it
+    double energy = 0.;
+    for( double value : arrTime )
+      energy += value * value;
+    Wavelet haar = WaveletBuilder.create( "Haar" );
+    ProfilingTransform wpt =
+        new ProfilingTransform( new WaveletPacketTransform( haar ) );
+    wpt.forward( arrTime );
+    ProfilingTransform.Report report = wpt.getForwardReport( );
+    assertEquals( 6, report.getNoOfLevels( ) );
+    for( int l = 1; l <= 6; l++ )
+      assertEquals( energy, report.getEnergy( l ), delta * energy );
+    ProfilingTransform fwt =
+        new ProfilingTransform( new FastWaveletTransform( haar ) );
+    fwt.forward( arrTime );
+    report = fwt.getForwardReport( );
+    double sum = report.getScalingEnergy( 6 );
+    for( int l = 1; l <= 6; l++ )
+      sum += report.getWaveletEnergy( l );
+    assertEquals( energy, sum, delta * energy );
+
+    // lines of matrices are summed up; reset starts anew
+    fwt.reset( );
+    fwt.forward( new double[ 16 ][ 32 ] );
+    assertEquals( 16L + 32L, fwt.getForwardReport( ).getNoOfCalls( ) );
+    assertEquals( 0L, fwt.getReverseReport( ).getNoOfCalls( ) );
+
+  } // testProfiling
+
 } // class
\ No newline at end of file
@@ -24,6 +24,7 @@
 package de.graetz23.jwave.datatypes;
 
 import de.graetz23.jwave.datatypes.blocks.Block;
+import de.graetz23.jwave.datatypes.blocks.BlockFlat;
 import de.graetz23.jwave.datatypes.blocks.BlockFull;
 import de.graetz23.jwave.datatypes.blocks.BlockHash;
 import de.graetz23.jwave.exceptions.JWaveException;
@@ -156,4 +157,104 @@ public class BlockTest {
 
   }
 
+  /**
+   * Test method for
+   * {@link jwave.datatypes.blocks.Block#forEachNonZero(Block.Visitor)} and the
+   * copy constructors taking the non zero values only.
+   */
+  @Test public void testForEachNonZero( ) {
+
+    try {
+
+      Block block = new BlockHash( 64, 32 );
+      block.alloc( );
+      for( int i = 0; i < block.getNoOfRows( ); i += 5 )
+        for( int j = 0; j < block.getNoOfCols( ); j += 3 )
+          block.set( i, j, (double)( i + j + 1 ) );
+
+      int[ ] noOfVisits = new int[ 1 ];
+      block.forEachNonZero( ( i, j, value ) -> {
+        assertEquals( (double)( i + j + 1 ), value, 0. );
+        noOfVisits[ 0 ]++;
+      } );
+      assertEquals( 13 * 11, noOfVisits[ 0 ] );
+
+      assertEquals( -1., block.get( 1, 1, -1. ), 0. ); // column stored
+      assertEquals( -1., block.get( 0, 1, -1. ), 0. ); // column not stored
+      assertEquals( 1., block.get( 0, 0, -1. ), 0. );
+
+      Block[ ] copies = new Block[ ] { new BlockHash( block ),
+          new BlockFull( block ), new BlockHash( new BlockFull( block ) ) };
+
+      for( Block copy : copies ) {
+        assertEquals( block.getNoOfRows( ), copy.getNoOfRows( ) );
+        assertEquals( block.getNoOfCols( ), copy.getNoOfCols( ) );
+        for( int i = 0; i < block.getNoOfRows( ); i++ )
+          for( int j = 0; j < block.getNoOfCols( ); j++ )
+            assertEquals( block.get( i, j, 0. ), copy.get( i, j, 0. ), 0. );
+      } // copies
+
+      copies[ 0 ].set( 0, 0, 42. ); // deep copy
+      assertEquals( 1., block.get( 0, 0 ), 0. );
+
+    } catch( JWaveException e ) {
+      e.printStackTrace( );
+      fail( "caught exception" );
+    } // try
+
+  } // testForEachNonZero
+
+  /**
+   * Test method for {@link jwave.datatypes.blocks.BlockFlat} bulk rows,
+   * columns, and views.
+   */
+  @Test public void testFlat( ) {
+
+    try {
+
+      Block full = genBlockFullObject( 12, 10 );
+      BlockFlat block = new BlockFlat( full );
+
+      for( int i = 0; i < block.getNoOfRows( ); i++ )
+        for( int j = 0; j < block.getNoOfCols( ); j++ )
+          assertEquals( (double)( i + j ), block.get( i, j ), 0. );
+
+      double[ ] row = block.getRow( 3 );
+      assertEquals( 10, row.length );
+      for( int j = 0; j < row.length; j++ )
+        assertEquals( full.getRow( 3 )[ j ], row[ j ], 0. );
+
+      double[ ] col = block.getCol( 4 );
+      for( int i = 0; i < col.length; i++ )
+        assertEquals( (double)( i + 4 ), col[ i ], 0. );
+
+      BlockFlat view = block.slice( 2, 3, 4, 5 );
+      assertEquals( 4, view.getNoOfRows( ) );
+      assertEquals( 5, view.getNoOfCols( ) );
+      assertEquals( 2, view.getOffSetRow( ) );
+      assertEquals( 5., view.get( 0, 0 ), 0. );
+
+      view.setRow( 1, new double[ ] { -1., -2., -3., -4., -5. } );
+      assertEquals( -1., block.get( 3, 3 ), 0. ); // shared memory
+      assertEquals( -5., block.get( 3, 7 ), 0. );
+      assertEquals( 11., block.get( 3, 8 ), 0. ); // outside of view
+
+      Block copy = view.copy( ); // independent and compact
+      copy.set( 1, 0, 42. );
+      assertEquals( -1., block.get( 3, 3 ), 0. );
+      assertEquals( -2., copy.get( 1, 1 ), 0. );
+
+      double[ ] arr = new double[ 6 ];
+      BlockFlat wrapped = BlockFlat.wrap( 2, 3, arr );
+      wrapped.setCol( 1, new double[ ] { 7., 8. } );
+      assertEquals( 7., arr[ 1 ], 0. );
+      assertEquals( 8., arr[ 4 ], 0. );
+
+    } catch( JWaveException e ) {
+      e.printStackTrace( );
+      fail( "caught exception" );
+    } // try
+
+  } // testFlat
+
 }
@@ -144,4 +144,42 @@ public class LineTest {
 
   } // test
 
+  /**
+   * Test method for
+   * {@link jwave.datatypes.lines.LineHash#forEachNonZero(Line.Visitor)}.
+   */
+  @Test public void testForEachNonZero( ) {
+
+    try {
+
+      LineHash line = new LineHash( 0, _noOfRows, .5f );
+      line.alloc( );
+
+      for( int i = 0; i < line.getNoOfRows( ); i += 7 )
+        line.set( i, (double)( i + 1 ) );
+      line.set( 1, 0. ); // stored zero is skipped by visitor
+
+      final double[ ] arr = new double[ _noOfRows ];
+      final int[ ] noOfVisits = { 0 };
+      line.forEachNonZero( ( i, value ) -> {
+        arr[ i ] = value;
+        noOfVisits[ 0 ]++;
+      } );
+
+      assertEquals( ( _noOfRows + 6 ) / 7, noOfVisits[ 0 ] );
+      assertEquals( noOfVisits[ 0 ] + 1, line.getNoOfStored( ) );
+
+      for( int i = 0; i < line.getNoOfRows( ); i++ )
+        if( i % 7 == 0 )
+          assertEquals( (double)( i + 1 ), arr[ i ], 0. );
+        else
+          assertEquals( 0., arr[ i ], 0. );
+
+    } catch( JWaveException e ) {
+      e.printStackTrace( );
+      fail( "caught exception" );
+    } // try
+
+  } // test
+
 } // JUnit
@@ -23,12 +23,20 @@
  */
 package de.graetz23.jwave.datatypes;
 
+import de.graetz23.jwave.datatypes.blocks.Block;
+import de.graetz23.jwave.datatypes.blocks.BlockFlat;
 import de.graetz23.jwave.datatypes.spaces.Space;
+import de.graetz23.jwave.datatypes.spaces.SpaceFlat;
 import de.graetz23.jwave.datatypes.spaces.SpaceFull;
 import de.graetz23.jwave.datatypes.spaces.SpaceHash;
+import de.graetz23.jwave.datatypes.spaces.SpaceOffHeap;
 import de.graetz23.jwave.exceptions.JWaveException;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -167,4 +175,163 @@ public class SpaceTest {
 
   } // testSet
 
+  /**
+   * Test method for
+   * {@link jwave.datatypes.spaces.Space#forEachNonZero(Space.Visitor)} and the
+   * copy constructors taking the non zero values only.
+   */
+  @Test public void testForEachNonZero( ) {
+
+    try {
+
+      Space space = new SpaceHash( 16, 8, 4 );
+      space.alloc( );
+      for( int i = 0; i < space.getNoOfRows( ); i += 3 )
+        for( int j = 0; j < space.getNoOfCols( ); j += 2 )
+          space.set( i, j, 1, (double)( i + j + 1 ) );
+
+      int[ ] noOfVisits = new int[ 1 ];
+      space.forEachNonZero( ( i, j, k, value ) -> {
+        assertEquals( 1, k );
+        assertEquals( (double)( i + j + 1 ), value, 0. );
+        noOfVisits[ 0 ]++;
+      } );
+      assertEquals( 6 * 4, noOfVisits[ 0 ] );
+
+      assertEquals( -1., space.get( 0, 0, 0, -1. ), 0. ); // level not stored
+      assertEquals( -1., space.get( 1, 0, 1, -1. ), 0. );
+      assertEquals( 1., space.get( 0, 0, 1, -1. ), 0. );
+
+      Space[ ] copies = new Space[ ] { new SpaceHash( space ),
+          new SpaceFull( space ), new SpaceHash( new SpaceFull( space ) ) };
+
+      for( Space copy : copies ) {
+        assertEquals( space.getNoOfLvls( ), copy.getNoOfLvls( ) );
+        for( int i = 0; i < space.getNoOfRows( ); i++ )
+          for( int j = 0; j < space.getNoOfCols( ); j++ )
+            for( int k = 0; k < space.getNoOfLvls( ); k++ )
+              assertEquals( space.get( i, j, k, 0. ), copy.get( i, j, k, 0. ),
+                  0. );
+      } // copies
+
+      copies[ 0 ].set( 0, 0, 1, 42. ); // deep copy
+      assertEquals( 1., space.get( 0, 0, 1 ), 0. );
+
+    } catch( JWaveException e ) {
+      e.printStackTrace( );
+      fail( "caught exception" );
+    } // try
+
+  } // testForEachNonZero
+
+  /**
+   * Test method for {@link jwave.datatypes.spaces.SpaceFlat} bulk rows, slabs,
+   * and views.
+   */
+  @Test public void testFlat( ) {
+
+    try {
+
+      Space full = new SpaceFull( 6, 5, 4 );
+      full.alloc( );
+      for( int i = 0; i < full.getNoOfRows( ); i++ )
+        for( int j = 0; j < full.getNoOfCols( ); j++ )
+          for( int k = 0; k < full.getNoOfLvls( ); k++ )
+            full.set( i, j, k, (double)( 100 * i + 10 * j + k ) );
+
+      SpaceFlat space = new SpaceFlat( full );
+      for( int i = 0; i < space.getNoOfRows( ); i++ )
+        for( int j = 0; j < space.getNoOfCols( ); j++ ) {
+          double[ ] row = space.getRow( i, j );
+          double[ ] exp = full.getRow( i, j );
+          for( int k = 0; k < row.length; k++ )
+            assertEquals( exp[ k ], row[ k ], 0. );
+        } // j
+
+      Block slab = space.getSlab( 2 ); // copy
+      assertEquals( 5, slab.getNoOfRows( ) );
+      assertEquals( 4, slab.getNoOfCols( ) );
+      assertEquals( 213., slab.get( 1, 3 ), 0. );
+      slab.set( 1, 3, 0. );
+      assertEquals( 213., space.get( 2, 1, 3 ), 0. );
+
+      BlockFlat view = space.slab( 2 ); // view
+      view.set( 1, 3, -1. );
+      assertEquals( -1., space.get( 2, 1, 3 ), 0. );
+
+      BlockFlat level = space.level( 3 ); // view along (i,j)
+      assertEquals( 543., level.get( 5, 4 ), 0. );
+      assertEquals( -1., level.get( 2, 1 ), 0. );
+
+      SpaceFlat cube = space.slice( 1, 1, 1, 2, 2, 2 );
+      assertEquals( 111., cube.get( 0, 0, 0 ), 0. );
+      assertEquals( 222., cube.get( 1, 1, 1 ), 0. );
+      cube.setRow( 1, 1, new double[ ] { 7., 8. } );
+      assertEquals( 8., space.get( 2, 2, 2 ), 0. );
+
+      full.setSlab( 0, space.slab( 5 ) );
+      assertEquals( 543., full.get( 0, 4, 3 ), 0. );
+
+    } catch( JWaveException e ) {
+      e.printStackTrace( );
+      fail( "caught exception" );
+    } // try
+
+  } // testFlat
+
+  /**
+   * Test method for {@link jwave.datatypes.spaces.SpaceOffHeap} in direct
+   * memory and mapped from a file.
+   */
+  @Test public void testOffHeap( ) throws IOException {
+
+    Path path = Files.createTempFile( "jwave", ".space" );
+
+    try {
+
+      Space space = new SpaceOffHeap( path, 6, 5, 4 );
+      space.alloc( );
+      for( int i = 0; i < space.getNoOfRows( ); i++ )
+        for( int j = 0; j < space.getNoOfCols( ); j++ )
+          for( int k = 0; k < space.getNoOfLvls( ); k++ )
+            space.set( i, j, k, (double)( 100 * i + 10 * j + k ) );
+
+      assertEquals( 6 * 5 * 4 * Double.BYTES, Files.size( path ) );
+
+      double[ ] row = space.getRow( 3, 2 );
+      for( int k = 0; k < row.length; k++ )
+        assertEquals( 320. + k, row[ k ], 0. );
+
+      Block slab = space.getSlab( 4 );
+      assertEquals( 432., slab.get( 3, 2 ), 0. );
+
+      space.setRow( 5, 4, new double[ ] { -1., -2., -3., -4. } );
+      space.erase( ); // writes to file
+
+      Space again = new SpaceOffHeap( path, 6, 5, 4 );
+      again.alloc( );
+      assertEquals( -4., again.get( 5, 4, 3 ), 0. );
+      assertEquals( 123., again.get( 1, 2, 3 ), 0. );
+
+      Space copy = new SpaceOffHeap( again ); // into direct memory
+      assertEquals( false, ( (SpaceOffHeap)copy ).isMapped( ) );
+      copy.set( 1, 2, 3, 0. );
+      assertEquals( 123., again.get( 1, 2, 3 ), 0. );
+
+      int[ ] noOfVisits = new int[ 1 ];
+      copy.forEachNonZero( ( i, j, k, value ) -> noOfVisits[ 0 ]++ );
+      assertEquals( 6 * 5 * 4 - 2, noOfVisits[ 0 ] ); // (0,0,0) and (1,2,3)
+
+      again.erase( );
+      copy.erase( );
+
+    } catch( JWaveException e ) {
+      e.printStackTrace( );
+      fail( "caught exception" );
+    } finally {
+      Files.deleteIfExists( path );
+    } // try
+
+  } // testOffHeap
+
 } // class